@@ -0,0 +1,128 @@
+package com.paysecure.ai_report_tool_backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Formats and writes access-log entries on a single background thread.
+ * Request threads only {@code offer} to a bounded queue; when the writer
+ * falls behind, entries are dropped and counted instead of slowing requests.
+ */
+@Component
+public class AccessLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger("access");
+    private static final Logger self = LoggerFactory.getLogger(AccessLogWriter.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final long DROP_REPORT_INTERVAL_MS = 60_000;
+
+    private final BlockingQueue<Entry> queue;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported = 0;
+    private long lastDropReport = 0;
+
+    public AccessLogWriter(@Value("${access-log.queue-capacity:10000}") int queueCapacity) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.worker = new Thread(this::drain, "access-log-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public record Entry(
+            String requestId,
+            long timestampMs,
+            String method,
+            String path,
+            int status,
+            long durationMs,
+            String requestBody,
+            String responseBody,
+            boolean bodiesTruncated,
+            boolean streaming
+    ) {}
+
+    public record Stats(long written, long dropped, int queued) {}
+
+    /**
+     * Never blocks; returns false when the entry was dropped.
+     */
+    public boolean submit(Entry entry) {
+        if (queue.offer(entry)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public Stats stats() {
+        return new Stats(written.get(), dropped.get(), queue.size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry entry = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    write(entry);
+                }
+                reportDrops();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // A bad entry must never kill the writer thread
+                self.warn("Failed to write access log entry: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void write(Entry entry) throws Exception {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("requestId", entry.requestId());
+        line.put("ts", entry.timestampMs());
+        line.put("method", entry.method());
+        line.put("path", entry.path());
+        line.put("status", entry.status());
+        line.put("durationMs", entry.durationMs());
+        if (entry.streaming()) line.put("streaming", true);
+        if (entry.requestBody() != null) line.put("requestBody", entry.requestBody());
+        if (entry.responseBody() != null) line.put("responseBody", entry.responseBody());
+        if (entry.bodiesTruncated()) line.put("truncated", true);
+
+        log.info(objectMapper.writeValueAsString(line));
+        written.incrementAndGet();
+    }
+
+    private void reportDrops() {
+        long now = System.currentTimeMillis();
+        long total = dropped.get();
+
+        if (total > droppedReported && now - lastDropReport >= DROP_REPORT_INTERVAL_MS) {
+            self.warn("Access log queue full: dropped {} entries since last report ({} total)",
+                    total - droppedReported, total);
+            droppedReported = total;
+            lastDropReport = now;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.paysecure.ai_report_tool_backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * Bounded pool that drains report generation jobs. Workers only hold a
+     * DB connection for the short begin/complete transactions, so the pool
+     * can be sized independently of Hikari.
+     */
+    @Bean(name = "reportGenerationExecutor")
+    public ThreadPoolTaskExecutor reportGenerationExecutor(
+            @Value("${report.generation.workers:3}") int workers,
+            @Value("${report.generation.queue-capacity:50}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-gen-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounded pool that parses uploads in the background. Files of one
+     * multi-file upload are queued together and parsed side by side.
+     */
+    @Bean(name = "fileParseExecutor")
+    public ThreadPoolTaskExecutor fileParseExecutor(
+            @Value("${file.parse.workers:2}") int workers,
+            @Value("${file.parse.queue-capacity:100}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("file-parse-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor for blocking outbound calls (OpenAI, Paysecure) that fan out from
+     * a single request. With {@code spring.threads.virtual.enabled=true} on
+     * Java 21+ each call gets a virtual thread; otherwise a bounded platform pool.
+     * Either way at most {@code outbound.max-concurrency} calls run at once.
+     */
+    @Bean(name = "outboundCallExecutor")
+    public AsyncTaskExecutor outboundCallExecutor(
+            Environment environment,
+            @Value("${outbound.max-concurrency:64}") int maxConcurrency
+    ) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("outbound-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrency);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(maxConcurrency * 4);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("outbound-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * CPU-bound page-range text extraction for uploaded PDFs. Sized to the
+     * cores by default; {@code 1} turns parallel extraction off.
+     */
+    @Bean(name = "pdfExtractionPool", destroyMethod = "shutdown")
+    public ForkJoinPool pdfExtractionPool(@Value("${file.parse.pdf.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("pdf-extract-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+}
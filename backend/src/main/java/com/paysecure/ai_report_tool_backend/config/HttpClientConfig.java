@@ -0,0 +1,32 @@
+package com.paysecure.ai_report_tool_backend.config;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class HttpClientConfig {
+
+    /**
+     * Shared client for all outbound calls. Services derive their own timeouts
+     * with {@code newBuilder()}, which keeps one connection pool and dispatcher.
+     */
+    @Bean
+    public OkHttpClient okHttpClient(
+            @Value("${outbound.max-concurrency:64}") int maxConcurrency
+    ) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxConcurrency);
+        dispatcher.setMaxRequestsPerHost(maxConcurrency);
+
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxConcurrency, 5, TimeUnit.MINUTES))
+                .build();
+    }
+}
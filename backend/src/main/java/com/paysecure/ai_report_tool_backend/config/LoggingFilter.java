@@ -1,28 +1,57 @@
 package com.paysecure.ai_report_tool_backend.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Structured access log. Metadata is recorded for every request; bodies only
+ * for a sampled fraction, only for textual content types and only up to
+ * {@code access-log.max-body-bytes}. Responses are written straight through
+ * (never buffered), so PDF exports and SSE streams are unaffected. All
+ * formatting happens on {@link AccessLogWriter}'s thread.
+ */
 @Component
 public class LoggingFilter extends OncePerRequestFilter {
 
-    private static final Logger log = LoggerFactory.getLogger(LoggingFilter.class);
-    private static final ObjectMapper objectMapper =
-            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final AccessLogWriter writer;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final int maxBodyBytes;
+
+    public LoggingFilter(
+            AccessLogWriter writer,
+            @Value("${access-log.enabled:true}") boolean enabled,
+            @Value("${access-log.sample-rate:1.0}") double sampleRate,
+            @Value("${access-log.max-body-bytes:4096}") int maxBodyBytes
+    ) {
+        this.writer = writer;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
 
     @Override
     protected void doFilterInternal(
@@ -34,73 +63,239 @@ public class LoggingFilter extends OncePerRequestFilter {
         long startTime = System.currentTimeMillis();
         String requestId = UUID.randomUUID().toString().substring(0, 8);
 
-        ContentCachingRequestWrapper requestWrapper =
-                new ContentCachingRequestWrapper(request);
+        boolean captureBodies = maxBodyBytes > 0
+                && !request.getRequestURI().contains("/auth") // Never capture credentials or tokens
+                && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate);
 
-        ContentCachingResponseWrapper responseWrapper =
-                new ContentCachingResponseWrapper(response);
+        HttpServletRequest requestToUse = request;
+        CappedResponseWrapper responseWrapper = null;
+
+        if (captureBodies) {
+            if (isTextual(request.getContentType())) {
+                requestToUse = new ContentCachingRequestWrapper(request, maxBodyBytes);
+            }
+            responseWrapper = new CappedResponseWrapper(response, maxBodyBytes);
+        }
 
         try {
-            filterChain.doFilter(requestWrapper, responseWrapper);
+            filterChain.doFilter(requestToUse, responseWrapper != null ? responseWrapper : response);
         } finally {
+            boolean streaming = request.isAsyncStarted();
+            String requestBody = null;
+            String responseBody = null;
+            boolean truncated = false;
+
+            if (requestToUse instanceof ContentCachingRequestWrapper cached) {
+                byte[] content = cached.getContentAsByteArray();
+                requestBody = content.length > 0 ? new String(content, StandardCharsets.UTF_8) : null;
+                truncated = content.length >= maxBodyBytes;
+            }
 
-            long duration = System.currentTimeMillis() - startTime;
-
-            String requestBody = getFormattedBody(
-                    requestWrapper.getContentAsByteArray()
-            );
-
-            String responseBody = getFormattedBody(
-                    responseWrapper.getContentAsByteArray()
-            );
-
-            // Mask auth endpoints
-            if (request.getRequestURI().contains("/auth")) {
-                requestBody = "PROTECTED";
-                responseBody = "PROTECTED";
-            }
-
-            log.info("""
-                    
-                    ==================== API REQUEST ====================
-                    Request ID  : {}
-                    Method      : {}
-                    Endpoint    : {}
-                    Status      : {}
-                    Duration    : {} ms
-                    -----------------------------------------------------
-                    Request Body:
-                    {}
-                    -----------------------------------------------------
-                    Response Body:
-                    {}
-                    =====================================================
-                    """,
+            if (responseWrapper != null) {
+                responseWrapper.stopCapture();
+                if (!streaming) {
+                    responseBody = responseWrapper.captured();
+                    truncated |= responseWrapper.truncated();
+                }
+            }
+
+            writer.submit(new AccessLogWriter.Entry(
                     requestId,
+                    startTime,
                     request.getMethod(),
                     request.getRequestURI(),
-                    responseWrapper.getStatus(),
-                    duration,
+                    response.getStatus(),
+                    System.currentTimeMillis() - startTime,
                     requestBody,
-                    responseBody
-            );
+                    responseBody,
+                    truncated,
+                    streaming
+            ));
+        }
+    }
 
-            responseWrapper.copyBodyToResponse();
+    /**
+     * Allow-list: anything not recognisably text (PDF, spreadsheets, images,
+     * multipart uploads, event streams) is never captured.
+     */
+    static boolean isTextual(String contentType) {
+        if (contentType == null) {
+            return true;
         }
+
+        String type = contentType.toLowerCase();
+
+        if (type.startsWith("text/event-stream")) {
+            return false;
+        }
+
+        return type.startsWith("text/")
+                || type.startsWith("application/json")
+                || type.contains("+json")
+                || type.startsWith("application/xml")
+                || type.startsWith("application/x-www-form-urlencoded");
     }
 
-    private String getFormattedBody(byte[] content) {
-        if (content == null || content.length == 0) {
-            return "EMPTY";
+    /* -------------------------
+       RESPONSE CAPTURE
+    ------------------------- */
+
+    /**
+     * Writes through to the real response and keeps a copy of at most
+     * {@code limit} bytes. Capture switches itself off for binary content.
+     */
+    static class CappedResponseWrapper extends HttpServletResponseWrapper {
+
+        private final int limit;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final StringBuilder chars = new StringBuilder();
+        private volatile boolean capturing = true;
+        private boolean contentTypeChecked = false;
+        private boolean truncated = false;
+
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CappedResponseWrapper(HttpServletResponse response, int limit) {
+            super(response);
+            this.limit = limit;
         }
 
-        String body = new String(content, StandardCharsets.UTF_8);
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new TeeOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
 
-        try {
-            Object json = objectMapper.readValue(body, Object.class);
-            return objectMapper.writeValueAsString(json);
-        } catch (Exception e) {
-            return body;
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new TeeWriter(super.getWriter()));
+            }
+            return writer;
+        }
+
+        void stopCapture() {
+            capturing = false;
+        }
+
+        boolean truncated() {
+            return truncated;
+        }
+
+        String captured() {
+            if (bytes.size() > 0) {
+                Charset charset;
+                try {
+                    charset = Charset.forName(getCharacterEncoding());
+                } catch (Exception e) {
+                    charset = StandardCharsets.UTF_8;
+                }
+                return new String(bytes.toByteArray(), charset);
+            }
+            return chars.length() > 0 ? chars.toString() : null;
+        }
+
+        private boolean shouldCapture() {
+            if (!capturing) return false;
+
+            if (!contentTypeChecked) {
+                contentTypeChecked = true;
+                if (!isTextual(getContentType())) {
+                    capturing = false;
+                }
+            }
+            return capturing;
+        }
+
+        private void capture(byte[] b, int off, int len) {
+            if (!shouldCapture()) return;
+
+            int room = limit - bytes.size();
+            if (len > room) {
+                truncated = true;
+                capturing = false;
+            }
+            bytes.write(b, off, Math.min(len, room));
+        }
+
+        private void capture(char[] c, int off, int len) {
+            if (!shouldCapture()) return;
+
+            int room = limit - chars.length();
+            if (len > room) {
+                truncated = true;
+                capturing = false;
+            }
+            chars.append(c, off, Math.min(len, room));
+        }
+
+        private class TeeOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+
+            TeeOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                delegate.write(b);
+                capture(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                delegate.write(b, off, len);
+                capture(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                delegate.setWriteListener(listener);
+            }
+        }
+
+        private class TeeWriter extends Writer {
+
+            private final Writer delegate;
+
+            TeeWriter(Writer delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(char[] c, int off, int len) throws IOException {
+                delegate.write(c, off, len);
+                capture(c, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.paysecure.ai_report_tool_backend.config;
 
 import com.paysecure.ai_report_tool_backend.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -41,6 +42,8 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Async re-dispatch of SSE/streaming responses, already authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/files/download").permitAll()
                         .requestMatchers(
                                 "/v3/api-docs/**",
@@ -10,6 +10,7 @@ import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
 import com.paysecure.ai_report_tool_backend.security.SecurityUtils;
 import com.paysecure.ai_report_tool_backend.service.FileParserService;
 import com.paysecure.ai_report_tool_backend.service.SignedUrlService;
+import com.paysecure.ai_report_tool_backend.service.UploadParseWorker;
 import com.paysecure.ai_report_tool_backend.service.UserService;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
@@ -24,6 +25,7 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -33,6 +35,7 @@ import java.util.UUID;
 public class FileUploadController {
 
     private final FileParserService fileParserService;
+    private final UploadParseWorker uploadParseWorker;
     private final UserService userService;
     private final ReportRepository reportRepository;
     private final UploadedFileRepository uploadedFileRepository;
@@ -40,12 +43,14 @@ public class FileUploadController {
 
     public FileUploadController(
             FileParserService fileParserService,
+            UploadParseWorker uploadParseWorker,
             UserService userService,
             ReportRepository reportRepository,
             UploadedFileRepository uploadedFileRepository,
             SignedUrlService signedUrlService
     ) {
         this.fileParserService = fileParserService;
+        this.uploadParseWorker = uploadParseWorker;
         this.userService = userService;
         this.reportRepository = reportRepository;
         this.uploadedFileRepository = uploadedFileRepository;
@@ -65,7 +70,10 @@ public class FileUploadController {
             report = reportRepository.findById(reportId).orElse(null);
         }
 
-        return fileParserService.uploadAndParse(file, user, report);
+        UploadedFile stored = fileParserService.store(file, user, report);
+        uploadParseWorker.dispatch(stored.getId());
+
+        return fileParserService.toResponse(stored);
     }
 
     @PostMapping(value = "/upload-multiple", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -81,12 +89,25 @@ public class FileUploadController {
             report = reportRepository.findById(reportId).orElse(null);
         }
 
+        // Store everything first, then queue the lot so the files parse side by side
         final Report finalReport = report;
-        return java.util.Arrays.stream(files)
-                .map(file -> fileParserService.uploadAndParse(file, user, finalReport))
+        List<UploadedFile> stored = Arrays.stream(files)
+                .map(file -> fileParserService.store(file, user, finalReport))
+                .toList();
+        stored.forEach(file -> uploadParseWorker.dispatch(file.getId()));
+
+        return stored.stream()
+                .map(fileParserService::toResponse)
                 .toList();
     }
 
+    /** Parse status of an upload; poll until it leaves PARSING. */
+    @GetMapping("/{fileId}")
+    public FileUploadResponse getFile(@PathVariable UUID fileId) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        return fileParserService.toResponse(fileParserService.getFileForDownload(fileId, userId));
+    }
+
     @GetMapping("/download")
     public ResponseEntity<Resource> downloadWithToken(
             @RequestParam String token
@@ -1,16 +1,20 @@
 package com.paysecure.ai_report_tool_backend.controller;
 
 import com.paysecure.ai_report_tool_backend.dto.CreateReportRequest;
+import com.paysecure.ai_report_tool_backend.dto.GenerationJobResponse;
 import com.paysecure.ai_report_tool_backend.dto.ReportResponse;
-import com.paysecure.ai_report_tool_backend.dto.ReportSummaryResponse;
+import com.paysecure.ai_report_tool_backend.dto.ReportPageResponse;
 import com.paysecure.ai_report_tool_backend.model.User;
 import com.paysecure.ai_report_tool_backend.security.SecurityUtils;
+import com.paysecure.ai_report_tool_backend.service.ReportGenerationJobService;
 import com.paysecure.ai_report_tool_backend.service.ReportService;
 import com.paysecure.ai_report_tool_backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -23,6 +27,9 @@ public class ReportController {
     @Autowired
     UserService userService;
 
+    @Autowired
+    ReportGenerationJobService generationJobService;
+
     @PostMapping
     public ReportResponse create(@RequestBody CreateReportRequest req) {
         UUID userId = SecurityUtils.getCurrentUserId();
@@ -31,18 +38,42 @@ public class ReportController {
     }
 
     @PostMapping("/{id}/generate")
-    public ReportResponse generate(@PathVariable UUID id) {
+    public ResponseEntity<GenerationJobResponse> generate(@PathVariable UUID id) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        User user = userService.getById(userId);
+        return ResponseEntity.accepted().body(generationJobService.enqueue(id, user));
+    }
+
+    @GetMapping("/{id}/generation")
+    public GenerationJobResponse generationStatus(@PathVariable UUID id) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        User user = userService.getById(userId);
+        return generationJobService.getLatestJob(id, user);
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter generationEvents(@PathVariable UUID id) {
         UUID userId = SecurityUtils.getCurrentUserId();
         User user = userService.getById(userId);
-        return reportService.generate(id, user);
+        return generationJobService.subscribe(id, user);
     }
 
     @GetMapping
-    public List<ReportSummaryResponse> myReports() {
+    public ReportPageResponse myReports(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
         UUID userId = SecurityUtils.getCurrentUserId();
         User user = userService.getById(userId);
 
-        return reportService.getUserReportSummaries(user);
+        return reportService.getUserReportSummaries(user, cursor, limit);
+    }
+
+    @GetMapping(value = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamReport(@PathVariable UUID id) {
+        UUID userId = SecurityUtils.getCurrentUserId();
+        User user = userService.getById(userId);
+        return generationJobService.stream(id, user);
     }
 
     @GetMapping("/{id}")
@@ -2,17 +2,26 @@ package com.paysecure.ai_report_tool_backend.controller;
 
 import com.paysecure.ai_report_tool_backend.exception.ApiException;
 import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.ReportChart;
 import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.repository.ReportChartRepository;
 import com.paysecure.ai_report_tool_backend.repository.ReportRepository;
 import com.paysecure.ai_report_tool_backend.security.SecurityUtils;
-import com.paysecure.ai_report_tool_backend.service.PdfGenerationService;
+import com.paysecure.ai_report_tool_backend.service.RenderedPdfCache;
 import com.paysecure.ai_report_tool_backend.service.UserService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -21,20 +30,28 @@ public class ReportExportController {
 
     private final ReportRepository reportRepository;
     private final UserService userService;
-    private final PdfGenerationService pdfGenerationService;
+    private final ReportChartRepository chartRepository;
+    private final RenderedPdfCache renderedPdfCache;
 
     public ReportExportController(
             ReportRepository reportRepository,
             UserService userService,
-            PdfGenerationService pdfGenerationService
+            ReportChartRepository chartRepository,
+            RenderedPdfCache renderedPdfCache
     ) {
         this.reportRepository = reportRepository;
         this.userService = userService;
-        this.pdfGenerationService = pdfGenerationService;
+        this.chartRepository = chartRepository;
+        this.renderedPdfCache = renderedPdfCache;
     }
 
+    /**
+     * Served from {@link RenderedPdfCache}; clients revalidating with
+     * If-None-Match get a 304 without the PDF being rendered or read.
+     * Misses render straight into the response, never into a byte[].
+     */
     @GetMapping("/{id}/export/pdf")
-    public ResponseEntity<byte[]> exportToPdf(@PathVariable UUID id) {
+    public ResponseEntity<StreamingResponseBody> exportToPdf(@PathVariable UUID id, WebRequest webRequest) throws IOException {
         UUID userId = SecurityUtils.getCurrentUserId();
         User user = userService.getById(userId);
 
@@ -46,16 +63,39 @@ public class ReportExportController {
             throw new ApiException("Access denied", HttpStatus.FORBIDDEN);
         }
 
-        byte[] pdfBytes = pdfGenerationService.generatePdf(report);
+        List<ReportChart> charts = chartRepository.findByReportOrderBySortOrderAsc(report);
+        String etag = renderedPdfCache.etagFor(report, charts);
+
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 with ETag already set
+        }
+
+        Optional<RenderedPdfCache.PdfArtifact> cached = renderedPdfCache.findCached(report, charts);
 
         String filename = report.getTitle().replaceAll("[^a-zA-Z0-9-_]", "_") + ".pdf";
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
         headers.setContentDispositionFormData("attachment", filename);
-        headers.setContentLength(pdfBytes.length);
+        headers.setETag(etag);
+        headers.setCacheControl(CacheControl.noCache().cachePrivate()); // Always revalidate; it's the owner's data
+
+        StreamingResponseBody body;
+
+        if (cached.isPresent()) {
+            RenderedPdfCache.PdfArtifact pdf = cached.get();
+            headers.setContentLength(pdf.length());
+            body = out -> {
+                try (InputStream in = pdf.open()) {
+                    in.transferTo(out);
+                }
+            };
+        } else {
+            // Length unknown until the last page is written: sent chunked
+            body = out -> renderedPdfCache.renderTo(report, charts, out);
+        }
 
-        return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
     }
 
     @GetMapping("/{id}/export/markdown")
@@ -2,16 +2,16 @@ package com.paysecure.ai_report_tool_backend.controller;
 
 import com.paysecure.ai_report_tool_backend.dto.InputFieldResponse;
 import com.paysecure.ai_report_tool_backend.dto.ToolResponse;
-import com.paysecure.ai_report_tool_backend.dto.ToolSummaryResponse;
 import com.paysecure.ai_report_tool_backend.model.InputField;
 import com.paysecure.ai_report_tool_backend.model.ReportTemplate;
 import com.paysecure.ai_report_tool_backend.repository.ReportTemplateRepository;
+import com.paysecure.ai_report_tool_backend.service.catalog.TemplateCatalog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -21,34 +21,33 @@ import java.util.stream.Collectors;
 public class ToolController {
 
     private final ReportTemplateRepository templateRepository;
+    private final TemplateCatalog catalog;
 
     /* =====================================================
-       READ ENDPOINTS
+       READ ENDPOINTS (pre-rendered by TemplateCatalog)
     ===================================================== */
 
     @GetMapping
-    public List<ToolSummaryResponse> getAllTools() {
-        return templateRepository.findAll()
-                .stream()
-                .map(this::mapToSummaryResponse)
-                .collect(Collectors.toList());
+    public ResponseEntity<byte[]> getAllTools(WebRequest webRequest) {
+        return respond(catalog.tools(), webRequest);
     }
 
     @GetMapping("/{toolId}")
-    public ToolResponse getTool(@PathVariable String toolId) {
-        return templateRepository.findByToolId(toolId)
-                .map(this::mapToToolResponse)
-                .orElseThrow(() -> new RuntimeException("Tool not found"));
+    public ResponseEntity<byte[]> getTool(@PathVariable String toolId, WebRequest webRequest) {
+        return respond(catalog.tool(toolId)
+                .orElseThrow(() -> new RuntimeException("Tool not found")), webRequest);
     }
 
     @GetMapping("/{toolId}/fields")
-    public List<InputFieldResponse> getToolFields(@PathVariable String toolId) {
-        return templateRepository.findByToolId(toolId)
-                .map(template -> template.getInputFields()
-                        .stream()
-                        .map(this::mapToFieldResponse)
-                        .collect(Collectors.toList()))
-                .orElse(List.of());
+    public ResponseEntity<byte[]> getToolFields(@PathVariable String toolId, WebRequest webRequest) {
+        return respond(catalog.toolFields(toolId), webRequest);
+    }
+
+    private static ResponseEntity<byte[]> respond(TemplateCatalog.Rendered body, WebRequest webRequest) {
+        if (webRequest.checkNotModified(body.etag())) {
+            return null; // 304 with ETag already set
+        }
+        return body.toResponse();
     }
 
     /* =====================================================
@@ -66,6 +65,7 @@ public class ToolController {
                 .forEach(field -> field.setTemplate(template));
 
         ReportTemplate saved = templateRepository.save(template);
+        catalog.changed();
 
         return mapToToolResponse(saved);
     }
@@ -97,6 +97,7 @@ public class ToolController {
         });
 
         ReportTemplate saved = templateRepository.save(existing);
+        catalog.changed();
 
         return mapToToolResponse(saved);
     }
@@ -112,22 +113,13 @@ public class ToolController {
                 .orElseThrow(() -> new RuntimeException("Tool not found"));
 
         templateRepository.delete(template);
+        catalog.changed();
     }
 
     /* =====================================================
        MAPPERS
     ===================================================== */
 
-    private ToolSummaryResponse mapToSummaryResponse(ReportTemplate t) {
-        return new ToolSummaryResponse(
-                t.getToolId(),
-                t.getTitle(),
-                t.getDescription(),
-                t.getCategory(),
-                t.getIndustry()
-        );
-    }
-
     private ToolResponse mapToToolResponse(ReportTemplate t) {
         return new ToolResponse(
                 t.getToolId(),
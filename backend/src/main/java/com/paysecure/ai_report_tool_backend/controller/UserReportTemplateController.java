@@ -1,9 +1,11 @@
 package com.paysecure.ai_report_tool_backend.controller;
 
-import com.paysecure.ai_report_tool_backend.dto.user.UserReportTemplateResponse;
 import com.paysecure.ai_report_tool_backend.service.UserReportTemplateService;
+import com.paysecure.ai_report_tool_backend.service.catalog.TemplateCatalog;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/report-templates")
@@ -19,9 +21,15 @@ public class UserReportTemplateController {
     }
 
     @GetMapping("/{toolId}")
-    public UserReportTemplateResponse getTemplate(
-            @PathVariable String toolId
+    public ResponseEntity<byte[]> getTemplate(
+            @PathVariable String toolId,
+            WebRequest webRequest
     ) {
-        return service.getByToolId(toolId);
+        TemplateCatalog.Rendered template = service.getByToolId(toolId);
+
+        if (webRequest.checkNotModified(template.etag())) {
+            return null; // 304 with ETag already set
+        }
+        return template.toResponse();
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.paysecure.ai_report_tool_backend.controller.admin;
+
+import com.paysecure.ai_report_tool_backend.security.JwtService;
+import com.paysecure.ai_report_tool_backend.service.LlmResponseCache;
+import com.paysecure.ai_report_tool_backend.service.RenderedPdfCache;
+import com.paysecure.ai_report_tool_backend.service.UserCache;
+import com.paysecure.ai_report_tool_backend.service.catalog.TemplateCatalog;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationBus;
+import com.paysecure.ai_report_tool_backend.service.chart.ChartRenderer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class AdminCacheController {
+
+    private final LlmResponseCache llmResponseCache;
+    private final JwtService jwtService;
+    private final UserCache userCache;
+    private final RenderedPdfCache renderedPdfCache;
+    private final ChartRenderer chartRenderer;
+    private final TemplateCatalog templateCatalog;
+    private final InvalidationBus invalidationBus;
+
+    @GetMapping("/llm")
+    public LlmResponseCache.Stats llmCacheStats() {
+        return llmResponseCache.stats();
+    }
+
+    @GetMapping("/jwt")
+    public JwtService.Stats jwtCacheStats() {
+        return jwtService.stats();
+    }
+
+    @GetMapping("/users")
+    public UserCache.Stats userCacheStats() {
+        return userCache.stats();
+    }
+
+    @GetMapping("/pdf")
+    public RenderedPdfCache.Stats pdfCacheStats() {
+        return renderedPdfCache.stats();
+    }
+
+    @GetMapping("/charts")
+    public ChartRenderer.Stats chartCacheStats() {
+        return chartRenderer.stats();
+    }
+
+    @GetMapping("/templates")
+    public TemplateCatalog.Stats templateCatalogStats() {
+        return templateCatalog.stats();
+    }
+
+    @GetMapping("/invalidation")
+    public InvalidationBus.Stats invalidationBusStats() {
+        return invalidationBus.stats();
+    }
+}
@@ -7,11 +7,14 @@ import com.paysecure.ai_report_tool_backend.model.ReportTemplate;
 import com.paysecure.ai_report_tool_backend.repository.InputFieldRepository;
 import com.paysecure.ai_report_tool_backend.repository.ReportRepository;
 import com.paysecure.ai_report_tool_backend.repository.ReportTemplateRepository;
+import com.paysecure.ai_report_tool_backend.service.catalog.TemplateCatalog;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -25,17 +28,15 @@ public class AdminReportTemplateController {
     private final ReportTemplateRepository templateRepository;
     private final InputFieldRepository inputFieldRepository;
     private final ReportRepository reportRepository;
+    private final TemplateCatalog catalog;
 
     /* =====================================================
        GET ALL
     ===================================================== */
 
     @GetMapping
-    public List<ReportTemplateResponse> getAll() {
-        return templateRepository.findAll()
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public ResponseEntity<byte[]> getAll(WebRequest webRequest) {
+        return respond(catalog.adminTemplates(), webRequest);
     }
 
     /* =====================================================
@@ -43,12 +44,12 @@ public class AdminReportTemplateController {
     ===================================================== */
 
     @GetMapping("/{toolId}")
-    public ReportTemplateResponse getByToolId(@PathVariable String toolId) {
-        ReportTemplate template = templateRepository.findByToolId(toolId)
+    public ResponseEntity<byte[]> getByToolId(@PathVariable String toolId, WebRequest webRequest) {
+        TemplateCatalog.Rendered template = catalog.adminTemplate(toolId)
                 .orElseThrow(() ->
                         new ApiException("Template not found", HttpStatus.NOT_FOUND));
 
-        return mapToResponse(template);
+        return respond(template, webRequest);
     }
 
     /* =====================================================
@@ -87,6 +88,9 @@ public class AdminReportTemplateController {
                 .active(
                         request.active() != null ? request.active() : true
                 )
+                .responseCacheEnabled(
+                        request.responseCacheEnabled() != null ? request.responseCacheEnabled() : true
+                )
                 .build();
 
         if (request.inputFields() != null) {
@@ -107,6 +111,7 @@ public class AdminReportTemplateController {
         }
 
         ReportTemplate saved = templateRepository.save(template);
+        catalog.changed();
 
         return mapToResponse(saved);
     }
@@ -138,8 +143,12 @@ public class AdminReportTemplateController {
         template.setTemperature(request.temperature());
         template.setMaxTokens(request.maxTokens());
         template.setActive(request.active());
+        template.setResponseCacheEnabled(request.responseCacheEnabled());
 
-        return mapToResponse(templateRepository.save(template));
+        ReportTemplate saved = templateRepository.save(template);
+        catalog.changed();
+
+        return mapToResponse(saved);
     }
 
     /* =====================================================
@@ -160,6 +169,7 @@ public class AdminReportTemplateController {
             );
         }
         templateRepository.delete(template);
+        catalog.changed();
     }
 
     @PostMapping("/{toolId}/input-fields")
@@ -182,7 +192,10 @@ public class AdminReportTemplateController {
         field.setSortOrder(request.sortOrder());
         field.setTemplate(template);
 
-        return mapToFieldResponse(inputFieldRepository.save(field));
+        InputField saved = inputFieldRepository.save(field);
+        catalog.changed();
+
+        return mapToFieldResponse(saved);
     }
 
     /* =====================================================
@@ -217,7 +230,10 @@ public class AdminReportTemplateController {
         field.setOptions(request.options());
         field.setSortOrder(request.sortOrder());
 
-        return mapToFieldResponse(inputFieldRepository.save(field));
+        InputField saved = inputFieldRepository.save(field);
+        catalog.changed();
+
+        return mapToFieldResponse(saved);
     }
 
     /* =====================================================
@@ -241,12 +257,20 @@ public class AdminReportTemplateController {
         template.removeInputField(field);
 
         templateRepository.save(template);
+        catalog.changed();
     }
 
     /* =====================================================
        MAPPER
     ===================================================== */
 
+    private static ResponseEntity<byte[]> respond(TemplateCatalog.Rendered body, WebRequest webRequest) {
+        if (webRequest.checkNotModified(body.etag())) {
+            return null; // 304 with ETag already set
+        }
+        return body.toResponse();
+    }
+
     private ReportTemplateResponse mapToResponse(ReportTemplate template) {
         return new ReportTemplateResponse(
                 template.getId(),
@@ -261,6 +285,7 @@ public class AdminReportTemplateController {
                 template.getTemperature(),
                 template.getMaxTokens(),
                 template.getActive(),
+                template.getResponseCacheEnabled(),
                 template.getInputFields() != null
                         ? template.getInputFields()
                         .stream()
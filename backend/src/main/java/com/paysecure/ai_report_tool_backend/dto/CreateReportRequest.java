@@ -1,6 +1,8 @@
 package com.paysecure.ai_report_tool_backend.dto;
 
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 public record CreateReportRequest(
         String tool_id,
@@ -12,5 +14,6 @@ public record CreateReportRequest(
         String tone,
         String depth,
         Map<String, Object> wizard_data,
-        Map<String, String> inputs  // Dynamic input fields from template
+        Map<String, String> inputs,  // Dynamic input fields from template
+        List<UUID> uploaded_file_ids  // Uploads made before the report existed
 ) {}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.paysecure.ai_report_tool_backend.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record GenerationJobResponse(
+        UUID jobId,
+        UUID reportId,
+        String status,
+        String reportStatus,
+        int attempts,
+        String errorMessage,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt
+) {}
@@ -0,0 +1,8 @@
+package com.paysecure.ai_report_tool_backend.dto;
+
+import java.util.List;
+
+public record ReportPageResponse(
+        List<ReportSummaryResponse> items,
+        String nextCursor // Pass back as ?cursor= for the next page; null on the last page
+) {}
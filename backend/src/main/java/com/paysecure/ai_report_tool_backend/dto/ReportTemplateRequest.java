@@ -25,6 +25,7 @@ public record ReportTemplateRequest(
         Double temperature,
         Integer maxTokens,
         Boolean active,
+        Boolean responseCacheEnabled,
 
         List<InputFieldRequest> inputFields
 ) {}
\ No newline at end of file
@@ -16,6 +16,7 @@ public record ReportTemplateResponse(
         Double temperature,
         Integer maxTokens,
         Boolean active,
+        Boolean responseCacheEnabled,
 
         List<InputFieldResponse> inputFields
 ) {}
\ No newline at end of file
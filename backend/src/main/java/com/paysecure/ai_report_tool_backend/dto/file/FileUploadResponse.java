@@ -10,5 +10,7 @@ public record FileUploadResponse(
         long fileSize,
         String textPreview,
         Map<String, Object> structuredData,
-        String dataSummary
+        String dataSummary,
+        String status,      // PARSING, PARSED or FAILED
+        String parseError
 ) {}
@@ -8,4 +8,5 @@ public class ParsedFileData {
     private String text;
     private Map<String, Object> structuredData;
     private String dataSummary;
+    private String columnarPath; // Typed column store written alongside the upload, if tabular
 }
@@ -29,6 +29,14 @@ public class AIRequest {
 
     private int totalTokens;
 
+    // Prompt budgeting: local estimate, budget applied and per-file decisions
+    private Integer estimatedPromptTokens;
+
+    private Integer promptBudgetTokens;
+
+    @Column(columnDefinition = "TEXT")
+    private String promptBudgetJson;
+
     private BigDecimal costUsd;
 
     private String model;
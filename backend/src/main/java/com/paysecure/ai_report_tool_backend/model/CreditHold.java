@@ -0,0 +1,51 @@
+package com.paysecure.ai_report_tool_backend.model;
+
+import com.paysecure.ai_report_tool_backend.model.enums.CreditHoldStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Entity
+@Table(
+        name = "credit_holds",
+        indexes = {
+                @Index(name = "idx_credit_holds_reference", columnList = "referenceId, status"),
+                @Index(name = "idx_credit_holds_expiry", columnList = "status, expiresAt")
+        }
+)
+public class CreditHold {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private int credits;
+
+    @Column(nullable = false)
+    private String referenceId; // report_id the credits are held for
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CreditHoldStatus status = CreditHoldStatus.HELD;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    private Instant resolvedAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
@@ -21,6 +21,11 @@ public class CreditWallet {
     @Column(nullable = false)
     private int balance = 0;
 
+    // Bumped by every balance write, atomic or not, so stale entity saves fail instead of losing updates
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     private Instant updatedAt;
 
     @PreUpdate
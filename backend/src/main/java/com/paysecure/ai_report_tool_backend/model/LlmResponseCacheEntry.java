@@ -0,0 +1,35 @@
+package com.paysecure.ai_report_tool_backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Entity
+@Table(
+        name = "llm_response_cache",
+        indexes = @Index(name = "idx_llm_response_cache_created", columnList = "createdAt")
+)
+public class LlmResponseCacheEntry {
+
+    @Id
+    @Column(length = 64)
+    private String cacheKey; // SHA-256 hex of model, temperature and prompts
+
+    private String model;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String content;
+
+    private int promptTokens;
+
+    private int completionTokens;
+
+    private Instant createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
@@ -3,6 +3,8 @@ package com.paysecure.ai_report_tool_backend.model;
 import com.paysecure.ai_report_tool_backend.model.enums.ReportStatus;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -12,7 +14,13 @@ import java.util.UUID;
 
 @Data
 @Entity
-@Table(name = "reports")
+@Table(
+        name = "reports",
+        indexes = {
+                // Serves the keyset-paginated listing without a sort
+                @Index(name = "idx_reports_user_created", columnList = "user_id, createdAt DESC, id DESC")
+        }
+)
 public class Report {
 
     @Id
@@ -49,6 +57,13 @@ public class Report {
     @OneToMany(mappedBy = "report", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ReportInput> inputs = new ArrayList<>();
 
+    // Read side only, for fetching a report with its charts in one query; charts are saved through their repository
+    @OneToMany(mappedBy = "report")
+    @OrderBy("sortOrder ASC")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<ReportChart> charts = new ArrayList<>();
+
     private Instant createdAt;
 
     private Instant completedAt;
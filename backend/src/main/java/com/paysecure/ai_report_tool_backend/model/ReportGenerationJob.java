@@ -0,0 +1,61 @@
+package com.paysecure.ai_report_tool_backend.model;
+
+import com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Entity
+@Table(
+        name = "report_generation_jobs",
+        indexes = {
+                @Index(name = "idx_generation_jobs_status", columnList = "status, createdAt"),
+                @Index(name = "idx_generation_jobs_report", columnList = "report_id")
+        }
+)
+public class ReportGenerationJob {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "report_id", nullable = false)
+    private Report report;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private GenerationJobStatus status = GenerationJobStatus.QUEUED;
+
+    private int attempts = 0;
+
+    @Column(length = 2000)
+    private String errorMessage;
+
+    // Raw model output streamed so far by the current attempt; cleared when the job leaves RUNNING
+    @Column(columnDefinition = "TEXT")
+    private String partialOutput;
+
+    private Instant createdAt;
+
+    private Instant startedAt;
+
+    @Column(length = 100)
+    private String ownerNode; // NodeIdentity of the worker running it, while RUNNING
+
+    private Instant heartbeatAt; // Refreshed by the owner while RUNNING; a stale one means the owner is gone
+
+    private Instant finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
@@ -38,6 +38,10 @@ public class ReportTemplate {
     @Column
     private Boolean active = true;
 
+    // Null or true: identical prompts may be answered from LlmResponseCache
+    @Column
+    private Boolean responseCacheEnabled;
+
     private String category;
     private String industry;
 
@@ -1,5 +1,6 @@
 package com.paysecure.ai_report_tool_backend.model;
 
+import com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.Instant;
@@ -7,15 +8,23 @@ import java.util.UUID;
 
 @Data
 @Entity
-@Table(name = "uploaded_files")
+@Table(
+        name = "uploaded_files",
+        indexes = {
+                @Index(name = "idx_uploaded_files_parse_status", columnList = "parseStatus, createdAt"),
+                @Index(name = "idx_uploaded_files_report", columnList = "report_id")
+        }
+)
 public class UploadedFile {
 
     @Id
     @GeneratedValue
     private UUID id;
 
+    // Set on insert or by UploadedFileRepository.attachToReport; never by a merge,
+    // so a parse worker saving a copy loaded before the attach can't unlink it
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "report_id")
+    @JoinColumn(name = "report_id", updatable = false)
     private Report report;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -39,8 +48,34 @@ public class UploadedFile {
     @Column(columnDefinition = "TEXT")
     private String storagePath; // Local path or cloud storage reference
 
+    @Column(columnDefinition = "TEXT")
+    private String columnarPath; // Typed column store next to storagePath (spreadsheets/CSV only)
+
+    @Column(length = 500)
+    private String dataSummary;
+
+    // Null on rows uploaded before parsing moved to the background; those were parsed inline
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private FileParseStatus parseStatus;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int parseAttempts = 0;
+
+    @Column(length = 2000)
+    private String parseError;
+
     private Instant createdAt;
 
+    private Instant parseStartedAt; // Set while a worker holds the file
+
+    @Column(length = 100)
+    private String parseOwnerNode; // NodeIdentity of the worker holding the file
+
+    private Instant parseHeartbeatAt; // Refreshed by the holder; a stale one means the holder is gone
+
+    private Instant parsedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = Instant.now();
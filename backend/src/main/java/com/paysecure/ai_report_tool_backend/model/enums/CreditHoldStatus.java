@@ -0,0 +1,8 @@
+package com.paysecure.ai_report_tool_backend.model.enums;
+
+public enum CreditHoldStatus {
+    HELD,       // Credits taken from the balance, outcome pending
+    COMMITTED,  // Spent; recorded in the ledger
+    RELEASED,   // Returned to the balance
+    EXPIRED     // Returned to the balance by the TTL sweep
+}
@@ -0,0 +1,7 @@
+package com.paysecure.ai_report_tool_backend.model.enums;
+
+public enum FileParseStatus {
+    PARSING,    // Stored, waiting for or being parsed by a worker
+    PARSED,
+    FAILED
+}
@@ -0,0 +1,8 @@
+package com.paysecure.ai_report_tool_backend.model.enums;
+
+public enum GenerationJobStatus {
+    QUEUED,     // Waiting for a worker
+    RUNNING,    // Claimed by a worker
+    COMPLETED,
+    FAILED
+}
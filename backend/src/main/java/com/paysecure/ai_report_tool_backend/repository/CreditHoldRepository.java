@@ -0,0 +1,54 @@
+package com.paysecure.ai_report_tool_backend.repository;
+
+import com.paysecure.ai_report_tool_backend.model.CreditHold;
+import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.model.enums.CreditHoldStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CreditHoldRepository extends JpaRepository<CreditHold, UUID> {
+
+    Optional<CreditHold> findFirstByReferenceIdAndStatus(String referenceId, CreditHoldStatus status);
+
+    List<CreditHold> findByUser(User user);
+
+    List<CreditHold> findByStatusAndExpiresAtBefore(CreditHoldStatus status, Instant cutoff);
+
+    @Query("select coalesce(sum(h.credits), 0) from CreditHold h where h.user = :user and h.status = :status")
+    long sumCreditsByUserAndStatus(@Param("user") User user, @Param("status") CreditHoldStatus status);
+
+    @Modifying
+    @Query("""
+            update CreditHold h
+               set h.expiresAt = :expiresAt
+             where h.referenceId in :referenceIds
+               and h.status = com.paysecure.ai_report_tool_backend.model.enums.CreditHoldStatus.HELD
+               and h.expiresAt < :expiresAt
+            """)
+    int extend(@Param("referenceIds") Collection<String> referenceIds, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Moves a hold out of {@code from}; returns 0 if another caller already
+     * resolved it, so commit, release and expiry can race safely.
+     */
+    @Modifying
+    @Query("""
+            update CreditHold h
+               set h.status = :to, h.resolvedAt = :now
+             where h.id = :id and h.status = :from
+            """)
+    int transition(
+            @Param("id") UUID id,
+            @Param("from") CreditHoldStatus from,
+            @Param("to") CreditHoldStatus to,
+            @Param("now") Instant now
+    );
+}
@@ -3,9 +3,58 @@ package com.paysecure.ai_report_tool_backend.repository;
 import com.paysecure.ai_report_tool_backend.model.CreditWallet;
 import com.paysecure.ai_report_tool_backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface CreditWalletRepository extends JpaRepository<CreditWallet, UUID> {
     Optional<CreditWallet> findByUser(User user);
+
+    @Query("select w.balance from CreditWallet w where w.user.id = :userId")
+    Optional<Integer> findBalanceByUserId(@Param("userId") UUID userId);
+
+    /** Single-statement debit; the row lock makes check and write atomic. Returns 0 if short. */
+    @Modifying
+    @Query("""
+            update CreditWallet w
+               set w.balance = w.balance - :credits, w.version = w.version + 1, w.updatedAt = :now
+             where w.user.id = :userId and w.balance >= :credits
+            """)
+    int debitIfSufficient(@Param("userId") UUID userId, @Param("credits") int credits, @Param("now") Instant now);
+
+    @Modifying
+    @Query("""
+            update CreditWallet w
+               set w.balance = w.balance + :credits, w.version = w.version + 1, w.updatedAt = :now
+             where w.user.id = :userId
+            """)
+    int credit(@Param("userId") UUID userId, @Param("credits") int credits, @Param("now") Instant now);
+
+    /** Compare-and-set on the version column, for the optimistic debit strategy. */
+    @Modifying
+    @Query("""
+            update CreditWallet w
+               set w.balance = :balance, w.version = w.version + 1, w.updatedAt = :now
+             where w.id = :id and w.version = :version
+            """)
+    int compareAndSetBalance(
+            @Param("id") UUID id,
+            @Param("version") long version,
+            @Param("balance") int balance,
+            @Param("now") Instant now
+    );
+
+    /** Scalar read that bypasses the persistence context, so retries always see the committed row. */
+    @Query("select w.id as id, w.balance as balance, w.version as version from CreditWallet w where w.user.id = :userId")
+    Optional<BalanceSnapshot> findSnapshotByUserId(@Param("userId") UUID userId);
+
+    interface BalanceSnapshot {
+        UUID getId();
+        int getBalance();
+        long getVersion();
+    }
 }
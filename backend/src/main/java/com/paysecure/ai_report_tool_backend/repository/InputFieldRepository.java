@@ -1,10 +1,19 @@
 package com.paysecure.ai_report_tool_backend.repository;
 
 import com.paysecure.ai_report_tool_backend.model.InputField;
+import com.paysecure.ai_report_tool_backend.model.ReportTemplate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface InputFieldRepository
         extends JpaRepository<InputField, UUID> {
-}
\ No newline at end of file
+
+    /** Initializes {@code options} for every field of the given templates in one statement. */
+    @Query("SELECT f FROM InputField f LEFT JOIN FETCH f.options WHERE f.template IN :templates")
+    List<InputField> findWithOptionsByTemplateIn(@Param("templates") Collection<ReportTemplate> templates);
+}
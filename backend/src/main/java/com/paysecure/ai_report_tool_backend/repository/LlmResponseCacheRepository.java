@@ -0,0 +1,47 @@
+package com.paysecure.ai_report_tool_backend.repository;
+
+import com.paysecure.ai_report_tool_backend.model.LlmResponseCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface LlmResponseCacheRepository extends JpaRepository<LlmResponseCacheEntry, String> {
+
+    Optional<LlmResponseCacheEntry> findByCacheKeyAndCreatedAtAfter(String cacheKey, Instant createdAfter);
+
+    /**
+     * Inserts or overwrites one entry in a single statement. {@code save()} would
+     * merge on the assigned key: an extra SELECT, and no {@code @PrePersist} when
+     * an expired row is still there, so its createdAt would never move forward.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO llm_response_cache (cache_key, model, content, prompt_tokens, completion_tokens, created_at)
+            VALUES (:cacheKey, :model, :content, :promptTokens, :completionTokens, :createdAt)
+            ON CONFLICT (cache_key) DO UPDATE SET
+                model = EXCLUDED.model,
+                content = EXCLUDED.content,
+                prompt_tokens = EXCLUDED.prompt_tokens,
+                completion_tokens = EXCLUDED.completion_tokens,
+                created_at = EXCLUDED.created_at
+            """, nativeQuery = true)
+    int upsert(
+            @Param("cacheKey") String cacheKey,
+            @Param("model") String model,
+            @Param("content") String content,
+            @Param("promptTokens") int promptTokens,
+            @Param("completionTokens") int completionTokens,
+            @Param("createdAt") Instant createdAt
+    );
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LlmResponseCacheEntry e WHERE e.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -3,11 +3,24 @@ package com.paysecure.ai_report_tool_backend.repository;
 import com.paysecure.ai_report_tool_backend.model.ReportChart;
 import com.paysecure.ai_report_tool_backend.model.Report;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.List;
 import java.util.UUID;
 
 public interface ReportChartRepository extends JpaRepository<ReportChart, UUID> {
     List<ReportChart> findByReportOrderBySortOrderAsc(Report report);
 
-    void deleteByReport(Report report);
+    /**
+     * One DELETE statement; the derived version would load and remove every
+     * chart entity one by one. Bypasses the persistence context, so call it
+     * before new charts for the report are saved.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ReportChart c WHERE c.report = :report")
+    int deleteByReport(@Param("report") Report report);
 }
@@ -0,0 +1,109 @@
+package com.paysecure.ai_report_tool_backend.repository;
+
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.ReportGenerationJob;
+import com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ReportGenerationJobRepository extends JpaRepository<ReportGenerationJob, UUID> {
+
+    Optional<ReportGenerationJob> findFirstByReportOrderByCreatedAtDesc(Report report);
+
+    boolean existsByReportAndStatusIn(Report report, Collection<GenerationJobStatus> statuses);
+
+    List<ReportGenerationJob> findByStatusOrderByCreatedAtAsc(GenerationJobStatus status);
+
+    List<ReportGenerationJob> findByReportIdAndStatus(UUID reportId, GenerationJobStatus status);
+
+    /** RUNNING jobs whose owner has stopped heartbeating (rows claimed before heartbeats fall back to startedAt). */
+    @Query("""
+            SELECT j FROM ReportGenerationJob j
+             WHERE j.status = com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus.RUNNING
+               AND COALESCE(j.heartbeatAt, j.startedAt) < :staleBefore
+            """)
+    List<ReportGenerationJob> findStale(@Param("staleBefore") Instant staleBefore);
+
+    /**
+     * Atomically moves a QUEUED job to RUNNING under {@code owner}. Returns 0
+     * when another worker (or another node) already claimed it.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ReportGenerationJob j
+               SET j.status = com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus.RUNNING,
+                   j.startedAt = :now,
+                   j.heartbeatAt = :now,
+                   j.ownerNode = :owner,
+                   j.attempts = j.attempts + 1,
+                   j.partialOutput = NULL
+             WHERE j.id = :id
+               AND j.status = com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus.QUEUED
+            """)
+    int claim(@Param("id") UUID id, @Param("owner") String owner, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ReportGenerationJob j
+               SET j.heartbeatAt = :now
+             WHERE j.id IN :ids
+               AND j.ownerNode = :owner
+               AND j.status = com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus.RUNNING
+            """)
+    int heartbeat(@Param("ids") Collection<UUID> ids, @Param("owner") String owner, @Param("now") Instant now);
+
+    /**
+     * Puts a RUNNING job back in the queue, but only while its heartbeat is
+     * still stale. Returns 0 when the owner heartbeated or finished meanwhile.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ReportGenerationJob j
+               SET j.status = com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus.QUEUED,
+                   j.startedAt = NULL,
+                   j.heartbeatAt = NULL,
+                   j.ownerNode = NULL,
+                   j.partialOutput = NULL
+             WHERE j.id = :id
+               AND j.status = com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus.RUNNING
+               AND COALESCE(j.heartbeatAt, j.startedAt) < :staleBefore
+            """)
+    int requeueIfStale(@Param("id") UUID id, @Param("staleBefore") Instant staleBefore);
+
+    /** Same guard as {@link #requeueIfStale}, for a job that has used up its attempts. */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE ReportGenerationJob j
+               SET j.status = com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus.FAILED,
+                   j.errorMessage = :error,
+                   j.finishedAt = :now,
+                   j.partialOutput = NULL
+             WHERE j.id = :id
+               AND j.status = com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus.RUNNING
+               AND COALESCE(j.heartbeatAt, j.startedAt) < :staleBefore
+            """)
+    int failIfStale(
+            @Param("id") UUID id,
+            @Param("staleBefore") Instant staleBefore,
+            @Param("error") String error,
+            @Param("now") Instant now
+    );
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ReportGenerationJob j SET j.partialOutput = :output WHERE j.id = :id")
+    int updatePartialOutput(@Param("id") UUID id, @Param("output") String output);
+}
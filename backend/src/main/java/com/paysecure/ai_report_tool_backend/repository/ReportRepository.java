@@ -3,14 +3,55 @@ package com.paysecure.ai_report_tool_backend.repository;
 import com.paysecure.ai_report_tool_backend.model.Report;
 import com.paysecure.ai_report_tool_backend.model.ReportTemplate;
 import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.model.enums.ReportStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ReportRepository extends JpaRepository<Report, UUID> {
 
-    List<Report> findByUser(User user);
+    /** Listing columns only, so the TEXT columns are never read. */
+    interface SummaryRow {
+        UUID getId();
+        String getTitle();
+        ReportStatus getStatus();
+        Instant getCreatedAt();
+    }
+
+    // Newest first; (createdAt, id) is unique, so it works as a keyset cursor
+    @Query("""
+            SELECT r.id AS id, r.title AS title, r.status AS status, r.createdAt AS createdAt
+              FROM Report r
+             WHERE r.user = :user
+             ORDER BY r.createdAt DESC, r.id DESC
+            """)
+    List<SummaryRow> findSummaries(@Param("user") User user, Pageable page);
+
+    @Query("""
+            SELECT r.id AS id, r.title AS title, r.status AS status, r.createdAt AS createdAt
+              FROM Report r
+             WHERE r.user = :user
+               AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id))
+             ORDER BY r.createdAt DESC, r.id DESC
+            """)
+    List<SummaryRow> findSummariesAfter(
+            @Param("user") User user,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") UUID id,
+            Pageable page
+    );
+
+    /** The report and its ordered charts in a single query, for building a {@code ReportResponse}. */
+    @EntityGraph(attributePaths = "charts")
+    Optional<Report> findWithChartsById(UUID id);
 
     boolean existsByTemplate(ReportTemplate template);
 }
\ No newline at end of file
@@ -2,7 +2,9 @@ package com.paysecure.ai_report_tool_backend.repository;
 
 import com.paysecure.ai_report_tool_backend.model.ReportTemplate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +14,8 @@ public interface ReportTemplateRepository
     Optional<ReportTemplate> findByToolId(String toolId);
 
     boolean existsByToolId(String toolId);
-}
\ No newline at end of file
+
+    /** The whole catalog with its input fields in one statement; options follow via {@link InputFieldRepository}. */
+    @Query("SELECT t FROM ReportTemplate t LEFT JOIN FETCH t.inputFields ORDER BY t.toolId")
+    List<ReportTemplate> findAllWithInputFields();
+}
@@ -3,11 +3,130 @@ package com.paysecure.ai_report_tool_backend.repository;
 import com.paysecure.ai_report_tool_backend.model.UploadedFile;
 import com.paysecure.ai_report_tool_backend.model.Report;
 import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface UploadedFileRepository extends JpaRepository<UploadedFile, UUID> {
     List<UploadedFile> findByReport(Report report);
     List<UploadedFile> findByUser(User user);
+
+    /** Listing columns only; the extracted TEXT columns are reduced to a flag in the database. */
+    interface InfoRow {
+        UUID getId();
+        String getOriginalFilename();
+        String getContentType();
+        long getFileSize();
+        FileParseStatus getParseStatus();
+        boolean getHasData();
+    }
+
+    @Query("""
+            SELECT f.id AS id, f.originalFilename AS originalFilename, f.contentType AS contentType,
+                   f.fileSize AS fileSize, f.parseStatus AS parseStatus,
+                   CASE WHEN f.extractedDataJson IS NOT NULL THEN true ELSE false END AS hasData
+              FROM UploadedFile f
+             WHERE f.report.id = :reportId
+             ORDER BY f.createdAt
+            """)
+    List<InfoRow> findInfoByReportId(@Param("reportId") UUID reportId);
+
+    /**
+     * Attaches the user's unattached uploads to a report. Returns how many
+     * were attached, so anything not owned or already attached is detectable.
+     */
+    @Modifying
+    @Query("""
+            UPDATE UploadedFile f
+               SET f.report = :report
+             WHERE f.id IN :ids
+               AND f.user = :user
+               AND f.report IS NULL
+            """)
+    int attachToReport(@Param("ids") Collection<UUID> ids, @Param("user") User user, @Param("report") Report report);
+
+    boolean existsByReportIdAndParseStatus(UUID reportId, FileParseStatus status);
+
+    List<UploadedFile> findByParseStatusOrderByCreatedAtAsc(FileParseStatus status);
+
+    /** Held files whose holder has stopped heartbeating (rows held before heartbeats fall back to parseStartedAt). */
+    @Query("""
+            SELECT f FROM UploadedFile f
+             WHERE f.parseStatus = com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus.PARSING
+               AND COALESCE(f.parseHeartbeatAt, f.parseStartedAt) < :staleBefore
+            """)
+    List<UploadedFile> findStaleParses(@Param("staleBefore") Instant staleBefore);
+
+    /**
+     * Atomically marks a PARSING file as held by a worker of {@code owner}.
+     * Returns 0 when another worker (or another node) already holds it.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE UploadedFile f
+               SET f.parseStartedAt = :now,
+                   f.parseHeartbeatAt = :now,
+                   f.parseOwnerNode = :owner,
+                   f.parseAttempts = f.parseAttempts + 1
+             WHERE f.id = :id
+               AND f.parseStatus = com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus.PARSING
+               AND f.parseStartedAt IS NULL
+            """)
+    int claimForParsing(@Param("id") UUID id, @Param("owner") String owner, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE UploadedFile f
+               SET f.parseHeartbeatAt = :now
+             WHERE f.id IN :ids
+               AND f.parseOwnerNode = :owner
+               AND f.parseStatus = com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus.PARSING
+            """)
+    int heartbeatParses(@Param("ids") Collection<UUID> ids, @Param("owner") String owner, @Param("now") Instant now);
+
+    /**
+     * Lets any worker claim a held file again, but only while its heartbeat is
+     * still stale. Returns 0 when the holder heartbeated or finished meanwhile.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE UploadedFile f
+               SET f.parseStartedAt = NULL,
+                   f.parseHeartbeatAt = NULL,
+                   f.parseOwnerNode = NULL
+             WHERE f.id = :id
+               AND f.parseStatus = com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus.PARSING
+               AND COALESCE(f.parseHeartbeatAt, f.parseStartedAt) < :staleBefore
+            """)
+    int releaseIfStale(@Param("id") UUID id, @Param("staleBefore") Instant staleBefore);
+
+    /** Same guard as {@link #releaseIfStale}, for a file that has used up its attempts. */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE UploadedFile f
+               SET f.parseStatus = com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus.FAILED,
+                   f.parseError = :error,
+                   f.parsedAt = :now
+             WHERE f.id = :id
+               AND f.parseStatus = com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus.PARSING
+               AND COALESCE(f.parseHeartbeatAt, f.parseStartedAt) < :staleBefore
+            """)
+    int failIfStale(
+            @Param("id") UUID id,
+            @Param("staleBefore") Instant staleBefore,
+            @Param("error") String error,
+            @Param("now") Instant now
+    );
 }
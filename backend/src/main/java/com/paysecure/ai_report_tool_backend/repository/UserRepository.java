@@ -2,7 +2,11 @@ package com.paysecure.ai_report_tool_backend.repository;
 
 
 import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.model.enums.Plan;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -12,4 +16,18 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    /** Mirrors the wallet balance into the legacy users.credits column. */
+    @Modifying
+    @Query("""
+            update User u
+               set u.credits = (select w.balance from CreditWallet w where w.user.id = :userId)
+             where u.id = :userId
+            """)
+    int syncCreditsFromWallet(@Param("userId") UUID userId);
+
+    /** Writes only the plan, so a cached copy of the user can't overwrite newer columns. */
+    @Modifying
+    @Query("update User u set u.plan = :plan where u.id = :userId")
+    int updatePlan(@Param("userId") UUID userId, @Param("plan") Plan plan);
 }
\ No newline at end of file
@@ -56,13 +56,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String token = authHeader.substring(7);
 
-            if (!jwtService.isTokenValid(token)) {
+            // Single verification per request; repeat tokens are served from the claims cache
+            JwtService.VerifiedToken verified = jwtService.verify(token);
+
+            if (verified == null) {
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            String role = jwtService.extractRole(token);
-            String userId = jwtService.extractUserId(token); // UUID as String
+            String role = verified.role();
+            String userId = verified.userId(); // UUID as String
 
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(
@@ -1,34 +1,66 @@
 package com.paysecure.ai_report_tool_backend.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class JwtService {
 
-    private final String secret;
     private final long expirationMs;
 
+    // Both are immutable and thread-safe, so build them once instead of per token
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    // Verified claims keyed by SHA-256 of the token, so raw bearer tokens are never retained
+    private final ConcurrentHashMap<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+    private final int cacheMaxEntries;
+    private final long cacheTtlMs;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
     public JwtService(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.expiration}") long expirationMs
+            @Value("${jwt.expiration}") long expirationMs,
+            @Value("${jwt.cache.max-entries:10000}") int cacheMaxEntries,
+            @Value("${jwt.cache.ttl-ms:300000}") long cacheTtlMs
     ) {
         if (secret.length() < 32) {
             throw new IllegalArgumentException(
                     "JWT secret must be at least 32 characters"
             );
         }
-        this.secret = secret;
         this.expirationMs = expirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.cacheMaxEntries = cacheMaxEntries;
+        this.cacheTtlMs = cacheTtlMs;
     }
 
+    /**
+     * Claims the filter needs, taken from a token whose signature and expiry
+     * have been checked. {@code cachedUntil} never exceeds the token's own expiry.
+     */
+    public record VerifiedToken(String userId, String role, Instant cachedUntil) {}
+
+    public record Stats(long hits, long misses, double hitRatio, int entries, int maxEntries) {}
+
     /* -------------------------
        TOKEN GENERATION
     ------------------------- */
@@ -39,39 +71,99 @@ public class JwtService {
                 .claim("role", role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(
-                        Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))
-                )
+                .signWith(signingKey)
                 .compact();
     }
 
     /* -------------------------
        TOKEN VALIDATION
     ------------------------- */
-    public boolean isTokenValid(String token) {
+
+    /**
+     * Verifies the token once and serves repeat presentations from the cache.
+     * Returns null for anything malformed, forged or expired.
+     */
+    public VerifiedToken verify(String token) {
+        String key = hash(token);
+        Instant now = Instant.now();
+
+        VerifiedToken hit = verified.get(key);
+        if (hit != null) {
+            if (hit.cachedUntil().isAfter(now)) {
+                cacheHits.incrementAndGet();
+                return hit;
+            }
+            verified.remove(key, hit);
+        }
+
+        cacheMisses.incrementAndGet();
+
+        Claims claims;
         try {
-            getClaims(token);
-            return true;
+            claims = getClaims(token);
         } catch (Exception e) {
-            return false;
+            return null;
+        }
+
+        Instant cachedUntil = now.plusMillis(cacheTtlMs);
+        if (claims.getExpiration() != null && claims.getExpiration().toInstant().isBefore(cachedUntil)) {
+            cachedUntil = claims.getExpiration().toInstant();
         }
+
+        VerifiedToken verifiedToken = new VerifiedToken(claims.getSubject(), claims.get("role", String.class), cachedUntil);
+        remember(key, verifiedToken, now);
+        return verifiedToken;
+    }
+
+    public boolean isTokenValid(String token) {
+        return verify(token) != null;
     }
 
     public String extractUserId(String token) {
-        return getClaims(token).getSubject();
+        VerifiedToken verifiedToken = verify(token);
+        return verifiedToken != null ? verifiedToken.userId() : getClaims(token).getSubject();
     }
 
     public String extractRole(String token) {
-        return getClaims(token).get("role", String.class);
+        VerifiedToken verifiedToken = verify(token);
+        return verifiedToken != null ? verifiedToken.role() : getClaims(token).get("role", String.class);
+    }
+
+    public Stats stats() {
+        long hits = cacheHits.get();
+        long misses = cacheMisses.get();
+        long total = hits + misses;
+        return new Stats(hits, misses, total == 0 ? 0.0 : (double) hits / total, verified.size(), cacheMaxEntries);
     }
 
     private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(
-                        Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))
-                )
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /* -------------------------
+       CACHE
+    ------------------------- */
+    private void remember(String key, VerifiedToken token, Instant now) {
+        if (cacheMaxEntries <= 0) return;
+
+        if (verified.size() >= cacheMaxEntries) {
+            verified.values().removeIf(v -> !v.cachedUntil().isAfter(now));
+
+            // Still full of live tokens: start over rather than track recency on the hot path
+            if (verified.size() >= cacheMaxEntries) {
+                verified.clear();
+            }
+        }
+
+        verified.put(key, token);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
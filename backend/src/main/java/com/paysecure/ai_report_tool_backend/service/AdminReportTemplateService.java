@@ -6,6 +6,7 @@ import com.paysecure.ai_report_tool_backend.model.InputField;
 import com.paysecure.ai_report_tool_backend.model.ReportTemplate;
 import com.paysecure.ai_report_tool_backend.repository.InputFieldRepository;
 import com.paysecure.ai_report_tool_backend.repository.ReportTemplateRepository;
+import com.paysecure.ai_report_tool_backend.service.catalog.TemplateCatalog;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
@@ -18,13 +19,16 @@ public class AdminReportTemplateService {
 
     private final ReportTemplateRepository templateRepo;
     private final InputFieldRepository fieldRepo;
+    private final TemplateCatalog catalog;
 
     public AdminReportTemplateService(
             ReportTemplateRepository templateRepo,
-            InputFieldRepository fieldRepo
+            InputFieldRepository fieldRepo,
+            TemplateCatalog catalog
     ) {
         this.templateRepo = templateRepo;
         this.fieldRepo = fieldRepo;
+        this.catalog = catalog;
     }
 
     /* -------------------------
@@ -64,6 +68,7 @@ public class AdminReportTemplateService {
             template.addInputField(field);
 
             templateRepo.save(template);
+            catalog.changed();
         }catch (Exception e){
             System.out.println(e.getMessage());
             throw new RuntimeException(e);
@@ -79,7 +84,9 @@ public class AdminReportTemplateService {
                 .orElseThrow();
 
         apply(field, req);
-        return toResponse(fieldRepo.save(field));
+        InputField saved = fieldRepo.save(field);
+        catalog.changed();
+        return toResponse(saved);
     }
 
     public void deleteInputField(UUID fieldId) {
@@ -91,6 +98,7 @@ public class AdminReportTemplateService {
         template.removeInputField(field);
 
         templateRepo.save(template);
+        catalog.changed();
     }
 
     /* -------------------------
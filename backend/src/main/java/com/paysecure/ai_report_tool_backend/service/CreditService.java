@@ -1,30 +1,73 @@
 package com.paysecure.ai_report_tool_backend.service;
 
 import com.paysecure.ai_report_tool_backend.exception.ApiException;
+import com.paysecure.ai_report_tool_backend.model.CreditHold;
 import com.paysecure.ai_report_tool_backend.model.CreditTransaction;
 import com.paysecure.ai_report_tool_backend.model.CreditWallet;
 import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.model.enums.CreditHoldStatus;
 import com.paysecure.ai_report_tool_backend.model.enums.TransactionType;
+import com.paysecure.ai_report_tool_backend.repository.CreditHoldRepository;
 import com.paysecure.ai_report_tool_backend.repository.CreditTransactionRepository;
 import com.paysecure.ai_report_tool_backend.repository.CreditWalletRepository;
+import com.paysecure.ai_report_tool_backend.repository.CreditWalletRepository.BalanceSnapshot;
+import com.paysecure.ai_report_tool_backend.repository.UserRepository;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationBus;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationTopic;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Wallet balance changes are single conditional UPDATEs ({@code balance >= n})
+ * rather than read-modify-write on the entity, so concurrent generations can
+ * never overdraw a wallet or lose an update. Report generation reserves its
+ * credits up front with a {@link CreditHold} and later commits or releases it.
+ */
+@Slf4j
 @Service
 public class CreditService {
 
+    public enum DebitStrategy { CONDITIONAL, OPTIMISTIC }
+
+    private static final int OPTIMISTIC_MAX_ATTEMPTS = 64;
+
     private final CreditWalletRepository walletRepository;
     private final CreditTransactionRepository transactionRepository;
+    private final CreditHoldRepository holdRepository;
+    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${credits.debit-strategy:conditional}")
+    private DebitStrategy debitStrategy = DebitStrategy.CONDITIONAL;
+
+    @Value("${credits.hold-ttl-ms:1800000}")
+    private long holdTtlMs = 1_800_000;
 
     public CreditService(
             CreditWalletRepository walletRepository,
-            CreditTransactionRepository transactionRepository
+            CreditTransactionRepository transactionRepository,
+            CreditHoldRepository holdRepository,
+            UserRepository userRepository,
+            UserCache userCache,
+            InvalidationBus invalidationBus
     ) {
         this.walletRepository = walletRepository;
         this.transactionRepository = transactionRepository;
+        this.holdRepository = holdRepository;
+        this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.invalidationBus = invalidationBus;
     }
 
     public CreditWallet getOrCreateWallet(User user) {
@@ -38,7 +81,8 @@ public class CreditService {
     }
 
     public int getBalance(User user) {
-        return getOrCreateWallet(user).getBalance();
+        getOrCreateWallet(user);
+        return currentBalance(user);
     }
 
     @Transactional
@@ -49,22 +93,10 @@ public class CreditService {
             String referenceId,
             String description
     ) {
-        CreditWallet wallet = getOrCreateWallet(user);
-        wallet.setBalance(wallet.getBalance() + credits);
-        walletRepository.save(wallet);
-
-        // Update user credits for backward compatibility
-        user.setCredits(wallet.getBalance());
-
-        CreditTransaction transaction = new CreditTransaction();
-        transaction.setUser(user);
-        transaction.setType(type);
-        transaction.setCredits(credits);
-        transaction.setReferenceId(referenceId);
-        transaction.setDescription(description);
-        transaction.setBalanceAfter(wallet.getBalance());
+        getOrCreateWallet(user);
+        walletRepository.credit(user.getId(), credits, Instant.now());
 
-        return transactionRepository.save(transaction);
+        return record(user, type, credits, referenceId, description);
     }
 
     @Transactional
@@ -75,34 +107,221 @@ public class CreditService {
             String referenceId,
             String description
     ) {
-        CreditWallet wallet = getOrCreateWallet(user);
+        getOrCreateWallet(user);
 
-        if (wallet.getBalance() < credits) {
+        if (!debit(user, credits)) {
             throw new ApiException("Insufficient credits", HttpStatus.BAD_REQUEST);
         }
 
-        wallet.setBalance(wallet.getBalance() - credits);
-        walletRepository.save(wallet);
+        return record(user, type, -credits, referenceId, description); // Negative for deduction
+    }
+
+    /**
+     * Non-binding pre-check; only {@link #reserve} and {@link #deductCredits}
+     * guarantee the credits are actually there.
+     */
+    public boolean hasEnoughCredits(User user, int required) {
+        return getBalance(user) >= required;
+    }
+
+    public List<CreditTransaction> getTransactionHistory(User user) {
+        return transactionRepository.findByUserOrderByCreatedAtDesc(user);
+    }
+
+    /* -------------------------
+       HOLDS
+    ------------------------- */
+
+    /**
+     * Takes {@code credits} out of the balance and parks them against
+     * {@code referenceId}. Idempotent per reference, so a retried generation
+     * reuses its existing hold instead of reserving twice.
+     */
+    @Transactional
+    public CreditHold reserve(User user, int credits, String referenceId) {
+        Optional<CreditHold> existing =
+                holdRepository.findFirstByReferenceIdAndStatus(referenceId, CreditHoldStatus.HELD);
+
+        if (existing.isPresent()) {
+            CreditHold hold = existing.get();
+            hold.setExpiresAt(Instant.now().plusMillis(holdTtlMs));
+            return holdRepository.save(hold);
+        }
+
+        getOrCreateWallet(user);
+
+        if (!debit(user, credits)) {
+            throw new ApiException("Insufficient credits", HttpStatus.PAYMENT_REQUIRED);
+        }
+
+        user.setCredits(currentBalance(user));
+        balanceChanged(user.getId());
+
+        CreditHold hold = new CreditHold();
+        hold.setUser(user);
+        hold.setCredits(credits);
+        hold.setReferenceId(referenceId);
+        hold.setExpiresAt(Instant.now().plusMillis(holdTtlMs));
+        return holdRepository.save(hold);
+    }
+
+    /**
+     * Converts the hold into a ledger entry. When the hold has already expired
+     * or never existed, falls back to a plain atomic deduction.
+     */
+    @Transactional
+    public CreditTransaction commitHold(
+            User user,
+            int credits,
+            TransactionType type,
+            String referenceId,
+            String description
+    ) {
+        Optional<CreditHold> held =
+                holdRepository.findFirstByReferenceIdAndStatus(referenceId, CreditHoldStatus.HELD);
+
+        if (held.isPresent()
+                && holdRepository.transition(held.get().getId(), CreditHoldStatus.HELD, CreditHoldStatus.COMMITTED, Instant.now()) == 1) {
+            // Balance already reflects the hold; the ledger catches up here
+            return record(user, type, -held.get().getCredits(), referenceId, description);
+        }
+
+        log.warn("No active credit hold for reference={}, deducting directly", referenceId);
+        return deductCredits(user, credits, type, referenceId, description);
+    }
+
+    /**
+     * Pushes the expiry of still-HELD holds a full TTL out. Called from the
+     * generation heartbeat, so a hold never expires under a live generation
+     * however long it runs; a dead node's holds still expire one TTL after
+     * its last heartbeat.
+     */
+    @Transactional
+    public void extendHolds(Collection<String> referenceIds) {
+        if (referenceIds.isEmpty()) return;
+        holdRepository.extend(referenceIds, Instant.now().plusMillis(holdTtlMs));
+    }
+
+    @Transactional
+    public void releaseHold(String referenceId) {
+        holdRepository.findFirstByReferenceIdAndStatus(referenceId, CreditHoldStatus.HELD)
+                .ifPresent(hold -> returnHold(hold, CreditHoldStatus.RELEASED));
+    }
+
+    /**
+     * Returns credits held by generations that never completed or failed,
+     * e.g. because the process died mid-run.
+     */
+    @Scheduled(
+            initialDelayString = "${credits.hold-sweep-interval-ms:60000}",
+            fixedDelayString = "${credits.hold-sweep-interval-ms:60000}"
+    )
+    @Transactional
+    public void expireHolds() {
+        List<CreditHold> expired =
+                holdRepository.findByStatusAndExpiresAtBefore(CreditHoldStatus.HELD, Instant.now());
+
+        int returned = 0;
+        for (CreditHold hold : expired) {
+            if (returnHold(hold, CreditHoldStatus.EXPIRED)) returned++;
+        }
+
+        if (returned > 0) {
+            log.info("Expired {} credit hold(s)", returned);
+        }
+    }
+
+    /**
+     * Credits currently parked in holds. Together with the wallet balance they
+     * always equal the opening balance plus the sum of the ledger.
+     */
+    public long heldCredits(User user) {
+        return holdRepository.sumCreditsByUserAndStatus(user, CreditHoldStatus.HELD);
+    }
+
+    /* -------------------------
+       HELPERS
+    ------------------------- */
+
+    private boolean returnHold(CreditHold hold, CreditHoldStatus to) {
+        Instant now = Instant.now();
+
+        // Losing the race means commit/release/expiry already settled this hold
+        if (holdRepository.transition(hold.getId(), CreditHoldStatus.HELD, to, now) != 1) {
+            return false;
+        }
+
+        walletRepository.credit(hold.getUser().getId(), hold.getCredits(), now);
+        balanceChanged(hold.getUser().getId());
+        return true;
+    }
+
+    private boolean debit(User user, int credits) {
+        if (debitStrategy == DebitStrategy.OPTIMISTIC) {
+            return debitOptimistically(user, credits);
+        }
+        return walletRepository.debitIfSufficient(user.getId(), credits, Instant.now()) == 1;
+    }
+
+    /**
+     * Version-checked compare-and-set, retried on contention. Kept for
+     * databases or deployments where the conditional UPDATE is not an option.
+     */
+    private boolean debitOptimistically(User user, int credits) {
+        for (int attempt = 0; attempt < OPTIMISTIC_MAX_ATTEMPTS; attempt++) {
+            BalanceSnapshot snapshot = walletRepository.findSnapshotByUserId(user.getId())
+                    .orElseThrow(() -> new ApiException("Wallet not found", HttpStatus.NOT_FOUND));
+
+            if (snapshot.getBalance() < credits) {
+                return false;
+            }
+
+            if (walletRepository.compareAndSetBalance(
+                    snapshot.getId(), snapshot.getVersion(), snapshot.getBalance() - credits, Instant.now()) == 1) {
+                return true;
+            }
+        }
+
+        throw new ApiException("Wallet is busy, please retry", HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Callers may hold a detached (cached) User, so the legacy users.credits
+     * column is written explicitly and the cached copies are dropped, here
+     * and on the other nodes.
+     */
+    private void balanceChanged(UUID userId) {
+        userRepository.syncCreditsFromWallet(userId);
+        userCache.invalidate(userId);
+        invalidationBus.publish(InvalidationTopic.CREDIT_WALLET, userId);
+    }
+
+    private int currentBalance(User user) {
+        return walletRepository.findBalanceByUserId(user.getId()).orElse(0);
+    }
+
+    private CreditTransaction record(
+            User user,
+            TransactionType type,
+            int credits,
+            String referenceId,
+            String description
+    ) {
+        // Read inside the same transaction, after our row-locking UPDATE
+        int balanceAfter = currentBalance(user);
 
         // Update user credits for backward compatibility
-        user.setCredits(wallet.getBalance());
+        user.setCredits(balanceAfter);
+        balanceChanged(user.getId());
 
         CreditTransaction transaction = new CreditTransaction();
         transaction.setUser(user);
         transaction.setType(type);
-        transaction.setCredits(-credits); // Negative for deduction
+        transaction.setCredits(credits);
         transaction.setReferenceId(referenceId);
         transaction.setDescription(description);
-        transaction.setBalanceAfter(wallet.getBalance());
+        transaction.setBalanceAfter(balanceAfter);
 
         return transactionRepository.save(transaction);
     }
-
-    public boolean hasEnoughCredits(User user, int required) {
-        return getBalance(user) >= required;
-    }
-
-    public List<CreditTransaction> getTransactionHistory(User user) {
-        return transactionRepository.findByUserOrderByCreatedAtDesc(user);
-    }
 }
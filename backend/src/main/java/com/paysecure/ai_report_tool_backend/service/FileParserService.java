@@ -6,15 +6,25 @@ import com.paysecure.ai_report_tool_backend.exception.ApiException;
 import com.paysecure.ai_report_tool_backend.model.Report;
 import com.paysecure.ai_report_tool_backend.model.UploadedFile;
 import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus;
 import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
+import com.paysecure.ai_report_tool_backend.service.columnar.ColumnarTableWriter;
+import com.paysecure.ai_report_tool_backend.service.parser.ColumnStatsAccumulator;
+import com.paysecure.ai_report_tool_backend.service.parser.CsvStreamingParser;
+import com.paysecure.ai_report_tool_backend.service.parser.DocumentTableCollector;
+import com.paysecure.ai_report_tool_backend.service.parser.PdfTableDetector;
+import com.paysecure.ai_report_tool_backend.service.parser.PdfTextExtractor;
+import com.paysecure.ai_report_tool_backend.service.parser.TableSink;
+import com.paysecure.ai_report_tool_backend.service.parser.XlsxStreamingParser;
 import com.google.gson.Gson;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -33,7 +43,17 @@ public class FileParserService {
     @Value("${file.upload-dir:/tmp/uploads}")
     private String uploadDir;
 
+    @Value("${file.max-size-bytes:268435456}")
+    private long maxFileSize;
+
+    // Rows kept verbatim per upload; larger sheets are still fully counted and summarised
+    @Value("${file.parse.max-retained-rows:50000}")
+    private int maxRetainedRows;
+
     private final UploadedFileRepository uploadedFileRepository;
+    private final XlsxStreamingParser xlsxParser;
+    private final CsvStreamingParser csvParser;
+    private final PdfTextExtractor pdfExtractor;
     private final Gson gson;
 
     private static final Set<String> ALLOWED_TYPES = Set.of(
@@ -46,8 +66,6 @@ public class FileParserService {
             "application/json"
     );
 
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
-
     public UploadedFile getFileForDownload(UUID fileId, UUID userId) {
         UploadedFile file = uploadedFileRepository.findById(fileId)
                 .orElseThrow(() -> new ApiException("File not found", HttpStatus.NOT_FOUND));
@@ -60,101 +78,134 @@ public class FileParserService {
         return file;
     }
 
-    public FileParserService(UploadedFileRepository uploadedFileRepository) {
+    public FileParserService(
+            UploadedFileRepository uploadedFileRepository,
+            XlsxStreamingParser xlsxParser,
+            CsvStreamingParser csvParser,
+            PdfTextExtractor pdfExtractor
+    ) {
         this.uploadedFileRepository = uploadedFileRepository;
+        this.xlsxParser = xlsxParser;
+        this.csvParser = csvParser;
+        this.pdfExtractor = pdfExtractor;
         this.gson = new Gson();
     }
 
-    public FileUploadResponse uploadAndParse(MultipartFile file, User user, Report report) {
+    /**
+     * Validates the upload and writes it to storage, recorded as PARSING.
+     * Content is extracted afterwards by {@link UploadParseWorker}, so the
+     * request returns as soon as the bytes are on disk.
+     */
+    public UploadedFile store(MultipartFile file, User user, Report report) {
         validateFile(file);
 
         try {
-            // Save file to disk
             String storagePath = saveFile(file, user.getId().toString());
 
-            // Parse content
-            ParsedFileData parsedData = parseFile(file);
-
-            // Save to database
             UploadedFile uploadedFile = new UploadedFile();
             uploadedFile.setUser(user);
             uploadedFile.setReport(report);
             uploadedFile.setOriginalFilename(file.getOriginalFilename());
             uploadedFile.setContentType(file.getContentType());
             uploadedFile.setFileSize(file.getSize());
-            uploadedFile.setExtractedText(parsedData.getText());
-            uploadedFile.setExtractedDataJson(gson.toJson(parsedData.getStructuredData()));
             uploadedFile.setStoragePath(storagePath);
+            uploadedFile.setParseStatus(FileParseStatus.PARSING);
 
-            uploadedFile = uploadedFileRepository.save(uploadedFile);
-
-            return new FileUploadResponse(
-                    uploadedFile.getId(),
-                    uploadedFile.getOriginalFilename(),
-                    uploadedFile.getContentType(),
-                    uploadedFile.getFileSize(),
-                    parsedData.getText() != null ? parsedData.getText().substring(0, Math.min(500, parsedData.getText().length())) : null,
-                    parsedData.getStructuredData(),
-                    parsedData.getDataSummary()
-            );
+            return uploadedFileRepository.save(uploadedFile);
 
         } catch (IOException e) {
-            throw new ApiException("Failed to process file: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+            throw new ApiException("Failed to store file: " + e.getMessage(), HttpStatus.BAD_REQUEST);
         }
     }
 
-    public ParsedFileData parseFile(MultipartFile file) throws IOException {
-        String contentType = file.getContentType();
-        String filename = file.getOriginalFilename().toLowerCase();
+    /** Extracts text and structured data from an upload's stored copy onto the entity. */
+    public void parseInto(UploadedFile file) throws IOException {
+        ParsedFileData parsedData = parseFile(file.getContentType(), file.getOriginalFilename(), Paths.get(file.getStoragePath()));
+
+        file.setExtractedText(parsedData.getText());
+        if (parsedData.getStructuredData() != null) {
+            file.setExtractedDataJson(gson.toJson(parsedData.getStructuredData()));
+        }
+        file.setColumnarPath(parsedData.getColumnarPath());
+        file.setDataSummary(truncate(parsedData.getDataSummary(), 500));
+    }
+
+    public FileUploadResponse toResponse(UploadedFile file) {
+        String text = file.getExtractedText();
+        FileParseStatus status = file.getParseStatus() != null ? file.getParseStatus() : FileParseStatus.PARSED;
+
+        return new FileUploadResponse(
+                file.getId(),
+                file.getOriginalFilename(),
+                file.getContentType(),
+                file.getFileSize(),
+                text != null ? text.substring(0, Math.min(500, text.length())) : null,
+                structuredData(file.getExtractedDataJson()),
+                file.getDataSummary(),
+                status.name(),
+                file.getParseError()
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> structuredData(String json) {
+        return json != null ? gson.fromJson(json, Map.class) : null;
+    }
+
+    public ParsedFileData parseFile(String contentType, String originalFilename, Path storedPath) throws IOException {
+        String filename = originalFilename.toLowerCase();
 
         if (contentType.contains("pdf") || filename.endsWith(".pdf")) {
-            return parsePdf(file);
+            return parsePdf(storedPath);
         } else if (contentType.contains("spreadsheet") || contentType.contains("excel") || 
                    filename.endsWith(".xlsx") || filename.endsWith(".xls") || filename.endsWith(".csv")) {
-            return parseSpreadsheet(file);
+            return parseSpreadsheet(filename, storedPath);
         } else if (contentType.contains("wordprocessing") || filename.endsWith(".docx")) {
-            return parseWord(file);
+            return parseWord(storedPath);
         } else if (contentType.contains("json") || filename.endsWith(".json")) {
-            return parseJson(file);
+            return parseJson(storedPath);
         } else if (contentType.contains("text") || filename.endsWith(".txt") || filename.endsWith(".csv")) {
-            return parseText(file);
+            return parseText(storedPath);
         }
 
         throw new ApiException("Unsupported file type: " + contentType, HttpStatus.BAD_REQUEST);
     }
 
-    private ParsedFileData parsePdf(MultipartFile file) throws IOException {
-        try (PDDocument document = PDDocument.load(file.getInputStream())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document);
-
-            ParsedFileData data = new ParsedFileData();
-            data.setText(text);
-            data.setDataSummary("PDF document with " + document.getNumberOfPages() + " pages");
+    private ParsedFileData parsePdf(Path storedPath) throws IOException {
+        return parseIntoColumnStore(storedPath, sink -> {
+            // Read from the stored copy so page ranges can be stripped in parallel, each on its own handle
+            PdfTextExtractor.Extraction extraction = pdfExtractor.extract(storedPath);
 
-            // Try to extract any tables (basic heuristic)
-            List<Map<String, Object>> tables = extractTablesFromText(text);
-            if (!tables.isEmpty()) {
-                data.setStructuredData(Map.of("tables", tables));
+            DocumentTableCollector tables = new DocumentTableCollector(sink, maxRetainedRows);
+            int[] perPage = new int[extraction.pageCount() + 1];
+            for (PdfTableDetector.Table table : extraction.tables()) {
+                tables.add("Page " + table.page() + " table " + (++perPage[table.page()]), table.rows());
             }
 
+            ParsedFileData data = new ParsedFileData();
+            data.setText(extraction.text());
+            data.setDataSummary("PDF document with " + extraction.pageCount() + " pages"
+                    + tableSummary(tables.tables().size()));
+            if (!tables.tables().isEmpty()) {
+                data.setStructuredData(Map.of(
+                        "tables", tables.tables(),
+                        "tableCount", tables.tables().size()
+                ));
+            }
             return data;
-        }
+        });
     }
 
-    private ParsedFileData parseSpreadsheet(MultipartFile file) throws IOException {
-        String filename = file.getOriginalFilename().toLowerCase();
-        
+    private ParsedFileData parseSpreadsheet(String filename, Path storedPath) throws IOException {
         // Handle CSV separately
-        if (filename.endsWith(".csv")) {
-            return parseCsv(file);
+        if (filename.endsWith(".csv") || filename.endsWith(".xlsx")) {
+            return parseTabular(storedPath, filename.endsWith(".csv"));
         }
 
+        // Legacy .xls is capped at 65k rows by the format, so the DOM model is fine here
         Workbook workbook;
-        if (filename.endsWith(".xlsx")) {
-            workbook = new XSSFWorkbook(file.getInputStream());
-        } else {
-            workbook = new HSSFWorkbook(file.getInputStream());
+        try (InputStream in = Files.newInputStream(storedPath)) {
+            workbook = new HSSFWorkbook(in);
         }
 
         try {
@@ -212,55 +263,114 @@ public class FileParserService {
         }
     }
 
-    private ParsedFileData parseCsv(MultipartFile file) throws IOException {
-        String content = new String(file.getBytes(), StandardCharsets.UTF_8);
-        String[] lines = content.split("\n");
+    /** Parses CSV/XLSX while streaming every table into the column store. */
+    private ParsedFileData parseTabular(Path storedPath, boolean csv) throws IOException {
+        return parseIntoColumnStore(storedPath, sink -> {
+            if (csv) {
+                try (InputStream in = Files.newInputStream(storedPath)) {
+                    return csvParser.parse(in, maxRetainedRows, "data", sink);
+                }
+            }
+            return xlsxParser.parse(storedPath, maxRetainedRows, sink);
+        });
+    }
 
-        ParsedFileData data = new ParsedFileData();
-        List<List<String>> rows = new ArrayList<>();
-        List<String> headers = new ArrayList<>();
+    private interface TableParse {
+        ParsedFileData parse(TableSink sink) throws IOException;
+    }
 
-        for (int i = 0; i < lines.length; i++) {
-            String[] cells = lines[i].split(",");
-            List<String> row = Arrays.asList(cells);
-            if (i == 0) {
-                headers = row;
-            }
-            rows.add(row);
+    /**
+     * Runs {@code parse} with a typed column store at {@code <storedPath>.cols}
+     * as its table sink, so later scans don't go through the JSON. The store
+     * is dropped again when no table was found.
+     */
+    private ParsedFileData parseIntoColumnStore(Path storedPath, TableParse parse) throws IOException {
+        Path columnarPath = Paths.get(storedPath + ".cols");
+        ParsedFileData data;
+        int tables;
+
+        try (ColumnarTableWriter writer = new ColumnarTableWriter(columnarPath)) {
+            data = parse.parse(writer);
+            tables = writer.tableCount();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(columnarPath);
+            throw e;
         }
 
-        Map<String, Map<String, Double>> columnStats = calculateColumnStats(headers, rows);
-
-        data.setText(content);
-        data.setStructuredData(Map.of(
-                "headers", headers,
-                "rows", rows,
-                "rowCount", rows.size(),
-                "columnCount", headers.size(),
-                "statistics", columnStats
-        ));
-        data.setDataSummary("CSV file with " + rows.size() + " rows and " + headers.size() + " columns");
+        if (tables > 0) {
+            data.setColumnarPath(columnarPath.toString());
+        } else {
+            Files.deleteIfExists(columnarPath);
+        }
 
         return data;
     }
 
-    private ParsedFileData parseWord(MultipartFile file) throws IOException {
-        try (XWPFDocument document = new XWPFDocument(file.getInputStream())) {
-            StringBuilder text = new StringBuilder();
-            for (XWPFParagraph para : document.getParagraphs()) {
-                text.append(para.getText()).append("\n");
-            }
+    private ParsedFileData parseWord(Path storedPath) throws IOException {
+        return parseIntoColumnStore(storedPath, sink -> {
+            try (InputStream in = Files.newInputStream(storedPath);
+                 XWPFDocument document = new XWPFDocument(in)) {
+                StringBuilder text = new StringBuilder();
+                DocumentTableCollector tables = new DocumentTableCollector(sink, maxRetainedRows);
+
+                // Body order, so tables stay where they were in the text too
+                for (IBodyElement element : document.getBodyElements()) {
+                    if (element instanceof XWPFParagraph para) {
+                        text.append(para.getText()).append("\n");
+                    } else if (element instanceof XWPFTable table) {
+                        List<List<String>> rows = tableRows(table);
+                        for (List<String> row : rows) {
+                            text.append(String.join("\t", row)).append("\n");
+                        }
+                        tables.add("Table " + (tables.tables().size() + 1), rows);
+                    }
+                }
 
-            ParsedFileData data = new ParsedFileData();
-            data.setText(text.toString());
-            data.setDataSummary("Word document with " + document.getParagraphs().size() + " paragraphs");
+                ParsedFileData data = new ParsedFileData();
+                data.setText(text.toString());
+                data.setDataSummary("Word document with " + document.getParagraphs().size() + " paragraphs"
+                        + tableSummary(tables.tables().size()));
+                if (!tables.tables().isEmpty()) {
+                    data.setStructuredData(Map.of(
+                            "tables", tables.tables(),
+                            "tableCount", tables.tables().size()
+                    ));
+                }
 
-            return data;
+                return data;
+            }
+        });
+    }
+
+    // Cell text per row; a cell spanning several grid columns is padded with blanks so columns stay aligned
+    private static List<List<String>> tableRows(XWPFTable table) {
+        List<List<String>> rows = new ArrayList<>();
+        for (XWPFTableRow row : table.getRows()) {
+            List<String> cells = new ArrayList<>();
+            for (XWPFTableCell cell : row.getTableCells()) {
+                cells.add(cell.getText().trim());
+                int span = cell.getCTTc().getTcPr() != null && cell.getCTTc().getTcPr().getGridSpan() != null
+                        ? cell.getCTTc().getTcPr().getGridSpan().getVal().intValue()
+                        : 1;
+                for (int i = 1; i < span; i++) {
+                    cells.add("");
+                }
+            }
+            rows.add(cells);
         }
+        return rows;
+    }
+
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
     }
 
-    private ParsedFileData parseJson(MultipartFile file) throws IOException {
-        String content = new String(file.getBytes(), StandardCharsets.UTF_8);
+    private static String tableSummary(int tables) {
+        return tables == 0 ? "" : " and " + tables + " table(s)";
+    }
+
+    private ParsedFileData parseJson(Path storedPath) throws IOException {
+        String content = new String(Files.readAllBytes(storedPath), StandardCharsets.UTF_8);
 
         ParsedFileData data = new ParsedFileData();
         data.setText(content);
@@ -276,8 +386,8 @@ public class FileParserService {
         return data;
     }
 
-    private ParsedFileData parseText(MultipartFile file) throws IOException {
-        String content = new String(file.getBytes(), StandardCharsets.UTF_8);
+    private ParsedFileData parseText(Path storedPath) throws IOException {
+        String content = new String(Files.readAllBytes(storedPath), StandardCharsets.UTF_8);
 
         ParsedFileData data = new ParsedFileData();
         data.setText(content);
@@ -318,51 +428,32 @@ public class FileParserService {
         Map<String, Map<String, Double>> stats = new HashMap<>();
 
         for (int col = 0; col < headers.size(); col++) {
-            List<Double> numericValues = new ArrayList<>();
+            ColumnStatsAccumulator acc = new ColumnStatsAccumulator();
 
             for (int row = 1; row < rows.size(); row++) {
                 if (col < rows.get(row).size()) {
-                    try {
-                        double val = Double.parseDouble(rows.get(row).get(col).trim());
-                        numericValues.add(val);
-                    } catch (NumberFormatException ignored) {}
+                    acc.accept(rows.get(row).get(col));
                 }
             }
 
-            if (numericValues.size() > 0) {
-                Map<String, Double> colStats = new HashMap<>();
-                double sum = numericValues.stream().mapToDouble(Double::doubleValue).sum();
-                double avg = sum / numericValues.size();
-                double min = numericValues.stream().mapToDouble(Double::doubleValue).min().orElse(0);
-                double max = numericValues.stream().mapToDouble(Double::doubleValue).max().orElse(0);
-
-                colStats.put("sum", Math.round(sum * 100.0) / 100.0);
-                colStats.put("average", Math.round(avg * 100.0) / 100.0);
-                colStats.put("min", min);
-                colStats.put("max", max);
-                colStats.put("count", (double) numericValues.size());
-
-                stats.put(headers.get(col), colStats);
+            if (acc.hasValues()) {
+                stats.put(headers.get(col), acc.toMap());
             }
         }
 
         return stats;
     }
 
-    private List<Map<String, Object>> extractTablesFromText(String text) {
-        // Basic table extraction from text (rows separated by newlines, columns by tabs/multiple spaces)
-        List<Map<String, Object>> tables = new ArrayList<>();
-        // This is a simplified implementation
-        return tables;
-    }
-
     private void validateFile(MultipartFile file) {
         if (file.isEmpty()) {
             throw new ApiException("File is empty", HttpStatus.BAD_REQUEST);
         }
 
-        if (file.getSize() > MAX_FILE_SIZE) {
-            throw new ApiException("File size exceeds maximum allowed (10MB)", HttpStatus.BAD_REQUEST);
+        if (file.getSize() > maxFileSize) {
+            throw new ApiException(
+                    "File size exceeds maximum allowed (" + (maxFileSize / (1024 * 1024)) + "MB)",
+                    HttpStatus.BAD_REQUEST
+            );
         }
 
         String contentType = file.getContentType();
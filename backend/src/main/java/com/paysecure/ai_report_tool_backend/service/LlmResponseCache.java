@@ -0,0 +1,178 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.repository.LlmResponseCacheRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache of chat completions keyed by a hash of everything that
+ * determines the output: model, temperature, system prompt and user prompt.
+ * Tier 1 is an in-process LRU bounded by approximate bytes, tier 2 is the
+ * llm_response_cache table so entries survive restarts and are shared by nodes.
+ */
+@Slf4j
+@Service
+public class LlmResponseCache {
+
+    private final LlmResponseCacheRepository repository;
+    private final boolean enabled;
+    private final long maxMemoryBytes;
+    private final Duration ttl;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, CachedCompletion> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes = 0;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong databaseHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public LlmResponseCache(
+            LlmResponseCacheRepository repository,
+            @Value("${llm-cache.enabled:true}") boolean enabled,
+            @Value("${llm-cache.memory-max-bytes:33554432}") long maxMemoryBytes,
+            @Value("${llm-cache.ttl-hours:720}") long ttlHours
+    ) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    public record CachedCompletion(String content, int promptTokens, int completionTokens, Instant createdAt) {
+
+        long sizeBytes() {
+            return content.length() * 2L + 96; // UTF-16 chars plus object overhead
+        }
+    }
+
+    public record Stats(
+            long memoryHits,
+            long databaseHits,
+            long misses,
+            double hitRatio,
+            int memoryEntries,
+            long memoryBytes,
+            long memoryMaxBytes
+    ) {}
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public static String key(String model, double temperature, String systemPrompt, String userPrompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Length-prefix every part so different splits can't collide
+            for (String part : new String[]{model, Double.toString(temperature), systemPrompt, userPrompt}) {
+                byte[] bytes = (part != null ? part : "").getBytes(StandardCharsets.UTF_8);
+                digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ':');
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<CachedCompletion> get(String key) {
+        synchronized (memory) {
+            CachedCompletion hit = memory.get(key);
+            if (hit != null && !isExpired(hit.createdAt())) {
+                memoryHits.incrementAndGet();
+                return Optional.of(hit);
+            }
+        }
+
+        Optional<CachedCompletion> stored = repository
+                .findByCacheKeyAndCreatedAtAfter(key, Instant.now().minus(ttl))
+                .map(e -> new CachedCompletion(e.getContent(), e.getPromptTokens(), e.getCompletionTokens(), e.getCreatedAt()));
+
+        if (stored.isPresent()) {
+            databaseHits.incrementAndGet();
+            remember(key, stored.get());
+        } else {
+            misses.incrementAndGet();
+        }
+
+        return stored;
+    }
+
+    public void put(String key, String model, String content, int promptTokens, int completionTokens) {
+        CachedCompletion completion = new CachedCompletion(content, promptTokens, completionTokens, Instant.now());
+        remember(key, completion);
+
+        try {
+            // Re-putting a key the purge has not reached yet must restart its TTL
+            repository.upsert(key, model, content, promptTokens, completionTokens, completion.createdAt());
+        } catch (Exception e) {
+            // The completion already succeeded; a failed cache write must not fail the report
+            log.warn("Failed to persist LLM cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    public Stats stats() {
+        long memory = memoryHits.get();
+        long database = databaseHits.get();
+        long miss = misses.get();
+        long total = memory + database + miss;
+
+        synchronized (this.memory) {
+            return new Stats(
+                    memory,
+                    database,
+                    miss,
+                    total == 0 ? 0.0 : (double) (memory + database) / total,
+                    this.memory.size(),
+                    memoryBytes,
+                    maxMemoryBytes
+            );
+        }
+    }
+
+    @Scheduled(cron = "${llm-cache.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        int removed = repository.deleteOlderThan(Instant.now().minus(ttl));
+        if (removed > 0) {
+            log.info("Purged {} expired LLM cache entries", removed);
+        }
+    }
+
+    private void remember(String key, CachedCompletion completion) {
+        long size = completion.sizeBytes();
+        if (size > maxMemoryBytes) return;
+
+        synchronized (memory) {
+            CachedCompletion previous = memory.put(key, completion);
+            if (previous != null) {
+                memoryBytes -= previous.sizeBytes();
+            }
+            memoryBytes += size;
+
+            Iterator<Map.Entry<String, CachedCompletion>> it = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && it.hasNext()) {
+                memoryBytes -= it.next().getValue().sizeBytes();
+                it.remove();
+            }
+        }
+    }
+
+    private boolean isExpired(Instant createdAt) {
+        return createdAt.isBefore(Instant.now().minus(ttl));
+    }
+}
@@ -0,0 +1,217 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.model.UploadedFile;
+import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
+import com.paysecure.ai_report_tool_backend.service.prompt.DataPartitioner;
+import com.paysecure.ai_report_tool_backend.service.prompt.PromptAssembler;
+import com.paysecure.ai_report_tool_backend.service.prompt.TokenEstimator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Runs report generation as a single completion when the data fits the
+ * prompt budget, and as map-reduce when it doesn't: uploads are cut into
+ * token-sized slices, each batch of slices is analysed by a parallel "map"
+ * call, and a final "reduce" call turns the partial findings into the usual
+ * structured report. Wall time is roughly (batches / parallelism) map calls
+ * plus one reduce call.
+ */
+@Slf4j
+@Service
+public class MapReduceGenerationService {
+
+    private static final String MAP_SYSTEM_PROMPT = """
+            You are a data analyst working on one slice of a larger dataset for a business report.
+            Extract everything the final report will need from this slice: totals, counts, averages,
+            minimum and maximum values, category breakdowns, trends over time and notable outliers.
+            Always give exact figures and say which file, table and rows they come from.
+            State additive figures (sums, counts) so they can be combined with other slices.
+            Do not write the report itself. Reply with concise plain-text bullet points.
+            """;
+
+    private static final String COMBINE_SYSTEM_PROMPT = """
+            You merge partial findings from several slices of the same dataset.
+            Combine additive figures (add sums and counts, recompute averages from them),
+            keep per-category breakdowns, extremes and outliers, and drop repetition.
+            Keep every figure exact. Reply with concise plain-text bullet points.
+            """;
+
+    private static final int MAX_REDUCE_LEVELS = 4;
+
+    private final OpenAIService openAIService;
+    private final PromptAssembler promptAssembler;
+    private final UploadedFileRepository uploadedFileRepository;
+    private final AsyncTaskExecutor executor;
+
+    @Value("${report.generation.map-reduce.enabled:true}")
+    private boolean enabled;
+
+    @Value("${report.generation.map-reduce.parallelism:8}")
+    private int parallelism;
+
+    @Value("${report.generation.map-reduce.partial-max-tokens:1200}")
+    private int partialMaxTokens;
+
+    public MapReduceGenerationService(
+            OpenAIService openAIService,
+            PromptAssembler promptAssembler,
+            UploadedFileRepository uploadedFileRepository,
+            @Qualifier("outboundCallExecutor") AsyncTaskExecutor executor
+    ) {
+        this.openAIService = openAIService;
+        this.promptAssembler = promptAssembler;
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.executor = executor;
+    }
+
+    public String generate(ReportService.GenerationContext ctx, Consumer<String> onDelta) throws IOException {
+        String systemContent = openAIService.resolveSystemPrompt(ctx.systemPrompt());
+        int reserved = TokenEstimator.estimate(systemContent) + openAIService.getMaxTokens();
+        List<UploadedFile> files = uploadedFileRepository.findByReport(ctx.report());
+
+        PromptAssembler.PromptAssembly assembly = promptAssembler.assemble(
+                ctx.report(), ctx.calculationPrompt(), ctx.outputFormatPrompt(), ctx.inputs(), files, reserved);
+
+        if (!enabled || PromptAssembler.isComplete(assembly)) {
+            return openAIService.complete(ctx.report(), ctx.user(), systemContent, assembly.prompt(),
+                    openAIService.getMaxTokens(), ctx.useResponseCache(), onDelta, assembly);
+        }
+
+        /* ---- MAP ---- */
+        String head = promptAssembler.head(ctx.report(), ctx.calculationPrompt(), ctx.inputs());
+        int mapReserved = TokenEstimator.estimate(MAP_SYSTEM_PROMPT) + partialMaxTokens;
+        int sliceBudget = promptAssembler.budgetFor(mapReserved) - TokenEstimator.estimate(head) - 50;
+        if (sliceBudget < 500) {
+            throw new IOException("Report instructions leave no room for data in the prompt budget");
+        }
+
+        List<String> batches = batch(files, sliceBudget);
+        log.info("Map-reduce generation for report {}: {} file(s) in {} slice batch(es)",
+                ctx.report().getId(), files.size(), batches.size());
+
+        List<String> findings = runParallel(ctx, MAP_SYSTEM_PROMPT, batches.stream()
+                .map(b -> head + "DATA SLICE:\n" + b)
+                .toList());
+
+        /* ---- REDUCE ---- */
+        int reduceBudget = assembly.budgetTokens() - assembly.fixedTokens() - 50;
+        for (int level = 0; TokenEstimator.estimate(String.join("\n", findings)) > reduceBudget; level++) {
+            if (level == MAX_REDUCE_LEVELS) {
+                throw new IOException("Partial findings still exceed the prompt budget after " + level + " merges");
+            }
+            findings = runParallel(ctx, COMBINE_SYSTEM_PROMPT, group(findings, reduceBudget / 2).stream()
+                    .map(g -> "PARTIAL FINDINGS TO MERGE:\n\n" + g)
+                    .toList());
+        }
+
+        StringBuilder body = new StringBuilder("PARTIAL FINDINGS (covering all uploaded data, ")
+                .append(batches.size()).append(" slices):\n\n");
+        for (int i = 0; i < findings.size(); i++) {
+            body.append("### Findings ").append(i + 1).append("\n").append(findings.get(i)).append("\n\n");
+        }
+        body.append("Base the report only on these findings; they already aggregate the raw data.\n");
+
+        String reducePrompt = promptAssembler.wrap(
+                ctx.report(), ctx.calculationPrompt(), ctx.outputFormatPrompt(), ctx.inputs(), body.toString());
+
+        return openAIService.complete(ctx.report(), ctx.user(), systemContent, reducePrompt,
+                openAIService.getMaxTokens(), ctx.useResponseCache(), onDelta, assembly);
+    }
+
+    /** Slices every file, then packs consecutive slices into batches of at most {@code budget} tokens. */
+    private static List<String> batch(List<UploadedFile> files, int budget) throws IOException {
+        List<String> slices = new ArrayList<>();
+        for (UploadedFile file : files) {
+            for (DataPartitioner.Partition partition : DataPartitioner.partition(file, budget)) {
+                slices.add(partition.content());
+            }
+        }
+        return group(slices, budget);
+    }
+
+    private static List<String> group(List<String> parts, int budget) {
+        List<String> groups = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int tokens = 0;
+
+        for (String part : parts) {
+            int partTokens = TokenEstimator.estimate(part);
+            if (tokens + partTokens > budget && current.length() > 0) {
+                groups.add(current.toString());
+                current.setLength(0);
+                tokens = 0;
+            }
+            current.append(part).append("\n\n");
+            tokens += partTokens;
+        }
+        if (current.length() > 0) {
+            groups.add(current.toString());
+        }
+        return groups;
+    }
+
+    /**
+     * Runs one completion per prompt on the outbound executor, at most
+     * {@code parallelism} at a time for this report; results keep prompt order.
+     * The first failure stops submission and cancels the calls not yet started,
+     * so a failed report doesn't keep paying for partials it will discard.
+     */
+    private List<String> runParallel(ReportService.GenerationContext ctx, String systemPrompt, List<String> prompts)
+            throws IOException {
+
+        Semaphore permits = new Semaphore(parallelism);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+
+        try {
+            for (String prompt : prompts) {
+                permits.acquire();
+                if (firstFailure.isDone()) break;
+
+                CompletableFuture<String> call = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return openAIService.complete(ctx.report(), ctx.user(), systemPrompt, prompt,
+                                partialMaxTokens, ctx.useResponseCache(), null, null);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+                call.whenComplete((r, e) -> {
+                    if (e != null) firstFailure.completeExceptionally(e);
+                    permits.release();
+                });
+                calls.add(call);
+            }
+
+            // Returns when every call has succeeded, throws as soon as one fails
+            CompletableFuture.anyOf(CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)), firstFailure)
+                    .join();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            calls.forEach(c -> c.cancel(true));
+            throw new IOException("Interrupted while running partial analyses", e);
+        } catch (RejectedExecutionException e) {
+            calls.forEach(c -> c.cancel(true));
+            throw new IOException("Outbound executor saturated; retry later", e);
+        } catch (CompletionException e) {
+            calls.forEach(c -> c.cancel(true));
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException io ? io : new IOException("Partial analysis failed: " + cause.getMessage(), cause);
+        }
+
+        return calls.stream().map(CompletableFuture::join).toList();
+    }
+}
@@ -0,0 +1,34 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+
+/**
+ * Identifies this process among the nodes sharing the database. Work claimed
+ * from a table queue is stamped with it, so a node only ever heartbeats its
+ * own rows. Unique per process: a restarted node never mistakes its
+ * predecessor's rows for live work of its own.
+ */
+@Component
+public class NodeIdentity {
+
+    private final String id;
+
+    public NodeIdentity() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        String id = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.id = id.length() > 100 ? id.substring(id.length() - 100) : id;
+    }
+
+    public String id() {
+        return id;
+    }
+}
@@ -3,29 +3,35 @@ package com.paysecure.ai_report_tool_backend.service;
 import com.paysecure.ai_report_tool_backend.model.AIRequest;
 import com.paysecure.ai_report_tool_backend.model.Report;
 import com.paysecure.ai_report_tool_backend.model.ReportChart;
-import com.paysecure.ai_report_tool_backend.model.UploadedFile;
 import com.paysecure.ai_report_tool_backend.model.User;
 import com.paysecure.ai_report_tool_backend.repository.AIRequestRepository;
 import com.paysecure.ai_report_tool_backend.repository.ReportChartRepository;
-import com.paysecure.ai_report_tool_backend.repository.ReportRepository;
-import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
+import com.paysecure.ai_report_tool_backend.service.prompt.PromptAssembler;
+import com.paysecure.ai_report_tool_backend.service.prompt.TokenEstimator;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import okhttp3.*;
+import lombok.extern.slf4j.Slf4j;
+import okio.BufferedSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+@Slf4j
 @Service
 public class OpenAIService {
 
-    private static final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
+    private static final double TEMPERATURE = 0.3;
+    private static final int MAX_TOKENS = 3000;
 
     @Value("${openai.api-key}")
     private String apiKey;
@@ -33,35 +39,66 @@ public class OpenAIService {
     @Value("${openai.model:gpt-4o}")
     private String defaultModel;
 
+    @Value("${openai.base-url:https://api.openai.com/v1}")
+    private String baseUrl;
+
+    @Value("${openai.streaming:true}")
+    private boolean streamingEnabled;
+
     private final AIRequestRepository aiRequestRepository;
     private final ReportChartRepository chartRepository;
-    private final UploadedFileRepository uploadedFileRepository;
+    private final PromptAssembler promptAssembler;
     private final OkHttpClient httpClient;
     private final Gson gson;
-    private final ReportRepository reportRepository;
+    private final LlmResponseCache responseCache;
 
     public OpenAIService(
             AIRequestRepository aiRequestRepository,
             ReportChartRepository chartRepository,
-            UploadedFileRepository uploadedFileRepository,
-            ReportRepository reportRepository
+            PromptAssembler promptAssembler,
+            OkHttpClient okHttpClient,
+            LlmResponseCache responseCache
     ) {
         this.aiRequestRepository = aiRequestRepository;
         this.chartRepository = chartRepository;
-        this.uploadedFileRepository = uploadedFileRepository;
-        this.reportRepository = reportRepository;
-        this.httpClient = new OkHttpClient.Builder()
+        this.promptAssembler = promptAssembler;
+        this.httpClient = okHttpClient.newBuilder()
                 .connectTimeout(60, TimeUnit.SECONDS)
                 .readTimeout(180, TimeUnit.SECONDS)
                 .writeTimeout(60, TimeUnit.SECONDS)
                 .build();
         this.gson = new Gson();
+        this.responseCache = responseCache;
     }
 
     public boolean isConfigured() {
         return apiKey != null && !apiKey.isBlank();
     }
 
+    public String getModel() {
+        return defaultModel;
+    }
+
+    public boolean isStreamingEnabled() {
+        return streamingEnabled;
+    }
+
+    /** Completion allowance for the final report call. */
+    public int getMaxTokens() {
+        return MAX_TOKENS;
+    }
+
+    public String resolveSystemPrompt(String systemPrompt) {
+        return (systemPrompt != null && !systemPrompt.isBlank())
+                ? systemPrompt
+                : getDefaultSystemPrompt();
+    }
+
+    /**
+     * Runs the chat completion for a report and returns the raw model output.
+     * Does not touch the report or its charts, so it can be called outside a
+     * transaction; persist the result with {@link #parseAndPersistStructuredResponse}.
+     */
     public String generateReport(
             Report report,
             User user,
@@ -70,84 +107,74 @@ public class OpenAIService {
             String outputFormatPrompt,
             Map<String, String> inputs
     ) throws IOException {
+        return generateReport(report, user, systemPrompt, calculationPrompt, outputFormatPrompt, inputs, true, null);
+    }
 
-        if (!isConfigured()) {
-            throw new IllegalStateException("OpenAI API key not configured");
-        }
-
-        List<UploadedFile> uploadedFiles = uploadedFileRepository.findByReport(report);
-
-        StringBuilder fullPrompt = new StringBuilder();
+    /**
+     * Same as above; when {@code onDelta} is non-null the completion is requested
+     * with {@code stream=true} and every content delta is handed to it as it arrives.
+     * With {@code useCache} an identical earlier prompt is answered from
+     * {@link LlmResponseCache} without calling the API.
+     */
+    public String generateReport(
+            Report report,
+            User user,
+            String systemPrompt,
+            String calculationPrompt,
+            String outputFormatPrompt,
+            Map<String, String> inputs,
+            boolean useCache,
+            Consumer<String> onDelta
+    ) throws IOException {
 
-        if (calculationPrompt != null && !calculationPrompt.isBlank()) {
-            fullPrompt.append(calculationPrompt).append("\n\n");
-        }
+        String systemContent = resolveSystemPrompt(systemPrompt);
+        PromptAssembler.PromptAssembly assembly = promptAssembler.assemble(
+                report, calculationPrompt, outputFormatPrompt, inputs,
+                TokenEstimator.estimate(systemContent) + MAX_TOKENS
+        );
 
-        fullPrompt.append("REPORT CONTEXT:\n");
-        fullPrompt.append("- Industry: ").append(report.getIndustry()).append("\n");
-        fullPrompt.append("- Report Type: ").append(report.getReportType()).append("\n");
-        fullPrompt.append("- Audience: ").append(report.getAudience()).append("\n");
-        fullPrompt.append("- Purpose: ").append(report.getPurpose()).append("\n");
-        fullPrompt.append("- Tone: ").append(report.getTone()).append("\n");
-        fullPrompt.append("- Depth: ").append(report.getDepth()).append("\n\n");
-
-        if (inputs != null && !inputs.isEmpty()) {
-            fullPrompt.append("DATA INPUTS (Authoritative Source):\n");
-            fullPrompt.append(gson.toJson(inputs)).append("\n\n");
-        }
+        return complete(report, user, systemContent, assembly.prompt(), MAX_TOKENS, useCache, onDelta, assembly);
+    }
 
-        if (!uploadedFiles.isEmpty()) {
-            fullPrompt.append("UPLOADED DATA FILES:\n\n");
-            for (UploadedFile file : uploadedFiles) {
-                fullPrompt.append("File: ").append(file.getOriginalFilename()).append("\n");
-
-                if (file.getExtractedDataJson() != null) {
-                    fullPrompt.append(file.getExtractedDataJson()).append("\n\n");
-                } else if (file.getExtractedText() != null) {
-                    String text = file.getExtractedText();
-                    if (text.length() > 5000) {
-                        text = text.substring(0, 5000) + "...[truncated]";
-                    }
-                    fullPrompt.append(text).append("\n\n");
-                }
-            }
-        }
+    /**
+     * One chat completion with an already-built prompt, logged as an AIRequest.
+     * {@code assembly} (optional) is recorded as the budget decision behind the prompt.
+     */
+    public String complete(
+            Report report,
+            User user,
+            String systemContent,
+            String fullPrompt,
+            int maxTokens,
+            boolean useCache,
+            Consumer<String> onDelta,
+            PromptAssembler.PromptAssembly assembly
+    ) throws IOException {
 
-        if (outputFormatPrompt != null && !outputFormatPrompt.isBlank()) {
-            fullPrompt.append("\n").append(outputFormatPrompt).append("\n");
+        if (!isConfigured()) {
+            throw new IllegalStateException("OpenAI API key not configured");
         }
 
-        JsonObject requestBody = new JsonObject();
-        requestBody.addProperty("model", defaultModel);
-        requestBody.addProperty("temperature", 0.3);
-        requestBody.addProperty("max_tokens", 3000);
-
-        JsonArray messages = new JsonArray();
-
-        JsonObject systemMessage = new JsonObject();
-        systemMessage.addProperty("role", "system");
-        systemMessage.addProperty(
-                "content",
-                (systemPrompt != null && !systemPrompt.isBlank())
-                        ? systemPrompt
-                        : getDefaultSystemPrompt()
-        );
-        messages.add(systemMessage);
+        boolean stream = onDelta != null;
 
-        JsonObject userMessage = new JsonObject();
-        userMessage.addProperty("role", "user");
-        userMessage.addProperty("content", fullPrompt.toString());
-        messages.add(userMessage);
+        String cacheKey = useCache && responseCache.isEnabled()
+                ? LlmResponseCache.key(defaultModel, TEMPERATURE, systemContent, fullPrompt)
+                : null;
 
-        requestBody.add("messages", messages);
+        if (cacheKey != null) {
+            Optional<LlmResponseCache.CachedCompletion> cached = responseCache.get(cacheKey);
+            if (cached.isPresent()) {
+                return serveCached(cached.get().content(), report, user, assembly, onDelta);
+            }
+        }
 
         RequestBody body = RequestBody.create(
-                gson.toJson(requestBody),
+                gson.toJson(buildRequestBody(systemContent, fullPrompt, maxTokens, stream)),
                 MediaType.parse("application/json")
         );
 
         Request request = new Request.Builder()
-                .url(OPENAI_API_URL)
+                .url(baseUrl + "/chat/completions")
                 .addHeader("Authorization", "Bearer " + apiKey)
                 .addHeader("Content-Type", "application/json")
                 .post(body)
@@ -157,11 +184,10 @@ public class OpenAIService {
         aiRequest.setReport(report);
         aiRequest.setUser(user);
         aiRequest.setModel(defaultModel);
+        recordBudget(aiRequest, assembly);
 
         try (Response response = httpClient.newCall(request).execute()) {
 
-            String responseBody = response.body().string();
-
             if (!response.isSuccessful()) {
                 aiRequest.setStatus("error");
                 aiRequest.setErrorMessage("API Error: " + response.code());
@@ -169,33 +195,19 @@ public class OpenAIService {
                 throw new IOException("OpenAI API error: " + response.code());
             }
 
-            JsonObject jsonResponse = gson.fromJson(responseBody, JsonObject.class);
-
-            if (jsonResponse.has("usage")) {
-                JsonObject usage = jsonResponse.getAsJsonObject("usage");
-                aiRequest.setPromptTokens(usage.get("prompt_tokens").getAsInt());
-                aiRequest.setCompletionTokens(usage.get("completion_tokens").getAsInt());
-                aiRequest.setTotalTokens(usage.get("total_tokens").getAsInt());
-
-                double cost =
-                        (aiRequest.getPromptTokens() * 0.00003)
-                                + (aiRequest.getCompletionTokens() * 0.00006);
-
-                aiRequest.setCostUsd(BigDecimal.valueOf(cost));
-            }
-
-            String content = jsonResponse.getAsJsonArray("choices")
-                    .get(0).getAsJsonObject()
-                    .getAsJsonObject("message")
-                    .get("content").getAsString();
+            String content = stream
+                    ? readStreamedCompletion(response.body().source(), aiRequest, onDelta)
+                    : readCompletion(response.body().string(), aiRequest);
 
-            String finalMarkdown = parseAndPersistStructuredResponse(content, report);
-            report.setContent(finalMarkdown);
-            reportRepository.save(report);
             aiRequest.setStatus("success");
             aiRequestRepository.save(aiRequest);
 
-            return finalMarkdown;
+            if (cacheKey != null) {
+                responseCache.put(cacheKey, defaultModel, content,
+                        aiRequest.getPromptTokens(), aiRequest.getCompletionTokens());
+            }
+
+            return content;
 
         } catch (Exception e) {
             aiRequest.setStatus("error");
@@ -205,7 +217,160 @@ public class OpenAIService {
         }
     }
 
-    private String parseAndPersistStructuredResponse(String content, Report report) {
+    /**
+     * Cache hit: no API call and no token spend, but still logged as an
+     * AIRequest so usage reports show where completions came from.
+     */
+    private String serveCached(
+            String content,
+            Report report,
+            User user,
+            PromptAssembler.PromptAssembly assembly,
+            Consumer<String> onDelta
+    ) {
+        AIRequest aiRequest = new AIRequest();
+        aiRequest.setReport(report);
+        aiRequest.setUser(user);
+        aiRequest.setModel(defaultModel);
+        recordBudget(aiRequest, assembly);
+        aiRequest.setCostUsd(BigDecimal.ZERO);
+        aiRequest.setStatus("cached");
+        aiRequestRepository.save(aiRequest);
+
+        if (onDelta != null) {
+            onDelta.accept(content);
+        }
+
+        return content;
+    }
+
+    private void recordBudget(AIRequest aiRequest, PromptAssembler.PromptAssembly assembly) {
+        if (assembly == null) return;
+
+        aiRequest.setEstimatedPromptTokens(assembly.estimatedTokens());
+        aiRequest.setPromptBudgetTokens(assembly.budgetTokens());
+        aiRequest.setPromptBudgetJson(promptAssembler.toJson(assembly));
+    }
+
+    private JsonObject buildRequestBody(String systemContent, String userPrompt, int maxTokens, boolean stream) {
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("model", defaultModel);
+        requestBody.addProperty("temperature", TEMPERATURE);
+        requestBody.addProperty("max_tokens", maxTokens);
+
+        if (stream) {
+            requestBody.addProperty("stream", true);
+
+            // Ask for a final usage chunk so streamed calls are still metered
+            JsonObject streamOptions = new JsonObject();
+            streamOptions.addProperty("include_usage", true);
+            requestBody.add("stream_options", streamOptions);
+        }
+
+        JsonArray messages = new JsonArray();
+
+        JsonObject systemMessage = new JsonObject();
+        systemMessage.addProperty("role", "system");
+        systemMessage.addProperty("content", systemContent);
+        messages.add(systemMessage);
+
+        JsonObject userMessage = new JsonObject();
+        userMessage.addProperty("role", "user");
+        userMessage.addProperty("content", userPrompt);
+        messages.add(userMessage);
+
+        requestBody.add("messages", messages);
+
+        return requestBody;
+    }
+
+    private String readCompletion(String responseBody, AIRequest aiRequest) {
+        JsonObject jsonResponse = gson.fromJson(responseBody, JsonObject.class);
+
+        if (jsonResponse.has("usage")) {
+            recordUsage(aiRequest, jsonResponse.getAsJsonObject("usage"));
+        }
+
+        return jsonResponse.getAsJsonArray("choices")
+                .get(0).getAsJsonObject()
+                .getAsJsonObject("message")
+                .get("content").getAsString();
+    }
+
+    /**
+     * Reads an OpenAI SSE stream ("data: {chunk}" lines terminated by "data: [DONE]"),
+     * forwarding each content delta and returning the assembled content. A stream
+     * that ends before "[DONE]" or a finish_reason was cut off mid-completion, so
+     * it fails rather than passing truncated text on to be cached and persisted.
+     */
+    private String readStreamedCompletion(
+            BufferedSource source,
+            AIRequest aiRequest,
+            Consumer<String> onDelta
+    ) throws IOException {
+
+        StringBuilder content = new StringBuilder();
+        boolean finished = false;
+        String line;
+
+        while ((line = source.readUtf8Line()) != null) {
+
+            if (!line.startsWith("data:")) continue;
+
+            String data = line.substring(5).trim();
+            if (data.isEmpty()) continue;
+            if ("[DONE]".equals(data)) {
+                finished = true;
+                break;
+            }
+
+            JsonObject chunk = gson.fromJson(data, JsonObject.class);
+
+            if (chunk.has("usage") && chunk.get("usage").isJsonObject()) {
+                recordUsage(aiRequest, chunk.getAsJsonObject("usage"));
+            }
+
+            JsonArray choices = chunk.getAsJsonArray("choices");
+            if (choices == null || choices.isEmpty()) continue;
+
+            JsonObject choice = choices.get(0).getAsJsonObject();
+            if (choice.has("finish_reason") && !choice.get("finish_reason").isJsonNull()) {
+                finished = true;
+            }
+
+            JsonObject delta = choice.getAsJsonObject("delta");
+
+            if (delta != null && delta.has("content") && !delta.get("content").isJsonNull()) {
+                String text = delta.get("content").getAsString();
+                content.append(text);
+                onDelta.accept(text);
+            }
+        }
+
+        if (!finished) {
+            throw new IOException("OpenAI stream ended before the completion finished");
+        }
+
+        return content.toString();
+    }
+
+    private void recordUsage(AIRequest aiRequest, JsonObject usage) {
+        aiRequest.setPromptTokens(usage.get("prompt_tokens").getAsInt());
+        aiRequest.setCompletionTokens(usage.get("completion_tokens").getAsInt());
+        aiRequest.setTotalTokens(usage.get("total_tokens").getAsInt());
+
+        double cost =
+                (aiRequest.getPromptTokens() * 0.00003)
+                        + (aiRequest.getCompletionTokens() * 0.00006);
+
+        aiRequest.setCostUsd(BigDecimal.valueOf(cost));
+    }
+
+    /**
+     * Parses the structured JSON completion, replaces the report's charts and
+     * returns the markdown body. Must run inside the caller's transaction.
+     */
+    public String parseAndPersistStructuredResponse(String content, Report report) {
 
         try {
 
@@ -249,6 +414,7 @@ public class OpenAIService {
                 JsonArray charts = structured.getAsJsonArray("charts");
 
                 int order = 0;
+                List<ReportChart> parsed = new ArrayList<>(charts.size());
 
                 for (int i = 0; i < charts.size(); i++) {
 
@@ -266,8 +432,11 @@ public class OpenAIService {
                     );
                     chart.setSortOrder(order++);
 
-                    chartRepository.save(chart);
+                    parsed.add(chart);
                 }
+
+                // One batched INSERT at flush rather than a statement per chart
+                chartRepository.saveAll(parsed);
             }
 
             // 🔥 STEP 6: Return clean markdown
@@ -278,8 +447,7 @@ public class OpenAIService {
 
         } catch (Exception e) {
 
-            System.out.println("STRUCTURED PARSE FAILED");
-            e.printStackTrace();
+            log.warn("Structured parse failed", e);
 
             return content;
         }
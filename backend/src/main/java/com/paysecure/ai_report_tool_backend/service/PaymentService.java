@@ -15,7 +15,9 @@ import okhttp3.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -35,6 +37,7 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final CreditService creditService;
+    private final TransactionTemplate transactionTemplate;
     private final OkHttpClient httpClient;
     private final Gson gson;
 
@@ -48,11 +51,14 @@ public class PaymentService {
 
     public PaymentService(
             PaymentRepository paymentRepository,
-            CreditService creditService
+            CreditService creditService,
+            PlatformTransactionManager transactionManager,
+            OkHttpClient okHttpClient
     ) {
         this.paymentRepository = paymentRepository;
         this.creditService = creditService;
-        this.httpClient = new OkHttpClient.Builder()
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.httpClient = okHttpClient.newBuilder()
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .build();
@@ -70,7 +76,11 @@ public class PaymentService {
                 .orElseThrow(() -> new ApiException("Package not found", HttpStatus.NOT_FOUND));
     }
 
-    @Transactional
+    /**
+     * Not transactional on purpose: the Paysecure round-trip must not hold a
+     * pooled JDBC connection. Each save commits on its own, except the demo
+     * completion, which commits the payment and its credits together.
+     */
     public PaymentResponse initiatePurchase(User user, PaymentRequest request) {
         CreditPackage pkg = getPackage(request.packageId());
 
@@ -101,7 +111,8 @@ public class PaymentService {
         }
 
         // Demo mode: auto-complete the payment
-        return completePurchaseDemo(payment);
+        Payment pending = payment;
+        return transactionTemplate.execute(status -> completePurchaseDemo(pending));
     }
 
     @Transactional
@@ -176,7 +187,7 @@ public class PaymentService {
         }
     }
 
-    // Demo mode - auto-complete payment without real payment provider
+    // Demo mode - auto-complete payment without real payment provider; runs in the caller's transaction
     private PaymentResponse completePurchaseDemo(Payment payment) {
         payment.setStatus(PaymentStatus.COMPLETED);
         payment.setCompletedAt(Instant.now());
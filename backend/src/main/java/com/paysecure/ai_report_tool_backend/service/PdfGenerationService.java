@@ -3,31 +3,56 @@ package com.paysecure.ai_report_tool_backend.service;
 import com.paysecure.ai_report_tool_backend.model.Report;
 import com.paysecure.ai_report_tool_backend.model.ReportChart;
 import com.paysecure.ai_report_tool_backend.repository.ReportChartRepository;
-import com.itextpdf.html2pdf.HtmlConverter;
+import com.paysecure.ai_report_tool_backend.service.chart.ChartRenderer;
+import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.*;
 import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.html2pdf.ConverterProperties;
 import com.itextpdf.html2pdf.HtmlConverter;
 import com.itextpdf.layout.element.IElement;
 import com.itextpdf.layout.properties.UnitValue;
 import com.paysecure.ai_report_tool_backend.utils.MarkdownUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @Service
 public class PdfGenerationService {
 
+    /**
+     * Bump whenever the layout changes so previously rendered PDFs in
+     * {@link RenderedPdfCache} stop matching.
+     */
+    public static final String RENDERER_VERSION = "3";
+
+    // Object streams + compressed xref; noticeably smaller files for table-heavy reports
+    @Value("${pdf.writer.full-compression:true}")
+    private boolean fullCompression = true;
+
+    // Reuses identical fonts/images/XObjects instead of writing them once per use
+    @Value("${pdf.writer.smart-mode:true}")
+    private boolean smartMode = true;
+
     private final ReportChartRepository chartRepository;
+    private final PdfRenderingContext renderingContext;
+    private final ChartRenderer chartRenderer;
 
     // Brand colors
     private static final DeviceRgb PRIMARY_COLOR = new DeviceRgb(95, 207, 238);  // #5fcfee
@@ -35,15 +60,39 @@ public class PdfGenerationService {
     private static final DeviceRgb ACCENT_COLOR = new DeviceRgb(233, 169, 196);   // #e9a9c4
     private static final Logger logger = LoggerFactory.getLogger(PdfGenerationService.class);
 
-    public PdfGenerationService(ReportChartRepository chartRepository) {
+    public PdfGenerationService(
+            ReportChartRepository chartRepository,
+            PdfRenderingContext renderingContext,
+            ChartRenderer chartRenderer
+    ) {
         this.chartRepository = chartRepository;
+        this.renderingContext = renderingContext;
+        this.chartRenderer = chartRenderer;
     }
 
     public byte[] generatePdf(Report report) {
+        return generatePdf(report, chartRepository.findByReportOrderBySortOrderAsc(report));
+    }
+
+    public byte[] generatePdf(Report report, List<ReportChart> charts) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writePdf(report, charts, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Renders straight into {@code out}; pages are flushed as they are laid
+     * out, so memory does not grow with document size. {@code out} is left
+     * open for the caller.
+     */
+    public void writePdf(Report report, List<ReportChart> charts, OutputStream out) {
         logger.info("Starting PDF generation for reportId={}, title={}", report.getId(), report.getTitle());
 
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            PdfWriter writer = new PdfWriter(baos);
+        try {
+            PdfWriter writer = new PdfWriter(out, new WriterProperties().setFullCompressionMode(fullCompression));
+            writer.setSmartMode(smartMode);
+            writer.setCloseStream(false);
+
             PdfDocument pdf = new PdfDocument(writer);
             Document document = new Document(pdf, PageSize.A4);
             document.setMargins(50, 50, 50, 50);
@@ -52,9 +101,8 @@ public class PdfGenerationService {
             addMetadataSection(document, report);
             addContent(document, pdf, report);
 
-            List<ReportChart> charts = chartRepository.findByReportOrderBySortOrderAsc(report);
             if (!charts.isEmpty()) {
-                addChartsSection(document, charts);
+                addChartsSection(document, pdf, charts);
             }
 
             addFooter(document);
@@ -62,7 +110,6 @@ public class PdfGenerationService {
             document.close();
 
             logger.info("PDF generation completed successfully for reportId={}", report.getId());
-            return baos.toByteArray();
 
         } catch (Exception e) {
             logger.error("Error generating PDF for reportId={}, error={}", report.getId(), e.getMessage(), e);
@@ -138,71 +185,18 @@ public class PdfGenerationService {
 
             logger.info("HTML content length for reportId={} is {}", report.getId(), htmlBody.length());
 
-            String styledHtml = """
-            <style>
-                body {
-                    font-family: Helvetica, Arial, sans-serif;
-                    font-size: 11pt;
-                    line-height: 1.6;
-                    color: #333333;
-                }
-                h1 {
-                    color: #5fcfee;
-                    font-size: 22px;
-                    margin-top: 20px;
-                }
-                h2 {
-                    color: #9fb3f5;
-                    font-size: 18px;
-                    margin-top: 18px;
-                }
-                h3 {
-                    font-size: 14px;
-                    margin-top: 15px;
-                }
-                p {
-                    margin-bottom: 10px;
-                }
-                table {
-                    border-collapse: collapse;
-                    width: 100%;
-                    margin-top: 10px;
-                    margin-bottom: 20px;
-                }
-                table, th, td {
-                    border: 1px solid #dddddd;
-                }
-                th {
-                    background-color: #5fcfee;
-                    color: white;
-                    padding: 6px;
-                }
-                td {
-                    padding: 6px;
-                }
-                ul {
-                    margin-left: 20px;
-                }
-                blockquote {
-                    background: #f5f5f5;
-                    padding: 10px;
-                    border-left: 4px solid #5fcfee;
-                }
-            </style>
-        """ + htmlBody;
-
-            List<IElement> elements = HtmlConverter.convertToElements(styledHtml);
-
-            Div container = new Div();
+            // Stylesheet and fonts come pre-built from the shared rendering context
+            ConverterProperties properties = renderingContext.converterProperties();
+            List<IElement> elements = HtmlConverter.convertToElements(renderingContext.styled(htmlBody), properties);
 
+            // Added one by one (not wrapped in a single Div) so finished pages
+            // can be flushed while later blocks are laid out
             for (IElement element : elements) {
                 if (element instanceof IBlockElement) {
-                    container.add((IBlockElement) element);
+                    document.add((IBlockElement) element);
                 }
             }
 
-            document.add(container);
-
             logger.info("Markdown successfully rendered into PDF for reportId={}", report.getId());
 
         } catch (Exception e) {
@@ -213,7 +207,7 @@ public class PdfGenerationService {
         }
     }
 
-    private void addChartsSection(Document document, List<ReportChart> charts) {
+    private void addChartsSection(Document document, PdfDocument pdf, List<ReportChart> charts) throws IOException {
 
         document.add(new AreaBreak());
 
@@ -223,54 +217,73 @@ public class PdfGenerationService {
                 .setFontColor(PRIMARY_COLOR)
                 .setMarginBottom(20));
 
+        // Chart labels are drawn in the standard Helvetica, shared by every chart in this document
+        PdfFont chartFont = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+
         for (ReportChart chart : charts) {
 
-            document.add(new Paragraph(chart.getTitle())
+            Paragraph title = new Paragraph(chart.getTitle())
                     .setFontSize(14)
                     .setBold()
-                    .setMarginBottom(10));
+                    .setMarginBottom(10);
 
             try {
-                com.google.gson.JsonObject chartData =
-                        new com.google.gson.Gson().fromJson(chart.getDataJson(),
-                                com.google.gson.JsonObject.class);
+                PdfFormXObject drawing = chartRenderer.render(chart, pdf, chartFont);
+
+                if (drawing != null) {
+                    // Title and drawing move to the next page together
+                    document.add(new Div()
+                            .add(title)
+                            .add(new Image(drawing).setMarginBottom(25))
+                            .setKeepTogether(true));
+                } else {
+                    document.add(title);
+                    addChartTable(document, chart);
+                }
 
-                com.google.gson.JsonArray labels = chartData.getAsJsonArray("labels");
-                com.google.gson.JsonArray datasets = chartData.getAsJsonArray("datasets");
+            } catch (Exception e) {
+                logger.error("Error rendering chartId={}, error={}", chart.getId(), e.getMessage(), e);
 
-                if (labels == null || datasets == null || datasets.size() == 0) {
-                    logger.warn("Invalid chart data for chartId={}", chart.getId());
-                    continue;
-                }
+                document.add(new Paragraph("Unable to render visualization data.")
+                        .setFontColor(ColorConstants.RED));
+            }
+        }
+    }
 
-                com.google.gson.JsonObject dataset = datasets.get(0).getAsJsonObject();
-                com.google.gson.JsonArray values = dataset.getAsJsonArray("data");
+    /** Chart types without a drawing fall back to a table of the first dataset. */
+    private void addChartTable(Document document, ReportChart chart) {
+        com.google.gson.JsonObject chartData =
+                new com.google.gson.Gson().fromJson(chart.getDataJson(),
+                        com.google.gson.JsonObject.class);
 
-                Table table = new Table(UnitValue.createPercentArray(new float[]{2, 2}))
-                        .setWidth(UnitValue.createPercentValue(100))
-                        .setMarginBottom(25);
+        com.google.gson.JsonArray labels = chartData.getAsJsonArray("labels");
+        com.google.gson.JsonArray datasets = chartData.getAsJsonArray("datasets");
 
-                table.addHeaderCell(createPremiumHeader("Category"));
-                table.addHeaderCell(createPremiumHeader("Amount"));
+        if (labels == null || datasets == null || datasets.size() == 0) {
+            logger.warn("Invalid chart data for chartId={}", chart.getId());
+            return;
+        }
 
-                for (int i = 0; i < labels.size(); i++) {
-                    String label = labels.get(i).getAsString();
-                    double value = values.get(i).getAsDouble();
+        com.google.gson.JsonObject dataset = datasets.get(0).getAsJsonObject();
+        com.google.gson.JsonArray values = dataset.getAsJsonArray("data");
 
-                    table.addCell(createPremiumCell(label));
-                    table.addCell(createPremiumCell(formatCurrency(value))
-                            .setTextAlignment(TextAlignment.RIGHT));
-                }
+        Table table = new Table(UnitValue.createPercentArray(new float[]{2, 2}))
+                .setWidth(UnitValue.createPercentValue(100))
+                .setMarginBottom(25);
 
-                document.add(table);
+        table.addHeaderCell(createPremiumHeader("Category"));
+        table.addHeaderCell(createPremiumHeader("Amount"));
 
-            } catch (Exception e) {
-                logger.error("Error rendering chartId={}, error={}", chart.getId(), e.getMessage(), e);
+        for (int i = 0; i < labels.size(); i++) {
+            String label = labels.get(i).getAsString();
+            double value = values.get(i).getAsDouble();
 
-                document.add(new Paragraph("Unable to render visualization data.")
-                        .setFontColor(ColorConstants.RED));
-            }
+            table.addCell(createPremiumCell(label));
+            table.addCell(createPremiumCell(formatCurrency(value))
+                    .setTextAlignment(TextAlignment.RIGHT));
         }
+
+        document.add(table);
     }
 
     private Cell createPremiumHeader(String text) {
@@ -291,20 +304,6 @@ public class PdfGenerationService {
         return String.format("₹%,.0f", value);
     }
 
-    private Cell createTableHeaderCell(String text) {
-        return new Cell()
-                .add(new Paragraph(text).setBold())
-                .setBackgroundColor(PRIMARY_COLOR)
-                .setFontColor(ColorConstants.WHITE)
-                .setPadding(8);
-    }
-
-    private Cell createTableCell(String text) {
-        return new Cell()
-                .add(new Paragraph(text))
-                .setPadding(6);
-    }
-
     private void addFooter(Document document) {
 
         document.add(new LineSeparator(new com.itextpdf.kernel.pdf.canvas.draw.SolidLine(0.5f))
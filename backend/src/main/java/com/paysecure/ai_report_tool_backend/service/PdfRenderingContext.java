@@ -0,0 +1,112 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.itextpdf.html2pdf.ConverterProperties;
+import com.itextpdf.html2pdf.resolver.font.DefaultFontProvider;
+import com.itextpdf.layout.font.FontProvider;
+import com.itextpdf.layout.font.FontSet;
+import com.itextpdf.styledxmlparser.resolver.font.BasicFontProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Everything html2pdf needs that does not depend on the report, built once.
+ * <p>
+ * Loading and parsing the standard and shipped fonts is the expensive part of
+ * a conversion; that work ends up in a {@link FontSet}, which is only read
+ * after construction and is shared by all threads. A {@link FontProvider}
+ * also caches {@code PdfFont}s, which belong to one document, so each export
+ * gets a thin provider of its own over the shared set.
+ */
+@Component
+public class PdfRenderingContext {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfRenderingContext.class);
+
+    /** Applied to every report body; kept as one constant so it is built once. */
+    static final String STYLESHEET = """
+            <style>
+                body {
+                    font-family: Helvetica, Arial, sans-serif;
+                    font-size: 11pt;
+                    line-height: 1.6;
+                    color: #333333;
+                }
+                h1 {
+                    color: #5fcfee;
+                    font-size: 22px;
+                    margin-top: 20px;
+                }
+                h2 {
+                    color: #9fb3f5;
+                    font-size: 18px;
+                    margin-top: 18px;
+                }
+                h3 {
+                    font-size: 14px;
+                    margin-top: 15px;
+                }
+                p {
+                    margin-bottom: 10px;
+                }
+                table {
+                    border-collapse: collapse;
+                    width: 100%;
+                    margin-top: 10px;
+                    margin-bottom: 20px;
+                }
+                table, th, td {
+                    border: 1px solid #dddddd;
+                }
+                th {
+                    background-color: #5fcfee;
+                    color: white;
+                    padding: 6px;
+                }
+                td {
+                    padding: 6px;
+                }
+                ul {
+                    margin-left: 20px;
+                }
+                blockquote {
+                    background: #f5f5f5;
+                    padding: 10px;
+                    border-left: 4px solid #5fcfee;
+                }
+            </style>
+            """;
+
+    private final FontSet fontSet;
+    private final String defaultFontFamily;
+    private final ConverterProperties template;
+
+    public PdfRenderingContext() {
+        long start = System.currentTimeMillis();
+
+        // Standard PDF fonts + html2pdf's shipped fonts; system fonts stay off for reproducible output
+        FontProvider prototype = new DefaultFontProvider(true, true, false);
+        this.fontSet = prototype.getFontSet();
+        this.defaultFontFamily = prototype.getDefaultFontFamily();
+        this.template = new ConverterProperties().setImmediateFlush(true);
+
+        logger.info("PDF rendering context ready: {} font(s) in {} ms",
+                fontSet.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Fresh properties for one conversion, sharing the pre-loaded fonts.
+     * Cheap; never share the result between threads or documents.
+     */
+    public ConverterProperties converterProperties() {
+        return new ConverterProperties(template)
+                .setFontProvider(new BasicFontProvider(fontSet, defaultFontFamily));
+    }
+
+    /**
+     * Wraps a markdown-rendered fragment with the report stylesheet.
+     */
+    public String styled(String htmlBody) {
+        return STYLESHEET + htmlBody;
+    }
+}
@@ -0,0 +1,447 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.ReportChart;
+import com.paysecure.ai_report_tool_backend.model.enums.ReportStatus;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationEvent;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationHandler;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationTopic;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * On-disk cache of rendered report PDFs. Files are named
+ * {@code <reportId>-<fingerprint>.pdf}, where the fingerprint hashes the
+ * renderer version and everything the PDF is drawn from, so any edit or
+ * renderer change simply misses. The directory is kept under
+ * {@code pdf-cache.max-bytes} by evicting least recently served files.
+ */
+@Slf4j
+@Service
+public class RenderedPdfCache implements InvalidationHandler {
+
+    private static final String SUFFIX = ".pdf";
+
+    private final PdfGenerationService pdfGenerationService;
+    private final Path directory;
+    private final long maxBytes;
+    private final boolean enabled;
+
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public RenderedPdfCache(
+            PdfGenerationService pdfGenerationService,
+            @Value("${pdf-cache.enabled:true}") boolean enabled,
+            @Value("${pdf-cache.dir:${java.io.tmpdir}/report-pdf-cache}") String directory,
+            @Value("${pdf-cache.max-bytes:536870912}") long maxBytes
+    ) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.maxBytes = maxBytes;
+
+        if (enabled) {
+            try {
+                Files.createDirectories(this.directory);
+                totalBytes.set(scan().stream().mapToLong(CachedFile::size).sum());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot initialise PDF cache at " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * A cached PDF ready to be copied to the client. Opened only once the
+     * response body is written, so an abandoned request can't leak the stream.
+     */
+    public record PdfArtifact(String etag, long length, Path file) {
+
+        /**
+         * Fails with {@link NoSuchFileException} if the file was evicted since
+         * it was found; the length is already promised, so the download fails
+         * and the client's retry renders it again.
+         */
+        public InputStream open() throws IOException {
+            return Files.newInputStream(file);
+        }
+    }
+
+    public record Stats(long hits, long misses, double hitRatio, long evictions, long bytes, long maxBytes) {}
+
+    /**
+     * Strong ETag for the PDF this report would render to right now.
+     */
+    public String etagFor(Report report, List<ReportChart> charts) {
+        return "\"" + fingerprint(report, charts) + "\"";
+    }
+
+    /**
+     * The cached rendering, if there is one for the report's current fingerprint.
+     */
+    public Optional<PdfArtifact> findCached(Report report, List<ReportChart> charts) throws IOException {
+        if (!isCacheable(report)) {
+            return Optional.empty();
+        }
+
+        String fingerprint = fingerprint(report, charts);
+        Path file = fileFor(report.getId(), fingerprint);
+
+        try {
+            long length = Files.size(file);
+            touch(file); // Most recently served, so eviction leaves it alone until it is read
+            hits.incrementAndGet();
+            return Optional.of(new PdfArtifact("\"" + fingerprint + "\"", length, file));
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Renders into {@code out} and, for cacheable reports, into a temp file at
+     * the same time, which becomes the cache entry once rendering succeeds.
+     * Nothing is held in memory beyond iText's per-page state. Failing to
+     * write the cache file never fails the download; the PDF just isn't cached.
+     */
+    public void renderTo(Report report, List<ReportChart> charts, OutputStream out) throws IOException {
+        if (!isCacheable(report)) {
+            pdfGenerationService.writePdf(report, charts, out);
+            return;
+        }
+
+        Path file = fileFor(report.getId(), fingerprint(report, charts));
+        Path tmp = null;
+        OutputStream fileOut;
+        try {
+            tmp = Files.createTempFile(directory, report.getId().toString(), ".tmp");
+            fileOut = Files.newOutputStream(tmp);
+        } catch (IOException e) {
+            log.warn("Failed to cache PDF for reportId={}: {}", report.getId(), e.getMessage());
+            discard(tmp);
+            pdfGenerationService.writePdf(report, charts, out);
+            return;
+        }
+
+        boolean stored = false;
+        try {
+            TeeOutputStream tee = new TeeOutputStream(out, fileOut, report.getId());
+            try (tee) {
+                pdfGenerationService.writePdf(report, charts, tee);
+            }
+            if (!tee.fileFailed()) {
+                stored = store(report.getId(), tmp, file);
+            }
+        } finally {
+            if (!stored) {
+                discard(tmp);
+            }
+        }
+    }
+
+    /**
+     * Deletes every cached rendering of the report. Never needed for
+     * correctness (the fingerprint changes with the content); it frees the
+     * disk as soon as a report is regenerated on any node.
+     */
+    public void evict(UUID reportId) {
+        if (!enabled) return;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, reportId + "-*" + SUFFIX)) {
+            for (Path file : stream) {
+                if (delete(file)) {
+                    evictions.incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to evict cached PDFs for reportId={}: {}", reportId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void invalidate(Set<InvalidationEvent> events) {
+        for (InvalidationEvent event : events) {
+            if (event.topic() == InvalidationTopic.REPORT && !event.coversAll()) {
+                evict(UUID.fromString(event.key()));
+            }
+        }
+    }
+
+    /** Renderings are keyed by content fingerprint, so missed events can't make them stale. */
+    @Override
+    public void flush() {
+    }
+
+    public Stats stats() {
+        long hit = hits.get();
+        long miss = misses.get();
+        long total = hit + miss;
+        return new Stats(hit, miss, total == 0 ? 0.0 : (double) hit / total, evictions.get(), totalBytes.get(), maxBytes);
+    }
+
+    /* -------------------------
+       FINGERPRINT
+    ------------------------- */
+
+    static String fingerprint(Report report, List<ReportChart> charts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, PdfGenerationService.RENDERER_VERSION);
+            update(digest, report.getTitle());
+            update(digest, report.getReportType());
+            update(digest, report.getIndustry());
+            update(digest, report.getAudience());
+            update(digest, report.getPurpose());
+            update(digest, report.getTone());
+            update(digest, report.getDepth());
+            update(digest, String.valueOf(report.getCreatedAt()));
+            update(digest, String.valueOf(report.getStatus()));
+            update(digest, report.getContent());
+
+            for (ReportChart chart : charts) {
+                update(digest, chart.getChartType());
+                update(digest, chart.getTitle());
+                update(digest, chart.getDataJson());
+                update(digest, chart.getOptionsJson());
+            }
+
+            // 128 bits is plenty for a cache key and keeps file names short
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String part) {
+        // Length-prefix every part so different splits can't collide
+        byte[] bytes = (part != null ? part : "").getBytes(StandardCharsets.UTF_8);
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(bytes);
+    }
+
+    /* -------------------------
+       STORAGE
+    ------------------------- */
+
+    private boolean store(UUID reportId, Path tmp, Path file) {
+        try {
+            if (Files.exists(file)) {
+                // A concurrent miss already stored this fingerprint, so the bytes are the same
+                touch(file);
+                return false;
+            }
+
+            long size = Files.size(tmp);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            totalBytes.addAndGet(size);
+
+            removeStaleVersions(reportId, file);
+            evictIfNeeded();
+            return true;
+        } catch (IOException e) {
+            // The PDF has already gone to the client; failing to cache it must not fail the download
+            log.warn("Failed to cache PDF for reportId={}: {}", reportId, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isCacheable(Report report) {
+        // Only finished reports are immutable enough to be worth keeping
+        return enabled && report.getStatus() == ReportStatus.GENERATED;
+    }
+
+    private Path fileFor(UUID reportId, String fingerprint) {
+        return directory.resolve(reportId + "-" + fingerprint + SUFFIX);
+    }
+
+    private void removeStaleVersions(UUID reportId, Path current) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, reportId + "-*" + SUFFIX)) {
+            for (Path stale : stream) {
+                if (!stale.equals(current)) {
+                    delete(stale);
+                }
+            }
+        }
+    }
+
+    private void evictIfNeeded() throws IOException {
+        if (totalBytes.get() <= maxBytes) return;
+
+        synchronized (evictionLock) {
+            List<CachedFile> files = scan();
+            // Resync from disk: a replace that slipped past the exists check above counts twice
+            totalBytes.set(files.stream().mapToLong(CachedFile::size).sum());
+            if (totalBytes.get() <= maxBytes) return;
+
+            files.sort(Comparator.comparing(CachedFile::lastServed));
+
+            // Evict down to 90% so a full cache doesn't scan on every miss
+            long target = maxBytes * 9 / 10;
+            for (CachedFile file : files) {
+                if (totalBytes.get() <= target) break;
+                if (delete(file.path())) {
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private boolean delete(Path path) throws IOException {
+        long size;
+        try {
+            size = Files.size(path);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (Files.deleteIfExists(path)) {
+            totalBytes.addAndGet(-size);
+            return true;
+        }
+        return false;
+    }
+
+    private void discard(Path tmp) {
+        if (tmp == null) return;
+        try {
+            Files.deleteIfExists(tmp);
+        } catch (IOException e) {
+            log.warn("Failed to delete temp file {}: {}", tmp, e.getMessage());
+        }
+    }
+
+    private void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // Only affects eviction order
+        }
+    }
+
+    /**
+     * Copies every write to the client and to the cache file. The client
+     * stream is flushed but never closed here; the container owns it. A
+     * failure on the file side (disk full, directory removed) only stops the
+     * copy to the file; client failures propagate as usual.
+     */
+    private static class TeeOutputStream extends OutputStream {
+
+        private final OutputStream client;
+        private final OutputStream file;
+        private final UUID reportId;
+        private boolean fileFailed;
+
+        TeeOutputStream(OutputStream client, OutputStream file, UUID reportId) {
+            this.client = client;
+            this.file = file;
+            this.reportId = reportId;
+        }
+
+        boolean fileFailed() {
+            return fileFailed;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            client.write(b);
+            if (fileFailed) return;
+            try {
+                file.write(b);
+            } catch (IOException e) {
+                abandonFile(e);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            client.write(b, off, len);
+            if (fileFailed) return;
+            try {
+                file.write(b, off, len);
+            } catch (IOException e) {
+                abandonFile(e);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            client.flush();
+            if (fileFailed) return;
+            try {
+                file.flush();
+            } catch (IOException e) {
+                abandonFile(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                client.flush();
+            } finally {
+                closeFile();
+            }
+        }
+
+        private void abandonFile(IOException e) {
+            log.warn("Failed to cache PDF for reportId={}: {}", reportId, e.getMessage());
+            fileFailed = true;
+            closeFile();
+        }
+
+        private void closeFile() {
+            try {
+                file.close();
+            } catch (IOException e) {
+                if (!fileFailed) {
+                    log.warn("Failed to cache PDF for reportId={}: {}", reportId, e.getMessage());
+                    fileFailed = true;
+                }
+            }
+        }
+    }
+
+    private record CachedFile(Path path, long size, FileTime lastServed) {}
+
+    private List<CachedFile> scan() throws IOException {
+        List<CachedFile> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path path : stream) {
+                try {
+                    files.add(new CachedFile(path, Files.size(path), Files.getLastModifiedTime(path)));
+                } catch (NoSuchFileException ignored) {
+                    // Evicted concurrently
+                }
+            }
+        }
+        return files;
+    }
+}
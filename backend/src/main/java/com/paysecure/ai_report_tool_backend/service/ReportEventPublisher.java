@@ -0,0 +1,152 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * In-process fan-out of report events to Server-Sent Events subscribers.
+ */
+@Slf4j
+@Service
+public class ReportEventPublisher {
+
+    private static final long EMITTER_TIMEOUT_MS = 10 * 60 * 1000L;
+
+    private final Map<UUID, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    // Model output generated so far, for reports being generated on this node
+    private final Map<UUID, StringBuilder> outputs = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(UUID reportId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+
+        emitters.computeIfAbsent(reportId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+
+        emitter.onCompletion(() -> remove(reportId, emitter));
+        emitter.onTimeout(() -> remove(reportId, emitter));
+        emitter.onError(e -> remove(reportId, emitter));
+
+        return emitter;
+    }
+
+    public void send(SseEmitter emitter, String eventName, Object payload) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(payload));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void send(SseEmitter emitter, String eventName, String output, int offset) {
+        try {
+            emitter.send(SseEmitter.event().id(String.valueOf(offset)).name(eventName).data(output));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    public void publish(UUID reportId, String eventName, Object payload) {
+        publish(reportId, () -> SseEmitter.event().name(eventName).data(payload));
+    }
+
+    private void publish(UUID reportId, String eventName, String output, int offset) {
+        publish(reportId, () -> SseEmitter.event().id(String.valueOf(offset)).name(eventName).data(output));
+    }
+
+    // An event builder accumulates state as it is sent, so each subscriber gets its own
+    private void publish(UUID reportId, Supplier<SseEmitter.SseEventBuilder> event) {
+        List<SseEmitter> subscribers = emitters.get(reportId);
+        if (subscribers == null) return;
+
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(event.get());
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping SSE subscriber for reportId={}: {}", reportId, e.getMessage());
+                remove(reportId, emitter);
+            }
+        }
+    }
+
+    /* -------------------------
+       OUTPUT STREAM
+    ------------------------- */
+
+    /**
+     * Starts buffering a generation attempt's output, discarding any earlier
+     * attempt's.
+     */
+    public void startOutput(UUID reportId) {
+        outputs.put(reportId, new StringBuilder());
+    }
+
+    /**
+     * Appends to the report's output and publishes it as a "delta" event whose
+     * id is the output length after it, so a client can drop anything its
+     * snapshot already covered.
+     */
+    public void appendOutput(UUID reportId, String delta) {
+        StringBuilder output = outputs.computeIfAbsent(reportId, id -> new StringBuilder());
+        synchronized (output) {
+            output.append(delta);
+            publish(reportId, "delta", delta, output.length());
+        }
+    }
+
+    public void endOutput(UUID reportId) {
+        outputs.remove(reportId);
+    }
+
+    /**
+     * Subscribes to a report and sends a "snapshot" of its output so far. When
+     * the report is generating on this node, the snapshot is taken under the
+     * same lock that orders the deltas, so the stream is gap- and duplicate-free;
+     * otherwise it falls back to the checkpoint, if any.
+     */
+    public SseEmitter subscribeToOutput(UUID reportId, Supplier<String> checkpoint) {
+        StringBuilder output = outputs.get(reportId);
+
+        if (output == null) {
+            SseEmitter emitter = subscribe(reportId);
+            String snapshot = checkpoint.get();
+            if (snapshot != null) {
+                send(emitter, "snapshot", snapshot, snapshot.length());
+            }
+            return emitter;
+        }
+
+        synchronized (output) {
+            SseEmitter emitter = subscribe(reportId);
+            send(emitter, "snapshot", output.toString(), output.length());
+            return emitter;
+        }
+    }
+
+    /**
+     * Sends a final event and closes every stream for the report.
+     */
+    public void complete(UUID reportId, String eventName, Object payload) {
+        publish(reportId, eventName, payload);
+
+        List<SseEmitter> subscribers = emitters.remove(reportId);
+        if (subscribers == null) return;
+
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    private void remove(UUID reportId, SseEmitter emitter) {
+        emitters.computeIfPresent(reportId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
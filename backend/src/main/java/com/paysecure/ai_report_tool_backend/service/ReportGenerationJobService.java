@@ -0,0 +1,173 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.dto.GenerationJobResponse;
+import com.paysecure.ai_report_tool_backend.exception.ApiException;
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.ReportGenerationJob;
+import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus;
+import com.paysecure.ai_report_tool_backend.model.enums.ReportStatus;
+import com.paysecure.ai_report_tool_backend.repository.ReportGenerationJobRepository;
+import com.paysecure.ai_report_tool_backend.repository.ReportRepository;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationBus;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationTopic;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class ReportGenerationJobService {
+
+    private static final int CREDITS_PER_REPORT = 1;
+
+    private static final List<GenerationJobStatus> ACTIVE_STATUSES =
+            List.of(GenerationJobStatus.QUEUED, GenerationJobStatus.RUNNING);
+
+    private final ReportGenerationJobRepository jobRepository;
+    private final ReportRepository reportRepository;
+    private final CreditService creditService;
+    private final ReportGenerationWorker worker;
+    private final ReportEventPublisher eventPublisher;
+    private final InvalidationBus invalidationBus;
+
+    public ReportGenerationJobService(
+            ReportGenerationJobRepository jobRepository,
+            ReportRepository reportRepository,
+            CreditService creditService,
+            ReportGenerationWorker worker,
+            ReportEventPublisher eventPublisher,
+            InvalidationBus invalidationBus
+    ) {
+        this.jobRepository = jobRepository;
+        this.reportRepository = reportRepository;
+        this.creditService = creditService;
+        this.worker = worker;
+        this.eventPublisher = eventPublisher;
+        this.invalidationBus = invalidationBus;
+    }
+
+    /* -------------------------
+       ENQUEUE
+    ------------------------- */
+    @Transactional
+    public GenerationJobResponse enqueue(UUID reportId, User user) {
+
+        Report report = getOwnedReport(reportId, user);
+
+        if (jobRepository.existsByReportAndStatusIn(report, ACTIVE_STATUSES)) {
+            return jobRepository.findFirstByReportOrderByCreatedAtDesc(report)
+                    .map(this::toResponse)
+                    .orElseThrow();
+        }
+
+        if (!creditService.hasEnoughCredits(user, CREDITS_PER_REPORT)) {
+            throw new ApiException("Insufficient credits", HttpStatus.PAYMENT_REQUIRED);
+        }
+
+        report.setStatus(ReportStatus.PENDING);
+        reportRepository.save(report);
+        invalidationBus.publish(InvalidationTopic.REPORT, report.getId());
+
+        ReportGenerationJob job = new ReportGenerationJob();
+        job.setReport(report);
+        job.setUser(user);
+        job.setStatus(GenerationJobStatus.QUEUED);
+        job = jobRepository.save(job);
+
+        UUID jobId = job.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                worker.dispatch(jobId);
+            }
+        });
+
+        return toResponse(job);
+    }
+
+    /* -------------------------
+       STATUS
+    ------------------------- */
+    @Transactional(readOnly = true)
+    public GenerationJobResponse getLatestJob(UUID reportId, User user) {
+        Report report = getOwnedReport(reportId, user);
+
+        return jobRepository.findFirstByReportOrderByCreatedAtDesc(report)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ApiException("No generation job for report", HttpStatus.NOT_FOUND));
+    }
+
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(UUID reportId, User user) {
+        Report report = getOwnedReport(reportId, user);
+
+        SseEmitter emitter = eventPublisher.subscribe(reportId);
+
+        // Replay the current state so late subscribers don't miss a transition
+        jobRepository.findFirstByReportOrderByCreatedAtDesc(report)
+                .ifPresent(job -> eventPublisher.send(emitter, "status", toResponse(job)));
+
+        return emitter;
+    }
+
+    /**
+     * Token stream for a report: a "snapshot" event with what the running
+     * attempt has generated so far, then live "delta" events, each with the
+     * output length after it as its event id. Both carry raw
+     * model output, i.e. pieces of the structured JSON response rather than
+     * markdown: clients concatenate them as a progress preview and load the
+     * finished report once a "status" event reports GENERATED. Starts
+     * generation if none is active.
+     */
+    @Transactional
+    public SseEmitter stream(UUID reportId, User user) {
+        Report report = getOwnedReport(reportId, user);
+
+        SseEmitter emitter = eventPublisher.subscribeToOutput(reportId, () ->
+                jobRepository.findFirstByReportOrderByCreatedAtDesc(report)
+                        .filter(job -> job.getStatus() == GenerationJobStatus.RUNNING)
+                        .map(ReportGenerationJob::getPartialOutput)
+                        .orElse(null));
+
+        if (!jobRepository.existsByReportAndStatusIn(report, ACTIVE_STATUSES)
+                && report.getStatus() != ReportStatus.GENERATED) {
+            eventPublisher.send(emitter, "status", enqueue(reportId, user));
+        }
+
+        return emitter;
+    }
+
+    private Report getOwnedReport(UUID reportId, User user) {
+        Report report = reportRepository.findById(reportId)
+                .orElseThrow(() -> new ApiException("Report not found", HttpStatus.NOT_FOUND));
+
+        if (!report.getUser().getId().equals(user.getId())) {
+            throw new ApiException("Access denied", HttpStatus.FORBIDDEN);
+        }
+
+        return report;
+    }
+
+    /* -------------------------
+       MAPPER
+    ------------------------- */
+    private GenerationJobResponse toResponse(ReportGenerationJob job) {
+        return new GenerationJobResponse(
+                job.getId(),
+                job.getReport().getId(),
+                job.getStatus().name(),
+                job.getReport().getStatus().name(),
+                job.getAttempts(),
+                job.getErrorMessage(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt()
+        );
+    }
+}
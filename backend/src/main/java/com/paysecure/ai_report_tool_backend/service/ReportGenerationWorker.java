@@ -0,0 +1,300 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.dto.GenerationJobResponse;
+import com.paysecure.ai_report_tool_backend.model.ReportGenerationJob;
+import com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus;
+import com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus;
+import com.paysecure.ai_report_tool_backend.model.enums.ReportStatus;
+import com.paysecure.ai_report_tool_backend.repository.ReportGenerationJobRepository;
+import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Drains {@link ReportGenerationJob}s on a bounded executor. The job table is
+ * the queue: the executor only holds job ids, so anything it drops (full queue,
+ * crash, restart) is picked up again by the periodic sweep. A job whose
+ * report still has uploads being parsed is left QUEUED until they finish.
+ * <p>
+ * A claimed job carries its node's {@link NodeIdentity} and a heartbeat the
+ * node refreshes while the job runs. Only jobs whose heartbeat has gone stale
+ * are recovered, so nodes never take over each other's live generations.
+ */
+@Slf4j
+@Service
+public class ReportGenerationWorker {
+
+    private final ReportGenerationJobRepository jobRepository;
+    private final UploadedFileRepository uploadedFileRepository;
+    private final ReportService reportService;
+    private final OpenAIService openAIService;
+    private final MapReduceGenerationService mapReduceGenerationService;
+    private final ReportEventPublisher eventPublisher;
+    private final CreditService creditService;
+    private final NodeIdentity nodeIdentity;
+    private final ThreadPoolTaskExecutor executor;
+
+    // Jobs handed to the executor but not finished yet, to avoid queueing duplicates
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    // Reports whose generation this node has claimed and is running, keyed by job id
+    private final Map<UUID, UUID> running = new ConcurrentHashMap<>();
+
+    @Value("${report.generation.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${report.generation.stale-after-ms:90000}")
+    private long staleAfterMs;
+
+    @Value("${report.generation.stream-flush-interval-ms:2000}")
+    private long streamFlushIntervalMs;
+
+    public ReportGenerationWorker(
+            ReportGenerationJobRepository jobRepository,
+            UploadedFileRepository uploadedFileRepository,
+            ReportService reportService,
+            OpenAIService openAIService,
+            MapReduceGenerationService mapReduceGenerationService,
+            ReportEventPublisher eventPublisher,
+            CreditService creditService,
+            NodeIdentity nodeIdentity,
+            @Qualifier("reportGenerationExecutor") ThreadPoolTaskExecutor executor
+    ) {
+        this.jobRepository = jobRepository;
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.reportService = reportService;
+        this.openAIService = openAIService;
+        this.mapReduceGenerationService = mapReduceGenerationService;
+        this.eventPublisher = eventPublisher;
+        this.creditService = creditService;
+        this.nodeIdentity = nodeIdentity;
+        this.executor = executor;
+    }
+
+    public void dispatch(UUID jobId) {
+        if (!inFlight.add(jobId)) return;
+
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    inFlight.remove(jobId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(jobId);
+            log.warn("Generation queue full, jobId={} stays QUEUED until the next sweep", jobId);
+        }
+    }
+
+    /* -------------------------
+       EXECUTION
+    ------------------------- */
+    void run(UUID jobId) {
+
+        ReportGenerationJob queued = jobRepository.findById(jobId).orElse(null);
+        if (queued == null || queued.getStatus() != GenerationJobStatus.QUEUED) return;
+
+        UUID reportId = queued.getReport().getId();
+        if (uploadedFileRepository.existsByReportIdAndParseStatus(reportId, FileParseStatus.PARSING)) {
+            // Stays QUEUED; dispatched again once the report's last upload is parsed
+            log.debug("Generation jobId={} waiting for uploads of reportId={}", jobId, reportId);
+            return;
+        }
+
+        if (jobRepository.claim(jobId, nodeIdentity.id(), Instant.now()) == 0) {
+            return; // already taken by another worker or node
+        }
+
+        ReportGenerationJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) return;
+
+        running.put(jobId, reportId);
+        publish(job, ReportStatus.PROCESSING);
+
+        try {
+            ReportService.GenerationContext ctx = reportService.beginGeneration(reportId);
+
+            String aiResponse = null;
+
+            if (openAIService.isConfigured()) {
+                aiResponse = mapReduceGenerationService.generate(
+                        ctx,
+                        openAIService.isStreamingEnabled() ? new StreamingSink(jobId, reportId) : null
+                );
+            }
+
+            reportService.completeGeneration(reportId, aiResponse);
+            finish(job, GenerationJobStatus.COMPLETED, null, ReportStatus.GENERATED);
+
+        } catch (Exception e) {
+            log.error("Report generation failed for reportId={}, jobId={}", reportId, jobId, e);
+
+            reportService.failGeneration(reportId, e.getMessage());
+            finish(job, GenerationJobStatus.FAILED, e.getMessage(), ReportStatus.FAILED);
+        } finally {
+            running.remove(jobId);
+            eventPublisher.endOutput(reportId);
+        }
+    }
+
+    private void finish(ReportGenerationJob job, GenerationJobStatus status, String error, ReportStatus reportStatus) {
+        job.setStatus(status);
+        job.setErrorMessage(truncate(error));
+        job.setPartialOutput(null);
+        job.setFinishedAt(Instant.now());
+        jobRepository.save(job);
+
+        eventPublisher.complete(job.getReport().getId(), "status", toEvent(job, reportStatus));
+    }
+
+    private void publish(ReportGenerationJob job, ReportStatus reportStatus) {
+        eventPublisher.publish(job.getReport().getId(), "status", toEvent(job, reportStatus));
+    }
+
+    /**
+     * Forwards deltas to SSE subscribers through the publisher's output buffer
+     * and checkpoints the assembled text to the job's {@code partialOutput} at
+     * most once per flush interval, for subscribers on other nodes. The
+     * deltas are fragments of the model's structured JSON response, not
+     * markdown, so {@code Report.content} is only written by
+     * {@link ReportService#completeGeneration} once the response is parsed.
+     */
+    private class StreamingSink implements Consumer<String> {
+
+        private final UUID jobId;
+        private final UUID reportId;
+        private final StringBuilder output = new StringBuilder();
+        private long lastFlush = System.currentTimeMillis();
+
+        StreamingSink(UUID jobId, UUID reportId) {
+            this.jobId = jobId;
+            this.reportId = reportId;
+            eventPublisher.startOutput(reportId);
+        }
+
+        @Override
+        public void accept(String delta) {
+            output.append(delta);
+            eventPublisher.appendOutput(reportId, delta);
+
+            long now = System.currentTimeMillis();
+            if (now - lastFlush >= streamFlushIntervalMs) {
+                jobRepository.updatePartialOutput(jobId, output.toString());
+                lastFlush = now;
+            }
+        }
+    }
+
+    /* -------------------------
+       RECOVERY
+    ------------------------- */
+
+    /**
+     * Keeps this node's RUNNING jobs visibly alive and their credit holds from
+     * expiring. Jobs merely waiting in the executor are in {@code inFlight}
+     * too, but aren't RUNNING under this owner.
+     */
+    @Scheduled(
+            initialDelayString = "${report.generation.heartbeat-interval-ms:15000}",
+            fixedDelayString = "${report.generation.heartbeat-interval-ms:15000}"
+    )
+    public void heartbeat() {
+        if (inFlight.isEmpty()) return;
+        jobRepository.heartbeat(List.copyOf(inFlight), nodeIdentity.id(), Instant.now());
+        // Holds are keyed by report id (see ReportService.beginGeneration)
+        creditService.extendHolds(running.values().stream().map(UUID::toString).toList());
+    }
+
+    /**
+     * A restart loses this process's jobs, but other nodes may be running
+     * theirs, so boot recovers exactly what the sweep would: stale jobs only.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        sweep();
+    }
+
+    @Scheduled(
+            initialDelayString = "${report.generation.sweep-interval-ms:15000}",
+            fixedDelayString = "${report.generation.sweep-interval-ms:15000}"
+    )
+    public void sweep() {
+        Instant staleBefore = Instant.now().minus(Duration.ofMillis(staleAfterMs));
+
+        List<ReportGenerationJob> stale = jobRepository.findStale(staleBefore);
+        if (!stale.isEmpty()) {
+            log.warn("Recovering {} generation job(s) whose owner stopped heartbeating", stale.size());
+        }
+        stale.forEach(job -> requeueOrFail(job, staleBefore));
+
+        dispatchQueued();
+    }
+
+    private void dispatchQueued() {
+        int capacity = executor.getQueueCapacity() - executor.getQueueSize();
+
+        jobRepository.findByStatusOrderByCreatedAtAsc(GenerationJobStatus.QUEUED)
+                .stream()
+                .limit(Math.max(capacity, 0))
+                .forEach(job -> dispatch(job.getId()));
+    }
+
+    private void requeueOrFail(ReportGenerationJob job, Instant staleBefore) {
+        UUID reportId = job.getReport().getId();
+
+        if (job.getAttempts() >= maxAttempts) {
+            String error = "Exceeded " + maxAttempts + " attempts";
+            if (jobRepository.failIfStale(job.getId(), staleBefore, error, Instant.now()) == 1) {
+                reportService.failGeneration(reportId, "Generation interrupted too many times");
+                jobRepository.findById(job.getId()).ifPresent(failed ->
+                        eventPublisher.complete(reportId, "status", toEvent(failed, ReportStatus.FAILED)));
+            }
+            return;
+        }
+
+        // The conditional update loses to an owner that heartbeated since the read
+        if (jobRepository.requeueIfStale(job.getId(), staleBefore) == 1) {
+            reportService.markPending(reportId);
+        }
+    }
+
+    /* -------------------------
+       HELPERS
+    ------------------------- */
+    private GenerationJobResponse toEvent(ReportGenerationJob job, ReportStatus reportStatus) {
+        return new GenerationJobResponse(
+                job.getId(),
+                job.getReport().getId(),
+                job.getStatus().name(),
+                reportStatus.name(),
+                job.getAttempts(),
+                job.getErrorMessage(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt()
+        );
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= 2000) return message;
+        return message.substring(0, 2000);
+    }
+}
@@ -1,6 +1,7 @@
 package com.paysecure.ai_report_tool_backend.service;
 
 import com.paysecure.ai_report_tool_backend.dto.CreateReportRequest;
+import com.paysecure.ai_report_tool_backend.dto.ReportPageResponse;
 import com.paysecure.ai_report_tool_backend.dto.ReportResponse;
 import com.paysecure.ai_report_tool_backend.dto.ReportSummaryResponse;
 import com.paysecure.ai_report_tool_backend.exception.ApiException;
@@ -9,8 +10,8 @@ import com.paysecure.ai_report_tool_backend.model.ReportChart;
 import com.paysecure.ai_report_tool_backend.model.ReportInput;
 import com.paysecure.ai_report_tool_backend.model.ReportPromptConfig;
 import com.paysecure.ai_report_tool_backend.model.ReportTemplate;
-import com.paysecure.ai_report_tool_backend.model.UploadedFile;
 import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus;
 import com.paysecure.ai_report_tool_backend.model.enums.ReportStatus;
 import com.paysecure.ai_report_tool_backend.model.enums.TransactionType;
 import com.paysecure.ai_report_tool_backend.repository.ReportChartRepository;
@@ -18,15 +19,24 @@ import com.paysecure.ai_report_tool_backend.repository.ReportPromptConfigReposit
 import com.paysecure.ai_report_tool_backend.repository.ReportRepository;
 import com.paysecure.ai_report_tool_backend.repository.ReportTemplateRepository;
 import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationBus;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationTopic;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -35,6 +45,8 @@ import java.util.stream.Collectors;
 public class ReportService {
 
     private static final int CREDITS_PER_REPORT = 1;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
 
     private final ReportRepository reportRepository;
     private final ReportTemplateRepository templateRepository;
@@ -43,6 +55,7 @@ public class ReportService {
     private final UploadedFileRepository uploadedFileRepository;
     private final CreditService creditService;
     private final OpenAIService openAIService;
+    private final InvalidationBus invalidationBus;
 
     public ReportService(
             ReportRepository reportRepository,
@@ -51,7 +64,8 @@ public class ReportService {
             ReportChartRepository chartRepository,
             UploadedFileRepository uploadedFileRepository,
             CreditService creditService,
-            OpenAIService openAIService
+            OpenAIService openAIService,
+            InvalidationBus invalidationBus
     ) {
         this.reportRepository = reportRepository;
         this.templateRepository = templateRepository;
@@ -60,6 +74,7 @@ public class ReportService {
         this.uploadedFileRepository = uploadedFileRepository;
         this.creditService = creditService;
         this.openAIService = openAIService;
+        this.invalidationBus = invalidationBus;
     }
 
     /* -------------------------
@@ -104,152 +119,208 @@ public class ReportService {
             });
         }
 
-        return toResponse(reportRepository.save(report));
+        Report saved = reportRepository.saveAndFlush(report); // the row must exist before files point at it
+
+        if (req.uploaded_file_ids() == null || req.uploaded_file_ids().isEmpty()) {
+            return toResponse(saved, List.of(), List.of());
+        }
+
+        // Linked before generate is called, so the job waits for these files to finish parsing
+        Set<UUID> fileIds = new HashSet<>(req.uploaded_file_ids());
+        if (uploadedFileRepository.attachToReport(fileIds, user, saved) != fileIds.size()) {
+            throw new ApiException("Uploaded file not found", HttpStatus.NOT_FOUND);
+        }
+
+        return toResponse(saved, List.of(), uploadedFileRepository.findInfoByReportId(saved.getId()));
     }
 
     /* -------------------------
        GENERATE REPORT
+       Runs in three short transactions driven by ReportGenerationWorker so
+       that no DB connection is held during the OpenAI round-trip.
     ------------------------- */
 
+    public record GenerationContext(
+            Report report,
+            User user,
+            String systemPrompt,
+            String calculationPrompt,
+            String outputFormatPrompt,
+            Map<String, String> inputs,
+            boolean useResponseCache
+    ) {}
+
     @Transactional
-    public ReportResponse generate(UUID reportId, User user){
+    public GenerationContext beginGeneration(UUID reportId) {
 
         Report report = reportRepository.findById(reportId)
                 .orElseThrow(() -> new ApiException("Report not found", HttpStatus.NOT_FOUND));
 
-        if (!report.getUser().getId().equals(user.getId())) {
-            throw new ApiException("Access denied", HttpStatus.FORBIDDEN);
-        }
+        ReportTemplate template = report.getTemplate();
 
-        if (!creditService.hasEnoughCredits(user, CREDITS_PER_REPORT)) {
-            throw new ApiException("Insufficient credits", HttpStatus.PAYMENT_REQUIRED);
+        if (template == null) {
+            throw new ApiException("Template not found", HttpStatus.NOT_FOUND);
         }
 
-        report.setStatus(ReportStatus.PROCESSING);
-        reportRepository.save(report);
-
-        try {
-
-            ReportTemplate template = report.getTemplate();
-
-            if (template == null) {
-                throw new ApiException("Template not found", HttpStatus.NOT_FOUND);
-            }
-
-            String systemPrompt = template.getSystemPrompt();
-            String calculationPrompt = template.getCalculationPrompt();
-            String outputFormatPrompt = template.getOutputFormatPrompt();
-
-            Map<String, String> inputs = new HashMap<>();
-            report.getInputs().forEach(input ->
-                    inputs.put(input.getFieldKey(), input.getValue())
-            );
+        User user = report.getUser();
 
-            String aiResponse;
+        // Holds the credits for the whole run; committed on success, released on failure
+        creditService.reserve(user, CREDITS_PER_REPORT, reportId.toString());
 
-            if (openAIService.isConfigured()) {
+        report.setStatus(ReportStatus.PROCESSING);
+        reportRepository.save(report);
+        invalidationBus.publish(InvalidationTopic.REPORT, reportId);
+
+        return new GenerationContext(
+                report,
+                user,
+                template.getSystemPrompt(),
+                template.getCalculationPrompt(),
+                template.getOutputFormatPrompt(),
+                collectInputs(report),
+                !Boolean.FALSE.equals(template.getResponseCacheEnabled())
+        );
+    }
 
-                aiResponse = openAIService.generateReport(
-                        report,
-                        user,
-                        systemPrompt,
-                        calculationPrompt,
-                        outputFormatPrompt,
-                        inputs
-                );
+    /**
+     * Persists the AI output (or a mock report when {@code aiResponse} is null),
+     * charges credits and marks the report GENERATED.
+     */
+    @Transactional
+    public void completeGeneration(UUID reportId, String aiResponse) {
 
-                report.setAiModel("gpt-4o");
+        Report report = reportRepository.findById(reportId)
+                .orElseThrow(() -> new ApiException("Report not found", HttpStatus.NOT_FOUND));
 
-            } else {
+        User user = report.getUser();
 
-                aiResponse = generateMockReport(report, inputs);
-                report.setAiModel("mock");
-            }
+        if (aiResponse != null) {
+            aiResponse = openAIService.parseAndPersistStructuredResponse(aiResponse, report);
+            report.setAiModel(openAIService.getModel());
+        } else {
+            aiResponse = generateMockReport(report, collectInputs(report));
+            report.setAiModel("mock");
+        }
 
-            String startTag = "---CHARTS_JSON_START---";
-            String endTag = "---CHARTS_JSON_END---";
+        String startTag = "---CHARTS_JSON_START---";
+        String endTag = "---CHARTS_JSON_END---";
 
-            int start = aiResponse.indexOf(startTag);
-            int end = aiResponse.indexOf(endTag);
+        int start = aiResponse.indexOf(startTag);
+        int end = aiResponse.indexOf(endTag);
 
-            String chartsJson = null;
-            String cleanContent = aiResponse;
+        String chartsJson = null;
+        String cleanContent = aiResponse;
 
-            if (start != -1 && end != -1 && end > start) {
+        if (start != -1 && end != -1 && end > start) {
 
-                chartsJson = aiResponse.substring(
-                        start + startTag.length(),
-                        end
-                ).trim();
+            chartsJson = aiResponse.substring(
+                    start + startTag.length(),
+                    end
+            ).trim();
 
-                cleanContent = cleanContent = sanitizeMarkdownTables(aiResponse.substring(0, start).trim());
-            }
+            cleanContent = sanitizeMarkdownTables(aiResponse.substring(0, start).trim());
+        }
 
-            report.setContent(cleanContent);
-            reportRepository.save(report);
+        report.setContent(cleanContent);
+        reportRepository.save(report);
 
-            if (chartsJson != null && !chartsJson.isEmpty()) {
-                try {
-                    com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                    com.fasterxml.jackson.databind.JsonNode root = mapper.readTree(chartsJson);
-                    com.fasterxml.jackson.databind.JsonNode charts = root.get("charts");
+        if (chartsJson != null && !chartsJson.isEmpty()) {
+            try {
+                com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
+                com.fasterxml.jackson.databind.JsonNode root = mapper.readTree(chartsJson);
+                com.fasterxml.jackson.databind.JsonNode charts = root.get("charts");
 
-                    int order = 0;
+                int order = 0;
+                List<ReportChart> parsed = new ArrayList<>();
 
-                    if (charts != null && charts.isArray()) {
-                        for (com.fasterxml.jackson.databind.JsonNode chart : charts) {
+                if (charts != null && charts.isArray()) {
+                    for (com.fasterxml.jackson.databind.JsonNode chart : charts) {
 
-                            ReportChart rc = new ReportChart();
-                            rc.setReport(report);
-                            rc.setChartType(chart.get("chartType").asText());
-                            rc.setTitle(chart.get("title").asText());
+                        ReportChart rc = new ReportChart();
+                        rc.setReport(report);
+                        rc.setChartType(chart.get("chartType").asText());
+                        rc.setTitle(chart.get("title").asText());
 
-                            rc.setDataJson(chart.get("data").toString());
+                        rc.setDataJson(chart.get("data").toString());
 
-                            rc.setOptionsJson(
-                                    chart.has("options") ? chart.get("options").toString() : "{}"
-                            );
+                        rc.setOptionsJson(
+                                chart.has("options") ? chart.get("options").toString() : "{}"
+                        );
 
-                            rc.setSortOrder(order++);
-                            chartRepository.save(rc);
-                        }
+                        rc.setSortOrder(order++);
+                        parsed.add(rc);
                     }
-
-                } catch (Exception e) {
-                    log.error("Chart parsing failed", e);
                 }
+
+                chartRepository.saveAll(parsed);
+
+            } catch (Exception e) {
+                log.error("Chart parsing failed", e);
             }
+        }
 
-            creditService.deductCredits(
-                    user,
-                    CREDITS_PER_REPORT,
-                    TransactionType.REPORT_USAGE,
-                    reportId.toString(),
-                    "Generated report: " + report.getTitle()
-            );
+        creditService.commitHold(
+                user,
+                CREDITS_PER_REPORT,
+                TransactionType.REPORT_USAGE,
+                reportId.toString(),
+                "Generated report: " + report.getTitle()
+        );
 
-            report.setStatus(ReportStatus.GENERATED);
-            report.setCreditsUsed(CREDITS_PER_REPORT);
-            report.setCompletedAt(Instant.now());
+        report.setStatus(ReportStatus.GENERATED);
+        report.setCreditsUsed(CREDITS_PER_REPORT);
+        report.setCompletedAt(Instant.now());
+        reportRepository.save(report);
+        invalidationBus.publish(InvalidationTopic.REPORT, reportId);
+    }
 
-        } catch (Exception e) {
+    @Transactional
+    public void failGeneration(UUID reportId, String reason) {
+        creditService.releaseHold(reportId.toString());
 
+        reportRepository.findById(reportId).ifPresent(report -> {
             report.setStatus(ReportStatus.FAILED);
-            report.setContent("Report generation failed: " + e.getMessage());
+            report.setContent("Report generation failed: " + reason);
             reportRepository.save(report);
+            invalidationBus.publish(InvalidationTopic.REPORT, reportId);
+        });
+    }
 
-            throw new ApiException("Report generation failed", HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+    @Transactional
+    public void markPending(UUID reportId) {
+        reportRepository.findById(reportId).ifPresent(report -> {
+            report.setStatus(ReportStatus.PENDING);
+            reportRepository.save(report);
+            invalidationBus.publish(InvalidationTopic.REPORT, reportId);
+        });
+    }
 
-        return toResponse(reportRepository.save(report));
+    private Map<String, String> collectInputs(Report report) {
+        Map<String, String> inputs = new HashMap<>();
+        report.getInputs().forEach(input ->
+                inputs.put(input.getFieldKey(), input.getValue())
+        );
+        return inputs;
     }
 
     /* -------------------------
        GET USER REPORTS
     ------------------------- */
-    public List<ReportSummaryResponse> getUserReportSummaries(User user) {
-        return reportRepository.findByUser(user)
-                .stream()
+    public ReportPageResponse getUserReportSummaries(User user, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // One extra row tells whether there is a next page without a count query
+        Pageable page = PageRequest.of(0, size + 1);
+
+        List<ReportRepository.SummaryRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reportRepository.findSummaries(user, page);
+        } else {
+            ReportCursor after = ReportCursor.decode(cursor);
+            rows = reportRepository.findSummariesAfter(user, after.createdAt(), after.id(), page);
+        }
+
+        List<ReportSummaryResponse> items = rows.stream()
+                .limit(size)
                 .map(r -> new ReportSummaryResponse(
                         r.getId(),
                         r.getTitle(),
@@ -257,20 +328,49 @@ public class ReportService {
                         r.getCreatedAt()
                 ))
                 .toList();
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            ReportSummaryResponse last = items.get(items.size() - 1);
+            nextCursor = new ReportCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return new ReportPageResponse(items, nextCursor);
+    }
+
+    /** Opaque position in the newest-first listing: the last row's createdAt and id. */
+    record ReportCursor(Instant createdAt, UUID id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static ReportCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int split = raw.indexOf('|');
+                return new ReportCursor(Instant.parse(raw.substring(0, split)), UUID.fromString(raw.substring(split + 1)));
+            } catch (RuntimeException e) {
+                throw new ApiException("Invalid cursor", HttpStatus.BAD_REQUEST);
+            }
+        }
     }
 
     /* -------------------------
        GET SINGLE REPORT
     ------------------------- */
+    @Transactional(readOnly = true)
     public ReportResponse getReport(UUID reportId, User user) {
-        Report report = reportRepository.findById(reportId)
+        // Two round trips: report + charts, then file metadata without the extracted TEXT columns
+        Report report = reportRepository.findWithChartsById(reportId)
                 .orElseThrow(() -> new ApiException("Report not found", HttpStatus.NOT_FOUND));
 
         if (!report.getUser().getId().equals(user.getId())) {
             throw new ApiException("Access denied", HttpStatus.FORBIDDEN);
         }
 
-        return toResponse(report);
+        return toResponse(report, report.getCharts(), uploadedFileRepository.findInfoByReportId(reportId));
     }
 
     /* -------------------------
@@ -324,7 +424,6 @@ public class ReportService {
         pieChart.setTitle("Distribution by Category");
         pieChart.setDataJson("{\"labels\":[\"Category A\",\"Category B\",\"Category C\",\"Category D\"],\"datasets\":[{\"data\":[30,25,20,25],\"backgroundColor\":[\"#5fcfee\",\"#9fb3f5\",\"#e9a9c4\",\"#fde2b8\"]}]}");
         pieChart.setSortOrder(0);
-        chartRepository.save(pieChart);
 
         // Create a demo bar chart
         ReportChart barChart = new ReportChart();
@@ -333,7 +432,6 @@ public class ReportService {
         barChart.setTitle("Monthly Trend Analysis");
         barChart.setDataJson("{\"labels\":[\"Jan\",\"Feb\",\"Mar\",\"Apr\",\"May\",\"Jun\"],\"datasets\":[{\"label\":\"Value\",\"data\":[65,59,80,81,56,55],\"backgroundColor\":\"#5fcfee\"}]}");
         barChart.setSortOrder(1);
-        chartRepository.save(barChart);
 
         // Create a demo line chart
         ReportChart lineChart = new ReportChart();
@@ -342,7 +440,8 @@ public class ReportService {
         lineChart.setTitle("Growth Projection");
         lineChart.setDataJson("{\"labels\":[\"Q1\",\"Q2\",\"Q3\",\"Q4\"],\"datasets\":[{\"label\":\"Projected\",\"data\":[100,120,145,180],\"borderColor\":\"#5fcfee\",\"fill\":false},{\"label\":\"Actual\",\"data\":[100,115,140,null],\"borderColor\":\"#e9a9c4\",\"fill\":false}]}");
         lineChart.setSortOrder(2);
-        chartRepository.save(lineChart);
+
+        chartRepository.saveAll(List.of(pieChart, barChart, lineChart));
     }
 
     /**
@@ -396,9 +495,12 @@ public class ReportService {
     /* -------------------------
        MAPPER
     ------------------------- */
-    private ReportResponse toResponse(Report report) {
-        // Get charts for this report
-        List<ReportResponse.ChartData> charts = chartRepository.findByReportOrderBySortOrderAsc(report)
+    private ReportResponse toResponse(
+            Report report,
+            List<ReportChart> reportCharts,
+            List<UploadedFileRepository.InfoRow> uploadedFiles
+    ) {
+        List<ReportResponse.ChartData> charts = reportCharts
                 .stream()
                 .map(c -> new ReportResponse.ChartData(
                         c.getId(),
@@ -409,15 +511,14 @@ public class ReportService {
                 ))
                 .collect(Collectors.toList());
 
-        // Get uploaded files for this report
-        List<ReportResponse.UploadedFileInfo> files = uploadedFileRepository.findByReport(report)
+        List<ReportResponse.UploadedFileInfo> files = uploadedFiles
                 .stream()
                 .map(f -> new ReportResponse.UploadedFileInfo(
                         f.getId(),
                         f.getOriginalFilename(),
                         f.getContentType(),
                         f.getFileSize(),
-                        f.getExtractedDataJson() != null ? "Data extracted" : "Text extracted"
+                        extractionSummary(f)
                 ))
                 .collect(Collectors.toList());
 
@@ -438,6 +539,10 @@ public class ReportService {
                 files
         );
     }
-}
-
 
+    private static String extractionSummary(UploadedFileRepository.InfoRow file) {
+        if (file.getParseStatus() == FileParseStatus.PARSING) return "Parsing";
+        if (file.getParseStatus() == FileParseStatus.FAILED) return "Parsing failed";
+        return file.getHasData() ? "Data extracted" : "Text extracted";
+    }
+}
@@ -12,6 +12,8 @@ import com.paysecure.ai_report_tool_backend.model.enums.TransactionType;
 import com.paysecure.ai_report_tool_backend.repository.SubscriptionPlanRepository;
 import com.paysecure.ai_report_tool_backend.repository.UserRepository;
 import com.paysecure.ai_report_tool_backend.repository.UserSubscriptionRepository;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationBus;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationTopic;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,17 +32,23 @@ public class SubscriptionService {
     private final UserSubscriptionRepository subscriptionRepository;
     private final UserRepository userRepository;
     private final CreditService creditService;
+    private final UserCache userCache;
+    private final InvalidationBus invalidationBus;
 
     public SubscriptionService(
             SubscriptionPlanRepository planRepository,
             UserSubscriptionRepository subscriptionRepository,
             UserRepository userRepository,
-            CreditService creditService
+            CreditService creditService,
+            UserCache userCache,
+            InvalidationBus invalidationBus
     ) {
         this.planRepository = planRepository;
         this.subscriptionRepository = subscriptionRepository;
         this.userRepository = userRepository;
         this.creditService = creditService;
+        this.userCache = userCache;
+        this.invalidationBus = invalidationBus;
     }
 
     public List<SubscriptionPlanResponse> getActivePlans() {
@@ -81,9 +89,11 @@ public class SubscriptionService {
 
         subscriptionRepository.save(subscription);
 
-        // Update user plan
+        // Update user plan; user may be a cached copy, so only the plan column is written
         user.setPlan(Plan.valueOf(plan.getName()));
-        userRepository.save(user);
+        userRepository.updatePlan(user.getId(), user.getPlan());
+        userCache.invalidate(user.getId());
+        invalidationBus.publish(InvalidationTopic.USER, user.getId());
 
         // Grant credits
         creditService.addCredits(
@@ -0,0 +1,209 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.exception.ApiException;
+import com.paysecure.ai_report_tool_backend.model.UploadedFile;
+import com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus;
+import com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus;
+import com.paysecure.ai_report_tool_backend.repository.ReportGenerationJobRepository;
+import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses stored uploads on a bounded executor. Like report generation, the
+ * table is the queue: a file stays PARSING until a worker finishes it, and
+ * anything the executor drops is picked up again by the periodic sweep.
+ * Held files carry the holder's {@link NodeIdentity} and a heartbeat, and
+ * only files whose heartbeat has gone stale are recovered.
+ * <p>
+ * When the last PARSING file of a report is done, that report's queued
+ * generation job is dispatched, since it was held back waiting for it.
+ */
+@Slf4j
+@Service
+public class UploadParseWorker {
+
+    private final UploadedFileRepository fileRepository;
+    private final FileParserService fileParserService;
+    private final ReportGenerationJobRepository jobRepository;
+    private final ReportGenerationWorker generationWorker;
+    private final NodeIdentity nodeIdentity;
+    private final ThreadPoolTaskExecutor executor;
+
+    // Files handed to the executor but not finished yet, to avoid queueing duplicates
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${file.parse.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${file.parse.stale-after-ms:90000}")
+    private long staleAfterMs;
+
+    public UploadParseWorker(
+            UploadedFileRepository fileRepository,
+            FileParserService fileParserService,
+            ReportGenerationJobRepository jobRepository,
+            ReportGenerationWorker generationWorker,
+            NodeIdentity nodeIdentity,
+            @Qualifier("fileParseExecutor") ThreadPoolTaskExecutor executor
+    ) {
+        this.fileRepository = fileRepository;
+        this.fileParserService = fileParserService;
+        this.jobRepository = jobRepository;
+        this.generationWorker = generationWorker;
+        this.nodeIdentity = nodeIdentity;
+        this.executor = executor;
+    }
+
+    public void dispatch(UUID fileId) {
+        if (!inFlight.add(fileId)) return;
+
+        try {
+            executor.execute(() -> {
+                try {
+                    run(fileId);
+                } finally {
+                    inFlight.remove(fileId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(fileId);
+            log.warn("Parse queue full, fileId={} stays PARSING until the next sweep", fileId);
+        }
+    }
+
+    /* -------------------------
+       EXECUTION
+    ------------------------- */
+    void run(UUID fileId) {
+
+        if (fileRepository.claimForParsing(fileId, nodeIdentity.id(), Instant.now()) == 0) {
+            return; // already taken by another worker or node
+        }
+
+        UploadedFile file = fileRepository.findById(fileId).orElse(null);
+        if (file == null) return;
+
+        try {
+            fileParserService.parseInto(file);
+            finish(file, FileParseStatus.PARSED, null);
+
+        } catch (ApiException e) {
+            // Unsupported or unreadable content; another attempt won't change that
+            finish(file, FileParseStatus.FAILED, e.getMessage());
+
+        } catch (Exception e) {
+            log.warn("Parsing failed for fileId={} (attempt {}/{})", fileId, file.getParseAttempts(), maxAttempts, e);
+
+            if (file.getParseAttempts() >= maxAttempts) {
+                finish(file, FileParseStatus.FAILED, e.getMessage());
+            } else {
+                // Retried by the next sweep
+                file.setParseStartedAt(null);
+                file.setParseHeartbeatAt(null);
+                file.setParseOwnerNode(null);
+                file.setParseError(truncate(e.getMessage()));
+                fileRepository.save(file);
+            }
+        }
+    }
+
+    private void finish(UploadedFile file, FileParseStatus status, String error) {
+        file.setParseStatus(status);
+        file.setParseError(truncate(error));
+        file.setParsedAt(Instant.now());
+        fileRepository.save(file);
+
+        if (file.getReport() != null) {
+            releaseGeneration(file.getReport().getId());
+        }
+    }
+
+    private void releaseGeneration(UUID reportId) {
+        if (fileRepository.existsByReportIdAndParseStatus(reportId, FileParseStatus.PARSING)) return;
+
+        jobRepository.findByReportIdAndStatus(reportId, GenerationJobStatus.QUEUED)
+                .forEach(job -> generationWorker.dispatch(job.getId()));
+    }
+
+    /* -------------------------
+       RECOVERY
+    ------------------------- */
+
+    /** Keeps the files this node is parsing visibly held. */
+    @Scheduled(
+            initialDelayString = "${file.parse.heartbeat-interval-ms:15000}",
+            fixedDelayString = "${file.parse.heartbeat-interval-ms:15000}"
+    )
+    public void heartbeat() {
+        if (inFlight.isEmpty()) return;
+        fileRepository.heartbeatParses(List.copyOf(inFlight), nodeIdentity.id(), Instant.now());
+    }
+
+    /** Other nodes may be parsing, so boot recovers exactly what the sweep would. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        sweep();
+    }
+
+    @Scheduled(
+            initialDelayString = "${file.parse.sweep-interval-ms:15000}",
+            fixedDelayString = "${file.parse.sweep-interval-ms:15000}"
+    )
+    public void sweep() {
+        Instant staleBefore = Instant.now().minus(Duration.ofMillis(staleAfterMs));
+
+        List<UploadedFile> stale = fileRepository.findStaleParses(staleBefore);
+        if (!stale.isEmpty()) {
+            log.warn("Recovering {} upload(s) whose holder stopped heartbeating", stale.size());
+        }
+        stale.forEach(file -> releaseOrFail(file, staleBefore));
+
+        dispatchPending();
+    }
+
+    private void dispatchPending() {
+        int capacity = executor.getQueueCapacity() - executor.getQueueSize();
+
+        fileRepository.findByParseStatusOrderByCreatedAtAsc(FileParseStatus.PARSING)
+                .stream()
+                .filter(file -> file.getParseStartedAt() == null)
+                .limit(Math.max(capacity, 0))
+                .forEach(file -> dispatch(file.getId()));
+    }
+
+    private void releaseOrFail(UploadedFile file, Instant staleBefore) {
+        if (file.getParseAttempts() < maxAttempts) {
+            // Loses to a holder that heartbeated since the read
+            fileRepository.releaseIfStale(file.getId(), staleBefore);
+            return;
+        }
+
+        if (fileRepository.failIfStale(file.getId(), staleBefore, "Parsing interrupted too many times", Instant.now()) == 1
+                && file.getReport() != null) {
+            releaseGeneration(file.getReport().getId());
+        }
+    }
+
+    /* -------------------------
+       HELPERS
+    ------------------------- */
+    private String truncate(String message) {
+        if (message == null || message.length() <= 2000) return message;
+        return message.substring(0, 2000);
+    }
+}
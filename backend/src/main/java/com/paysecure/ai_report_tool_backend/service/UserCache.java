@@ -0,0 +1,221 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.repository.UserRepository;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationBus;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationEvent;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationHandler;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache in front of {@code users} lookups by id. Tier 1 memoizes the
+ * user for the current HTTP request, tier 2 is a short-TTL map shared by all
+ * requests. Callers always get their own detached copy, so a service mutating
+ * its {@link User} can never leak into another request. Users and wallets
+ * changed on other nodes arrive through the {@link InvalidationBus}.
+ */
+@Component
+public class UserCache implements InvalidationHandler {
+
+    private static final String REQUEST_ATTRIBUTE = UserCache.class.getName() + ".";
+    private static final String REQUEST_SEEN = UserCache.class.getName() + ".seen";
+
+    private final UserRepository userRepository;
+    private final long ttlMs;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<UUID, CachedUser> shared = new ConcurrentHashMap<>();
+
+    private final AtomicLong requestHits = new AtomicLong();
+    private final AtomicLong sharedHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserCache(
+            UserRepository userRepository,
+            @Value("${user-cache.ttl-ms:30000}") long ttlMs,
+            @Value("${user-cache.max-entries:10000}") int maxEntries
+    ) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+    }
+
+    private record CachedUser(User snapshot, Instant expiresAt) {}
+
+    public record Stats(
+            long requestHits,
+            long sharedHits,
+            long databaseQueries,
+            double hitRatio,
+            long requests,
+            double queriesSavedPerRequest,
+            long invalidations,
+            int entries
+    ) {}
+
+    public Optional<User> get(UUID id) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+
+        if (request != null) {
+            if (request.getAttribute(REQUEST_SEEN, RequestAttributes.SCOPE_REQUEST) == null) {
+                request.setAttribute(REQUEST_SEEN, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+                requests.incrementAndGet();
+            }
+
+            Object memoized = request.getAttribute(REQUEST_ATTRIBUTE + id, RequestAttributes.SCOPE_REQUEST);
+            if (memoized instanceof User user) {
+                requestHits.incrementAndGet();
+                return Optional.of(user);
+            }
+        }
+
+        User user = lookup(id);
+        if (user == null) {
+            return Optional.empty();
+        }
+
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE + id, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.of(user);
+    }
+
+    /**
+     * Drops the user from both tiers now and again after the surrounding
+     * transaction commits, so a concurrent reader cannot re-cache the
+     * pre-commit row for a full TTL.
+     */
+    public void invalidate(UUID id) {
+        if (id == null) return;
+
+        evict(id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        shared.clear();
+    }
+
+    /** {@code users.credits} mirrors the wallet, so wallet events evict the user too. */
+    @Override
+    public void invalidate(Set<InvalidationEvent> events) {
+        for (InvalidationEvent event : events) {
+            if (event.topic() != InvalidationTopic.USER && event.topic() != InvalidationTopic.CREDIT_WALLET) {
+                continue;
+            }
+            if (event.coversAll()) {
+                clear();
+                return;
+            }
+            invalidations.incrementAndGet();
+            shared.remove(UUID.fromString(event.key()));
+        }
+    }
+
+    @Override
+    public void flush() {
+        clear();
+    }
+
+    public Stats stats() {
+        long request = requestHits.get();
+        long sharedHit = sharedHits.get();
+        long miss = misses.get();
+        long total = request + sharedHit + miss;
+        long requestCount = requests.get();
+
+        return new Stats(
+                request,
+                sharedHit,
+                miss,
+                total == 0 ? 0.0 : (double) (request + sharedHit) / total,
+                requestCount,
+                requestCount == 0 ? 0.0 : (double) (request + sharedHit) / requestCount,
+                invalidations.get(),
+                shared.size()
+        );
+    }
+
+    /* -------------------------
+       HELPERS
+    ------------------------- */
+
+    private User lookup(UUID id) {
+        Instant now = Instant.now();
+
+        CachedUser cached = shared.get(id);
+        if (cached != null && cached.expiresAt().isAfter(now)) {
+            sharedHits.incrementAndGet();
+            return copyOf(cached.snapshot());
+        }
+
+        misses.incrementAndGet();
+
+        User loaded = userRepository.findById(id).orElse(null);
+        if (loaded == null) {
+            return null;
+        }
+
+        if (ttlMs > 0) {
+            if (shared.size() >= maxEntries) {
+                shared.values().removeIf(c -> !c.expiresAt().isAfter(now));
+                if (shared.size() >= maxEntries) {
+                    shared.clear();
+                }
+            }
+            shared.put(id, new CachedUser(copyOf(loaded), now.plusMillis(ttlMs)));
+        }
+
+        // Hand out a detached copy, never the entity managed by the open session
+        return copyOf(loaded);
+    }
+
+    private void evict(UUID id) {
+        invalidations.incrementAndGet();
+        shared.remove(id);
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE + id, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static User copyOf(User source) {
+        User copy = new User();
+        copy.setId(source.getId());
+        copy.setEmail(source.getEmail());
+        copy.setPassword(source.getPassword());
+        copy.setFullName(source.getFullName());
+        copy.setRole(source.getRole());
+        copy.setCredits(source.getCredits());
+        copy.setPlan(source.getPlan());
+        copy.setGoogleId(source.getGoogleId());
+        copy.setProfileImageUrl(source.getProfileImageUrl());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+}
@@ -1,45 +1,24 @@
 package com.paysecure.ai_report_tool_backend.service;
 
-import com.paysecure.ai_report_tool_backend.dto.user.*;
-import com.paysecure.ai_report_tool_backend.model.ReportTemplate;
-import com.paysecure.ai_report_tool_backend.repository.ReportTemplateRepository;
+import com.paysecure.ai_report_tool_backend.service.catalog.TemplateCatalog;
 import org.springframework.stereotype.Service;
 
 @Service
 public class UserReportTemplateService {
 
-    private final ReportTemplateRepository templateRepo;
+    private final TemplateCatalog catalog;
 
     public UserReportTemplateService(
-            ReportTemplateRepository templateRepo
+            TemplateCatalog catalog
     ) {
-        this.templateRepo = templateRepo;
+        this.catalog = catalog;
     }
 
-    public UserReportTemplateResponse getByToolId(String toolId) {
-        ReportTemplate template = templateRepo.findByToolId(toolId)
+    /** The template as a pre-rendered {@code UserReportTemplateResponse}. */
+    public TemplateCatalog.Rendered getByToolId(String toolId) {
+        return catalog.userTemplate(toolId)
                 .orElseThrow(() ->
                         new IllegalArgumentException("Report template not found")
                 );
-
-        return new UserReportTemplateResponse(
-                template.getToolId(),
-                template.getTitle(),
-                template.getDescription(),
-                template.getCategory(),
-                template.getIndustry(),
-                template.getInputFields().stream()
-                        .map(f -> new UserInputFieldResponse(
-                                f.getId(),
-                                f.getLabel(),
-                                f.getDescription(),
-                                f.getType(),
-                                f.isRequired(),
-                                f.getMinValue(),
-                                f.getMaxValue(),
-                                f.getOptions()
-                        ))
-                        .toList()
-        );
     }
 }
\ No newline at end of file
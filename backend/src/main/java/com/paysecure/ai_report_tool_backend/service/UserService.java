@@ -1,7 +1,6 @@
 package com.paysecure.ai_report_tool_backend.service;
 
 import com.paysecure.ai_report_tool_backend.model.User;
-import com.paysecure.ai_report_tool_backend.repository.UserRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
@@ -9,14 +8,18 @@ import java.util.UUID;
 @Service
 public class UserService {
 
-    private final UserRepository userRepository;
+    private final UserCache userCache;
 
-    public UserService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public UserService(UserCache userCache) {
+        this.userCache = userCache;
     }
 
+    /**
+     * Served from {@link UserCache}; the result is a detached copy, so writes
+     * must go through a repository {@code save}.
+     */
     public User getById(UUID id) {
-        return userRepository.findById(id)
+        return userCache.get(id)
                 .orElseThrow(() ->
                         new IllegalArgumentException("User not found")
                 );
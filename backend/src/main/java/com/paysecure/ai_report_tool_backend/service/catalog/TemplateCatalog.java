@@ -0,0 +1,407 @@
+package com.paysecure.ai_report_tool_backend.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paysecure.ai_report_tool_backend.dto.InputFieldResponse;
+import com.paysecure.ai_report_tool_backend.dto.ReportTemplateResponse;
+import com.paysecure.ai_report_tool_backend.dto.ToolResponse;
+import com.paysecure.ai_report_tool_backend.dto.ToolSummaryResponse;
+import com.paysecure.ai_report_tool_backend.dto.user.UserInputFieldResponse;
+import com.paysecure.ai_report_tool_backend.dto.user.UserReportTemplateResponse;
+import com.paysecure.ai_report_tool_backend.model.InputField;
+import com.paysecure.ai_report_tool_backend.model.ReportTemplate;
+import com.paysecure.ai_report_tool_backend.repository.InputFieldRepository;
+import com.paysecure.ai_report_tool_backend.repository.ReportTemplateRepository;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationBus;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationEvent;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationHandler;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationTopic;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The report template catalog as one immutable in-memory snapshot. Every
+ * read endpoint is rendered to JSON with a content-hash ETag when the
+ * snapshot is built, so serving it touches neither Postgres nor Jackson.
+ *
+ * <p>Template writes call {@link #changed()}: this node rebuilds once the
+ * write commits and swaps the new snapshot in whole, and a
+ * {@link InvalidationTopic#REPORT_TEMPLATE} event on the
+ * {@link InvalidationBus} makes every other node do the same.
+ */
+@Slf4j
+@Component
+public class TemplateCatalog implements InvalidationHandler {
+
+    private static final Rendered EMPTY_LIST = render(new ObjectMapper(), List.of());
+
+    private final ReportTemplateRepository templateRepository;
+    private final InputFieldRepository inputFieldRepository;
+    private final ObjectMapper objectMapper;
+    private final InvalidationBus invalidationBus;
+    private final TransactionTemplate readOnly;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    // A snapshot is stale while it was built before the latest change
+    private final AtomicLong changes = new AtomicLong();
+    private volatile long builtAtChange = -1;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private final AtomicLong failedRebuilds = new AtomicLong();
+    private final AtomicLong remoteInvalidations = new AtomicLong();
+
+    public TemplateCatalog(
+            ReportTemplateRepository templateRepository,
+            InputFieldRepository inputFieldRepository,
+            ObjectMapper objectMapper,
+            InvalidationBus invalidationBus,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.templateRepository = templateRepository;
+        this.inputFieldRepository = inputFieldRepository;
+        this.objectMapper = objectMapper;
+        this.invalidationBus = invalidationBus;
+        // Own transaction and persistence context: rebuilds also run from afterCommit and under open-in-view
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** A pre-serialized response body and its strong ETag. */
+    public record Rendered(byte[] json, String etag) {
+
+        public ResponseEntity<byte[]> toResponse() {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(json);
+        }
+    }
+
+    record Snapshot(
+            Rendered tools,
+            Map<String, Rendered> toolsById,
+            Map<String, Rendered> toolFields,
+            Map<String, Rendered> userTemplates,
+            Rendered adminTemplates,
+            Map<String, Rendered> adminTemplatesById,
+            int templates,
+            Instant builtAt
+    ) {}
+
+    public record Stats(
+            int templates,
+            Instant builtAt,
+            boolean stale,
+            long hits,
+            long rebuilds,
+            long failedRebuilds,
+            long remoteInvalidations
+    ) {}
+
+    /* -------------------------
+       READS
+    ------------------------- */
+
+    /** {@code GET /api/tools} */
+    public Rendered tools() {
+        return snapshot().tools();
+    }
+
+    /** {@code GET /api/tools/{toolId}} */
+    public Optional<Rendered> tool(String toolId) {
+        return Optional.ofNullable(snapshot().toolsById().get(toolId));
+    }
+
+    /** {@code GET /api/tools/{toolId}/fields}; an unknown tool has no fields. */
+    public Rendered toolFields(String toolId) {
+        return snapshot().toolFields().getOrDefault(toolId, EMPTY_LIST);
+    }
+
+    /** {@code GET /api/report-templates/{toolId}} */
+    public Optional<Rendered> userTemplate(String toolId) {
+        return Optional.ofNullable(snapshot().userTemplates().get(toolId));
+    }
+
+    /** {@code GET /api/admin/report-templates} */
+    public Rendered adminTemplates() {
+        return snapshot().adminTemplates();
+    }
+
+    /** {@code GET /api/admin/report-templates/{toolId}} */
+    public Optional<Rendered> adminTemplate(String toolId) {
+        return Optional.ofNullable(snapshot().adminTemplatesById().get(toolId));
+    }
+
+    /* -------------------------
+       INVALIDATION
+    ------------------------- */
+
+    /**
+     * Call after any write to templates or their input fields. Inside a
+     * transaction the rebuild waits for the commit (and is skipped on
+     * rollback, as is the event); otherwise it happens now.
+     */
+    public void changed() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changes.incrementAndGet();
+                    rebuildQuietly();
+                }
+            });
+        } else {
+            changes.incrementAndGet();
+            rebuildQuietly();
+        }
+
+        invalidationBus.publish(InvalidationTopic.REPORT_TEMPLATE, null);
+    }
+
+    @Override
+    public void invalidate(Set<InvalidationEvent> events) {
+        // Any template change invalidates the lists, so the catalog is rebuilt whole
+        if (events.stream().anyMatch(event -> event.topic() == InvalidationTopic.REPORT_TEMPLATE)) {
+            remoteChanged();
+        }
+    }
+
+    @Override
+    public void flush() {
+        remoteChanged();
+    }
+
+    /** A change made on another node, or events that may have been missed. */
+    private void remoteChanged() {
+        remoteInvalidations.incrementAndGet();
+        changes.incrementAndGet();
+
+        // Nothing to refresh until somebody has read the catalog
+        if (current.get() != null) {
+            rebuildQuietly();
+        }
+    }
+
+    public Stats stats() {
+        Snapshot snapshot = current.get();
+        return new Stats(
+                snapshot != null ? snapshot.templates() : 0,
+                snapshot != null ? snapshot.builtAt() : null,
+                isStale(),
+                hits.get(),
+                rebuilds.get(),
+                failedRebuilds.get(),
+                remoteInvalidations.get()
+        );
+    }
+
+    /* -------------------------
+       SNAPSHOT
+    ------------------------- */
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = current.get();
+
+        if (snapshot == null) {
+            buildLock.lock();
+            try {
+                if (current.get() == null) {
+                    rebuildLocked();
+                }
+                return current.get();
+            } finally {
+                buildLock.unlock();
+            }
+        }
+
+        // A failed rebuild left an old snapshot behind: retry, but never make readers queue for it
+        if (isStale() && buildLock.tryLock()) {
+            try {
+                if (isStale()) {
+                    rebuildLocked();
+                }
+            } catch (RuntimeException e) {
+                failedRebuilds.incrementAndGet();
+                log.warn("Template catalog rebuild failed, serving the previous snapshot: {}", e.getMessage());
+            } finally {
+                buildLock.unlock();
+            }
+            return current.get();
+        }
+
+        hits.incrementAndGet();
+        return snapshot;
+    }
+
+    private boolean isStale() {
+        return builtAtChange < changes.get();
+    }
+
+    private void rebuildQuietly() {
+        buildLock.lock();
+        try {
+            rebuildLocked();
+        } catch (RuntimeException e) {
+            failedRebuilds.incrementAndGet();
+            log.warn("Template catalog rebuild failed, it will be retried on the next read: {}", e.getMessage());
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private void rebuildLocked() {
+        long change = changes.get();
+        long start = System.nanoTime();
+
+        List<ReportTemplate> templates = readOnly.execute(status -> {
+            List<ReportTemplate> loaded = templateRepository.findAllWithInputFields();
+            if (!loaded.isEmpty()) {
+                inputFieldRepository.findWithOptionsByTemplateIn(loaded);
+            }
+            return loaded;
+        });
+
+        Snapshot snapshot = build(templates, objectMapper);
+        current.set(snapshot);
+        builtAtChange = change;
+        rebuilds.incrementAndGet();
+
+        log.debug("Template catalog rebuilt: {} templates in {} ms",
+                snapshot.templates(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /* -------------------------
+       RENDERING
+    ------------------------- */
+
+    static Snapshot build(List<ReportTemplate> templates, ObjectMapper mapper) {
+        List<ToolSummaryResponse> summaries = new ArrayList<>();
+        List<ReportTemplateResponse> adminResponses = new ArrayList<>();
+        Map<String, Rendered> toolsById = new HashMap<>();
+        Map<String, Rendered> toolFields = new HashMap<>();
+        Map<String, Rendered> userTemplates = new HashMap<>();
+        Map<String, Rendered> adminById = new HashMap<>();
+
+        for (ReportTemplate t : templates) {
+            List<InputFieldResponse> fields = t.getInputFields().stream()
+                    .map(TemplateCatalog::toFieldResponse)
+                    .toList();
+
+            summaries.add(new ToolSummaryResponse(
+                    t.getToolId(), t.getTitle(), t.getDescription(), t.getCategory(), t.getIndustry()));
+
+            ReportTemplateResponse admin = toAdminResponse(t, fields);
+            adminResponses.add(admin);
+
+            toolsById.put(t.getToolId(), render(mapper, new ToolResponse(
+                    t.getToolId(), t.getTitle(), t.getDescription(), t.getCategory(), t.getIndustry(), fields)));
+            toolFields.put(t.getToolId(), render(mapper, fields));
+            userTemplates.put(t.getToolId(), render(mapper, toUserResponse(t)));
+            adminById.put(t.getToolId(), render(mapper, admin));
+        }
+
+        return new Snapshot(
+                render(mapper, summaries),
+                Map.copyOf(toolsById),
+                Map.copyOf(toolFields),
+                Map.copyOf(userTemplates),
+                render(mapper, adminResponses),
+                Map.copyOf(adminById),
+                templates.size(),
+                Instant.now()
+        );
+    }
+
+    static Rendered render(ObjectMapper mapper, Object body) {
+        try {
+            byte[] json = mapper.writeValueAsBytes(body);
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return new Rendered(json, "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize template catalog", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static InputFieldResponse toFieldResponse(InputField field) {
+        return new InputFieldResponse(
+                field.getId(),
+                field.getLabel(),
+                field.getDescription(),
+                field.getType().name(),
+                field.isRequired(),
+                field.getMinValue(),
+                field.getMaxValue(),
+                copyOf(field.getOptions()),
+                field.getSortOrder()
+        );
+    }
+
+    private static ReportTemplateResponse toAdminResponse(ReportTemplate t, List<InputFieldResponse> fields) {
+        return new ReportTemplateResponse(
+                t.getId(),
+                t.getToolId(),
+                t.getTitle(),
+                t.getDescription(),
+                t.getCategory(),
+                t.getIndustry(),
+                t.getSystemPrompt(),
+                t.getCalculationPrompt(),
+                t.getOutputFormatPrompt(),
+                t.getTemperature(),
+                t.getMaxTokens(),
+                t.getActive(),
+                t.getResponseCacheEnabled(),
+                fields
+        );
+    }
+
+    private static UserReportTemplateResponse toUserResponse(ReportTemplate t) {
+        return new UserReportTemplateResponse(
+                t.getToolId(),
+                t.getTitle(),
+                t.getDescription(),
+                t.getCategory(),
+                t.getIndustry(),
+                t.getInputFields().stream()
+                        .map(f -> new UserInputFieldResponse(
+                                f.getId(),
+                                f.getLabel(),
+                                f.getDescription(),
+                                f.getType(),
+                                f.isRequired(),
+                                f.getMinValue(),
+                                f.getMaxValue(),
+                                copyOf(f.getOptions())
+                        ))
+                        .toList()
+        );
+    }
+
+    // Detaches the Hibernate collection wrapper from the snapshot
+    private static List<String> copyOf(List<String> options) {
+        return options == null ? null : new ArrayList<>(options);
+    }
+}
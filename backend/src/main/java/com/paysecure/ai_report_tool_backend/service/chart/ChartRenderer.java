@@ -0,0 +1,466 @@
+package com.paysecure.ai_report_tool_backend.service.chart;
+
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.paysecure.ai_report_tool_backend.model.ReportChart;
+import com.paysecure.ai_report_tool_backend.service.chart.ChartSpec.ChartKind;
+import com.paysecure.ai_report_tool_backend.service.chart.ChartSpec.Series;
+import com.paysecure.ai_report_tool_backend.service.chart.VectorCanvas.Align;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Draws {@link ReportChart}s (Chart.js {@code dataJson}/{@code optionsJson})
+ * as vector form XObjects for the PDF export, without a browser.
+ * <p>
+ * An XObject belongs to one {@code PdfDocument}, so what is cached is its
+ * compiled content stream: the operators and the name under which it refers
+ * to its font. A repeat export copies those bytes into a fresh XObject and
+ * binds the document's own Helvetica under the same name, skipping JSON
+ * parsing, layout and path generation. Entries are keyed by chart id plus a
+ * hash of everything that is drawn, so edited charts never hit stale entries.
+ */
+@Component
+public class ChartRenderer {
+
+    /** Bump when the drawing changes so cached content streams stop matching. */
+    static final String DRAWING_VERSION = "1";
+
+    public static final float WIDTH = 495;   // A4 width minus the 50pt page margins
+    public static final float HEIGHT = 260;
+
+    private static final Color TEXT = new Color(0x55, 0x55, 0x55);
+    private static final Color GRID = new Color(0xe5, 0xe5, 0xe5);
+    private static final Color AXIS = new Color(0xbb, 0xbb, 0xbb);
+    private static final float LABEL_SIZE = 8;
+
+    private final ConcurrentHashMap<String, CompiledChart> compiled = new ConcurrentHashMap<>();
+    private final int cacheMaxEntries;
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    public ChartRenderer(@Value("${pdf.chart-cache.max-entries:1000}") int cacheMaxEntries) {
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    private record CompiledChart(byte[] content, PdfName fontName) {}
+
+    public record Stats(long hits, long misses, double hitRatio, int entries, int maxEntries) {}
+
+    /**
+     * Returns the chart as an XObject of {@link #WIDTH} x {@link #HEIGHT}
+     * bound to {@code pdf}, or null when the chart type is not one we draw.
+     * {@code font} must belong to {@code pdf}.
+     */
+    public PdfFormXObject render(ReportChart chart, PdfDocument pdf, PdfFont font) throws IOException {
+        String key = chart.getId() != null ? chart.getId() + ":" + hash(chart) : null;
+
+        CompiledChart hit = key != null ? compiled.get(key) : null;
+        if (hit != null) {
+            cacheHits.incrementAndGet();
+            return replay(hit, pdf, font);
+        }
+        cacheMisses.incrementAndGet();
+
+        ChartSpec spec = ChartSpec.parse(chart.getChartType(), chart.getDataJson(), chart.getOptionsJson());
+        if (spec == null) return null;
+
+        PdfFormXObject xObject = new PdfFormXObject(new Rectangle(WIDTH, HEIGHT));
+        PdfCanvas canvas = new PdfCanvas(xObject, pdf);
+        draw(spec, new VectorCanvas(canvas, font, HEIGHT));
+        canvas.release();
+
+        if (key != null) {
+            remember(key, new CompiledChart(xObject.getPdfObject().getBytes(false), fontName(xObject)));
+        }
+        return xObject;
+    }
+
+    public Stats stats() {
+        long hits = cacheHits.get();
+        long misses = cacheMisses.get();
+        long total = hits + misses;
+        return new Stats(hits, misses, total == 0 ? 0.0 : (double) hits / total, compiled.size(), cacheMaxEntries);
+    }
+
+    /* -------------------------
+       CACHE
+    ------------------------- */
+
+    private PdfFormXObject replay(CompiledChart chart, PdfDocument pdf, PdfFont font) {
+        PdfFormXObject xObject = new PdfFormXObject(new Rectangle(WIDTH, HEIGHT));
+        xObject.getPdfObject().setData(chart.content());
+
+        if (chart.fontName() != null) {
+            // A fresh resource dictionary hands out names deterministically, so this matches the recorded one
+            PdfName name = xObject.getResources().addFont(pdf, font);
+            if (!name.equals(chart.fontName())) {
+                throw new IllegalStateException("Font resource " + name + " does not match cached " + chart.fontName());
+            }
+        }
+        return xObject;
+    }
+
+    private static PdfName fontName(PdfFormXObject xObject) {
+        var names = xObject.getResources().getResourceNames(PdfName.Font);
+        return names.isEmpty() ? null : names.iterator().next();
+    }
+
+    private void remember(String key, CompiledChart chart) {
+        if (cacheMaxEntries <= 0) return;
+
+        // Charts change rarely; start over when full rather than track recency
+        if (compiled.size() >= cacheMaxEntries) {
+            compiled.clear();
+        }
+        compiled.put(key, chart);
+    }
+
+    private static String hash(ReportChart chart) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[]{DRAWING_VERSION, chart.getChartType(), chart.getDataJson(), chart.getOptionsJson()}) {
+                byte[] bytes = (part != null ? part : "").getBytes(StandardCharsets.UTF_8);
+                digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ':');
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /* -------------------------
+       LAYOUT
+    ------------------------- */
+
+    private void draw(ChartSpec spec, VectorCanvas canvas) {
+        double top = spec.legend() ? drawLegend(spec, canvas) + 8 : 8;
+        Rectangle2D area = new Rectangle2D.Double(0, top, WIDTH, HEIGHT - top);
+
+        switch (spec.kind()) {
+            case PIE, DOUGHNUT -> drawPie(spec, canvas, area);
+            case BAR, LINE -> drawCategories(spec, canvas, area);
+            case SCATTER -> drawScatter(spec, canvas, area);
+        }
+    }
+
+    /** Centred rows of swatch + label, wrapped like Chart.js does; returns the bottom edge. */
+    private double drawLegend(ChartSpec spec, VectorCanvas canvas) {
+        List<String> labels = new ArrayList<>();
+        List<Color> colors = new ArrayList<>();
+
+        if (spec.kind() == ChartKind.PIE || spec.kind() == ChartKind.DOUGHNUT) {
+            Series series = spec.series().get(0);
+            for (int i = 0; i < spec.labels().size(); i++) {
+                labels.add(spec.labels().get(i));
+                colors.add(series.color(i));
+            }
+        } else {
+            for (Series series : spec.series()) {
+                if (series.label() == null) continue;
+                labels.add(series.label());
+                colors.add(spec.kind() == ChartKind.LINE ? series.border() : series.color(0));
+            }
+        }
+        if (labels.isEmpty()) return 0;
+
+        double rowHeight = 14;
+        List<List<Integer>> rows = new ArrayList<>();
+        List<Double> rowWidths = new ArrayList<>();
+        List<Integer> row = new ArrayList<>();
+        double rowWidth = 0;
+
+        for (int i = 0; i < labels.size(); i++) {
+            labels.set(i, canvas.fit(labels.get(i), LABEL_SIZE, WIDTH / 3));
+            double itemWidth = 12 + canvas.textWidth(labels.get(i), LABEL_SIZE) + 12;
+            if (!row.isEmpty() && rowWidth + itemWidth > WIDTH) {
+                rows.add(row);
+                rowWidths.add(rowWidth);
+                row = new ArrayList<>();
+                rowWidth = 0;
+            }
+            row.add(i);
+            rowWidth += itemWidth;
+        }
+        rows.add(row);
+        rowWidths.add(rowWidth);
+
+        for (int r = 0; r < rows.size(); r++) {
+            double x = (WIDTH - rowWidths.get(r)) / 2;
+            double y = 4 + r * rowHeight;
+            for (int i : rows.get(r)) {
+                canvas.fill(new Rectangle2D.Double(x, y, 8, 8), colors.get(i));
+                canvas.text(labels.get(i), x + 12, y + 7.5, LABEL_SIZE, TEXT, Align.LEFT);
+                x += 12 + canvas.textWidth(labels.get(i), LABEL_SIZE) + 12;
+            }
+        }
+        return 4 + rows.size() * rowHeight;
+    }
+
+    private void drawPie(ChartSpec spec, VectorCanvas canvas, Rectangle2D area) {
+        Series series = spec.series().get(0);
+        double total = 0;
+        for (double value : series.ys()) {
+            if (value > 0) total += value;
+        }
+        if (total <= 0) return;
+
+        double radius = Math.min(area.getWidth(), area.getHeight()) / 2 - 4;
+        double cx = area.getCenterX();
+        double cy = area.getCenterY();
+        Rectangle2D bounds = new Rectangle2D.Double(cx - radius, cy - radius, radius * 2, radius * 2);
+        double inner = radius * spec.cutout();
+
+        // Clockwise from 12 o'clock, as Chart.js draws them
+        double start = 90;
+        for (int i = 0; i < series.ys().length; i++) {
+            double value = series.ys()[i];
+            if (!(value > 0)) continue;
+
+            double extent = -360 * value / total;
+            Area slice = new Area(new Arc2D.Double(bounds, start, extent, Arc2D.PIE));
+            if (inner > 0) {
+                slice.subtract(new Area(new Ellipse2D.Double(cx - inner, cy - inner, inner * 2, inner * 2)));
+            }
+            canvas.fill(slice, series.color(i));
+            canvas.stroke(slice, Color.WHITE, 1);
+
+            if (value / total >= 0.05) {
+                double mid = Math.toRadians(start + extent / 2);
+                double r = (radius + inner) / 2 + (inner > 0 ? 0 : radius * 0.1);
+                canvas.text(Math.round(value / total * 100) + "%",
+                        cx + Math.cos(mid) * r, cy - Math.sin(mid) * r + 3,
+                        LABEL_SIZE, contrasting(series.color(i)), Align.CENTER);
+            }
+            start += extent;
+        }
+    }
+
+    private void drawCategories(ChartSpec spec, VectorCanvas canvas, Rectangle2D area) {
+        int count = spec.labels().size();
+        for (Series series : spec.series()) {
+            count = Math.max(count, series.ys().length);
+        }
+        if (count == 0) return;
+
+        double[] range = range(spec.series(), false, spec.beginAtZero());
+        double[] ticks = ticks(range[0], range[1]);
+        Rectangle2D plot = plotArea(canvas, area, ticks);
+        drawValueAxis(canvas, plot, ticks);
+
+        double band = plot.getWidth() / count;
+        int every = (int) Math.ceil(14 / band);
+        for (int i = 0; i < count; i += every) {
+            String label = i < spec.labels().size() ? spec.labels().get(i) : "";
+            canvas.text(canvas.fit(label, LABEL_SIZE, band * every - 2),
+                    plot.getX() + band * (i + 0.5), plot.getMaxY() + 11, LABEL_SIZE, TEXT, Align.CENTER);
+        }
+
+        if (spec.kind() == ChartKind.BAR) {
+            double group = band * 0.8;
+            double barWidth = group / spec.series().size();
+            double zero = y(plot, ticks, Math.max(ticks[0], Math.min(0, ticks[ticks.length - 1])));
+
+            for (int s = 0; s < spec.series().size(); s++) {
+                Series series = spec.series().get(s);
+                for (int i = 0; i < series.ys().length; i++) {
+                    if (Double.isNaN(series.ys()[i])) continue;
+                    double x = plot.getX() + band * i + (band - group) / 2 + barWidth * s;
+                    double y = y(plot, ticks, series.ys()[i]);
+                    canvas.fill(new Rectangle2D.Double(x, Math.min(y, zero), barWidth, Math.abs(zero - y)),
+                            series.colors().size() > 1 ? series.color(i) : series.color(0));
+                }
+            }
+        } else {
+            for (Series series : spec.series()) {
+                double[] xs = new double[series.ys().length];
+                for (int i = 0; i < xs.length; i++) {
+                    xs[i] = plot.getX() + band * (i + 0.5);
+                }
+                drawLine(canvas, plot, ticks, series, xs);
+            }
+        }
+    }
+
+    private void drawScatter(ChartSpec spec, VectorCanvas canvas, Rectangle2D area) {
+        double[] yRange = range(spec.series(), false, spec.beginAtZero());
+        double[] xRange = range(spec.series(), true, false);
+        double[] yTicks = ticks(yRange[0], yRange[1]);
+        double[] xTicks = ticks(xRange[0], xRange[1]);
+        Rectangle2D plot = plotArea(canvas, area, yTicks);
+        drawValueAxis(canvas, plot, yTicks);
+
+        double xSpan = xTicks[xTicks.length - 1] - xTicks[0];
+        for (double tick : xTicks) {
+            double x = plot.getX() + (tick - xTicks[0]) / xSpan * plot.getWidth();
+            canvas.stroke(new Line2D.Double(x, plot.getY(), x, plot.getMaxY()), GRID, 0.5f);
+            canvas.text(format(tick), x, plot.getMaxY() + 11, LABEL_SIZE, TEXT, Align.CENTER);
+        }
+
+        for (Series series : spec.series()) {
+            if (series.xs() == null) continue;
+            for (int i = 0; i < series.ys().length; i++) {
+                if (Double.isNaN(series.xs()[i]) || Double.isNaN(series.ys()[i])) continue;
+                double x = plot.getX() + (series.xs()[i] - xTicks[0]) / xSpan * plot.getWidth();
+                double y = y(plot, yTicks, series.ys()[i]);
+                canvas.fill(new Ellipse2D.Double(x - 3, y - 3, 6, 6), series.color(0));
+            }
+        }
+    }
+
+    private void drawLine(VectorCanvas canvas, Rectangle2D plot, double[] ticks, Series series, double[] xs) {
+        double base = y(plot, ticks, ticks[0]);
+        Path2D.Double line = new Path2D.Double();
+        Path2D.Double fill = new Path2D.Double();
+        boolean open = false;
+        double lastX = 0;
+
+        // Null values break the line, like Chart.js without spanGaps
+        for (int i = 0; i < xs.length; i++) {
+            double value = series.ys()[i];
+            if (Double.isNaN(value)) {
+                if (open) fill.lineTo(lastX, base);
+                open = false;
+                continue;
+            }
+            double y = y(plot, ticks, value);
+            if (open) {
+                line.lineTo(xs[i], y);
+                fill.lineTo(xs[i], y);
+            } else {
+                line.moveTo(xs[i], y);
+                fill.moveTo(xs[i], base);
+                fill.lineTo(xs[i], y);
+                open = true;
+            }
+            lastX = xs[i];
+        }
+        if (open) fill.lineTo(lastX, base);
+
+        if (series.fill()) {
+            Color color = series.colors().get(0);
+            canvas.fill(fill, new Color(color.getRed(), color.getGreen(), color.getBlue(), Math.min(color.getAlpha(), 80)));
+        }
+        canvas.stroke(line, series.border(), 2);
+
+        for (int i = 0; i < xs.length; i++) {
+            if (Double.isNaN(series.ys()[i])) continue;
+            canvas.fill(new Ellipse2D.Double(xs[i] - 2.5, y(plot, ticks, series.ys()[i]) - 2.5, 5, 5), series.border());
+        }
+    }
+
+    /** Dark text on light fills, white text on dark ones. */
+    private static Color contrasting(Color fill) {
+        double luminance = 0.299 * fill.getRed() + 0.587 * fill.getGreen() + 0.114 * fill.getBlue();
+        return luminance > 186 ? TEXT : Color.WHITE;
+    }
+
+    /* -------------------------
+       AXES
+    ------------------------- */
+
+    /** Leaves room on the left for the widest tick label and at the bottom for category labels. */
+    private Rectangle2D plotArea(VectorCanvas canvas, Rectangle2D area, double[] ticks) {
+        double labelWidth = 0;
+        for (double tick : ticks) {
+            labelWidth = Math.max(labelWidth, canvas.textWidth(format(tick), LABEL_SIZE));
+        }
+        double left = area.getX() + labelWidth + 6;
+        return new Rectangle2D.Double(left, area.getY() + 4, area.getMaxX() - left - 4, area.getHeight() - 22);
+    }
+
+    private void drawValueAxis(VectorCanvas canvas, Rectangle2D plot, double[] ticks) {
+        for (double tick : ticks) {
+            double y = y(plot, ticks, tick);
+            canvas.stroke(new Line2D.Double(plot.getX(), y, plot.getMaxX(), y), GRID, 0.5f);
+            canvas.text(format(tick), plot.getX() - 4, y + 3, LABEL_SIZE, TEXT, Align.RIGHT);
+        }
+        canvas.stroke(new Line2D.Double(plot.getX(), plot.getY(), plot.getX(), plot.getMaxY()), AXIS, 0.75f);
+        canvas.stroke(new Line2D.Double(plot.getX(), plot.getMaxY(), plot.getMaxX(), plot.getMaxY()), AXIS, 0.75f);
+    }
+
+    private static double y(Rectangle2D plot, double[] ticks, double value) {
+        double min = ticks[0];
+        double max = ticks[ticks.length - 1];
+        return plot.getMaxY() - (value - min) / (max - min) * plot.getHeight();
+    }
+
+    private static double[] range(List<Series> series, boolean xs, boolean beginAtZero) {
+        double min = beginAtZero ? 0 : Double.POSITIVE_INFINITY;
+        double max = beginAtZero ? 0 : Double.NEGATIVE_INFINITY;
+        for (Series s : series) {
+            double[] values = xs ? s.xs() : s.ys();
+            if (values == null) continue;
+            for (double value : values) {
+                if (Double.isNaN(value)) continue;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        if (min > max) return new double[]{0, 1};
+        if (min == max) return new double[]{min - 1, max + 1};
+        return new double[]{min, max};
+    }
+
+    /** Round tick values (1, 2, 2.5 or 5 times a power of ten) covering [min, max]. */
+    static double[] ticks(double min, double max) {
+        double rough = (max - min) / 5;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(rough)));
+        double step = magnitude * 10;
+        for (double candidate : new double[]{1, 2, 2.5, 5, 10}) {
+            if (candidate * magnitude >= rough) {
+                step = candidate * magnitude;
+                break;
+            }
+        }
+
+        double first = Math.floor(min / step) * step;
+        double last = Math.ceil(max / step) * step;
+        int count = (int) Math.round((last - first) / step) + 1;
+        double[] ticks = new double[count];
+        for (int i = 0; i < count; i++) {
+            ticks[i] = first + i * step;
+        }
+        return ticks;
+    }
+
+    /** Compact tick labels: 1.5k, 2M, 0.25. */
+    static String format(double value) {
+        double abs = Math.abs(value);
+        if (abs >= 1e9) return trim(value / 1e9) + "B";
+        if (abs >= 1e6) return trim(value / 1e6) + "M";
+        if (abs >= 1e3) return trim(value / 1e3) + "k";
+        return trim(value);
+    }
+
+    private static String trim(double value) {
+        String text = String.format(Locale.ROOT, "%.2f", value);
+        text = text.replaceAll("0+$", "").replaceAll("\\.$", "");
+        return text.equals("-0") ? "0" : text;
+    }
+}
@@ -0,0 +1,182 @@
+package com.paysecure.ai_report_tool_backend.service.chart;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The subset of a Chart.js {@code data}/{@code options} pair that the PDF
+ * renderer understands. Missing values ({@code null} in the data array) are
+ * kept as {@code NaN} so lines can break around them.
+ */
+record ChartSpec(
+        ChartKind kind,
+        List<String> labels,
+        List<Series> series,
+        boolean legend,
+        boolean beginAtZero,
+        double cutout
+) {
+
+    enum ChartKind { PIE, DOUGHNUT, BAR, LINE, SCATTER }
+
+    /**
+     * One dataset. {@code xs} is only set for point data ({@code {x, y}}),
+     * otherwise values line up with the chart's labels.
+     */
+    record Series(String label, double[] xs, double[] ys, List<Color> colors, Color border, boolean fill) {
+
+        Color color(int index) {
+            return colors.get(index % colors.size());
+        }
+    }
+
+    static final List<Color> PALETTE = List.of(
+            new Color(0x5f, 0xcf, 0xee),
+            new Color(0x9f, 0xb3, 0xf5),
+            new Color(0xe9, 0xa9, 0xc4),
+            new Color(0xfd, 0xe2, 0xb8),
+            new Color(0xb8, 0xe6, 0xc1),
+            new Color(0xd6, 0xc4, 0xf0)
+    );
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Returns null for chart types the renderer does not draw. */
+    static ChartSpec parse(String chartType, String dataJson, String optionsJson) throws IOException {
+        ChartKind kind = kindOf(chartType);
+        if (kind == null) return null;
+
+        JsonNode data = MAPPER.readTree(dataJson);
+        JsonNode options = optionsJson == null || optionsJson.isBlank()
+                ? MAPPER.createObjectNode()
+                : MAPPER.readTree(optionsJson);
+
+        List<String> labels = new ArrayList<>();
+        for (JsonNode label : data.path("labels")) {
+            labels.add(label.asText());
+        }
+
+        List<Series> series = new ArrayList<>();
+        int index = 0;
+        for (JsonNode dataset : data.path("datasets")) {
+            series.add(series(dataset, kind, index++));
+        }
+        if (series.isEmpty()) {
+            throw new IOException("Chart has no datasets");
+        }
+
+        boolean legend = options.path("plugins").path("legend").path("display").asBoolean(true);
+        // Chart.js only starts bar axes at zero by default
+        boolean beginAtZero = options.path("scales").path("y").path("beginAtZero").asBoolean(kind == ChartKind.BAR);
+
+        return new ChartSpec(kind, labels, series, legend, beginAtZero, cutout(options, kind));
+    }
+
+    private static ChartKind kindOf(String chartType) {
+        if (chartType == null) return null;
+        try {
+            return ChartKind.valueOf(chartType.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Series series(JsonNode dataset, ChartKind kind, int index) {
+        JsonNode values = dataset.path("data");
+        boolean points = values.size() > 0 && values.get(0).isObject();
+
+        double[] xs = points ? new double[values.size()] : null;
+        double[] ys = new double[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            JsonNode value = values.get(i);
+            if (points) {
+                xs[i] = number(value.path("x"));
+                ys[i] = number(value.path("y"));
+            } else {
+                ys[i] = number(value);
+            }
+        }
+
+        // Pie slices take one colour each, other charts one colour per dataset
+        Color fallback = PALETTE.get(index % PALETTE.size());
+        List<Color> colors = colors(dataset.path("backgroundColor"));
+        if (colors.isEmpty()) {
+            colors = kind == ChartKind.PIE || kind == ChartKind.DOUGHNUT ? PALETTE : List.of(fallback);
+        }
+        List<Color> borders = colors(dataset.path("borderColor"));
+        Color border = borders.isEmpty() ? colors.get(0) : borders.get(0);
+
+        String label = dataset.hasNonNull("label") ? dataset.get("label").asText() : null;
+        return new Series(label, xs, ys, colors, border, dataset.path("fill").asBoolean(false));
+    }
+
+    private static double number(JsonNode node) {
+        return node.isNumber() || node.isTextual() ? node.asDouble(Double.NaN) : Double.NaN;
+    }
+
+    private static double cutout(JsonNode options, ChartKind kind) {
+        if (kind != ChartKind.DOUGHNUT) return 0;
+        String cutout = options.path("cutout").asText("50%").trim();
+        try {
+            double value = cutout.endsWith("%")
+                    ? Double.parseDouble(cutout.substring(0, cutout.length() - 1)) / 100
+                    : 0.5;
+            return Math.max(0, Math.min(0.9, value));
+        } catch (NumberFormatException e) {
+            return 0.5;
+        }
+    }
+
+    private static List<Color> colors(JsonNode node) {
+        List<Color> colors = new ArrayList<>();
+        if (node.isArray()) {
+            for (JsonNode color : node) {
+                Color parsed = color(color.asText());
+                if (parsed != null) colors.add(parsed);
+            }
+        } else if (node.isTextual()) {
+            Color parsed = color(node.asText());
+            if (parsed != null) colors.add(parsed);
+        }
+        return colors;
+    }
+
+    /** {@code #rgb}, {@code #rrggbb}, {@code #rrggbbaa}, {@code rgb(...)} and {@code rgba(...)}. */
+    static Color color(String css) {
+        String value = css.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (value.startsWith("#")) {
+                String hex = value.substring(1);
+                if (hex.length() == 3) {
+                    hex = "" + hex.charAt(0) + hex.charAt(0) + hex.charAt(1) + hex.charAt(1) + hex.charAt(2) + hex.charAt(2);
+                }
+                if (hex.length() == 6) {
+                    return new Color(Integer.parseInt(hex, 16));
+                }
+                if (hex.length() == 8) {
+                    long rgba = Long.parseLong(hex, 16);
+                    return new Color((int) (rgba >> 24) & 0xff, (int) (rgba >> 16) & 0xff, (int) (rgba >> 8) & 0xff, (int) rgba & 0xff);
+                }
+                return null;
+            }
+            if (value.startsWith("rgb")) {
+                String[] parts = value.substring(value.indexOf('(') + 1, value.lastIndexOf(')')).split(",");
+                int alpha = parts.length > 3 ? (int) Math.round(Double.parseDouble(parts[3].trim()) * 255) : 255;
+                return new Color(
+                        Integer.parseInt(parts[0].trim()),
+                        Integer.parseInt(parts[1].trim()),
+                        Integer.parseInt(parts[2].trim()),
+                        Math.max(0, Math.min(255, alpha)));
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return null;
+    }
+}
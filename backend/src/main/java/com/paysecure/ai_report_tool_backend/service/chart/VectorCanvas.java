@@ -0,0 +1,134 @@
+package com.paysecure.ai_report_tool_backend.service.chart;
+
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+
+import java.awt.Color;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+
+/**
+ * Draws java.awt.geom shapes as PDF path operators, so charts are laid out
+ * with the usual Java2D geometry (top-left origin, y down) but come out as
+ * vector content. Nothing here touches a display or a raster.
+ * <p>
+ * Translucent colours are blended onto white up front; that keeps the
+ * content stream free of ExtGState resources, which matters for
+ * {@link ChartRenderer}'s cache.
+ */
+final class VectorCanvas {
+
+    enum Align { LEFT, CENTER, RIGHT }
+
+    private final PdfCanvas canvas;
+    private final PdfFont font;
+    private final AffineTransform toPdf;
+
+    VectorCanvas(PdfCanvas canvas, PdfFont font, float height) {
+        this.canvas = canvas;
+        this.font = font;
+        this.toPdf = new AffineTransform(1, 0, 0, -1, 0, height);
+    }
+
+    void fill(Shape shape, Color color) {
+        canvas.saveState();
+        canvas.setFillColor(pdfColor(color));
+        path(shape);
+        canvas.fill();
+        canvas.restoreState();
+    }
+
+    void stroke(Shape shape, Color color, float width) {
+        canvas.saveState();
+        canvas.setStrokeColor(pdfColor(color));
+        canvas.setLineWidth(width);
+        path(shape);
+        canvas.stroke();
+        canvas.restoreState();
+    }
+
+    /** {@code y} is the text baseline in top-left coordinates. */
+    void text(String text, double x, double y, float size, Color color, Align align) {
+        if (text == null || text.isEmpty()) return;
+
+        double width = textWidth(text, size);
+        double left = switch (align) {
+            case LEFT -> x;
+            case CENTER -> x - width / 2;
+            case RIGHT -> x - width;
+        };
+
+        canvas.beginText()
+                .setFontAndSize(font, size)
+                .setFillColor(pdfColor(color))
+                .moveText(left, toPdf.getScaleY() * y + toPdf.getTranslateY())
+                .showText(text)
+                .endText();
+    }
+
+    double textWidth(String text, float size) {
+        return font.getWidth(text, size);
+    }
+
+    /** Shortens {@code text} with an ellipsis until it fits in {@code maxWidth}. */
+    String fit(String text, float size, double maxWidth) {
+        if (textWidth(text, size) <= maxWidth) return text;
+        for (int end = text.length() - 1; end > 0; end--) {
+            String shortened = text.substring(0, end) + "...";
+            if (textWidth(shortened, size) <= maxWidth) return shortened;
+        }
+        return "";
+    }
+
+    private void path(Shape shape) {
+        PathIterator it = shape.getPathIterator(toPdf);
+        double[] c = new double[6];
+        double x = 0, y = 0;
+
+        while (!it.isDone()) {
+            switch (it.currentSegment(c)) {
+                case PathIterator.SEG_MOVETO -> {
+                    canvas.moveTo(c[0], c[1]);
+                    x = c[0];
+                    y = c[1];
+                }
+                case PathIterator.SEG_LINETO -> {
+                    canvas.lineTo(c[0], c[1]);
+                    x = c[0];
+                    y = c[1];
+                }
+                case PathIterator.SEG_QUADTO -> {
+                    // PDF only has cubic curves; raise the degree
+                    canvas.curveTo(
+                            x + 2.0 / 3 * (c[0] - x), y + 2.0 / 3 * (c[1] - y),
+                            c[2] + 2.0 / 3 * (c[0] - c[2]), c[3] + 2.0 / 3 * (c[1] - c[3]),
+                            c[2], c[3]);
+                    x = c[2];
+                    y = c[3];
+                }
+                case PathIterator.SEG_CUBICTO -> {
+                    canvas.curveTo(c[0], c[1], c[2], c[3], c[4], c[5]);
+                    x = c[4];
+                    y = c[5];
+                }
+                case PathIterator.SEG_CLOSE -> canvas.closePath();
+                default -> { }
+            }
+            it.next();
+        }
+    }
+
+    private static DeviceRgb pdfColor(Color color) {
+        float alpha = color.getAlpha() / 255f;
+        return new DeviceRgb(
+                blend(color.getRed(), alpha),
+                blend(color.getGreen(), alpha),
+                blend(color.getBlue(), alpha));
+    }
+
+    private static float blend(int channel, float alpha) {
+        return (channel * alpha + 255 * (1 - alpha)) / 255f;
+    }
+}
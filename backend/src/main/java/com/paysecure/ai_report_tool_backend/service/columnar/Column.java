@@ -0,0 +1,138 @@
+package com.paysecure.ai_report_tool_backend.service.columnar;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+
+/**
+ * One decoded column held in primitive arrays. Numeric accessors work on
+ * LONG, DOUBLE and DATE columns; {@link #getString(int)} works on every type.
+ */
+public class Column {
+
+    private final String name;
+    private final ColumnType type;
+    private final int size;
+    private final BitSet nulls;
+
+    private long[] longs;       // LONG, DATE
+    private double[] doubles;   // DOUBLE
+    private String[] dictionary;
+    private int[] codes;        // DICTIONARY
+    private String[] strings;   // STRING
+
+    private Column(String name, ColumnType type, int size, BitSet nulls) {
+        this.name = name;
+        this.type = type;
+        this.size = size;
+        this.nulls = nulls;
+    }
+
+    static Column decode(String name, ColumnType type, int rows, ByteBuffer in) {
+        byte[] bitmap = new byte[(rows + 7) / 8];
+        in.get(bitmap);
+        Column column = new Column(name, type, rows, BitSet.valueOf(bitmap));
+
+        switch (type) {
+            case LONG, DATE -> {
+                column.longs = new long[rows];
+                in.asLongBuffer().get(column.longs);
+            }
+            case DOUBLE -> {
+                column.doubles = new double[rows];
+                in.asDoubleBuffer().get(column.doubles);
+            }
+            case DICTIONARY -> {
+                column.dictionary = new String[in.getInt()];
+                for (int i = 0; i < column.dictionary.length; i++) {
+                    column.dictionary[i] = readString(in);
+                }
+                column.codes = new int[rows];
+                in.asIntBuffer().get(column.codes);
+            }
+            case STRING -> {
+                column.strings = new String[rows];
+                for (int i = 0; i < rows; i++) {
+                    column.strings[i] = readString(in);
+                }
+            }
+        }
+
+        return column;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ColumnType getType() {
+        return type;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isNumeric() {
+        return type == ColumnType.LONG || type == ColumnType.DOUBLE;
+    }
+
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    public long getLong(int row) {
+        return switch (type) {
+            case LONG, DATE -> longs[row];
+            case DOUBLE -> (long) doubles[row];
+            default -> throw new IllegalStateException(name + " is not numeric");
+        };
+    }
+
+    public double getDouble(int row) {
+        return switch (type) {
+            case LONG, DATE -> longs[row];
+            case DOUBLE -> doubles[row];
+            default -> throw new IllegalStateException(name + " is not numeric");
+        };
+    }
+
+    /** Dictionary code of the row; only valid on DICTIONARY columns. */
+    public int getCode(int row) {
+        return codes[row];
+    }
+
+    public String[] getDictionary() {
+        return dictionary;
+    }
+
+    public String getString(int row) {
+        if (isNull(row)) return null;
+
+        return switch (type) {
+            case LONG -> String.valueOf(longs[row]);
+            case DOUBLE -> String.valueOf(doubles[row]);
+            case DATE -> formatDate(longs[row]);
+            case DICTIONARY -> dictionary[codes[row]];
+            case STRING -> strings[row];
+        };
+    }
+
+    private static String formatDate(long epochMillis) {
+        Instant instant = Instant.ofEpochMilli(epochMillis);
+        return instant.atOffset(ZoneOffset.UTC).toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? instant.atOffset(ZoneOffset.UTC).toLocalDate().toString()
+                : instant.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.paysecure.ai_report_tool_backend.service.columnar;
+
+import java.util.*;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Aggregations over decoded columns, used by prompt summaries. All scans
+ * are single passes over primitive arrays.
+ */
+public final class ColumnScans {
+
+    private ColumnScans() {}
+
+    /** Most frequent values of a DICTIONARY column, by descending count. */
+    public static LinkedHashMap<String, Long> topCategories(Column category, int k) {
+        long[] counts = new long[category.getDictionary().length];
+        for (int row = 0; row < category.size(); row++) {
+            if (!category.isNull(row)) counts[category.getCode(row)]++;
+        }
+        return top(category.getDictionary(), counts, k);
+    }
+
+    private static LinkedHashMap<String, Long> top(String[] labels, long[] counts, int k) {
+        Integer[] order = sortedDescending(counts.length, i -> counts[i]);
+        LinkedHashMap<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(k, order.length); i++) {
+            if (counts[order[i]] > 0) {
+                result.put(labels[order[i]], counts[order[i]]);
+            }
+        }
+        return result;
+    }
+
+    private static Integer[] sortedDescending(int n, IntToDoubleFunction key) {
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(key.applyAsDouble(b), key.applyAsDouble(a)));
+        return order;
+    }
+}
@@ -0,0 +1,9 @@
+package com.paysecure.ai_report_tool_backend.service.columnar;
+
+public enum ColumnType {
+    LONG,
+    DOUBLE,
+    DATE,        // epoch millis, UTC
+    DICTIONARY,  // low-cardinality strings stored as int codes
+    STRING
+}
@@ -0,0 +1,105 @@
+package com.paysecure.ai_report_tool_backend.service.columnar;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Narrows a column to the most specific type every non-empty cell fits.
+ * Each candidate is dropped on its first failure, so a column costs at most
+ * one failed parse per type.
+ */
+class ColumnTypeInference {
+
+    static final int DICTIONARY_LIMIT = 4096;
+
+    // Date.toString(), which is what the XLSX parser emits for date cells
+    private static final DateTimeFormatter JAVA_DATE =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.ENGLISH);
+
+    private boolean canLong = true;
+    private boolean canDouble = true;
+    private boolean canDate = true;
+    private long nonNull = 0;
+    private Set<String> distinct = new HashSet<>();
+
+    void accept(String value) {
+        if (isNull(value)) return;
+        nonNull++;
+
+        if (canLong && parseLong(value) == null) canLong = false;
+        if (canDouble && parseDouble(value) == null) canDouble = false;
+        if (canDate && parseDate(value) == null) canDate = false;
+
+        if (distinct != null) {
+            distinct.add(value);
+            if (distinct.size() > DICTIONARY_LIMIT) {
+                distinct = null;
+            }
+        }
+    }
+
+    ColumnType result() {
+        if (nonNull > 0) {
+            if (canLong) return ColumnType.LONG;
+            if (canDouble) return ColumnType.DOUBLE;
+            if (canDate) return ColumnType.DATE;
+        }
+        return distinct != null ? ColumnType.DICTIONARY : ColumnType.STRING;
+    }
+
+    static boolean isNull(String value) {
+        return value == null || value.isBlank();
+    }
+
+    static Long parseLong(String value) {
+        String v = value.trim();
+        if (!looksNumeric(v)) return null;
+        try {
+            return Long.parseLong(v);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static Double parseDouble(String value) {
+        String v = value.trim();
+        if (!looksNumeric(v)) return null;
+        try {
+            return Double.parseDouble(v);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static Long parseDate(String value) {
+        String v = value.trim();
+        if (v.length() < 8) return null;
+
+        try {
+            return LocalDate.parse(v).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ignored) {}
+        try {
+            return LocalDateTime.parse(v).toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException ignored) {}
+        try {
+            return OffsetDateTime.parse(v).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ignored) {}
+        try {
+            return ZonedDateTime.parse(v, JAVA_DATE).toInstant().toEpochMilli();
+        } catch (DateTimeParseException ignored) {}
+
+        return null;
+    }
+
+    // Leading zeros ("00123") mark identifiers, which must keep their text form
+    private static boolean looksNumeric(String v) {
+        if (v.isEmpty()) return false;
+        char first = v.charAt(0);
+        if (!((first >= '0' && first <= '9') || first == '-' || first == '+' || first == '.')) return false;
+        return !(first == '0' && v.length() > 1 && v.charAt(1) != '.');
+    }
+}
@@ -0,0 +1,130 @@
+package com.paysecure.ai_report_tool_backend.service.columnar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Memory-mapped reader for files written by {@link ColumnarTableWriter}.
+ *
+ * <pre>
+ * int magic, int version
+ * column blocks: deflate( null bitmap | values ) per column
+ * directory: int tables, per table { str name, int rows, int columns,
+ *            per column { str name, byte type, long offset, long compressed, long raw } }
+ * long directoryOffset, int magic
+ * </pre>
+ *
+ * Strings are an int byte length (-1 for null) followed by UTF-8.
+ *
+ * Only the directory is parsed on open; a column is inflated when it is read,
+ * so callers pay only for the columns they scan.
+ */
+public class ColumnarFile implements Closeable {
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final List<TableInfo> tables = new ArrayList<>();
+
+    public record ColumnInfo(String name, ColumnType type, long offset, long compressedLength, long rawLength) {}
+
+    public record TableInfo(String name, int rowCount, List<ColumnInfo> columns) {
+
+        public ColumnInfo column(String name) {
+            return columns.stream()
+                    .filter(c -> c.name().equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("No column " + name + " in " + this.name));
+        }
+    }
+
+    private ColumnarFile(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+        if (buffer.limit() < 20 || buffer.getInt(0) != ColumnarTableWriter.MAGIC
+                || buffer.getInt(buffer.limit() - 4) != ColumnarTableWriter.MAGIC) {
+            throw new IOException("Not a columnar table file");
+        }
+        if (buffer.getInt(4) != ColumnarTableWriter.VERSION) {
+            throw new IOException("Unsupported columnar file version " + buffer.getInt(4));
+        }
+
+        ByteBuffer directory = buffer.duplicate().position((int) buffer.getLong(buffer.limit() - 12));
+        int tableCount = directory.getInt();
+        for (int t = 0; t < tableCount; t++) {
+            String name = readString(directory);
+            int rows = directory.getInt();
+            int columnCount = directory.getInt();
+
+            List<ColumnInfo> columns = new ArrayList<>(columnCount);
+            for (int c = 0; c < columnCount; c++) {
+                columns.add(new ColumnInfo(
+                        readString(directory),
+                        ColumnType.values()[directory.get()],
+                        directory.getLong(),
+                        directory.getLong(),
+                        directory.getLong()
+                ));
+            }
+            tables.add(new TableInfo(name, rows, List.copyOf(columns)));
+        }
+    }
+
+    public static ColumnarFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new ColumnarFile(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public List<TableInfo> tables() {
+        return tables;
+    }
+
+    public Column readColumn(TableInfo table, ColumnInfo column) throws IOException {
+        ByteBuffer compressed = buffer.slice((int) column.offset(), (int) column.compressedLength());
+        ByteBuffer raw = ByteBuffer.allocate((int) column.rawLength());
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            while (raw.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(raw) == 0 && inflater.needsInput()) break;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column " + column.name() + ": " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+
+        return Column.decode(column.name(), column.type(), table.rowCount(), raw.flip());
+    }
+
+    public Column readColumn(TableInfo table, String name) throws IOException {
+        return readColumn(table, table.column(name));
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,258 @@
+package com.paysecure.ai_report_tool_backend.service.columnar;
+
+import com.paysecure.ai_report_tool_backend.service.parser.TableSink;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes streamed tables into a typed, column-compressed file (see
+ * {@link ColumnarFile} for the layout). While rows arrive each column is
+ * spooled to its own temp file and its type inferred; on {@link #endTable()}
+ * the spools are re-read once and encoded. Heap use is O(columns).
+ */
+public class ColumnarTableWriter implements TableSink, Closeable {
+
+    static final int MAGIC = 0x52505443; // "RPTC"
+    static final int VERSION = 1;
+
+    private final Path target;
+    private final CountingOutputStream counter;
+    private final DataOutputStream out;
+    private final List<TableEntry> tables = new ArrayList<>();
+
+    // Current table
+    private String tableName;
+    private List<String> headers;
+    private Path[] spoolFiles;
+    private DataOutputStream[] spools;
+    private ColumnTypeInference[] inference;
+    private int rowCount;
+
+    record ColumnEntry(String name, ColumnType type, long offset, long compressedLength, long rawLength) {}
+
+    record TableEntry(String name, int rowCount, List<ColumnEntry> columns) {}
+
+    public ColumnarTableWriter(Path target) throws IOException {
+        this.target = target;
+        this.counter = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(target), 64 * 1024));
+        this.out = new DataOutputStream(counter);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    public int tableCount() {
+        return tables.size();
+    }
+
+    @Override
+    public void beginTable(String name, List<String> headers) throws IOException {
+        if (spools != null) endTable();
+
+        this.tableName = name;
+        this.headers = List.copyOf(headers);
+        this.rowCount = 0;
+        this.spoolFiles = new Path[headers.size()];
+        this.spools = new DataOutputStream[headers.size()];
+        this.inference = new ColumnTypeInference[headers.size()];
+
+        for (int i = 0; i < headers.size(); i++) {
+            spoolFiles[i] = Files.createTempFile(target.getParent(), "col", ".spool");
+            spools[i] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spoolFiles[i]), 16 * 1024));
+            inference[i] = new ColumnTypeInference();
+        }
+    }
+
+    @Override
+    public void row(List<String> cells) throws IOException {
+        if (spools == null) return;
+
+        for (int i = 0; i < spools.length; i++) {
+            String value = i < cells.size() ? cells.get(i) : null;
+            inference[i].accept(value);
+            writeString(spools[i], ColumnTypeInference.isNull(value) ? null : value);
+        }
+        rowCount++;
+    }
+
+    @Override
+    public void endTable() throws IOException {
+        if (spools == null) return;
+
+        List<ColumnEntry> columns = new ArrayList<>();
+        try {
+            for (int i = 0; i < spools.length; i++) {
+                spools[i].close();
+                columns.add(writeColumn(headers.get(i), inference[i].result(), spoolFiles[i]));
+            }
+            tables.add(new TableEntry(tableName, rowCount, columns));
+        } finally {
+            deleteSpools();
+        }
+    }
+
+    /** Writes the table directory and footer. */
+    @Override
+    public void close() throws IOException {
+        try {
+            endTable();
+
+            long directoryOffset = counter.count;
+            out.writeInt(tables.size());
+            for (TableEntry table : tables) {
+                writeString(out, table.name());
+                out.writeInt(table.rowCount());
+                out.writeInt(table.columns().size());
+                for (ColumnEntry column : table.columns()) {
+                    writeString(out, column.name());
+                    out.writeByte(column.type().ordinal());
+                    out.writeLong(column.offset());
+                    out.writeLong(column.compressedLength());
+                    out.writeLong(column.rawLength());
+                }
+            }
+            out.writeLong(directoryOffset);
+            out.writeInt(MAGIC);
+        } finally {
+            out.close();
+            deleteSpools();
+        }
+    }
+
+    /* ---------------- COLUMN ENCODING ---------------- */
+
+    private ColumnEntry writeColumn(String name, ColumnType type, Path spool) throws IOException {
+        long offset = counter.count;
+        CountingOutputStream raw;
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            // Count uncompressed bytes so the reader can size its buffer up front
+            DeflaterOutputStream deflated = new DeflaterOutputStream(new NonClosingOutputStream(out), deflater, 16 * 1024);
+            raw = new CountingOutputStream(deflated);
+            DataOutputStream column = new DataOutputStream(new BufferedOutputStream(raw, 16 * 1024));
+
+            writeNullBitmap(column, spool);
+
+            switch (type) {
+                case LONG -> forEachValue(spool, v -> column.writeLong(v == null ? 0 : ColumnTypeInference.parseLong(v)));
+                case DOUBLE -> forEachValue(spool, v -> column.writeDouble(v == null ? 0 : ColumnTypeInference.parseDouble(v)));
+                case DATE -> forEachValue(spool, v -> column.writeLong(v == null ? 0 : ColumnTypeInference.parseDate(v)));
+                case DICTIONARY -> writeDictionary(column, spool);
+                case STRING -> forEachValue(spool, v -> writeString(column, v));
+            }
+
+            column.flush();
+            deflated.finish();
+        } finally {
+            deflater.end();
+        }
+
+        return new ColumnEntry(name, type, offset, counter.count - offset, raw.count);
+    }
+
+    private void writeNullBitmap(DataOutputStream column, Path spool) throws IOException {
+        byte[] bitmap = new byte[(rowCount + 7) / 8];
+        int[] row = {0};
+        forEachValue(spool, v -> {
+            if (v == null) bitmap[row[0] >> 3] |= (byte) (1 << (row[0] & 7));
+            row[0]++;
+        });
+        column.write(bitmap);
+    }
+
+    private void writeDictionary(DataOutputStream column, Path spool) throws IOException {
+        Map<String, Integer> codes = new LinkedHashMap<>();
+        forEachValue(spool, v -> {
+            if (v != null) codes.putIfAbsent(v, codes.size());
+        });
+
+        column.writeInt(codes.size());
+        for (String value : codes.keySet()) {
+            writeString(column, value);
+        }
+        forEachValue(spool, v -> column.writeInt(v == null ? 0 : codes.get(v)));
+    }
+
+    private interface ValueConsumer {
+        void accept(String value) throws IOException;
+    }
+
+    private void forEachValue(Path spool, ValueConsumer consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(spool), 16 * 1024))) {
+            for (int i = 0; i < rowCount; i++) {
+                consumer.accept(readString(in));
+            }
+        }
+    }
+
+    // Length-prefixed UTF-8; -1 marks null. writeUTF would cap cells at 64KB.
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private void deleteSpools() throws IOException {
+        if (spoolFiles != null) {
+            for (int i = 0; i < spoolFiles.length; i++) {
+                if (spools[i] != null) spools[i].close();
+                Files.deleteIfExists(spoolFiles[i]);
+            }
+        }
+        spoolFiles = null;
+        spools = null;
+        inference = null;
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    private static class NonClosingOutputStream extends FilterOutputStream {
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
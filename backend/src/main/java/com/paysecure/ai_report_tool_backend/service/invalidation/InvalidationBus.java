@@ -0,0 +1,425 @@
+package com.paysecure.ai_report_tool_backend.service.invalidation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cross-node cache invalidation over Postgres LISTEN/NOTIFY. One thread owns
+ * a connection opened with the driver directly, outside the Hikari pool, and
+ * uses it both to listen and to send, so no pooled connection is ever held.
+ *
+ * <p>Services {@link #publish} after mutating an entity; events leave once
+ * the surrounding transaction commits, and events queued within one
+ * coalescing window go out as a single notification. Received events are
+ * coalesced the same way before the {@link InvalidationHandler} beans see
+ * them. The publishing node invalidates its own caches directly and ignores
+ * its own notifications.
+ *
+ * <p>Every message carries the sender's sequence number. A gap, a reconnect
+ * (anything sent meanwhile was lost) or a full outbox makes every handler
+ * {@link InvalidationHandler#flush() flush} rather than trust partial events.
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    public static final String CHANNEL = "cache_invalidation";
+
+    // Postgres rejects payloads of 8000 bytes or more
+    static final int MAX_PAYLOAD_BYTES = 7_900;
+
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final int MAX_TRACKED_NODES = 1_000;
+
+    private final DataSourceProperties dataSource;
+    private final ObjectProvider<InvalidationHandler> handlers;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int coalesceMs;
+    private final long keepaliveMs;
+    private final BlockingQueue<InvalidationEvent> outbox;
+
+    /** Identifies this process; a restarted node is a new sender with a new sequence. */
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile boolean outboxOverflowed;
+
+    // Owned by the bus thread
+    private long sequence;
+    private long outboxSince;
+    private long inboundSince;
+    private boolean flushPending;
+    private final Map<String, Long> lastSequenceByNode = new HashMap<>();
+    private final Set<InvalidationEvent> inbound = new LinkedHashSet<>();
+
+    private volatile boolean running = true;
+    private volatile boolean connected;
+    private volatile Connection connection;
+    private Thread worker;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private final AtomicLong eventsDelivered = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong gapsDetected = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+
+    public InvalidationBus(
+            DataSourceProperties dataSource,
+            ObjectProvider<InvalidationHandler> handlers,
+            ObjectMapper objectMapper,
+            @Value("${invalidation.enabled:true}") boolean enabled,
+            @Value("${invalidation.coalesce-ms:100}") int coalesceMs,
+            @Value("${invalidation.keepalive-ms:15000}") long keepaliveMs,
+            @Value("${invalidation.outbox-capacity:10000}") int outboxCapacity
+    ) {
+        this.dataSource = dataSource;
+        this.handlers = handlers;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.coalesceMs = coalesceMs;
+        this.keepaliveMs = keepaliveMs;
+        this.outbox = new ArrayBlockingQueue<>(outboxCapacity);
+    }
+
+    /** Wire format of one notification; {@code flush} means "drop everything". */
+    record Message(String node, long seq, boolean flush, List<InvalidationEvent> events) {}
+
+    public record Stats(
+            boolean enabled,
+            boolean connected,
+            String nodeId,
+            long published,
+            long messagesSent,
+            long messagesReceived,
+            long eventsDelivered,
+            long flushes,
+            long gapsDetected,
+            long reconnects,
+            int queued
+    ) {}
+
+    /* -------------------------
+       PUBLISHING
+    ------------------------- */
+
+    /**
+     * Tells the other nodes that {@code key} (null: the whole topic) changed.
+     * Inside a transaction the event is held until commit and dropped on
+     * rollback. Never blocks.
+     */
+    public void publish(InvalidationTopic topic, Object key) {
+        if (!enabled) {
+            return;
+        }
+        published.incrementAndGet();
+        InvalidationEvent event = new InvalidationEvent(topic, key != null ? key.toString() : null);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(
+                enabled,
+                connected,
+                nodeId,
+                published.get(),
+                messagesSent.get(),
+                messagesReceived.get(),
+                eventsDelivered.get(),
+                flushes.get(),
+                gapsDetected.get(),
+                reconnects.get(),
+                outbox.size()
+        );
+    }
+
+    void enqueue(InvalidationEvent event) {
+        if (!outbox.offer(event)) {
+            // Other nodes can no longer be told precisely what changed
+            outboxOverflowed = true;
+        }
+    }
+
+    /* -------------------------
+       LIFECYCLE
+    ------------------------- */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        worker = new Thread(this::run, "invalidation-bus");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        Connection conn = connection;
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException ignored) {
+                // Shutting down
+            }
+        }
+        if (worker != null) {
+            worker.join(coalesceMs + 5_000L);
+        }
+    }
+
+    private void run() {
+        long backoffMs = 1_000;
+        boolean wasConnected = false;
+
+        while (running) {
+            try (Connection conn = connect()) {
+                connection = conn;
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (wasConnected) {
+                    // Deaf while disconnected
+                    reconnects.incrementAndGet();
+                    flushPending = true;
+                }
+                wasConnected = true;
+                connected = true;
+                backoffMs = 1_000;
+                log.info("Invalidation bus listening as node {}", nodeId);
+
+                loop(conn);
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Invalidation bus disconnected, retrying in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            } finally {
+                connected = false;
+                connection = null;
+            }
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        if (dataSource.determineUsername() != null) {
+            properties.setProperty("user", dataSource.determineUsername());
+        }
+        if (dataSource.determinePassword() != null) {
+            properties.setProperty("password", dataSource.determinePassword());
+        }
+        properties.setProperty("ApplicationName", "invalidation-bus");
+        properties.setProperty("tcpKeepAlive", "true");
+        // Bounds the keepalive round trip, so a half-open connection is noticed
+        properties.setProperty("socketTimeout", Long.toString(Math.max(keepaliveMs / 1000, 5) * 2));
+        return DriverManager.getConnection(dataSource.determineUrl(), properties);
+    }
+
+    private void loop(Connection conn) throws SQLException {
+        PGConnection pg = conn.unwrap(PGConnection.class);
+        long lastRoundTrip = System.currentTimeMillis();
+
+        while (running) {
+            // Returns as soon as something arrives, or after a quiet coalescing window
+            PGNotification[] notifications = pg.getNotifications(coalesceMs);
+            long now = System.currentTimeMillis();
+            boolean quiet = notifications == null || notifications.length == 0;
+
+            if (!quiet) {
+                for (PGNotification notification : notifications) {
+                    receive(notification.getParameter(), now);
+                }
+            }
+            if (quiet || now - inboundSince >= 10L * coalesceMs) {
+                deliver();
+            }
+
+            Optional<Message> message = nextMessage(now);
+            if (message.isPresent()) {
+                send(conn, message.get());
+                lastRoundTrip = now;
+            } else if (now - lastRoundTrip >= keepaliveMs) {
+                try (Statement statement = conn.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                lastRoundTrip = now;
+            }
+        }
+    }
+
+    /* -------------------------
+       RECEIVING
+    ------------------------- */
+
+    void receive(String payload, long now) {
+        Message message;
+        try {
+            message = objectMapper.readValue(payload, Message.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable invalidation message, flushing: {}", e.getMessage());
+            flushPending = true;
+            return;
+        }
+
+        if (nodeId.equals(message.node())) {
+            return;
+        }
+        messagesReceived.incrementAndGet();
+
+        if (lastSequenceByNode.size() >= MAX_TRACKED_NODES && !lastSequenceByNode.containsKey(message.node())) {
+            lastSequenceByNode.clear(); // Nodes come and go; unknown senders just start a new baseline
+        }
+        Long last = lastSequenceByNode.put(message.node(), message.seq());
+        if (last != null && message.seq() != last + 1) {
+            gapsDetected.incrementAndGet();
+            log.warn("Missed invalidations from node {} (seq {} after {}), flushing", message.node(), message.seq(), last);
+            flushPending = true;
+        }
+
+        if (message.flush()) {
+            flushPending = true;
+        } else {
+            if (inbound.isEmpty()) {
+                inboundSince = now;
+            }
+            inbound.addAll(message.events());
+        }
+    }
+
+    void deliver() {
+        if (flushPending) {
+            flushPending = false;
+            inbound.clear();
+            flushes.incrementAndGet();
+            handlers.orderedStream().forEach(handler -> {
+                try {
+                    handler.flush();
+                } catch (RuntimeException e) {
+                    log.warn("{} failed to flush: {}", handler.getClass().getSimpleName(), e.getMessage());
+                }
+            });
+            return;
+        }
+
+        if (inbound.isEmpty()) {
+            return;
+        }
+        Set<InvalidationEvent> events = Collections.unmodifiableSet(new LinkedHashSet<>(inbound));
+        inbound.clear();
+        eventsDelivered.addAndGet(events.size());
+
+        handlers.orderedStream().forEach(handler -> {
+            try {
+                handler.invalidate(events);
+            } catch (RuntimeException e) {
+                log.warn("{} failed to invalidate: {}", handler.getClass().getSimpleName(), e.getMessage());
+            }
+        });
+    }
+
+    /* -------------------------
+       SENDING
+    ------------------------- */
+
+    /**
+     * Everything queued once the oldest event has waited a coalescing window,
+     * deduplicated into one message. A message too large for NOTIFY widens its
+     * events to whole topics.
+     */
+    Optional<Message> nextMessage(long now) {
+        boolean flush = outboxOverflowed;
+        if (!flush && outbox.isEmpty()) {
+            outboxSince = 0;
+            return Optional.empty();
+        }
+        if (!flush) {
+            if (outboxSince == 0) {
+                outboxSince = now;
+            }
+            if (now - outboxSince < coalesceMs) {
+                return Optional.empty();
+            }
+        }
+
+        outboxOverflowed = false;
+        outboxSince = 0;
+        Set<InvalidationEvent> events = new LinkedHashSet<>();
+        outbox.drainTo(events);
+
+        if (flush) {
+            return Optional.of(new Message(nodeId, ++sequence, true, List.of()));
+        }
+
+        Message message = new Message(nodeId, ++sequence, false, List.copyOf(events));
+        if (encode(message).getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            List<InvalidationEvent> topics = events.stream()
+                    .map(InvalidationEvent::topic)
+                    .distinct()
+                    .map(InvalidationEvent::all)
+                    .toList();
+            message = new Message(nodeId, message.seq(), false, topics);
+        }
+        return Optional.of(message);
+    }
+
+    private void send(Connection conn, Message message) throws SQLException {
+        // A failed send burns its sequence number, so receivers see the gap and flush
+        try (PreparedStatement statement = conn.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, encode(message));
+            statement.execute();
+        }
+        messagesSent.incrementAndGet();
+    }
+
+    private String encode(Message message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode invalidation message", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.paysecure.ai_report_tool_backend.service.invalidation;
+
+/**
+ * A change to one entity, or to every entity of the topic when {@code key} is null.
+ */
+public record InvalidationEvent(InvalidationTopic topic, String key) {
+
+    public static InvalidationEvent all(InvalidationTopic topic) {
+        return new InvalidationEvent(topic, null);
+    }
+
+    public boolean coversAll() {
+        return key == null;
+    }
+}
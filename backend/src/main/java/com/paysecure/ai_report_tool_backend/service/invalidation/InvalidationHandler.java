@@ -0,0 +1,17 @@
+package com.paysecure.ai_report_tool_backend.service.invalidation;
+
+import java.util.Set;
+
+/**
+ * An in-process cache that must drop entries changed on another node.
+ * Implementations are discovered as beans and called on the bus thread,
+ * so they should be quick and must not block on the bus.
+ */
+public interface InvalidationHandler {
+
+    /** A coalesced burst of events from other nodes, duplicates removed. */
+    void invalidate(Set<InvalidationEvent> events);
+
+    /** Events may have been missed; drop everything. */
+    void flush();
+}
@@ -0,0 +1,12 @@
+package com.paysecure.ai_report_tool_backend.service.invalidation;
+
+/**
+ * What an {@link InvalidationEvent} is about. Keys are the entity's id,
+ * except {@link #CREDIT_WALLET} which is keyed by the owning user's id.
+ */
+public enum InvalidationTopic {
+    USER,
+    REPORT_TEMPLATE,
+    CREDIT_WALLET,
+    REPORT
+}
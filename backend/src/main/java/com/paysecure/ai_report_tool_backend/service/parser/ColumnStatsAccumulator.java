@@ -0,0 +1,63 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running numeric statistics for one column, updated cell by cell so parsers
+ * never have to hold a column's values to summarise it. Mean and variance use
+ * Welford's update, which stays stable over millions of rows.
+ */
+public class ColumnStatsAccumulator {
+
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double mean;
+    private double m2;
+
+    /** Counts the cell if it parses as a number; anything else is ignored. */
+    public void accept(String raw) {
+        if (raw == null) return;
+
+        String value = raw.trim();
+        if (value.isEmpty() || !looksNumeric(value.charAt(0))) return;
+
+        try {
+            accept(Double.parseDouble(value));
+        } catch (NumberFormatException ignored) {}
+    }
+
+    public void accept(double value) {
+        count++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    // Cheap pre-check: text columns would otherwise throw on every cell
+    private static boolean looksNumeric(char first) {
+        return (first >= '0' && first <= '9') || first == '-' || first == '+' || first == '.';
+    }
+
+    public boolean hasValues() {
+        return count > 0;
+    }
+
+    public Map<String, Double> toMap() {
+        Map<String, Double> stats = new HashMap<>();
+        stats.put("sum", Math.round(sum * 100.0) / 100.0);
+        stats.put("average", Math.round(mean * 100.0) / 100.0);
+        stats.put("min", min);
+        stats.put("max", max);
+        stats.put("count", (double) count);
+        // Sample variance; a single value has none
+        stats.put("variance", count > 1 ? Math.round(m2 / (count - 1) * 100.0) / 100.0 : 0.0);
+        return stats;
+    }
+}
@@ -0,0 +1,171 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 record reader: quoted fields may contain delimiters, doubled quotes
+ * and line breaks; records end at LF, CRLF or CR. Reads one record at a time,
+ * so memory is bounded by the widest record, not the file.
+ */
+public class CsvReader implements Closeable {
+
+    private static final char[] CANDIDATE_DELIMITERS = {',', ';', '\t', '|'};
+    private static final int SNIFF_CHARS = 64 * 1024;
+
+    private final Reader reader;
+    private final char delimiter;
+    private final StringBuilder field = new StringBuilder();
+    private int pushedBack = -2;
+
+    private CsvReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /** Opens a UTF-8 stream (BOM skipped) and picks the delimiter from its first 64KB. */
+    public static CsvReader open(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), SNIFF_CHARS);
+
+        reader.mark(SNIFF_CHARS);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+
+        reader.mark(SNIFF_CHARS);
+        char[] sample = new char[SNIFF_CHARS];
+        int n = reader.read(sample, 0, SNIFF_CHARS);
+        reader.reset();
+
+        return new CsvReader(reader, detectDelimiter(sample, Math.max(n, 0)));
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Picks the candidate whose per-line count (outside quotes) is non-zero and
+     * most consistent across the sampled lines; falls back to comma.
+     */
+    static char detectDelimiter(char[] sample, int length) {
+        char best = ',';
+        double bestScore = 0;
+
+        for (char candidate : CANDIDATE_DELIMITERS) {
+            List<Integer> counts = new ArrayList<>();
+            int count = 0;
+            boolean quoted = false;
+
+            for (int i = 0; i < length && counts.size() < 50; i++) {
+                char c = sample[i];
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (!quoted && c == candidate) {
+                    count++;
+                } else if (!quoted && c == '\n') {
+                    counts.add(count);
+                    count = 0;
+                }
+            }
+            if (count > 0) counts.add(count);
+            if (counts.isEmpty()) continue;
+
+            int first = counts.get(0);
+            if (first == 0) continue;
+
+            long consistent = counts.stream().filter(c -> c == first).count();
+            double score = first * ((double) consistent / counts.size());
+            if (score > bestScore) {
+                bestScore = score;
+                best = candidate;
+            }
+        }
+
+        return best;
+    }
+
+    /** Next record, or {@code null} at end of input. Blank lines are skipped. */
+    public List<String> next() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) return null;
+            if (c == '\n') continue;
+            if (c == '\r') {
+                skipLf();
+                continue;
+            }
+            unread(c);
+            return readRecord();
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+
+        while (true) {
+            int c = read();
+
+            if (quoted) {
+                if (c == -1) {
+                    // Unterminated quote: keep what we have rather than failing the upload
+                    record.add(field.toString());
+                    return record;
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(next);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                continue;
+            }
+
+            if (c == -1 || c == '\n' || c == '\r') {
+                if (c == '\r') skipLf();
+                record.add(field.toString());
+                return record;
+            }
+            if (c == delimiter) {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private void skipLf() throws IOException {
+        int next = read();
+        if (next != '\n') unread(next);
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,93 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import com.paysecure.ai_report_tool_backend.dto.file.ParsedFileData;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Single-pass CSV parser. Records are tokenized by {@link CsvReader} and fed
+ * into per-column accumulators as they are read; only the retained-row budget
+ * is held in memory, once, and the plain-text view is derived from it at the end.
+ */
+@Component
+public class CsvStreamingParser {
+
+    public ParsedFileData parse(InputStream in, int maxRetainedRows) throws IOException {
+        return parse(in, maxRetainedRows, "data", TableSink.NONE);
+    }
+
+    /** Same as above, additionally streaming the table into {@code sink} as it is read. */
+    public ParsedFileData parse(InputStream in, int maxRetainedRows, String tableName, TableSink sink) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        List<String> headers = new ArrayList<>();
+        ColumnStatsAccumulator[] stats = new ColumnStatsAccumulator[0];
+        int rowCount = 0;
+        char delimiter;
+
+        try (CsvReader reader = CsvReader.open(in)) {
+            delimiter = reader.getDelimiter();
+
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                if (rowCount == 0) {
+                    headers = record;
+                    stats = new ColumnStatsAccumulator[headers.size()];
+                    for (int i = 0; i < stats.length; i++) {
+                        stats[i] = new ColumnStatsAccumulator();
+                    }
+                    sink.beginTable(tableName, headers);
+                } else {
+                    sink.row(record);
+                    for (int i = 0; i < stats.length && i < record.size(); i++) {
+                        stats[i].accept(record.get(i));
+                    }
+                }
+                rowCount++;
+
+                if (rows.size() < maxRetainedRows) {
+                    rows.add(record);
+                }
+            }
+
+            if (rowCount > 0) {
+                sink.endTable();
+            }
+        }
+
+        Map<String, Map<String, Double>> columnStats = new HashMap<>();
+        for (int i = 0; i < stats.length; i++) {
+            if (stats[i].hasValues()) {
+                columnStats.put(headers.get(i), stats[i].toMap());
+            }
+        }
+
+        Map<String, Object> structured = new HashMap<>();
+        structured.put("headers", headers);
+        structured.put("rows", rows);
+        structured.put("rowCount", rowCount);
+        structured.put("columnCount", headers.size());
+        structured.put("statistics", columnStats);
+        structured.put("delimiter", String.valueOf(delimiter));
+        if (rowCount > rows.size()) {
+            structured.put("rowsTruncated", true);
+        }
+
+        ParsedFileData data = new ParsedFileData();
+        data.setText(toText(rows, delimiter));
+        data.setStructuredData(structured);
+        data.setDataSummary("CSV file with " + rowCount + " rows and " + headers.size() + " columns");
+
+        return data;
+    }
+
+    private static String toText(List<List<String>> rows, char delimiter) {
+        StringBuilder text = new StringBuilder();
+        for (List<String> row : rows) {
+            text.append(String.join(String.valueOf(delimiter), row)).append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,116 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Turns tables found inside documents (PDF, DOCX) into the same
+ * name/headers/rows/rowCount/columnCount/statistics maps the spreadsheet
+ * parsers produce, and streams them into a {@link TableSink} so they get a
+ * typed column store like any uploaded sheet.
+ * <p>
+ * Statements print figures as {@code 1,204.50}, {@code $88} or
+ * {@code (300)}; such cells are rewritten to plain numbers so statistics and
+ * column typing see them as numeric.
+ */
+public class DocumentTableCollector {
+
+    // Optional sign or opening parenthesis, optional currency, grouped digits, optional decimals
+    private static final Pattern FORMATTED_NUMBER =
+            Pattern.compile("^\\(?[-+]?\\s*[$€£₹]?\\s*\\d{1,3}(,\\d{3})*(\\.\\d+)?\\)?$|^\\(?[-+]?\\s*[$€£₹]?\\s*\\d+(\\.\\d+)?\\)?$");
+
+    private final TableSink sink;
+    private final List<Map<String, Object>> tables = new ArrayList<>();
+    private int retainBudget;
+
+    /**
+     * @param maxRetainedRows rows kept in structured data across all tables;
+     *                        every row still reaches the sink and statistics
+     */
+    public DocumentTableCollector(TableSink sink, int maxRetainedRows) {
+        this.sink = sink;
+        this.retainBudget = maxRetainedRows;
+    }
+
+    /** {@code rows.get(0)} is the header row. */
+    public void add(String name, List<List<String>> rows) throws IOException {
+        if (rows.size() < 2) return;
+
+        List<String> headers = headers(rows.get(0));
+        ColumnStatsAccumulator[] stats = new ColumnStatsAccumulator[headers.size()];
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new ColumnStatsAccumulator();
+        }
+
+        List<List<String>> retained = new ArrayList<>();
+        retained.add(headers);
+        sink.beginTable(name, headers);
+
+        for (List<String> raw : rows.subList(1, rows.size())) {
+            List<String> row = new ArrayList<>(headers.size());
+            for (int i = 0; i < headers.size(); i++) {
+                String cell = normalize(i < raw.size() ? raw.get(i) : "");
+                row.add(cell);
+                stats[i].accept(cell);
+            }
+            sink.row(row);
+
+            if (retainBudget > 0) {
+                retained.add(row);
+                retainBudget--;
+            }
+        }
+        sink.endTable();
+
+        Map<String, Object> table = new HashMap<>();
+        table.put("name", name);
+        table.put("headers", headers);
+        table.put("rows", retained);
+        table.put("rowCount", rows.size());
+        table.put("columnCount", headers.size());
+        if (retained.size() < rows.size()) {
+            table.put("rowsTruncated", true);
+        }
+
+        Map<String, Map<String, Double>> columnStats = new HashMap<>();
+        for (int i = 0; i < stats.length; i++) {
+            if (stats[i].hasValues()) {
+                columnStats.put(headers.get(i), stats[i].toMap());
+            }
+        }
+        if (!columnStats.isEmpty()) {
+            table.put("statistics", columnStats);
+        }
+
+        tables.add(table);
+    }
+
+    public List<Map<String, Object>> tables() {
+        return tables;
+    }
+
+    /** Blank headers get a positional name and repeats a suffix, so statistics keys stay unique. */
+    private static List<String> headers(List<String> raw) {
+        List<String> headers = new ArrayList<>(raw.size());
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < raw.size(); i++) {
+            String header = raw.get(i) == null || raw.get(i).isBlank() ? "Column " + (i + 1) : raw.get(i).trim();
+            String unique = header;
+            for (int n = 2; !seen.add(unique); n++) {
+                unique = header + " (" + n + ")";
+            }
+            headers.add(unique);
+        }
+        return headers;
+    }
+
+    static String normalize(String cell) {
+        String value = cell == null ? "" : cell.trim();
+        if (value.isEmpty() || !FORMATTED_NUMBER.matcher(value).matches()) return value;
+
+        boolean negative = value.startsWith("(") && value.endsWith(")");
+        String digits = value.replaceAll("[(),$€£₹\\s+]", "");
+        return negative && !digits.startsWith("-") ? "-" + digits : digits;
+    }
+}
@@ -0,0 +1,206 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds tables in PDF pages from glyph positions alone, for statements that
+ * lay tables out with spacing rather than ruling lines.
+ * <p>
+ * Words are grouped into lines by baseline, and a line splits into cells
+ * wherever the gap between words is wider than about an em. A run of at
+ * least {@link #MIN_ROWS} consecutive multi-cell lines is a table
+ * candidate. Its columns are the gaps in the x-projection of all its cells,
+ * so right-aligned figures and left-aligned labels each end up in a single
+ * column.
+ */
+public final class PdfTableDetector {
+
+    static final int MIN_ROWS = 3;
+
+    // Word gap, in multiples of the font size, that separates two cells
+    private static final float CELL_GAP_EM = 0.8f;
+    // Vertical gap, in multiples of the font size, that ends a table
+    private static final float ROW_BREAK_EM = 2.5f;
+
+    private PdfTableDetector() {}
+
+    /** A table found on {@code page} (1-based); the first row is the header. */
+    public record Table(int page, List<List<String>> rows) {}
+
+    record Word(String text, float x0, float x1, float y, float size) {}
+
+    private record Cell(String text, float x0, float x1) {}
+
+    private record Line(float y, float size, List<Cell> cells) {}
+
+    /**
+     * A {@link PDFTextStripper} that produces exactly the usual text while
+     * keeping every word's position, then turns each page's words into tables.
+     */
+    static class Stripper extends PDFTextStripper {
+
+        private final List<Table> tables = new ArrayList<>();
+        private List<Word> words = new ArrayList<>();
+
+        Stripper() throws IOException {
+            super();
+        }
+
+        List<Table> tables() {
+            return tables;
+        }
+
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            words = new ArrayList<>();
+            super.startPage(page);
+        }
+
+        @Override
+        protected void writeString(String text, List<TextPosition> positions) throws IOException {
+            if (!positions.isEmpty() && !text.isBlank()) {
+                TextPosition first = positions.get(0);
+                TextPosition last = positions.get(positions.size() - 1);
+                // Fonts set at size 1 and scaled by the text matrix report 1pt; fall back to glyph height
+                float size = first.getFontSizeInPt() > 1 ? first.getFontSizeInPt() : Math.max(1, first.getHeightDir() * 1.4f);
+                words.add(new Word(text.trim(),
+                        first.getXDirAdj(),
+                        last.getXDirAdj() + last.getWidthDirAdj(),
+                        first.getYDirAdj(),
+                        size));
+            }
+            super.writeString(text, positions);
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            for (List<List<String>> rows : detect(words)) {
+                tables.add(new Table(getCurrentPageNo(), rows));
+            }
+            super.endPage(page);
+        }
+    }
+
+    /** Tables among one page's words, top to bottom. */
+    static List<List<List<String>>> detect(List<Word> words) {
+        List<List<List<String>>> tables = new ArrayList<>();
+        List<Line> lines = lines(words);
+
+        int start = 0;
+        while (start < lines.size()) {
+            if (lines.get(start).cells().size() < 2) {
+                start++;
+                continue;
+            }
+
+            int end = start + 1;
+            while (end < lines.size()
+                    && lines.get(end).cells().size() >= 2
+                    && lines.get(end).y() - lines.get(end - 1).y() <= ROW_BREAK_EM * lines.get(end).size()) {
+                end++;
+            }
+
+            if (end - start >= MIN_ROWS) {
+                List<List<String>> rows = table(lines.subList(start, end));
+                if (rows != null) tables.add(rows);
+            }
+            start = end;
+        }
+        return tables;
+    }
+
+    private static List<Line> lines(List<Word> words) {
+        List<Word> sorted = new ArrayList<>(words);
+        sorted.sort(Comparator.comparingDouble(Word::y).thenComparingDouble(Word::x0));
+
+        List<Line> lines = new ArrayList<>();
+        List<Word> current = new ArrayList<>();
+        for (Word word : sorted) {
+            if (!current.isEmpty() && Math.abs(word.y() - current.get(0).y()) > current.get(0).size() * 0.5f) {
+                lines.add(line(current));
+                current = new ArrayList<>();
+            }
+            current.add(word);
+        }
+        if (!current.isEmpty()) lines.add(line(current));
+        return lines;
+    }
+
+    private static Line line(List<Word> words) {
+        words.sort(Comparator.comparingDouble(Word::x0));
+
+        List<Cell> cells = new ArrayList<>();
+        StringBuilder text = new StringBuilder(words.get(0).text());
+        float x0 = words.get(0).x0();
+        float x1 = words.get(0).x1();
+
+        for (int i = 1; i < words.size(); i++) {
+            Word word = words.get(i);
+            if (word.x0() - x1 > CELL_GAP_EM * word.size()) {
+                cells.add(new Cell(text.toString(), x0, x1));
+                text.setLength(0);
+                x0 = word.x0();
+            } else {
+                text.append(' ');
+            }
+            text.append(word.text());
+            x1 = Math.max(x1, word.x1());
+        }
+        cells.add(new Cell(text.toString(), x0, x1));
+
+        return new Line(words.get(0).y(), words.get(0).size(), cells);
+    }
+
+    /** Rows of cells snapped to the region's columns; null if there aren't two columns. */
+    private static List<List<String>> table(List<Line> region) {
+        List<float[]> spans = new ArrayList<>();
+        for (Line line : region) {
+            for (Cell cell : line.cells()) {
+                spans.add(new float[]{cell.x0(), cell.x1()});
+            }
+        }
+        spans.sort(Comparator.comparingDouble(span -> span[0]));
+
+        // Union of overlapping cell spans; what is left between them are the column gutters
+        List<float[]> columns = new ArrayList<>();
+        for (float[] span : spans) {
+            float[] last = columns.isEmpty() ? null : columns.get(columns.size() - 1);
+            if (last != null && span[0] <= last[1] + 1) {
+                last[1] = Math.max(last[1], span[1]);
+            } else {
+                columns.add(new float[]{span[0], span[1]});
+            }
+        }
+        if (columns.size() < 2) return null;
+
+        List<List<String>> rows = new ArrayList<>();
+        for (Line line : region) {
+            String[] row = new String[columns.size()];
+            for (Cell cell : line.cells()) {
+                int column = column(columns, (cell.x0() + cell.x1()) / 2);
+                row[column] = row[column] == null ? cell.text() : row[column] + " " + cell.text();
+            }
+
+            List<String> cells = new ArrayList<>(row.length);
+            for (String value : row) {
+                cells.add(value != null ? value : "");
+            }
+            rows.add(cells);
+        }
+        return rows;
+    }
+
+    private static int column(List<float[]> columns, float x) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (x <= columns.get(i)[1]) return i;
+        }
+        return columns.size() - 1;
+    }
+}
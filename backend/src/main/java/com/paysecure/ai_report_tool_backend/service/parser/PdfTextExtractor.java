@@ -0,0 +1,114 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Text extraction for uploaded PDFs, split by page range across a fork-join
+ * pool. PDDocument is not thread-safe, so every range beyond the first opens
+ * its own handle on the stored file; the caller strips the first range on the
+ * handle it already has. Ranges are merged in page order, which gives the
+ * same text as a single {@link PDFTextStripper} pass over the whole document.
+ * Tables are detected page by page during the same pass (see
+ * {@link PdfTableDetector}), so they come for free with the text.
+ * <p>
+ * Handles are loaded with a {@link MemoryUsageSetting} that spills decoded
+ * streams to temp files, so heap use per worker stays flat however large the
+ * filing is.
+ */
+@Component
+public class PdfTextExtractor {
+
+    private final ForkJoinPool pool;
+    private final int minPagesPerWorker;
+    private final long maxMainMemoryBytes;
+
+    public PdfTextExtractor(
+            @Qualifier("pdfExtractionPool") ForkJoinPool pool,
+            @Value("${file.parse.pdf.min-pages-per-worker:16}") int minPagesPerWorker,
+            @Value("${file.parse.pdf.max-main-memory-bytes:0}") long maxMainMemoryBytes
+    ) {
+        this.pool = pool;
+        this.minPagesPerWorker = Math.max(1, minPagesPerWorker);
+        this.maxMainMemoryBytes = maxMainMemoryBytes;
+    }
+
+    public record Extraction(String text, int pageCount, List<PdfTableDetector.Table> tables) {}
+
+    public Extraction extract(Path path) throws IOException {
+        try (PDDocument document = load(path)) {
+            int pageCount = document.getNumberOfPages();
+            int workers = Math.min(pool.getParallelism(), pageCount / minPagesPerWorker);
+
+            if (workers <= 1) {
+                Range all = strip(document, 1, pageCount);
+                return new Extraction(all.text(), pageCount, all.tables());
+            }
+
+            // Contiguous, near-equal ranges (1-based, inclusive) so the merge is a plain concatenation
+            List<ForkJoinTask<Range>> rest = new ArrayList<>();
+            int firstEnd = pageCount / workers;
+            for (int worker = 1; worker < workers; worker++) {
+                int start = worker * pageCount / workers + 1;
+                int end = (worker + 1) * pageCount / workers;
+                rest.add(pool.submit(() -> {
+                    try (PDDocument handle = load(path)) {
+                        return strip(handle, start, end);
+                    }
+                }));
+            }
+
+            StringBuilder text = new StringBuilder();
+            List<PdfTableDetector.Table> tables = new ArrayList<>();
+            try {
+                Range first = strip(document, 1, firstEnd);
+                text.append(first.text());
+                tables.addAll(first.tables());
+                for (ForkJoinTask<Range> task : rest) {
+                    Range range = task.get();
+                    text.append(range.text());
+                    tables.addAll(range.tables());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while extracting PDF text", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) throw io;
+                throw new IOException("Failed to extract PDF text", e.getCause());
+            } finally {
+                rest.forEach(task -> task.cancel(true));
+            }
+
+            return new Extraction(text.toString(), pageCount, tables);
+        }
+    }
+
+    private PDDocument load(Path path) throws IOException {
+        MemoryUsageSetting memory = maxMainMemoryBytes > 0
+                ? MemoryUsageSetting.setupMixed(maxMainMemoryBytes)
+                : MemoryUsageSetting.setupTempFileOnly();
+        return PDDocument.load(path.toFile(), memory);
+    }
+
+    private record Range(String text, List<PdfTableDetector.Table> tables) {}
+
+    private static Range strip(PDDocument document, int startPage, int endPage) throws IOException {
+        PdfTableDetector.Stripper stripper = new PdfTableDetector.Stripper();
+        stripper.setStartPage(startPage);
+        stripper.setEndPage(endPage);
+        String text = stripper.getText(document);
+        return new Range(text, stripper.tables());
+    }
+}
@@ -0,0 +1,28 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives tables row by row while a parser streams them. Rows arrive after
+ * the header row, are never retained by the parser and may be reused.
+ */
+public interface TableSink {
+
+    void beginTable(String name, List<String> headers) throws IOException;
+
+    void row(List<String> cells) throws IOException;
+
+    void endTable() throws IOException;
+
+    TableSink NONE = new TableSink() {
+        @Override
+        public void beginTable(String name, List<String> headers) {}
+
+        @Override
+        public void row(List<String> cells) {}
+
+        @Override
+        public void endTable() {}
+    };
+}
@@ -0,0 +1,313 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import com.paysecure.ai_report_tool_backend.dto.file.ParsedFileData;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Event-model XLSX reader. Sheets are streamed through SAX straight from the
+ * zip on disk, so heap use depends on the retained-row budget and the shared
+ * strings table rather than on the workbook size. Produces the same
+ * sheets/headers/rows/statistics structure as the old XSSFWorkbook path.
+ */
+@Component
+public class XlsxStreamingParser {
+
+    /**
+     * @param maxRetainedRows rows kept in structured data and text across all
+     *                        sheets; rows past the budget still feed rowCount
+     *                        and statistics
+     */
+    public ParsedFileData parse(Path path, int maxRetainedRows) throws IOException {
+        return parse(path, maxRetainedRows, TableSink.NONE);
+    }
+
+    /** Same as above, additionally streaming each sheet into {@code sink} as a table. */
+    public ParsedFileData parse(Path path, int maxRetainedRows, TableSink sink) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(path.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            StylesTable styles = reader.getStylesTable();
+
+            List<Map<String, Object>> allSheets = new ArrayList<>();
+            StringBuilder text = new StringBuilder();
+            int[] budget = {maxRetainedRows};
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream in = sheets.next()) {
+                    SheetHandler handler = new SheetHandler(sheets.getSheetName(), strings, styles, text, budget, sink);
+                    XMLReader xmlReader = XMLHelper.newXMLReader();
+                    xmlReader.setContentHandler(handler);
+                    xmlReader.parse(new InputSource(in));
+                    handler.finish();
+
+                    allSheets.add(handler.toSheetData(sheets.getSheetName()));
+                }
+            }
+
+            ParsedFileData data = new ParsedFileData();
+            data.setText(text.toString());
+            data.setStructuredData(Map.of(
+                    "sheets", allSheets,
+                    "sheetCount", allSheets.size()
+            ));
+            data.setDataSummary("Spreadsheet with " + allSheets.size() + " sheet(s)");
+
+            return data;
+
+        } catch (SinkFailure e) {
+            throw e.getCause();
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid XLSX file: " + e.getMessage(), e);
+        }
+    }
+
+    /* ---------------- SHEET HANDLER ---------------- */
+
+    // Carries sink IOExceptions out of the SAX callbacks, which cannot throw them
+    private static class SinkFailure extends RuntimeException {
+        SinkFailure(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    private static class SheetHandler extends DefaultHandler {
+
+        private final String sheetName;
+        private final TableSink sink;
+        private boolean tableOpen = false;
+        private final ReadOnlySharedStringsTable strings;
+        private final StylesTable styles;
+        private final StringBuilder text;
+        private final int[] budget;
+        private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+
+        private final List<List<String>> rows = new ArrayList<>();
+        private List<String> headers = new ArrayList<>();
+        private ColumnStatsAccumulator[] stats = new ColumnStatsAccumulator[0];
+        private int rowCount = 0;
+        private boolean truncated = false;
+
+        // Current row / cell state
+        private int rowNum = -1;
+        private List<String> row;
+        private int nextCol;
+        private int col;
+        private String cellType;
+        private int styleIndex;
+        private boolean hasFormula;
+        private boolean capturing;
+        private final StringBuilder value = new StringBuilder();
+
+        SheetHandler(
+                String sheetName,
+                ReadOnlySharedStringsTable strings,
+                StylesTable styles,
+                StringBuilder text,
+                int[] budget,
+                TableSink sink
+        ) {
+            this.sheetName = sheetName;
+            this.sink = sink;
+            this.strings = strings;
+            this.styles = styles;
+            this.text = text;
+            this.budget = budget;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attrs) {
+            switch (localName) {
+                case "row" -> {
+                    String r = attrs.getValue("r");
+                    rowNum = r != null ? Integer.parseInt(r) - 1 : rowNum + 1;
+                    row = new ArrayList<>();
+                    nextCol = 0;
+                }
+                case "c" -> {
+                    String ref = attrs.getValue("r");
+                    col = ref != null ? columnIndex(ref) : nextCol;
+                    cellType = attrs.getValue("t");
+                    String s = attrs.getValue("s");
+                    styleIndex = s != null ? Integer.parseInt(s) : -1;
+                    hasFormula = false;
+                    value.setLength(0);
+                }
+                case "v", "t" -> capturing = true;
+                case "f" -> hasFormula = true;
+                default -> {}
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (capturing) {
+                value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v", "t" -> capturing = false;
+                case "c" -> {
+                    while (row.size() < col) {
+                        row.add("");
+                    }
+                    row.add(formatCell());
+                    nextCol = col + 1;
+                }
+                case "row" -> endRow();
+                default -> {}
+            }
+        }
+
+        private void endRow() {
+            rowCount++;
+
+            if (rowNum == 0) {
+                headers = row;
+                stats = new ColumnStatsAccumulator[headers.size()];
+                for (int i = 0; i < stats.length; i++) {
+                    stats[i] = new ColumnStatsAccumulator();
+                }
+                toSink(() -> sink.beginTable(sheetName, headers));
+                tableOpen = true;
+            } else {
+                for (int i = 0; i < stats.length && i < row.size(); i++) {
+                    stats[i].accept(row.get(i));
+                }
+                if (tableOpen) {
+                    List<String> cells = row;
+                    toSink(() -> sink.row(cells));
+                }
+            }
+
+            if (budget[0] > 0) {
+                budget[0]--;
+                rows.add(row);
+                for (String cell : row) {
+                    text.append(cell).append("\t");
+                }
+                text.append("\n");
+            } else {
+                truncated = true;
+            }
+        }
+
+        // "AB12" -> 27, without allocating a CellReference per cell
+        private static int columnIndex(String ref) {
+            int index = 0;
+            for (int i = 0; i < ref.length(); i++) {
+                char c = ref.charAt(i);
+                if (c < 'A' || c > 'Z') break;
+                index = index * 26 + (c - 'A' + 1);
+            }
+            return index - 1;
+        }
+
+        void finish() throws IOException {
+            if (tableOpen) {
+                sink.endTable();
+            }
+        }
+
+        private interface SinkCall {
+            void run() throws IOException;
+        }
+
+        private static void toSink(SinkCall call) {
+            try {
+                call.run();
+            } catch (IOException e) {
+                throw new SinkFailure(e);
+            }
+        }
+
+        private String formatCell() {
+            String raw = value.toString();
+
+            if (cellType == null || cellType.equals("n")) {
+                if (raw.isEmpty()) return "";
+
+                double num = Double.parseDouble(raw);
+                if (hasFormula) {
+                    return String.valueOf(num);
+                }
+                if (isDateStyle()) {
+                    return DateUtil.getJavaDate(num).toString();
+                }
+                if (num == (long) num) {
+                    return String.valueOf((long) num);
+                }
+                return String.valueOf(num);
+            }
+
+            return switch (cellType) {
+                case "s" -> strings.getItemAt(Integer.parseInt(raw)).getString();
+                case "inlineStr", "str", "d" -> raw;
+                case "b" -> String.valueOf("1".equals(raw));
+                default -> "";
+            };
+        }
+
+        private boolean isDateStyle() {
+            if (styleIndex < 0 || styles == null) return false;
+
+            return dateStyles.computeIfAbsent(styleIndex, idx -> {
+                XSSFCellStyle style = styles.getStyleAt(idx);
+                return style != null
+                        && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+            });
+        }
+
+        Map<String, Object> toSheetData(String name) {
+            Map<String, Object> sheetData = new HashMap<>();
+            sheetData.put("name", name);
+            sheetData.put("headers", headers);
+            sheetData.put("rows", rows);
+            sheetData.put("rowCount", rowCount);
+            sheetData.put("columnCount", headers.size());
+            if (truncated) {
+                sheetData.put("rowsTruncated", true);
+            }
+
+            Map<String, Map<String, Double>> columnStats = new HashMap<>();
+            for (int i = 0; i < stats.length; i++) {
+                if (stats[i].hasValues()) {
+                    columnStats.put(headers.get(i), stats[i].toMap());
+                }
+            }
+            if (!columnStats.isEmpty()) {
+                sheetData.put("statistics", columnStats);
+            }
+
+            return sheetData;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.paysecure.ai_report_tool_backend.service.prompt;
+
+import com.paysecure.ai_report_tool_backend.model.UploadedFile;
+import com.paysecure.ai_report_tool_backend.service.columnar.Column;
+import com.paysecure.ai_report_tool_backend.service.columnar.ColumnarFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Splits uploads into prompt-sized slices for map-reduce generation. Tables
+ * with a column store are cut on row boundaries (each slice repeats the
+ * column header); other content is cut on line boundaries, falling back to
+ * a hard cut for single lines longer than a slice.
+ */
+public final class DataPartitioner {
+
+    private DataPartitioner() {}
+
+    public record Partition(String source, String content, int tokens) {}
+
+    public static List<Partition> partition(UploadedFile file, int maxTokens) throws IOException {
+        if (file.getColumnarPath() != null && !isDocument(file)) {
+            try (ColumnarFile columns = ColumnarFile.open(Path.of(file.getColumnarPath()))) {
+                return partitionTables(file.getOriginalFilename(), columns, maxTokens);
+            }
+        }
+
+        String raw = rawContent(file);
+        if (raw == null || raw.isBlank()) return List.of();
+
+        return partitionText(file.getOriginalFilename(), raw, maxTokens);
+    }
+
+    /**
+     * What a file contributes verbatim. Documents keep their prose, which
+     * already carries their tables as text (their column store only backs
+     * summaries); everything else contributes its structured JSON.
+     */
+    static String rawContent(UploadedFile file) {
+        if (isDocument(file) && file.getExtractedText() != null) {
+            return file.getExtractedText();
+        }
+        return file.getExtractedDataJson() != null ? file.getExtractedDataJson() : file.getExtractedText();
+    }
+
+    /** PDF and DOCX uploads, whose tables are extracted from running text. */
+    static boolean isDocument(UploadedFile file) {
+        String contentType = file.getContentType() != null ? file.getContentType() : "";
+        String filename = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase() : "";
+        return contentType.contains("pdf") || contentType.contains("wordprocessing")
+                || filename.endsWith(".pdf") || filename.endsWith(".docx");
+    }
+
+    private static List<Partition> partitionTables(String filename, ColumnarFile file, int maxTokens) throws IOException {
+        List<Partition> partitions = new ArrayList<>();
+
+        for (ColumnarFile.TableInfo table : file.tables()) {
+            List<Column> columns = new ArrayList<>();
+            for (ColumnarFile.ColumnInfo info : table.columns()) {
+                columns.add(file.readColumn(table, info));
+            }
+            String columnHeader = String.join(" | ", table.columns().stream().map(ColumnarFile.ColumnInfo::name).toList()) + "\n";
+
+            StringBuilder rows = new StringBuilder();
+            int tokens = 0;
+            int first = 0;
+            int budget = maxTokens - TokenEstimator.estimate(columnHeader) - 30; // slice label
+
+            for (int row = 0; row < table.rowCount(); row++) {
+                StringJoiner line = new StringJoiner(" | ", "", "\n");
+                for (Column column : columns) {
+                    String value = column.getString(row);
+                    line.add(value == null ? "" : value);
+                }
+                String text = line.toString();
+                int lineTokens = TokenEstimator.estimate(text);
+
+                if (tokens + lineTokens > budget && rows.length() > 0) {
+                    partitions.add(tableSlice(filename, table, first, row, columnHeader, rows));
+                    rows.setLength(0);
+                    tokens = 0;
+                    first = row;
+                }
+                rows.append(text);
+                tokens += lineTokens;
+            }
+            if (rows.length() > 0) {
+                partitions.add(tableSlice(filename, table, first, table.rowCount(), columnHeader, rows));
+            }
+        }
+
+        return partitions;
+    }
+
+    private static Partition tableSlice(
+            String filename,
+            ColumnarFile.TableInfo table,
+            int from,
+            int to,
+            String columnHeader,
+            CharSequence rows
+    ) {
+        String source = filename + " / " + table.name() + " rows " + (from + 1) + "-" + to + " of " + table.rowCount();
+        String content = source + "\n" + columnHeader + rows;
+        return new Partition(source, content, TokenEstimator.estimate(content));
+    }
+
+    static List<Partition> partitionText(String filename, String raw, int maxTokens) {
+        List<Partition> partitions = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+        int tokens = 0;
+        int budget = maxTokens - 30;
+
+        for (String line : raw.split("\n", -1)) {
+            int lineTokens = TokenEstimator.estimate(line);
+
+            if (lineTokens > budget) {
+                // One huge line (e.g. a JSON blob): flush, then cut it by size
+                flush(filename, chunk, partitions);
+                tokens = 0;
+                int step = Math.max(1, (int) ((long) line.length() * budget / lineTokens));
+                for (int i = 0; i < line.length(); i += step) {
+                    chunk.append(line, i, Math.min(line.length(), i + step));
+                    flush(filename, chunk, partitions);
+                }
+                continue;
+            }
+
+            if (tokens + lineTokens > budget) {
+                flush(filename, chunk, partitions);
+                tokens = 0;
+            }
+            chunk.append(line).append("\n");
+            tokens += lineTokens;
+        }
+        flush(filename, chunk, partitions);
+
+        return partitions;
+    }
+
+    private static void flush(String filename, StringBuilder chunk, List<Partition> partitions) {
+        if (chunk.toString().isBlank()) {
+            chunk.setLength(0);
+            return;
+        }
+        String source = filename + " part " + (partitions.size() + 1);
+        String content = source + "\n" + chunk;
+        partitions.add(new Partition(source, content, TokenEstimator.estimate(content)));
+        chunk.setLength(0);
+    }
+}
@@ -0,0 +1,297 @@
+package com.paysecure.ai_report_tool_backend.service.prompt;
+
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.UploadedFile;
+import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
+import com.paysecure.ai_report_tool_backend.service.columnar.ColumnarFile;
+import com.google.gson.Gson;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Builds the user prompt within a token budget. The instruction sections
+ * (calculation prompt, report context, inputs, output format) are always sent
+ * in full; uploaded files share what is left. Files that fit go in raw,
+ * tabular files that don't are replaced by column summaries with a stratified
+ * sample, and anything else is truncated to its share.
+ */
+@Slf4j
+@Component
+public class PromptAssembler {
+
+    private static final String FILES_HEADING = "UPLOADED DATA FILES:\n\n";
+    private static final String TRUNCATED = "...[truncated]";
+
+    private final UploadedFileRepository uploadedFileRepository;
+    private final Gson gson = new Gson();
+    private final int contextTokens;
+    private final int maxInputTokens;
+    private final int sampleRows;
+    private final TableSummarizer summarizer;
+
+    public PromptAssembler(
+            UploadedFileRepository uploadedFileRepository,
+            @Value("${openai.context-tokens:128000}") int contextTokens,
+            @Value("${prompt.budget.max-input-tokens:24000}") int maxInputTokens,
+            @Value("${prompt.budget.sample-rows:40}") int sampleRows,
+            @Value("${prompt.budget.top-categories:10}") int topCategories
+    ) {
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.contextTokens = contextTokens;
+        this.maxInputTokens = maxInputTokens;
+        this.sampleRows = sampleRows;
+        this.summarizer = new TableSummarizer(topCategories);
+    }
+
+    public record FileDecision(String filename, String strategy, int rawTokens, int budgetTokens, int usedTokens) {}
+
+    public record PromptAssembly(
+            String prompt,
+            int estimatedTokens,
+            int budgetTokens,
+            int fixedTokens,
+            List<FileDecision> files
+    ) {}
+
+    /**
+     * @param reservedTokens tokens already committed elsewhere in the request
+     *                       (system prompt plus the completion allowance)
+     */
+    public PromptAssembly assemble(
+            Report report,
+            String calculationPrompt,
+            String outputFormatPrompt,
+            Map<String, String> inputs,
+            int reservedTokens
+    ) {
+        return assemble(report, calculationPrompt, outputFormatPrompt, inputs,
+                uploadedFileRepository.findByReport(report), reservedTokens);
+    }
+
+    /** Same as above for an explicit subset of the report's files. */
+    public PromptAssembly assemble(
+            Report report,
+            String calculationPrompt,
+            String outputFormatPrompt,
+            Map<String, String> inputs,
+            List<UploadedFile> uploadedFiles,
+            int reservedTokens
+    ) {
+        String head = head(report, calculationPrompt, inputs);
+        String tail = tail(outputFormatPrompt);
+
+        int budget = budgetFor(reservedTokens);
+        int fixedTokens = TokenEstimator.estimate(head) + TokenEstimator.estimate(tail);
+
+        StringBuilder prompt = new StringBuilder(head);
+        List<FileDecision> decisions = new ArrayList<>();
+
+        if (!uploadedFiles.isEmpty()) {
+            prompt.append(FILES_HEADING);
+            int filesBudget = budget - fixedTokens - TokenEstimator.estimate(FILES_HEADING);
+            appendFiles(prompt, uploadedFiles, Math.max(0, filesBudget), decisions);
+        }
+
+        prompt.append(tail);
+
+        String text = prompt.toString();
+        return new PromptAssembly(text, TokenEstimator.estimate(text), budget, fixedTokens, List.copyOf(decisions));
+    }
+
+    /** True when every file went in raw, i.e. nothing was summarized or cut. */
+    public static boolean isComplete(PromptAssembly assembly) {
+        return assembly.files().stream()
+                .allMatch(f -> f.strategy().equals("raw") || f.strategy().equals("empty"));
+    }
+
+    public int budgetFor(int reservedTokens) {
+        return Math.max(0, Math.min(maxInputTokens, contextTokens - reservedTokens));
+    }
+
+    /** The instruction sections around an arbitrary body, e.g. partial findings. */
+    public String wrap(
+            Report report,
+            String calculationPrompt,
+            String outputFormatPrompt,
+            Map<String, String> inputs,
+            String body
+    ) {
+        return head(report, calculationPrompt, inputs) + body + tail(outputFormatPrompt);
+    }
+
+    public String head(Report report, String calculationPrompt, Map<String, String> inputs) {
+        StringBuilder head = new StringBuilder();
+
+        if (calculationPrompt != null && !calculationPrompt.isBlank()) {
+            head.append(calculationPrompt).append("\n\n");
+        }
+
+        head.append("REPORT CONTEXT:\n");
+        head.append("- Industry: ").append(report.getIndustry()).append("\n");
+        head.append("- Report Type: ").append(report.getReportType()).append("\n");
+        head.append("- Audience: ").append(report.getAudience()).append("\n");
+        head.append("- Purpose: ").append(report.getPurpose()).append("\n");
+        head.append("- Tone: ").append(report.getTone()).append("\n");
+        head.append("- Depth: ").append(report.getDepth()).append("\n\n");
+
+        if (inputs != null && !inputs.isEmpty()) {
+            head.append("DATA INPUTS (Authoritative Source):\n");
+            head.append(gson.toJson(inputs)).append("\n\n");
+        }
+
+        return head.toString();
+    }
+
+    private static String tail(String outputFormatPrompt) {
+        return (outputFormatPrompt != null && !outputFormatPrompt.isBlank())
+                ? "\n" + outputFormatPrompt + "\n"
+                : "";
+    }
+
+    public String toJson(PromptAssembly assembly) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("estimatedTokens", assembly.estimatedTokens());
+        json.put("budgetTokens", assembly.budgetTokens());
+        json.put("fixedTokens", assembly.fixedTokens());
+        json.put("files", assembly.files());
+        return gson.toJson(json);
+    }
+
+    /* ---------------- FILE SECTIONS ---------------- */
+
+    private record FileContent(UploadedFile file, String header, String schema, String raw, int rawTokens) {}
+
+    private void appendFiles(StringBuilder prompt, List<UploadedFile> files, int filesBudget, List<FileDecision> decisions) {
+        List<FileContent> contents = new ArrayList<>();
+        for (UploadedFile file : files) {
+            String header = "File: " + file.getOriginalFilename() + "\n";
+            String schema = file.getColumnarPath() != null ? columnSchema(file) : "";
+            String raw = DataPartitioner.rawContent(file);
+            int rawTokens = TokenEstimator.estimate(header) + TokenEstimator.estimate(schema) + TokenEstimator.estimate(raw);
+            contents.add(new FileContent(file, header, schema, raw, rawTokens));
+        }
+
+        // Water-filling: smallest files first, each takes at most an equal share of what is left
+        Map<FileContent, Integer> shares = new HashMap<>();
+        List<FileContent> bySize = new ArrayList<>(contents);
+        bySize.sort(Comparator.comparingInt(FileContent::rawTokens));
+        int remaining = filesBudget;
+        for (int i = 0; i < bySize.size(); i++) {
+            int share = Math.min(bySize.get(i).rawTokens(), remaining / (bySize.size() - i));
+            shares.put(bySize.get(i), share);
+            remaining -= share;
+        }
+
+        // Keep upload order in the prompt
+        for (FileContent content : contents) {
+            int share = shares.get(content);
+            String section;
+            String strategy;
+
+            if (content.raw() == null) {
+                section = content.header();
+                strategy = "empty";
+            } else if (content.rawTokens() <= share) {
+                section = content.header() + content.schema() + content.raw() + "\n\n";
+                strategy = "raw";
+            } else if (content.file().getColumnarPath() != null
+                    && (section = summarize(content, share)) != null) {
+                strategy = "summary";
+            } else {
+                section = content.header() + truncate(content.raw(), share - TokenEstimator.estimate(content.header())) + "\n\n";
+                strategy = "truncated";
+            }
+
+            prompt.append(section);
+            decisions.add(new FileDecision(
+                    content.file().getOriginalFilename(),
+                    strategy,
+                    content.rawTokens(),
+                    share,
+                    TokenEstimator.estimate(section)
+            ));
+        }
+    }
+
+    // Typed schema from the column store's directory; no column data is read
+    private String columnSchema(UploadedFile file) {
+        StringBuilder schema = new StringBuilder();
+        try (ColumnarFile columns = ColumnarFile.open(Path.of(file.getColumnarPath()))) {
+            for (ColumnarFile.TableInfo table : columns.tables()) {
+                schema.append("Table ").append(table.name())
+                        .append(" (").append(table.rowCount()).append(" rows): ");
+                for (int i = 0; i < table.columns().size(); i++) {
+                    ColumnarFile.ColumnInfo column = table.columns().get(i);
+                    if (i > 0) schema.append(", ");
+                    schema.append(column.name()).append(" [").append(column.type()).append("]");
+                }
+                schema.append("\n");
+            }
+        } catch (IOException e) {
+            log.warn("Column store unreadable for file {}: {}", file.getId(), e.getMessage());
+        }
+        return schema.toString();
+    }
+
+    /**
+     * Summary with as many sample rows as fit; null if the store can't be read.
+     * Documents split the share: half for their table summaries, the rest for
+     * as much of the prose as fits.
+     */
+    private String summarize(FileContent content, int share) {
+        if (DataPartitioner.isDocument(content.file())) {
+            String tables = summarizeTables(content, share / 2);
+            if (tables == null) return null;
+            return tables + truncate(content.raw(), share - TokenEstimator.estimate(tables)) + "\n\n";
+        }
+        return summarizeTables(content, share);
+    }
+
+    private String summarizeTables(FileContent content, int share) {
+        try (ColumnarFile columns = ColumnarFile.open(Path.of(content.file().getColumnarPath()))) {
+            List<TableSummarizer.TableSummary> tables = summarizer.summarize(columns, sampleRows);
+            String intro = content.header() + "(Data summarized to fit the prompt budget: per-column statistics, "
+                    + "top categories and a representative sample.)\n";
+
+            String section = null;
+            // Halve the sample, then drop it altogether before truncating the statistics
+            for (int rows = sampleRows; rows >= 0; rows = rows > 5 ? rows / 2 : (rows > 0 ? 0 : -1)) {
+                StringBuilder out = new StringBuilder(intro);
+                for (TableSummarizer.TableSummary table : tables) {
+                    out.append(table.render(rows));
+                }
+                out.append("\n");
+                section = out.toString();
+                if (TokenEstimator.estimate(section) <= share) {
+                    return section;
+                }
+            }
+
+            // Even the bare statistics are over budget: cut them down too
+            return truncate(section, share);
+
+        } catch (IOException e) {
+            log.warn("Column store unreadable for file {}: {}", content.file().getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    static String truncate(String text, int maxTokens) {
+        int estimate = TokenEstimator.estimate(text);
+        if (estimate <= maxTokens) return text;
+
+        maxTokens -= TokenEstimator.estimate(TRUNCATED);
+        if (maxTokens <= 0) return TRUNCATED;
+
+        int end = (int) ((long) text.length() * maxTokens / estimate);
+        while (end > 0 && TokenEstimator.estimate(text.subSequence(0, end)) > maxTokens) {
+            end = (int) (end * 0.9);
+        }
+        return text.substring(0, end) + TRUNCATED;
+    }
+}
@@ -0,0 +1,203 @@
+package com.paysecure.ai_report_tool_backend.service.prompt;
+
+import com.paysecure.ai_report_tool_backend.service.columnar.Column;
+import com.paysecure.ai_report_tool_backend.service.columnar.ColumnScans;
+import com.paysecure.ai_report_tool_backend.service.columnar.ColumnType;
+import com.paysecure.ai_report_tool_backend.service.columnar.ColumnarFile;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Condenses a column store into per-column statistics, top-k categories and a
+ * stratified row sample. Columns are decoded one at a time; only the sampled
+ * cells are kept across columns.
+ */
+class TableSummarizer {
+
+    private final int topK;
+
+    TableSummarizer(int topK) {
+        this.topK = topK;
+    }
+
+    /** Summary of one table, with its sample rows kept apart so callers can shrink them. */
+    record TableSummary(String header, List<String> sampleRows, String sampleHeader) {
+
+        String render(int maxSampleRows) {
+            StringBuilder out = new StringBuilder(header);
+            if (maxSampleRows > 0 && !sampleRows.isEmpty()) {
+                out.append(sampleHeader);
+                // Thin evenly so a smaller sample keeps its spread across strata
+                double step = Math.max(1.0, (double) sampleRows.size() / maxSampleRows);
+                for (double i = 0; i < sampleRows.size(); i += step) {
+                    out.append(sampleRows.get((int) i)).append("\n");
+                }
+            }
+            return out.toString();
+        }
+    }
+
+    List<TableSummary> summarize(ColumnarFile file, int sampleRows) throws IOException {
+        List<TableSummary> summaries = new ArrayList<>();
+
+        for (ColumnarFile.TableInfo table : file.tables()) {
+            int rows = table.rowCount();
+
+            // Stratify on the first low-cardinality column, if there is one
+            Column strata = null;
+            for (ColumnarFile.ColumnInfo info : table.columns()) {
+                if (info.type() == ColumnType.DICTIONARY) {
+                    strata = file.readColumn(table, info);
+                    break;
+                }
+            }
+            int[] sample = strata != null ? stratifiedSample(strata, sampleRows) : systematicSample(rows, sampleRows);
+
+            StringBuilder header = new StringBuilder();
+            header.append("Table ").append(table.name()).append(" (").append(rows).append(" rows)\n");
+
+            String[][] cells = new String[sample.length][table.columns().size()];
+            for (int c = 0; c < table.columns().size(); c++) {
+                Column column = file.readColumn(table, table.columns().get(c));
+                header.append("- ").append(describe(column)).append("\n");
+                for (int s = 0; s < sample.length; s++) {
+                    cells[s][c] = column.getString(sample[s]);
+                }
+            }
+
+            List<String> sampleLines = new ArrayList<>(sample.length);
+            for (String[] row : cells) {
+                StringJoiner line = new StringJoiner(" | ");
+                for (String cell : row) line.add(cell == null ? "" : cell);
+                sampleLines.add(line.toString());
+            }
+
+            String sampleHeader = "Sample rows"
+                    + (strata != null ? " (stratified by " + strata.getName() + ")" : "")
+                    + ":\n"
+                    + String.join(" | ", table.columns().stream().map(ColumnarFile.ColumnInfo::name).toList())
+                    + "\n";
+
+            summaries.add(new TableSummary(header.toString(), sampleLines, sampleHeader));
+        }
+
+        return summaries;
+    }
+
+    private String describe(Column column) {
+        int nulls = 0;
+        for (int i = 0; i < column.size(); i++) {
+            if (column.isNull(i)) nulls++;
+        }
+        String nullNote = nulls > 0 ? ", nulls=" + nulls : "";
+
+        switch (column.getType()) {
+            case LONG, DOUBLE -> {
+                double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY, sum = 0;
+                for (int i = 0; i < column.size(); i++) {
+                    if (column.isNull(i)) continue;
+                    double v = column.getDouble(i);
+                    sum += v;
+                    if (v < min) min = v;
+                    if (v > max) max = v;
+                }
+                int n = column.size() - nulls;
+                return n == 0
+                        ? column.getName() + " [" + column.getType() + "]: empty"
+                        : String.format(Locale.ROOT, "%s [%s]: min=%s, max=%s, mean=%.4g, sum=%.6g%s",
+                                column.getName(), column.getType(), num(min), num(max), sum / n, sum, nullNote);
+            }
+            case DATE -> {
+                long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+                int minRow = -1, maxRow = -1;
+                for (int i = 0; i < column.size(); i++) {
+                    if (column.isNull(i)) continue;
+                    long v = column.getLong(i);
+                    if (v < min) { min = v; minRow = i; }
+                    if (v > max) { max = v; maxRow = i; }
+                }
+                return minRow < 0
+                        ? column.getName() + " [DATE]: empty"
+                        : column.getName() + " [DATE]: from " + column.getString(minRow)
+                                + " to " + column.getString(maxRow) + nullNote;
+            }
+            case DICTIONARY -> {
+                StringJoiner top = new StringJoiner(", ");
+                ColumnScans.topCategories(column, topK).forEach((k, v) -> top.add(k + " (" + v + ")"));
+                return column.getName() + " [" + column.getDictionary().length + " distinct]: "
+                        + top + nullNote;
+            }
+            default -> {
+                StringJoiner examples = new StringJoiner(", ");
+                for (int i = 0, shown = 0; i < column.size() && shown < 3; i++) {
+                    String v = column.getString(i);
+                    if (v != null) {
+                        examples.add('"' + (v.length() > 60 ? v.substring(0, 60) + "…" : v) + '"');
+                        shown++;
+                    }
+                }
+                return column.getName() + " [text]: e.g. " + examples + nullNote;
+            }
+        }
+    }
+
+    private static String num(double v) {
+        return v == (long) v ? String.valueOf((long) v) : String.valueOf(v);
+    }
+
+    /**
+     * Evenly spaced rows within each category, quotas proportional to category
+     * size; small categories get one row each while the total stays within n.
+     */
+    static int[] stratifiedSample(Column strata, int n) {
+        int rows = strata.size();
+        if (n <= 0 || rows == 0) return new int[0];
+        if (rows <= n) return systematicSample(rows, rows);
+
+        int categories = strata.getDictionary().length;
+        long[] counts = new long[categories + 1]; // last slot collects nulls
+        for (int i = 0; i < rows; i++) {
+            counts[strata.isNull(i) ? categories : strata.getCode(i)]++;
+        }
+
+        long[] quota = new long[counts.length];
+        long total = 0;
+        for (int c = 0; c < counts.length; c++) {
+            quota[c] = Math.round((double) n * counts[c] / rows);
+            total += quota[c];
+        }
+
+        Integer[] bySize = new Integer[counts.length];
+        for (int c = 0; c < counts.length; c++) bySize[c] = c;
+        Arrays.sort(bySize, (a, b) -> Long.compare(counts[b], counts[a]));
+        for (int c : bySize) {
+            if (total >= n) break;
+            if (quota[c] == 0 && counts[c] > 0) {
+                quota[c] = 1;
+                total++;
+            }
+        }
+
+        long[] seen = new long[counts.length];
+        List<Integer> picked = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            int c = strata.isNull(i) ? categories : strata.getCode(i);
+            if (quota[c] == 0) continue;
+            long before = seen[c] * quota[c] / counts[c];
+            long after = ++seen[c] * quota[c] / counts[c];
+            if (after > before) picked.add(i);
+        }
+
+        return picked.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static int[] systematicSample(int rows, int n) {
+        int size = Math.min(rows, Math.max(n, 0));
+        int[] sample = new int[size];
+        for (int i = 0; i < size; i++) {
+            sample[i] = (int) ((long) i * rows / size);
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,40 @@
+package com.paysecure.ai_report_tool_backend.service.prompt;
+
+/**
+ * Local token estimate for budgeting, without a tokenizer dependency. Tracks
+ * BPE behaviour closer than chars/4 on data-heavy prompts: letter runs cost
+ * about one token per four characters, digit runs one per three, and every
+ * punctuation mark (quotes, commas, braces in JSON) is its own token.
+ * Errs slightly high, which is the safe side for a budget.
+ */
+public final class TokenEstimator {
+
+    private TokenEstimator() {}
+
+    public static int estimate(CharSequence text) {
+        if (text == null) return 0;
+
+        long tokens = 0;
+        int letters = 0;
+        int digits = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (Character.isLetter(c)) {
+                if (digits > 0) { tokens += (digits + 2) / 3; digits = 0; }
+                letters++;
+            } else if (Character.isDigit(c)) {
+                if (letters > 0) { tokens += (letters + 3) / 4; letters = 0; }
+                digits++;
+            } else {
+                if (letters > 0) { tokens += (letters + 3) / 4; letters = 0; }
+                if (digits > 0) { tokens += (digits + 2) / 3; digits = 0; }
+                if (!Character.isWhitespace(c)) tokens++;
+            }
+        }
+        tokens += (letters + 3) / 4 + (digits + 2) / 3;
+
+        return (int) Math.min(tokens, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,244 @@
+package com.paysecure.ai_report_tool_backend.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoggingFilterTest {
+
+    private final RecordingWriter writer = new RecordingWriter();
+
+    @AfterEach
+    void stopWriter() throws Exception {
+        writer.shutdown();
+    }
+
+    @Test
+    void capturesTextualBodiesUpToLimit() throws Exception {
+        LoggingFilter filter = new LoggingFilter(writer, true, 1.0, 16);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/reports");
+        request.setContentType("application/json");
+        request.setContent("{\"title\":\"quarterly\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            req.getInputStream().readAllBytes();
+            res.setContentType("application/json");
+            res.getWriter().write("{\"id\":\"0123456789abcdef0123456789\"}");
+        });
+
+        AccessLogWriter.Entry entry = writer.entries.get(0);
+        assertEquals("{\"title\":\"quarte", entry.requestBody());
+        assertEquals("{\"id\":\"012345678", entry.responseBody());
+        assertTrue(entry.bodiesTruncated());
+        assertEquals("{\"id\":\"0123456789abcdef0123456789\"}", response.getContentAsString());
+    }
+
+    @Test
+    void writesBinaryResponsesThroughWithoutCapture() throws Exception {
+        LoggingFilter filter = new LoggingFilter(writer, true, 1.0, 1024);
+        byte[] pdf = new byte[64 * 1024];
+        Arrays.fill(pdf, (byte) 7);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/reports/1/export/pdf"), response, (req, res) -> {
+            res.setContentType("application/pdf");
+            res.getOutputStream().write(pdf);
+        });
+
+        assertArrayEquals(pdf, response.getContentAsByteArray());
+        assertNull(writer.entries.get(0).responseBody());
+        assertFalse(writer.entries.get(0).bodiesTruncated());
+    }
+
+    @Test
+    void neverCapturesAuthEndpointsOrUnsampledRequests() throws Exception {
+        FilterChain chain = (req, res) -> {
+            res.setContentType("application/json");
+            res.getWriter().write("{\"token\":\"secret\"}");
+        };
+
+        new LoggingFilter(writer, true, 1.0, 1024)
+                .doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), new MockHttpServletResponse(), chain);
+        new LoggingFilter(writer, true, 0.0, 1024)
+                .doFilter(new MockHttpServletRequest("GET", "/api/reports"), new MockHttpServletResponse(), chain);
+
+        assertEquals(2, writer.entries.size());
+        assertTrue(writer.entries.stream().allMatch(e -> e.responseBody() == null && e.requestBody() == null));
+        assertEquals(200, writer.entries.get(1).status());
+    }
+
+    /**
+     * Latency harness for a PDF-sized export: the previous filter (full
+     * response buffering, JSON parse attempt and pretty log on the request
+     * thread) against the current one. Log output goes to a null stream so
+     * only the filter's own work is measured.
+     *
+     * <pre>mvn test -Dtest=LoggingFilterTest -Dharness=true [-Dharness.requests=300 -Dharness.pdf-kb=3072]</pre>
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "harness", matches = "true")
+    void benchmarkPdfExportLatency() throws Exception {
+        int requests = Integer.getInteger("harness.requests", 300);
+        byte[] pdf = new byte[Integer.getInteger("harness.pdf-kb", 3072) * 1024];
+        Arrays.fill(pdf, (byte) 'x');
+
+        silence("harness.legacy");
+        silence("access");
+
+        FilterChain export = (req, res) -> {
+            res.setContentType("application/pdf");
+            OutputStream out = res.getOutputStream();
+            for (int off = 0; off < pdf.length; off += 8192) {
+                out.write(pdf, off, Math.min(8192, pdf.length - off));
+            }
+        };
+
+        AccessLogWriter asyncWriter = new AccessLogWriter(10_000);
+        OncePerRequestFilter legacy = new LegacyLoggingFilter();
+        LoggingFilter current = new LoggingFilter(asyncWriter, true, 1.0, 4096);
+
+        for (int round = 0; round < 2; round++) { // first round is warm-up
+            String none = percentiles(null, export, requests);
+            String before = percentiles(legacy, export, requests);
+            String after = percentiles(current, export, requests);
+            System.out.printf("%s pdf=%dKB requests=%d  no filter: %s  legacy: %s  current: %s  writer=%s%n",
+                    round == 0 ? "warm-up" : "measured", pdf.length / 1024, requests, none, before, after,
+                    asyncWriter.stats());
+        }
+        asyncWriter.shutdown();
+    }
+
+    private static String percentiles(OncePerRequestFilter filter, FilterChain chain, int requests) throws Exception {
+        long[] micros = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/" + i + "/export/pdf");
+            long start = System.nanoTime();
+            if (filter != null) {
+                filter.doFilter(request, new DiscardingResponse(), chain);
+            } else {
+                chain.doFilter(request, new DiscardingResponse());
+            }
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(micros);
+        return String.format("p50=%.2fms p99=%.2fms",
+                micros[requests / 2] / 1000.0, micros[(int) (requests * 0.99)] / 1000.0);
+    }
+
+    private static void silence(String loggerName) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        ch.qos.logback.classic.Logger logger = context.getLogger(loggerName);
+        logger.detachAndStopAllAppenders();
+        logger.addAppender(appender);
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+    }
+
+    /** MockHttpServletResponse's own body handling would dominate the timings. */
+    private static class DiscardingResponse extends MockHttpServletResponse {
+
+        private final jakarta.servlet.ServletOutputStream sink = new jakarta.servlet.ServletOutputStream() {
+            @Override public void write(int b) {}
+            @Override public void write(byte[] b, int off, int len) {}
+            @Override public boolean isReady() { return true; }
+            @Override public void setWriteListener(jakarta.servlet.WriteListener listener) {}
+        };
+
+        @Override
+        public jakarta.servlet.ServletOutputStream getOutputStream() {
+            return sink;
+        }
+    }
+
+    private static class RecordingWriter extends AccessLogWriter {
+
+        final List<Entry> entries = new CopyOnWriteArrayList<>();
+
+        RecordingWriter() {
+            super(1);
+        }
+
+        @Override
+        public boolean submit(Entry entry) {
+            entries.add(entry);
+            return true;
+        }
+    }
+
+    /** The filter as it was before the access-log pipeline, kept for the harness. */
+    private static class LegacyLoggingFilter extends OncePerRequestFilter {
+
+        private static final Logger log = LoggerFactory.getLogger("harness.legacy");
+        private static final ObjectMapper objectMapper =
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws java.io.IOException, jakarta.servlet.ServletException {
+            long startTime = System.currentTimeMillis();
+            ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(request);
+            ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+            try {
+                chain.doFilter(requestWrapper, responseWrapper);
+            } finally {
+                String requestBody = format(requestWrapper.getContentAsByteArray());
+                String responseBody = format(responseWrapper.getContentAsByteArray());
+                log.info("{} {} {} {} ms\n{}\n{}", request.getMethod(), request.getRequestURI(),
+                        responseWrapper.getStatus(), System.currentTimeMillis() - startTime, requestBody, responseBody);
+                responseWrapper.copyBodyToResponse();
+            }
+        }
+
+        private static String format(byte[] content) {
+            if (content == null || content.length == 0) return "EMPTY";
+            String body = new String(content, StandardCharsets.UTF_8);
+            try {
+                return objectMapper.writeValueAsString(objectMapper.readValue(body, Object.class));
+            } catch (Exception e) {
+                return body;
+            }
+        }
+    }
+}
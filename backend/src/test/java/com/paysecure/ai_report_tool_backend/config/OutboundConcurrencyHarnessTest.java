@@ -0,0 +1,127 @@
+package com.paysecure.ai_report_tool_backend.config;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Load harness, not a regression test. Holds N slow "generations" (blocking
+ * OkHttp calls against a stub that answers after a delay) and reports how many
+ * were in flight at once per execution model.
+ *
+ * <pre>mvn test -Dtest=OutboundConcurrencyHarnessTest -Dharness=true [-Dharness.calls=2000]</pre>
+ */
+@EnabledIfSystemProperty(named = "harness", matches = "true")
+class OutboundConcurrencyHarnessTest {
+
+    private static final int CALLS = Integer.getInteger("harness.calls", 1000);
+    private static final int STUB_LATENCY_MS = Integer.getInteger("harness.latency-ms", 2000);
+    private static final int PLATFORM_THREADS = 200; // server.tomcat.threads.max default
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private HttpServer server;
+    private OkHttpClient client;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/chat/completions", exchange -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(STUB_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+
+            byte[] body = "{\"choices\":[]}".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions";
+        client = new HttpClientConfig().okHttpClient(CALLS).newBuilder()
+                .readTimeout(60, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void platformThreadPool() throws Exception {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(PLATFORM_THREADS);
+        executor.setMaxPoolSize(PLATFORM_THREADS);
+        executor.setQueueCapacity(CALLS);
+        executor.initialize();
+
+        try {
+            run("platform x" + PLATFORM_THREADS, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void virtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21+");
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("harness-");
+        executor.setVirtualThreads(true);
+
+        run("virtual", executor);
+    }
+
+    private void run(String label, AsyncTaskExecutor executor) throws Exception {
+        long start = System.nanoTime();
+
+        List<Future<?>> futures = new ArrayList<>(CALLS);
+        for (int i = 0; i < CALLS; i++) {
+            futures.add(executor.submit(() -> {
+                Request request = new Request.Builder().url(url).build();
+                try (Response response = client.newCall(request).execute()) {
+                    response.body().string();
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> f : futures) {
+            f.get();
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.printf(
+                "[harness] %-14s calls=%d latency=%dms peakInFlight=%d elapsed=%dms%n",
+                label, CALLS, STUB_LATENCY_MS, peakInFlight.get(), elapsedMs
+        );
+    }
+}
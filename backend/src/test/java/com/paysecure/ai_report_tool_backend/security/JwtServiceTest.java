@@ -0,0 +1,184 @@
+package com.paysecure.ai_report_tool_backend.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef-test";
+
+    private final JwtService jwtService = new JwtService(SECRET, 60_000, 100, 300_000);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void verifiesOnceThenServesFromCache() {
+        UUID userId = UUID.randomUUID();
+        String token = jwtService.generateToken(userId, "USER");
+
+        JwtService.VerifiedToken first = jwtService.verify(token);
+        JwtService.VerifiedToken second = jwtService.verify(token);
+
+        assertNotNull(first);
+        assertEquals(userId.toString(), first.userId());
+        assertEquals("USER", first.role());
+        assertEquals(first, second);
+        assertEquals(1, jwtService.stats().misses());
+        assertEquals(1, jwtService.stats().hits());
+    }
+
+    @Test
+    void cachedEntryNeverOutlivesToken() {
+        String token = jwtService.generateToken(UUID.randomUUID(), "USER");
+
+        Instant cachedUntil = jwtService.verify(token).cachedUntil();
+
+        // Token lives 60s, cache TTL is 5 min
+        assertTrue(cachedUntil.isBefore(Instant.now().plusSeconds(61)));
+    }
+
+    @Test
+    void rejectsForgedAndExpiredTokens() {
+        String forged = Jwts.builder()
+                .setSubject(UUID.randomUUID().toString())
+                .claim("role", "ADMIN")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("another-secret-another-secret-12345".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        String expired = Jwts.builder()
+                .setSubject(UUID.randomUUID().toString())
+                .claim("role", "USER")
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertNull(jwtService.verify(forged));
+        assertNull(jwtService.verify(expired));
+        assertNull(jwtService.verify("not-a-jwt"));
+        assertFalse(jwtService.isTokenValid(forged));
+        assertEquals(0, jwtService.stats().entries());
+    }
+
+    @Test
+    void filterAuthenticatesFromCachedClaims() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String token = jwtService.generateToken(userId, "ADMIN");
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtService);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports");
+        request.addHeader("Authorization", "Bearer " + token);
+        FilterChain chain = (req, res) -> {};
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(userId.toString(), authentication.getPrincipal());
+        assertEquals("ROLE_ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+    }
+
+    /**
+     * Filter throughput harness: the previous implementation (fresh key and
+     * parser, three parses per request) against the cached fast path.
+     *
+     * <pre>mvn test -Dtest=JwtServiceTest -Dharness=true [-Dharness.users=500 -Dharness.seconds=5]</pre>
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "harness", matches = "true")
+    void benchmarkFilterThroughput() throws Exception {
+        int users = Integer.getInteger("harness.users", 500);
+        int seconds = Integer.getInteger("harness.seconds", 5);
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        JwtService cached = new JwtService(SECRET, 3_600_000, 10_000, 300_000);
+        JwtService parserOnly = new JwtService(SECRET, 3_600_000, 0, 0);
+
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            tokens.add(cached.generateToken(UUID.randomUUID(), "USER"));
+        }
+
+        JwtService legacy = new JwtService(SECRET, 60_000, 0, 0) {
+            // Rebuilds key and parser per call and parses three times, as the filter used to
+            @Override
+            public VerifiedToken verify(String token) {
+                for (int i = 0; i < 2; i++) parseUncached(token);
+                var claims = parseUncached(token);
+                return new VerifiedToken(claims.getSubject(), claims.get("role", String.class), Instant.MAX);
+            }
+        };
+
+        for (int round = 0; round < 2; round++) { // first round is warm-up
+            double before = throughput(new JwtAuthenticationFilter(legacy), tokens, threads, seconds);
+            double reused = throughput(new JwtAuthenticationFilter(parserOnly), tokens, threads, seconds);
+            double after = throughput(new JwtAuthenticationFilter(cached), tokens, threads, seconds);
+            System.out.printf("%s threads=%d users=%d  legacy: %,.0f req/s  shared parser: %,.0f req/s"
+                            + "  shared parser + cache: %,.0f req/s  (x%.1f)  hitRatio=%.3f%n",
+                    round == 0 ? "warm-up" : "measured", threads, users, before, reused, after, after / before,
+                    cached.stats().hitRatio());
+        }
+    }
+
+    private static io.jsonwebtoken.Claims parseUncached(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static double throughput(JwtAuthenticationFilter filter, List<String> tokens, int threads, int seconds)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        FilterChain chain = (req, res) -> {};
+        List<Future<Long>> results = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            results.add(pool.submit(() -> {
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports");
+                    request.addHeader("Authorization", "Bearer " + tokens.get((int) ((count + offset) % tokens.size())));
+                    filter.doFilter(request, new MockHttpServletResponse(), chain);
+                    SecurityContextHolder.clearContext();
+                    count++;
+                }
+                return count;
+            }));
+        }
+
+        long total = 0;
+        for (Future<Long> f : results) total += f.get();
+        pool.shutdown();
+        return total / (double) seconds;
+    }
+}
@@ -0,0 +1,132 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.exception.ApiException;
+import com.paysecure.ai_report_tool_backend.model.CreditTransaction;
+import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.model.enums.TransactionType;
+import com.paysecure.ai_report_tool_backend.repository.CreditHoldRepository;
+import com.paysecure.ai_report_tool_backend.repository.CreditTransactionRepository;
+import com.paysecure.ai_report_tool_backend.repository.CreditWalletRepository;
+import com.paysecure.ai_report_tool_backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers one wallet from 64 threads with a mix of deductions, holds and
+ * top-ups, then checks that balance + open holds == opening balance + ledger.
+ * Needs a real Postgres (DATABASE_URL etc.), since the guarantees come from
+ * its row locks.
+ */
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "credits.hold-sweep-interval-ms=3600000"
+})
+class CreditServiceConcurrencyTest {
+
+    private static final int THREADS = 64;
+    private static final int OPS_PER_THREAD = 50;
+    private static final int OPENING_BALANCE = 500;
+
+    @Autowired private CreditService creditService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CreditWalletRepository walletRepository;
+    @Autowired private CreditTransactionRepository transactionRepository;
+    @Autowired private CreditHoldRepository holdRepository;
+
+    private User user;
+
+    @AfterEach
+    void cleanUp() {
+        if (user == null) return;
+        transactionRepository.deleteAll(transactionRepository.findByUserOrderByCreatedAtDesc(user));
+        holdRepository.deleteAll(holdRepository.findByUser(user));
+        walletRepository.findByUser(user).ifPresent(walletRepository::delete);
+        userRepository.delete(user);
+        ReflectionTestUtils.setField(creditService, "debitStrategy", CreditService.DebitStrategy.CONDITIONAL);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CreditService.DebitStrategy.class)
+    void ledgerReconcilesUnderContention(CreditService.DebitStrategy strategy) throws Exception {
+        ReflectionTestUtils.setField(creditService, "debitStrategy", strategy);
+
+        user = new User();
+        user.setEmail("credit-stress-" + UUID.randomUUID() + "@example.com");
+        user.setCredits(OPENING_BALANCE);
+        user = userRepository.save(user);
+        creditService.getOrCreateWallet(user);
+
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                User self = userRepository.findById(user.getId()).orElseThrow();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    int credits = 1 + random.nextInt(3);
+                    String ref = UUID.randomUUID().toString();
+                    try {
+                        switch (random.nextInt(5)) {
+                            case 0 -> creditService.deductCredits(self, credits, TransactionType.REPORT_USAGE, ref, "stress");
+                            case 1, 2 -> {
+                                creditService.reserve(self, credits, ref);
+                                creditService.commitHold(self, credits, TransactionType.REPORT_USAGE, ref, "stress");
+                            }
+                            case 3 -> {
+                                creditService.reserve(self, credits, ref);
+                                if (random.nextBoolean()) creditService.releaseHold(ref);
+                            }
+                            default -> creditService.addCredits(self, 1, TransactionType.BONUS, ref, "stress");
+                        }
+                    } catch (ApiException e) {
+                        rejected.incrementAndGet(); // insufficient credits is an expected outcome
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        List<CreditTransaction> ledger = transactionRepository.findByUserOrderByCreatedAtDesc(user);
+        long ledgerSum = ledger.stream().mapToLong(CreditTransaction::getCredits).sum();
+        int balance = creditService.getBalance(user);
+        long held = creditService.heldCredits(user);
+
+        assertTrue(balance >= 0, "wallet overdrawn: " + balance);
+        assertTrue(ledger.stream().allMatch(tx -> tx.getBalanceAfter() >= 0), "ledger recorded a negative balance");
+        assertEquals(OPENING_BALANCE + ledgerSum, balance + held,
+                "balance=" + balance + " held=" + held + " ledger=" + ledgerSum + " rejected=" + rejected.get());
+
+        // Releasing what is still held must land exactly on opening + ledger
+        creditService.expireHolds();
+        holdRepository.findByUser(user).forEach(h -> creditService.releaseHold(h.getReferenceId()));
+        assertEquals(OPENING_BALANCE + ledgerSum, creditService.getBalance(user));
+    }
+}
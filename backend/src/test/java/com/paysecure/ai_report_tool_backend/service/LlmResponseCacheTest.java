@@ -0,0 +1,52 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.repository.LlmResponseCacheRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercises the database tier against a real Postgres (DATABASE_URL etc.);
+ * everything is rolled back afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+@SpringBootTest
+@Transactional
+class LlmResponseCacheTest {
+
+    private static final long TTL_HOURS = 1;
+
+    @Autowired private LlmResponseCacheRepository repository;
+
+    @Test
+    void reputtingAnExpiredKeyRestartsItsTtl() {
+        String key = LlmResponseCache.key("gpt-4o", 0.2, "system", "prompt-" + UUID.randomUUID());
+        // An expired row the daily purge has not reached yet
+        repository.upsert(key, "gpt-4o", "stale", 10, 20, Instant.now().minus(Duration.ofHours(TTL_HOURS + 1)));
+
+        LlmResponseCache writer = cache();
+        assertThat(writer.get(key)).isEmpty();
+
+        writer.put(key, "gpt-4o", "fresh", 11, 21);
+
+        // A fresh instance has an empty memory tier, so this reads the row
+        LlmResponseCache.CachedCompletion stored = cache().get(key).orElseThrow();
+        assertThat(stored.content()).isEqualTo("fresh");
+        assertThat(stored.createdAt()).isAfter(Instant.now().minus(Duration.ofMinutes(1)));
+
+        cache().purgeExpired();
+        assertThat(repository.findById(key)).isPresent();
+    }
+
+    private LlmResponseCache cache() {
+        return new LlmResponseCache(repository, true, 1 << 20, TTL_HOURS);
+    }
+}
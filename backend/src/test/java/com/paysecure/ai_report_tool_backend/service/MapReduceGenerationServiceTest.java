@@ -0,0 +1,130 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.UploadedFile;
+import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
+import com.paysecure.ai_report_tool_backend.service.prompt.PromptAssembler;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class MapReduceGenerationServiceTest {
+
+    private final UploadedFileRepository fileRepository = mock(UploadedFileRepository.class);
+    private final OpenAIService openAIService = mock(OpenAIService.class);
+    private final PromptAssembler assembler = new PromptAssembler(fileRepository, 128000, 4000, 40, 10);
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final List<String> partialPrompts = new CopyOnWriteArrayList<>();
+
+    private MapReduceGenerationService service(int parallelism) throws Exception {
+        when(openAIService.resolveSystemPrompt(any())).thenReturn("Return the report JSON.");
+        when(openAIService.getMaxTokens()).thenReturn(1000);
+        when(openAIService.complete(any(), any(), anyString(), anyString(), anyInt(), anyBoolean(), any(), any()))
+                .thenAnswer(inv -> {
+                    int max = inv.getArgument(4);
+                    if (max == 1000) {
+                        return "{\"title\":\"final\"}";
+                    }
+                    peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    partialPrompts.add(inv.getArgument(3));
+                    Thread.sleep(100);
+                    inFlight.decrementAndGet();
+                    return "- slice total: 42";
+                });
+
+        MapReduceGenerationService service = new MapReduceGenerationService(
+                openAIService, assembler, fileRepository, new SimpleAsyncTaskExecutor("test-"));
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "parallelism", parallelism);
+        ReflectionTestUtils.setField(service, "partialMaxTokens", 300);
+        return service;
+    }
+
+    @Test
+    void splitsOversizedUploadsAndReducesPartialFindings() throws Exception {
+        when(fileRepository.findByReport(any())).thenReturn(List.of(ledger()));
+
+        MapReduceGenerationService service = service(4);
+        String result = service.generate(context(), null);
+
+        assertThat(result).isEqualTo("{\"title\":\"final\"}");
+        assertThat(partialPrompts).hasSizeGreaterThan(4);
+        assertThat(peak.get()).isEqualTo(4);
+        // Every input line lands in exactly one slice
+        assertThat(partialPrompts.stream().mapToLong(p -> p.lines().filter(l -> l.contains(" invoice ")).count()).sum())
+                .isEqualTo(6000);
+
+        verify(openAIService).complete(any(), any(), eq("Return the report JSON."),
+                argThat(p -> p.contains("PARTIAL FINDINGS") && p.contains("- slice total: 42")),
+                eq(1000), anyBoolean(), any(), any());
+    }
+
+    @Test
+    void stopsSubmittingPartialsAfterTheFirstFailure() throws Exception {
+        when(fileRepository.findByReport(any())).thenReturn(List.of(ledger()));
+        MapReduceGenerationService service = service(2);
+
+        AtomicInteger started = new AtomicInteger();
+        when(openAIService.complete(any(), any(), anyString(), anyString(), anyInt(), anyBoolean(), any(), any()))
+                .thenAnswer(inv -> {
+                    if (started.incrementAndGet() == 1) {
+                        throw new IOException("rate limited");
+                    }
+                    Thread.sleep(100);
+                    return "- slice total: 42";
+                });
+
+        assertThatThrownBy(() -> service.generate(context(), null))
+                .isInstanceOf(IOException.class)
+                .hasMessage("rate limited");
+        // At most the calls already submitted when the first one failed; the other batches were never sent
+        assertThat(started.get()).isBetween(1, 2);
+    }
+
+    @Test
+    void usesASingleCallWhenEverythingFits() throws Exception {
+        UploadedFile small = new UploadedFile();
+        small.setOriginalFilename("small.txt");
+        small.setExtractedText("Revenue grew 4% in Q1.");
+        when(fileRepository.findByReport(any())).thenReturn(List.of(small));
+
+        service(4).generate(context(), null);
+
+        assertThat(partialPrompts).isEmpty();
+        verify(openAIService).complete(any(), any(), anyString(),
+                argThat(p -> p.contains("Revenue grew 4% in Q1.")), eq(1000), anyBoolean(), any(), any());
+    }
+
+    private static UploadedFile ledger() {
+        UploadedFile ledger = new UploadedFile();
+        ledger.setOriginalFilename("ledger.txt");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 6000; i++) {
+            text.append("2024-01-").append(i % 28 + 1).append(" invoice ").append(i).append(" amount ").append(i * 3).append('\n');
+        }
+        ledger.setExtractedText(text.toString());
+        return ledger;
+    }
+
+    private static ReportService.GenerationContext context() {
+        return new ReportService.GenerationContext(
+                new Report(), new User(), null, "Summarise invoices.", "Output JSON.", Map.of(), true);
+    }
+}
@@ -0,0 +1,146 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.model.AIRequest;
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.repository.AIRequestRepository;
+import com.paysecure.ai_report_tool_backend.repository.ReportChartRepository;
+import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
+import com.paysecure.ai_report_tool_backend.service.prompt.PromptAssembler;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OpenAIServiceStreamingTest {
+
+    private static final long CHUNK_DELAY_MS = 300;
+
+    private static final List<String> CHUNKS = List.of(
+            "{\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}",
+            "{\"choices\":[{\"delta\":{\"content\":\"# Summary\"}}]}",
+            "{\"choices\":[{\"delta\":{\"content\":\"\\nRevenue grew\"}}]}",
+            "{\"choices\":[{\"delta\":{\"content\":\" 12%.\"}}]}",
+            "{\"choices\":[],\"usage\":{\"prompt_tokens\":40,\"completion_tokens\":7,\"total_tokens\":47}}"
+    );
+
+    private HttpServer server;
+    private OpenAIService service;
+    private AIRequestRepository aiRequestRepository;
+    private LlmResponseCache responseCache;
+    private volatile boolean sendDone = true;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0); // chunked
+
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (String chunk : CHUNKS) {
+                    out.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    sleep(CHUNK_DELAY_MS);
+                }
+                if (sendDone) {
+                    out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        });
+        server.start();
+
+        aiRequestRepository = mock(AIRequestRepository.class);
+        UploadedFileRepository uploadedFileRepository = mock(UploadedFileRepository.class);
+        when(uploadedFileRepository.findByReport(any())).thenReturn(List.of());
+
+        responseCache = mock(LlmResponseCache.class);
+        PromptAssembler promptAssembler = new PromptAssembler(uploadedFileRepository, 128000, 24000, 40, 10);
+
+        service = new OpenAIService(aiRequestRepository, mock(ReportChartRepository.class), promptAssembler, new OkHttpClient(), responseCache);
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        ReflectionTestUtils.setField(service, "defaultModel", "gpt-4o");
+        ReflectionTestUtils.setField(service, "baseUrl",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/v1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void forwardsDeltasBeforeTheCompletionFinishes() throws Exception {
+        List<String> deltas = new CopyOnWriteArrayList<>();
+        long[] firstDeltaAt = {0};
+
+        long start = System.nanoTime();
+        String content = service.generateReport(
+                new Report(), new User(), null, null, null, Map.of(), true,
+                delta -> {
+                    if (deltas.isEmpty()) firstDeltaAt[0] = System.nanoTime();
+                    deltas.add(delta);
+                }
+        );
+        long total = System.nanoTime() - start;
+
+        assertThat(deltas).containsExactly("# Summary", "\nRevenue grew", " 12%.");
+        assertThat(content).isEqualTo("# Summary\nRevenue grew 12%.");
+
+        // First byte arrives after ~1 chunk delay, the whole stream after ~5
+        long timeToFirstDelta = firstDeltaAt[0] - start;
+        assertThat(timeToFirstDelta).isLessThan(total / 2);
+
+        ArgumentCaptor<AIRequest> saved = ArgumentCaptor.forClass(AIRequest.class);
+        verify(aiRequestRepository).save(saved.capture());
+        assertThat(saved.getValue().getStatus()).isEqualTo("success");
+        assertThat(saved.getValue().getTotalTokens()).isEqualTo(47);
+    }
+
+    @Test
+    void failsAStreamThatEndsBeforeTheCompletionFinishes() {
+        sendDone = false;
+        List<String> deltas = new CopyOnWriteArrayList<>();
+
+        assertThatThrownBy(() -> service.generateReport(
+                new Report(), new User(), null, null, null, Map.of(), true, deltas::add))
+                .isInstanceOf(IOException.class);
+
+        // The partial text reached the client but is neither cached nor logged as a success
+        assertThat(deltas).containsExactly("# Summary", "\nRevenue grew", " 12%.");
+        verify(responseCache, never()).put(any(), any(), any(), anyInt(), anyInt());
+
+        ArgumentCaptor<AIRequest> saved = ArgumentCaptor.forClass(AIRequest.class);
+        verify(aiRequestRepository).save(saved.capture());
+        assertThat(saved.getValue().getStatus()).isEqualTo("error");
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.enums.ReportStatus;
+import com.paysecure.ai_report_tool_backend.repository.ReportChartRepository;
+import com.paysecure.ai_report_tool_backend.service.chart.ChartRenderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class PdfGenerationServiceTest {
+
+    private static final PdfRenderingContext CONTEXT = new PdfRenderingContext();
+
+    private final PdfGenerationService service =
+            new PdfGenerationService(mock(ReportChartRepository.class), CONTEXT, new ChartRenderer(100));
+
+    @Test
+    void writesCompressedPdfWithoutClosingCallerStream() {
+        ClosingAwareStream out = new ClosingAwareStream();
+
+        service.writePdf(report(20), List.of(), out);
+
+        String head = new String(out.toByteArray(), 0, 8, StandardCharsets.ISO_8859_1);
+        String body = out.toString(StandardCharsets.ISO_8859_1);
+        assertTrue(head.startsWith("%PDF-"));
+        assertTrue(body.contains("/ObjStm"), "full compression should pack objects into object streams");
+        assertTrue(!out.closed, "the servlet container owns the response stream");
+    }
+
+    /**
+     * Peak heap while exporting ever larger reports: rendering into a byte[]
+     * versus streaming into the response (a discarding stream here).
+     *
+     * <pre>mvn test -Dtest=PdfGenerationServiceTest -Dharness=true [-Dharness.sections=100,1000,4000]</pre>
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "harness", matches = "true")
+    void benchmarkPeakHeapByDocumentSize() throws Exception {
+        String sizes = System.getProperty("harness.sections", "100,1000,4000");
+
+        service.generatePdf(report(10), List.of()); // warm up fonts and html2pdf
+
+        for (int sections : Arrays.stream(sizes.split(",")).mapToInt(Integer::parseInt).toArray()) {
+            Report report = report(sections);
+            long[] pdfBytes = new long[1];
+
+            String buffered = measure(() -> pdfBytes[0] = service.generatePdf(report, List.of()).length);
+            String streamed = measure(() -> service.writePdf(report, List.of(), OutputStream.nullOutputStream()));
+
+            System.out.printf("sections=%,d pdf=%,dKB  byte[]: %s  streamed: %s%n",
+                    sections, pdfBytes[0] / 1024, buffered, streamed);
+        }
+    }
+
+    /**
+     * Export throughput with the shared rendering context against per-export
+     * font loading (the previous behaviour), one worker per core.
+     *
+     * <pre>mvn test -Dtest=PdfGenerationServiceTest -Dharness=true [-Dharness.sections=30 -Dharness.seconds=10]</pre>
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "harness", matches = "true")
+    void benchmarkExportsPerSecondPerCore() throws Exception {
+        int sections = Integer.getInteger("harness.sections", 30);
+        int seconds = Integer.getInteger("harness.seconds", 10);
+        int cores = Runtime.getRuntime().availableProcessors();
+        Report report = report(sections);
+
+        PdfGenerationService perExportFonts = new PdfGenerationService(mock(ReportChartRepository.class),
+                new PdfRenderingContext() {
+                    @Override
+                    public com.itextpdf.html2pdf.ConverterProperties converterProperties() {
+                        return new com.itextpdf.html2pdf.ConverterProperties(); // html2pdf builds its own fonts
+                    }
+                },
+                new ChartRenderer(100));
+
+        for (int round = 0; round < 2; round++) { // first round is warm-up
+            double before = exportsPerSecond(perExportFonts, report, cores, seconds) / cores;
+            double after = exportsPerSecond(service, report, cores, seconds) / cores;
+            System.out.printf("%s cores=%d sections=%d  per-export fonts: %.1f exports/s/core"
+                            + "  shared context: %.1f exports/s/core  (x%.1f)%n",
+                    round == 0 ? "warm-up" : "measured", cores, sections, before, after, after / before);
+        }
+    }
+
+    private static double exportsPerSecond(PdfGenerationService service, Report report, int threads, int seconds)
+            throws Exception {
+        java.util.concurrent.ExecutorService pool = java.util.concurrent.Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + java.util.concurrent.TimeUnit.SECONDS.toNanos(seconds);
+        List<java.util.concurrent.Future<Integer>> results = new java.util.ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    service.writePdf(report, List.of(), OutputStream.nullOutputStream());
+                    count++;
+                }
+                return count;
+            }));
+        }
+
+        long total = 0;
+        for (var f : results) total += f.get();
+        pool.shutdown();
+        return total / (double) seconds;
+    }
+
+    private interface Work {
+        void run() throws Exception;
+    }
+
+    private static String measure(Work work) throws Exception {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getType() == MemoryType.HEAP)
+                .toList();
+
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long baseline = heapPools.stream().mapToLong(p -> p.getUsage().getUsed()).sum();
+
+        long start = System.nanoTime();
+        work.run();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        long peak = heapPools.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+        return String.format("%,dms peak +%,dMB", elapsedMs, Math.max(0, peak - baseline) / (1024 * 1024));
+    }
+
+    private static Report report(int sections) {
+        StringBuilder md = new StringBuilder("# Annual review\n\n");
+        for (int i = 0; i < sections; i++) {
+            md.append("## Section ").append(i).append("\n\n")
+                    .append("Revenue grew in every region this quarter, led by strong demand. ".repeat(6))
+                    .append("\n\n| Region | Revenue | Margin |\n|---|---|---|\n")
+                    .append("| North | 1,200 | 12% |\n| South | 980 | 9% |\n| West | 1,430 | 14% |\n\n");
+        }
+
+        Report report = new Report();
+        report.setId(UUID.randomUUID());
+        report.setTitle("Annual review");
+        report.setReportType("Financial");
+        report.setIndustry("Retail");
+        report.setStatus(ReportStatus.GENERATED);
+        report.setCreatedAt(Instant.now());
+        report.setContent(md.toString());
+        return report;
+    }
+
+    private static class ClosingAwareStream extends ByteArrayOutputStream {
+        boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
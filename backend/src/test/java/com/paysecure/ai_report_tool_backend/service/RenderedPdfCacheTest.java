@@ -0,0 +1,176 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.ReportChart;
+import com.paysecure.ai_report_tool_backend.model.enums.ReportStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RenderedPdfCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private final PdfGenerationService renderer = mock(PdfGenerationService.class);
+
+    @Test
+    void rendersOnceThenServesFromDisk() throws Exception {
+        RenderedPdfCache cache = new RenderedPdfCache(renderer, true, dir.toString(), 1 << 20);
+        Report report = report("# Revenue");
+        renders(new byte[]{1, 2, 3});
+
+        assertArrayEquals(new byte[]{1, 2, 3}, fetch(cache, report, List.of()));
+        RenderedPdfCache.PdfArtifact second = cache.findCached(report, List.of()).orElseThrow();
+
+        assertArrayEquals(new byte[]{1, 2, 3}, read(second));
+        assertEquals(3, second.length());
+        assertEquals(cache.etagFor(report, List.of()), second.etag());
+        verify(renderer, times(1)).writePdf(any(), any(), any());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void contentOrChartChangeMissesAndReplacesStaleFile() throws Exception {
+        RenderedPdfCache cache = new RenderedPdfCache(renderer, true, dir.toString(), 1 << 20);
+        Report report = report("# Revenue");
+        renders(new byte[10]);
+
+        String before = cache.etagFor(report, List.of());
+        fetch(cache, report, List.of());
+
+        ReportChart chart = new ReportChart();
+        chart.setChartType("bar");
+        chart.setTitle("By region");
+        chart.setDataJson("{\"labels\":[\"EU\"]}");
+        String withChart = cache.etagFor(report, List.of(chart));
+
+        report.setContent("# Revenue (restated)");
+        String edited = cache.etagFor(report, List.of());
+        fetch(cache, report, List.of());
+
+        assertNotEquals(before, withChart);
+        assertNotEquals(before, edited);
+        assertEquals(1, files().count()); // the previous rendering was removed
+    }
+
+    @Test
+    void evictsLeastRecentlyServedBeyondBudget() throws Exception {
+        RenderedPdfCache cache = new RenderedPdfCache(renderer, true, dir.toString(), 250);
+        renders(new byte[100]);
+
+        Report first = report("a");
+        fetch(cache, first, List.of());
+        Files.setLastModifiedTime(files().findFirst().orElseThrow(),
+                java.nio.file.attribute.FileTime.fromMillis(0));
+        fetch(cache, report("b"), List.of());
+        fetch(cache, report("c"), List.of());
+
+        assertTrue(cache.stats().bytes() <= 250);
+        assertTrue(files().noneMatch(p -> p.getFileName().toString().startsWith(first.getId().toString())));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    void concurrentMissesForTheSameRenderingCountItOnce() throws Exception {
+        RenderedPdfCache cache = new RenderedPdfCache(renderer, true, dir.toString(), 1 << 20);
+        Report report = report("# Revenue");
+        renders(new byte[100]);
+
+        // Both requests missed before either stored
+        cache.renderTo(report, List.of(), new ByteArrayOutputStream());
+        cache.renderTo(report, List.of(), new ByteArrayOutputStream());
+
+        assertEquals(100, cache.stats().bytes());
+        assertEquals(1, files().count());
+        try (Stream<Path> all = Files.list(dir)) {
+            assertEquals(1, all.count()); // the losing temp file was removed too
+        }
+    }
+
+    @Test
+    void unfinishedReportsAreNeverStored() throws Exception {
+        RenderedPdfCache cache = new RenderedPdfCache(renderer, true, dir.toString(), 1 << 20);
+        Report report = report("partial");
+        report.setStatus(ReportStatus.PROCESSING);
+        renders(new byte[]{9});
+
+        fetch(cache, report, List.of());
+        fetch(cache, report, List.of());
+
+        verify(renderer, times(2)).writePdf(any(), any(), any());
+        verify(renderer, never()).generatePdf(any());
+        assertEquals(0, files().count());
+    }
+
+    @Test
+    void aCacheDirectoryFailureStillServesTheDownload() throws Exception {
+        Path cacheDir = dir.resolve("cache");
+        RenderedPdfCache cache = new RenderedPdfCache(renderer, true, cacheDir.toString(), 1 << 20);
+        Files.delete(cacheDir); // e.g. swept by a tmp cleaner
+        Report report = report("# Revenue");
+        renders(new byte[]{4, 5, 6});
+
+        assertArrayEquals(new byte[]{4, 5, 6}, fetch(cache, report, List.of()));
+        assertEquals(0, cache.stats().bytes());
+    }
+
+    private void renders(byte[] pdf) {
+        doAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write(pdf);
+            return null;
+        }).when(renderer).writePdf(any(), any(), any());
+    }
+
+    /** What the export endpoint does: serve the cached file, or render through the cache. */
+    private static byte[] fetch(RenderedPdfCache cache, Report report, List<ReportChart> charts) throws Exception {
+        var cached = cache.findCached(report, charts);
+        if (cached.isPresent()) {
+            return read(cached.get());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.renderTo(report, charts, out);
+        return out.toByteArray();
+    }
+
+    private Stream<Path> files() throws Exception {
+        return Files.list(dir).filter(p -> p.toString().endsWith(".pdf")).toList().stream();
+    }
+
+    private static byte[] read(RenderedPdfCache.PdfArtifact artifact) throws Exception {
+        try (InputStream in = artifact.open()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static Report report(String content) {
+        Report report = new Report();
+        report.setId(UUID.randomUUID());
+        report.setTitle("Q3");
+        report.setContent(content);
+        report.setStatus(ReportStatus.GENERATED);
+        report.setCreatedAt(Instant.parse("2024-01-01T00:00:00Z"));
+        return report;
+    }
+}
@@ -0,0 +1,104 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.dto.ReportResponse;
+import com.paysecure.ai_report_tool_backend.exception.ApiException;
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.ReportChart;
+import com.paysecure.ai_report_tool_backend.model.UploadedFile;
+import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus;
+import com.paysecure.ai_report_tool_backend.repository.ReportChartRepository;
+import com.paysecure.ai_report_tool_backend.repository.ReportRepository;
+import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
+import com.paysecure.ai_report_tool_backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Counts the statements behind one {@link ReportResponse}. Needs a real
+ * Postgres (DATABASE_URL etc.); everything is rolled back afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ReportFetchPlanTest {
+
+    @Autowired private ReportService reportService;
+    @Autowired private ReportRepository reportRepository;
+    @Autowired private ReportChartRepository chartRepository;
+    @Autowired private UploadedFileRepository fileRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void reportWithChartsAndFilesIsTwoStatements() {
+        User user = new User();
+        user.setEmail("fetch-plan-" + UUID.randomUUID() + "@example.com");
+        user = userRepository.save(user);
+
+        Report report = new Report();
+        report.setTitle("Quarterly review");
+        report.setContent("# Summary");
+        report.setUser(user);
+        report = reportRepository.save(report);
+
+        for (int i = 0; i < 4; i++) {
+            ReportChart chart = new ReportChart();
+            chart.setReport(report);
+            chart.setChartType("bar");
+            chart.setTitle("Chart " + i);
+            chart.setDataJson("{}");
+            chart.setSortOrder(3 - i);
+            chartRepository.save(chart);
+        }
+        for (int i = 0; i < 3; i++) {
+            UploadedFile file = new UploadedFile();
+            file.setReport(report);
+            file.setUser(user);
+            file.setOriginalFilename("ledger-" + i + ".csv");
+            file.setContentType("text/csv");
+            file.setExtractedText("x".repeat(100_000));
+            file.setExtractedDataJson(i == 0 ? "{\"sheets\":[]}" : null);
+            file.setParseStatus(i == 2 ? FileParseStatus.PARSING : FileParseStatus.PARSED);
+            fileRepository.save(file);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        ReportResponse response = reportService.getReport(report.getId(), user);
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(stats.getEntityLoadCount()).isEqualTo(5); // the report and its charts; files are projections
+        assertThat(response.charts()).extracting(ReportResponse.ChartData::title)
+                .containsExactly("Chart 3", "Chart 2", "Chart 1", "Chart 0");
+        assertThat(response.files()).extracting(ReportResponse.UploadedFileInfo::dataSummary)
+                .containsExactly("Data extracted", "Text extracted", "Parsing");
+    }
+
+    @Test
+    void unknownReportStopsAfterOneStatement() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        assertThatThrownBy(() -> reportService.getReport(UUID.randomUUID(), new User()))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("Report not found");
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
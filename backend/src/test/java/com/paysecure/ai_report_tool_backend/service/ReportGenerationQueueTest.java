@@ -0,0 +1,173 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.ReportGenerationJob;
+import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus;
+import com.paysecure.ai_report_tool_backend.model.enums.ReportStatus;
+import com.paysecure.ai_report_tool_backend.repository.ReportGenerationJobRepository;
+import com.paysecure.ai_report_tool_backend.repository.ReportRepository;
+import com.paysecure.ai_report_tool_backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercises the generation job table as a queue shared by several nodes.
+ * Needs a real Postgres (DATABASE_URL etc.), since exclusion comes from its
+ * conditional updates. A zero queue capacity keeps the sweep from
+ * dispatching what it recovers, so the rows stay where recovery left them.
+ */
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+@SpringBootTest(properties = {
+        "report.generation.queue-capacity=0",
+        "report.generation.max-attempts=2",
+        "report.generation.sweep-interval-ms=3600000",
+        "report.generation.heartbeat-interval-ms=3600000"
+})
+class ReportGenerationQueueTest {
+
+    private static final int WORKERS = 8;
+    private static final Duration LONG_AGO = Duration.ofMinutes(10);
+
+    @Autowired private ReportGenerationWorker worker;
+    @Autowired private ReportGenerationJobRepository jobRepository;
+    @Autowired private ReportRepository reportRepository;
+    @Autowired private UserRepository userRepository;
+
+    private User user;
+    private final List<ReportGenerationJob> jobs = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("job-queue-" + UUID.randomUUID() + "@example.com");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (ReportGenerationJob job : jobs) {
+            jobRepository.deleteById(job.getId());
+            reportRepository.deleteById(job.getReport().getId());
+        }
+        userRepository.delete(user);
+    }
+
+    @Test
+    void onlyOneOfManyRacingWorkersClaimsAJob() throws Exception {
+        UUID jobId = job(GenerationJobStatus.QUEUED, null, null, 0).getId();
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+        List<Future<Integer>> claims = new ArrayList<>();
+        for (int i = 0; i < WORKERS; i++) {
+            String owner = "node-" + i;
+            claims.add(pool.submit(() -> {
+                start.await();
+                return jobRepository.claim(jobId, owner, Instant.now());
+            }));
+        }
+
+        start.countDown();
+        int won = 0;
+        for (Future<Integer> claim : claims) won += claim.get();
+        pool.shutdown();
+
+        ReportGenerationJob claimed = jobRepository.findById(jobId).orElseThrow();
+        assertThat(won).isEqualTo(1);
+        assertThat(claimed.getStatus()).isEqualTo(GenerationJobStatus.RUNNING);
+        assertThat(claimed.getAttempts()).isEqualTo(1);
+        assertThat(claimed.getOwnerNode()).startsWith("node-");
+        assertThat(claimed.getHeartbeatAt()).isNotNull();
+    }
+
+    @Test
+    void sweepRecoversOnlyJobsWhoseOwnerStoppedHeartbeating() {
+        Instant longAgo = Instant.now().minus(LONG_AGO);
+        // Started long ago, but its owner is alive
+        ReportGenerationJob live = job(GenerationJobStatus.RUNNING, "live-node", Instant.now(), 1);
+        ReportGenerationJob stale = job(GenerationJobStatus.RUNNING, "dead-node", longAgo, 1);
+        ReportGenerationJob exhausted = job(GenerationJobStatus.RUNNING, "dead-node", longAgo, 2);
+
+        worker.sweep();
+
+        ReportGenerationJob stillRunning = jobRepository.findById(live.getId()).orElseThrow();
+        assertThat(stillRunning.getStatus()).isEqualTo(GenerationJobStatus.RUNNING);
+        assertThat(stillRunning.getOwnerNode()).isEqualTo("live-node");
+
+        ReportGenerationJob requeued = jobRepository.findById(stale.getId()).orElseThrow();
+        assertThat(requeued.getStatus()).isEqualTo(GenerationJobStatus.QUEUED);
+        assertThat(requeued.getOwnerNode()).isNull();
+        assertThat(requeued.getHeartbeatAt()).isNull();
+        assertThat(requeued.getAttempts()).isEqualTo(1);
+        assertThat(reportRepository.findById(stale.getReport().getId()).orElseThrow().getStatus())
+                .isEqualTo(ReportStatus.PENDING);
+
+        ReportGenerationJob failed = jobRepository.findById(exhausted.getId()).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(GenerationJobStatus.FAILED);
+        assertThat(failed.getErrorMessage()).isEqualTo("Exceeded 2 attempts");
+        assertThat(reportRepository.findById(exhausted.getReport().getId()).orElseThrow().getStatus())
+                .isEqualTo(ReportStatus.FAILED);
+
+        // Startup recovery is the same sweep: the live job survives a restart of another node
+        worker.recoverOnStartup();
+        assertThat(jobRepository.findById(live.getId()).orElseThrow().getStatus())
+                .isEqualTo(GenerationJobStatus.RUNNING);
+    }
+
+    @Test
+    void aHeartbeatAfterTheStaleReadWinsOverRecovery() {
+        Instant longAgo = Instant.now().minus(LONG_AGO);
+        ReportGenerationJob job = job(GenerationJobStatus.RUNNING, "slow-node", longAgo, 1);
+        Instant staleBefore = Instant.now().minus(Duration.ofSeconds(90));
+
+        assertThat(jobRepository.findStale(staleBefore)).extracting(ReportGenerationJob::getId).contains(job.getId());
+
+        // Only the owner's heartbeat counts
+        assertThat(jobRepository.heartbeat(List.of(job.getId()), "other-node", Instant.now())).isZero();
+        assertThat(jobRepository.heartbeat(List.of(job.getId()), "slow-node", Instant.now())).isEqualTo(1);
+
+        assertThat(jobRepository.requeueIfStale(job.getId(), staleBefore)).isZero();
+        assertThat(jobRepository.failIfStale(job.getId(), staleBefore, "gone", Instant.now())).isZero();
+        assertThat(jobRepository.findById(job.getId()).orElseThrow().getStatus())
+                .isEqualTo(GenerationJobStatus.RUNNING);
+    }
+
+    private ReportGenerationJob job(GenerationJobStatus status, String owner, Instant heartbeatAt, int attempts) {
+        Report report = new Report();
+        report.setTitle("Queue test");
+        report.setUser(user);
+        report.setStatus(status == GenerationJobStatus.RUNNING ? ReportStatus.PROCESSING : ReportStatus.PENDING);
+        report = reportRepository.save(report);
+
+        ReportGenerationJob job = new ReportGenerationJob();
+        job.setReport(report);
+        job.setUser(user);
+        job.setStatus(status);
+        job.setOwnerNode(owner);
+        job.setAttempts(attempts);
+        if (status == GenerationJobStatus.RUNNING) {
+            job.setStartedAt(Instant.now().minus(LONG_AGO));
+            job.setHeartbeatAt(heartbeatAt);
+        }
+        job = jobRepository.save(job);
+        jobs.add(job);
+        return job;
+    }
+}
@@ -0,0 +1,109 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.dto.ReportPageResponse;
+import com.paysecure.ai_report_tool_backend.dto.ReportSummaryResponse;
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark, not a regression test. Seeds one user with 50k reports carrying
+ * realistic content/wizardData, then compares the old full-entity listing
+ * with the first keyset page and with walking every page. Needs a real
+ * Postgres (DATABASE_URL etc.); everything is rolled back afterwards.
+ *
+ * <pre>mvn test -Dtest=ReportListingHarnessTest -Dharness=true [-Dharness.reports=50000]</pre>
+ */
+@EnabledIfSystemProperty(named = "harness", matches = "true")
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+@SpringBootTest
+@Transactional
+class ReportListingHarnessTest {
+
+    private static final int REPORTS = Integer.getInteger("harness.reports", 50_000);
+
+    @Autowired private ReportService reportService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private EntityManager entityManager;
+
+    @Test
+    void keysetPagesVersusLoadingEveryReport() {
+        User user = new User();
+        user.setEmail("listing-harness-" + UUID.randomUUID() + "@example.com");
+        user = userRepository.saveAndFlush(user);
+
+        // ~6 KB of content and ~1 KB of wizard data per report, one minute apart
+        jdbc.update("""
+                INSERT INTO reports (id, user_id, title, status, credits_used, content, wizard_data, created_at)
+                SELECT gen_random_uuid(), ?, 'Report ' || g, 'GENERATED', 1,
+                       repeat(md5(g::text), 192), repeat(md5((g + 1)::text), 32),
+                       now() - g * interval '1 minute'
+                  FROM generate_series(1, ?) g
+                """, user.getId(), REPORTS);
+        jdbc.execute("ANALYZE reports");
+
+        // Before: every entity, TEXT columns included
+        long start = System.nanoTime();
+        List<Report> all = entityManager
+                .createQuery("SELECT r FROM Report r WHERE r.user = :user", Report.class)
+                .setParameter("user", user)
+                .getResultList();
+        long legacyMs = (System.nanoTime() - start) / 1_000_000;
+        assertThat(all).hasSize(REPORTS);
+        entityManager.clear();
+
+        start = System.nanoTime();
+        ReportPageResponse first = reportService.getUserReportSummaries(user, null, 20);
+        long firstPageMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Walk to the end, checking order and that no row is skipped or repeated
+        start = System.nanoTime();
+        Set<UUID> seen = new HashSet<>();
+        ReportSummaryResponse previous = null;
+        String cursor = null;
+        int pages = 0;
+        do {
+            ReportPageResponse page = reportService.getUserReportSummaries(user, cursor, 100);
+            for (ReportSummaryResponse item : page.items()) {
+                assertThat(seen.add(item.id())).isTrue();
+                if (previous != null) {
+                    assertThat(item.createdAt()).isBeforeOrEqualTo(previous.createdAt());
+                }
+                previous = item;
+            }
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+        long walkMs = (System.nanoTime() - start) / 1_000_000;
+        assertThat(seen).hasSize(REPORTS);
+
+        List<String> plan = jdbc.queryForList("""
+                EXPLAIN SELECT id, title, status, created_at FROM reports
+                 WHERE user_id = ? AND (created_at < now() OR (created_at = now() AND id < gen_random_uuid()))
+                 ORDER BY created_at DESC, id DESC LIMIT 21
+                """, String.class, user.getId());
+
+        System.out.printf("%n%d reports%n", REPORTS);
+        System.out.printf("  findByUser (full entities) : %6d ms%n", legacyMs);
+        System.out.printf("  first keyset page (20)     : %6d ms%n", firstPageMs);
+        System.out.printf("  walk all pages (%d x 100) : %6d ms%n", pages, walkMs);
+        System.out.printf("  plan:%n    %s%n", String.join("\n    ", plan));
+        assertThat(first.items()).hasSize(20);
+    }
+}
@@ -0,0 +1,83 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.dto.ReportPageResponse;
+import com.paysecure.ai_report_tool_backend.exception.ApiException;
+import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.model.enums.ReportStatus;
+import com.paysecure.ai_report_tool_backend.repository.*;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationBus;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReportListingTest {
+
+    private final ReportRepository reportRepository = mock(ReportRepository.class);
+    private final ReportService service = new ReportService(
+            reportRepository,
+            mock(ReportTemplateRepository.class),
+            mock(ReportPromptConfigRepository.class),
+            mock(ReportChartRepository.class),
+            mock(UploadedFileRepository.class),
+            mock(CreditService.class),
+            mock(OpenAIService.class),
+            mock(InvalidationBus.class)
+    );
+
+    private final User user = new User();
+
+    @Test
+    void returnsACursorOnlyWhenAnotherPageExists() {
+        List<ReportRepository.SummaryRow> rows = rows(3);
+        when(reportRepository.findSummaries(eq(user), any(Pageable.class))).thenReturn(rows);
+
+        ReportPageResponse page = service.getUserReportSummaries(user, null, 2);
+
+        assertThat(page.items()).hasSize(2);
+        assertThat(page.nextCursor()).isNotNull();
+        verify(reportRepository).findSummaries(user, Pageable.ofSize(3));
+
+        // The cursor continues strictly after the last returned row
+        ReportRepository.SummaryRow last = rows.get(1);
+        when(reportRepository.findSummariesAfter(eq(user), any(), any(), any(Pageable.class))).thenReturn(rows.subList(2, 3));
+
+        ReportPageResponse next = service.getUserReportSummaries(user, page.nextCursor(), 2);
+
+        verify(reportRepository).findSummariesAfter(user, last.getCreatedAt(), last.getId(), Pageable.ofSize(3));
+        assertThat(next.items()).hasSize(1);
+        assertThat(next.nextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsATamperedCursor() {
+        assertThatThrownBy(() -> service.getUserReportSummaries(user, "not-a-cursor", 20))
+                .isInstanceOf(ApiException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private static List<ReportRepository.SummaryRow> rows(int count) {
+        Instant newest = Instant.parse("2025-03-01T10:15:30.123456Z");
+        List<ReportRepository.SummaryRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID id = UUID.randomUUID();
+            Instant createdAt = newest.minusSeconds(60L * i);
+            rows.add(new ReportRepository.SummaryRow() {
+                public UUID getId() { return id; }
+                public String getTitle() { return "Report " + id; }
+                public ReportStatus getStatus() { return ReportStatus.GENERATED; }
+                public Instant getCreatedAt() { return createdAt; }
+            });
+        }
+        return rows;
+    }
+}
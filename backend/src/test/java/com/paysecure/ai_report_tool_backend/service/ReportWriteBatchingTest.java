@@ -0,0 +1,115 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.ReportChart;
+import com.paysecure.ai_report_tool_backend.model.ReportInput;
+import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.repository.ReportChartRepository;
+import com.paysecure.ai_report_tool_backend.repository.ReportRepository;
+import com.paysecure.ai_report_tool_backend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements behind writing and replacing a report's inputs and
+ * charts. With JDBC batching each entity type is one prepared statement,
+ * however many rows it inserts. Needs a real Postgres (DATABASE_URL etc.);
+ * everything is rolled back afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ReportWriteBatchingTest {
+
+    private static final int INPUTS = 8;
+    private static final int CHARTS = 5;
+
+    @Autowired private ReportRepository reportRepository;
+    @Autowired private ReportChartRepository chartRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void inputsAndChartsInsertInBatches() {
+        User user = user();
+        Statistics stats = statistics();
+
+        Report report = reportWithInputs(user);
+        chartRepository.saveAll(charts(report));
+        entityManager.flush();
+
+        assertThat(stats.getEntityInsertCount()).isEqualTo(1 + INPUTS + CHARTS);
+        // One statement each for the report, its inputs and its charts
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void deletingChartsIsOneStatement() {
+        Report report = reportWithInputs(user());
+        chartRepository.saveAll(charts(report));
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics stats = statistics();
+
+        assertThat(chartRepository.deleteByReport(report)).isEqualTo(CHARTS);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(stats.getEntityLoadCount()).isZero();
+        assertThat(chartRepository.findByReportOrderBySortOrderAsc(report)).isEmpty();
+    }
+
+    private User user() {
+        User user = new User();
+        user.setEmail("write-batching-" + UUID.randomUUID() + "@example.com");
+        user = userRepository.save(user);
+        entityManager.flush();
+        return user;
+    }
+
+    private Report reportWithInputs(User user) {
+        Report report = new Report();
+        report.setTitle("Quarterly review");
+        report.setUser(user);
+        for (int i = 0; i < INPUTS; i++) {
+            ReportInput input = new ReportInput();
+            input.setFieldKey("field-" + i);
+            input.setValue("value " + i);
+            report.addInput(input);
+        }
+        return reportRepository.save(report);
+    }
+
+    private static List<ReportChart> charts(Report report) {
+        List<ReportChart> charts = new ArrayList<>();
+        for (int i = 0; i < CHARTS; i++) {
+            ReportChart chart = new ReportChart();
+            chart.setReport(report);
+            chart.setChartType("bar");
+            chart.setTitle("Chart " + i);
+            chart.setDataJson("{}");
+            chart.setSortOrder(i);
+            charts.add(chart);
+        }
+        return charts;
+    }
+
+    private Statistics statistics() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+}
@@ -0,0 +1,135 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.exception.ApiException;
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.ReportGenerationJob;
+import com.paysecure.ai_report_tool_backend.model.UploadedFile;
+import com.paysecure.ai_report_tool_backend.model.enums.FileParseStatus;
+import com.paysecure.ai_report_tool_backend.model.enums.GenerationJobStatus;
+import com.paysecure.ai_report_tool_backend.repository.ReportGenerationJobRepository;
+import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UploadParseWorkerTest {
+
+    private final UploadedFileRepository fileRepository = mock(UploadedFileRepository.class);
+    private final FileParserService parser = mock(FileParserService.class);
+    private final ReportGenerationJobRepository jobRepository = mock(ReportGenerationJobRepository.class);
+    private final ReportGenerationWorker generationWorker = mock(ReportGenerationWorker.class);
+
+    private final UploadParseWorker worker = new UploadParseWorker(
+            fileRepository, parser, jobRepository, generationWorker, new NodeIdentity(), new ThreadPoolTaskExecutor());
+
+    private final Report report = new Report();
+    private final UploadedFile file = new UploadedFile();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(worker, "maxAttempts", 2);
+
+        report.setId(UUID.randomUUID());
+        file.setId(UUID.randomUUID());
+        file.setReport(report);
+        file.setParseStatus(FileParseStatus.PARSING);
+        file.setParseStartedAt(Instant.now());
+        file.setParseAttempts(1);
+
+        when(fileRepository.claimForParsing(eq(file.getId()), any(), any())).thenReturn(1);
+        when(fileRepository.findById(file.getId())).thenReturn(Optional.of(file));
+    }
+
+    @Test
+    void releasesTheReportsQueuedGenerationOnceItsLastFileIsParsed() throws Exception {
+        ReportGenerationJob job = new ReportGenerationJob();
+        job.setId(UUID.randomUUID());
+        when(fileRepository.existsByReportIdAndParseStatus(report.getId(), FileParseStatus.PARSING)).thenReturn(false);
+        when(jobRepository.findByReportIdAndStatus(report.getId(), GenerationJobStatus.QUEUED)).thenReturn(List.of(job));
+
+        worker.run(file.getId());
+
+        verify(parser).parseInto(file);
+        assertThat(file.getParseStatus()).isEqualTo(FileParseStatus.PARSED);
+        assertThat(file.getParsedAt()).isNotNull();
+        verify(generationWorker).dispatch(job.getId());
+    }
+
+    @Test
+    void keepsGenerationWaitingWhileOtherFilesAreStillParsing() throws Exception {
+        when(fileRepository.existsByReportIdAndParseStatus(report.getId(), FileParseStatus.PARSING)).thenReturn(true);
+
+        worker.run(file.getId());
+
+        assertThat(file.getParseStatus()).isEqualTo(FileParseStatus.PARSED);
+        verifyNoInteractions(generationWorker);
+    }
+
+    @Test
+    void transientFailureIsRetriedUntilAttemptsRunOut() throws Exception {
+        doThrow(new IOException("disk busy")).when(parser).parseInto(file);
+
+        worker.run(file.getId());
+
+        assertThat(file.getParseStatus()).isEqualTo(FileParseStatus.PARSING);
+        assertThat(file.getParseStartedAt()).isNull();
+        assertThat(file.getParseError()).isEqualTo("disk busy");
+
+        file.setParseAttempts(2);
+        worker.run(file.getId());
+
+        assertThat(file.getParseStatus()).isEqualTo(FileParseStatus.FAILED);
+    }
+
+    @Test
+    void unsupportedContentFailsWithoutRetry() throws Exception {
+        doThrow(new ApiException("Unsupported file type: image/png", HttpStatus.BAD_REQUEST)).when(parser).parseInto(file);
+
+        worker.run(file.getId());
+
+        assertThat(file.getParseStatus()).isEqualTo(FileParseStatus.FAILED);
+        assertThat(file.getParseError()).isEqualTo("Unsupported file type: image/png");
+    }
+
+    @Test
+    void sweepRecoversOnlyThroughTheStaleGuards() {
+        UploadedFile exhausted = new UploadedFile();
+        exhausted.setId(UUID.randomUUID());
+        exhausted.setReport(report);
+        exhausted.setParseAttempts(2);
+        when(fileRepository.findStaleParses(any())).thenReturn(List.of(file, exhausted));
+        when(fileRepository.failIfStale(eq(exhausted.getId()), any(), any(), any())).thenReturn(1);
+        when(fileRepository.existsByReportIdAndParseStatus(report.getId(), FileParseStatus.PARSING)).thenReturn(true);
+        ReflectionTestUtils.setField(worker, "staleAfterMs", 90_000L);
+
+        Instant before = Instant.now();
+        worker.sweep();
+
+        verify(fileRepository).releaseIfStale(eq(file.getId()), argThat(t -> !t.isBefore(before.minusSeconds(90))));
+        verify(fileRepository, never()).releaseIfStale(eq(exhausted.getId()), any());
+        verify(fileRepository).existsByReportIdAndParseStatus(report.getId(), FileParseStatus.PARSING);
+        verify(fileRepository, never()).save(any());
+    }
+
+    @Test
+    void doesNothingWhenAnotherWorkerHoldsTheFile() throws Exception {
+        when(fileRepository.claimForParsing(eq(file.getId()), any(), any())).thenReturn(0);
+
+        worker.run(file.getId());
+
+        verify(parser, never()).parseInto(any());
+    }
+}
@@ -0,0 +1,110 @@
+package com.paysecure.ai_report_tool_backend.service;
+
+import com.paysecure.ai_report_tool_backend.model.User;
+import com.paysecure.ai_report_tool_backend.repository.UserRepository;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationEvent;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationTopic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserCache cache = new UserCache(userRepository, 60_000, 100);
+
+    private final UUID id = UUID.randomUUID();
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void memoizesWithinRequestAndSharesAcrossRequests() {
+        when(userRepository.findById(id)).thenReturn(Optional.of(user(100)));
+
+        startRequest();
+        User first = cache.get(id).orElseThrow();
+        assertSame(first, cache.get(id).orElseThrow());
+
+        startRequest();
+        User second = cache.get(id).orElseThrow();
+        assertNotSame(first, second); // every request gets its own copy
+
+        verify(userRepository, times(1)).findById(id);
+        UserCache.Stats stats = cache.stats();
+        assertEquals(1, stats.requestHits());
+        assertEquals(1, stats.sharedHits());
+        assertEquals(1, stats.databaseQueries());
+        assertEquals(2, stats.requests());
+    }
+
+    @Test
+    void callerMutationsDoNotLeakIntoSharedTier() {
+        when(userRepository.findById(id)).thenReturn(Optional.of(user(100)));
+
+        cache.get(id).orElseThrow().setCredits(0);
+
+        assertEquals(100, cache.get(id).orElseThrow().getCredits());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        when(userRepository.findById(id)).thenReturn(Optional.of(user(100)), Optional.of(user(90)));
+
+        startRequest();
+        cache.get(id);
+        cache.invalidate(id);
+
+        assertEquals(90, cache.get(id).orElseThrow().getCredits());
+        verify(userRepository, times(2)).findById(id);
+    }
+
+    @Test
+    void walletChangedOnAnotherNodeForcesReload() {
+        when(userRepository.findById(id)).thenReturn(Optional.of(user(100)), Optional.of(user(90)));
+
+        cache.get(id);
+        cache.invalidate(Set.of(new InvalidationEvent(InvalidationTopic.CREDIT_WALLET, id.toString())));
+
+        assertEquals(90, cache.get(id).orElseThrow().getCredits());
+        verify(userRepository, times(2)).findById(id);
+    }
+
+    @Test
+    void missingUserIsNotCached() {
+        when(userRepository.findById(id)).thenReturn(Optional.empty());
+
+        assertTrue(cache.get(id).isEmpty());
+        assertTrue(cache.get(id).isEmpty());
+        verify(userRepository, times(2)).findById(id);
+    }
+
+    private void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private User user(int credits) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user@example.com");
+        user.setCredits(credits);
+        return user;
+    }
+}
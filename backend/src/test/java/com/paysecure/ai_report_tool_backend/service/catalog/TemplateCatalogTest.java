@@ -0,0 +1,129 @@
+package com.paysecure.ai_report_tool_backend.service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paysecure.ai_report_tool_backend.config.JacksonConfig;
+import com.paysecure.ai_report_tool_backend.dto.ToolSummaryResponse;
+import com.paysecure.ai_report_tool_backend.model.InputField;
+import com.paysecure.ai_report_tool_backend.model.ReportTemplate;
+import com.paysecure.ai_report_tool_backend.model.enums.InputFieldType;
+import com.paysecure.ai_report_tool_backend.repository.InputFieldRepository;
+import com.paysecure.ai_report_tool_backend.repository.ReportTemplateRepository;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationBus;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationEvent;
+import com.paysecure.ai_report_tool_backend.service.invalidation.InvalidationTopic;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TemplateCatalogTest {
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    private final ReportTemplateRepository templateRepository = mock(ReportTemplateRepository.class);
+    private final InvalidationBus invalidationBus = mock(InvalidationBus.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final TemplateCatalog catalog = new TemplateCatalog(
+            templateRepository, mock(InputFieldRepository.class), objectMapper, invalidationBus, transactionManager);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rendersTheSameJsonTheControllersUsedToWithContentEtags() throws Exception {
+        ReportTemplate budget = template("budget-planner", "Budget planner");
+        ReportTemplate churn = template("churn-review", "Churn review");
+
+        TemplateCatalog.Snapshot snapshot = TemplateCatalog.build(List.of(budget, churn), objectMapper);
+
+        assertThat(new String(snapshot.tools().json())).isEqualTo(objectMapper.writeValueAsString(List.of(
+                new ToolSummaryResponse("budget-planner", "Budget planner", null, "Finance", null),
+                new ToolSummaryResponse("churn-review", "Churn review", null, "Finance", null))));
+        assertThat(objectMapper.readTree(snapshot.toolFields().get("budget-planner").json()).get(0).get("options"))
+                .hasSize(2);
+        assertThat(snapshot.adminTemplatesById()).containsOnlyKeys("budget-planner", "churn-review");
+
+        // Editing one template changes its ETags and the lists', never the other template's
+        churn.setTitle("Churn deep dive");
+        TemplateCatalog.Snapshot rebuilt = TemplateCatalog.build(List.of(budget, churn), objectMapper);
+
+        assertThat(rebuilt.toolsById().get("budget-planner").etag())
+                .isEqualTo(snapshot.toolsById().get("budget-planner").etag());
+        assertThat(rebuilt.toolsById().get("churn-review").etag())
+                .isNotEqualTo(snapshot.toolsById().get("churn-review").etag());
+        assertThat(rebuilt.tools().etag()).isNotEqualTo(snapshot.tools().etag());
+    }
+
+    @Test
+    void writeInsideATransactionRebuildsOnlyAfterCommit() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ReportTemplate budget = template("budget-planner", "Budget planner");
+        when(templateRepository.findAllWithInputFields()).thenReturn(List.of(budget));
+
+        String before = catalog.tools().etag();
+        assertThat(catalog.tools().etag()).isEqualTo(before);
+        verify(templateRepository, times(1)).findAllWithInputFields();
+
+        TransactionSynchronizationManager.initSynchronization();
+        budget.setTitle("Budget forecaster");
+        catalog.changed();
+
+        assertThat(catalog.tools().etag()).isEqualTo(before);
+        verify(invalidationBus).publish(InvalidationTopic.REPORT_TEMPLATE, null);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(templateRepository, times(2)).findAllWithInputFields();
+        assertThat(catalog.tools().etag()).isNotEqualTo(before);
+        assertThat(catalog.stats().stale()).isFalse();
+    }
+
+    @Test
+    void rebuildsOnlyForTemplateEventsFromOtherNodes() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(templateRepository.findAllWithInputFields()).thenReturn(List.of());
+        catalog.tools();
+
+        catalog.invalidate(Set.of(new InvalidationEvent(InvalidationTopic.USER, UUID.randomUUID().toString())));
+        verify(templateRepository, times(1)).findAllWithInputFields();
+
+        catalog.invalidate(Set.of(InvalidationEvent.all(InvalidationTopic.REPORT_TEMPLATE)));
+
+        verify(templateRepository, times(2)).findAllWithInputFields();
+        assertThat(catalog.stats().remoteInvalidations()).isEqualTo(1);
+    }
+
+    private static ReportTemplate template(String toolId, String title) {
+        ReportTemplate template = ReportTemplate.builder()
+                .id(UUID.randomUUID())
+                .toolId(toolId)
+                .title(title)
+                .category("Finance")
+                .inputFields(new ArrayList<>())
+                .build();
+
+        InputField field = new InputField();
+        field.setId(UUID.randomUUID());
+        field.setLabel("Horizon");
+        field.setType(InputFieldType.SELECT);
+        field.setOptions(List.of("Quarter", "Year"));
+        template.addInputField(field);
+        return template;
+    }
+}
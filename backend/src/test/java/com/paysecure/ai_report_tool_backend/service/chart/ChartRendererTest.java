@@ -0,0 +1,100 @@
+package com.paysecure.ai_report_tool_backend.service.chart;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.paysecure.ai_report_tool_backend.model.ReportChart;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChartRendererTest {
+
+    private final ChartRenderer renderer = new ChartRenderer(100);
+
+    @Test
+    void drawsEveryChartTypeAsVectorPaths() throws Exception {
+        String categories = "{\"labels\":[\"Q1\",\"Q2\",\"Q3\",\"Q4\"],\"datasets\":["
+                + "{\"label\":\"Projected\",\"data\":[100,120,145,180],\"borderColor\":\"#5fcfee\"},"
+                + "{\"label\":\"Actual\",\"data\":[100,115,null,170],\"backgroundColor\":\"rgba(233,169,196,0.5)\",\"fill\":true}]}";
+        String points = "{\"datasets\":[{\"label\":\"Risk\",\"data\":[{\"x\":1,\"y\":2.5},{\"x\":4,\"y\":-1}]}]}";
+
+        for (String type : new String[]{"pie", "doughnut", "bar", "line"}) {
+            assertVector(draw(chart(type, categories, null)), type);
+        }
+        assertVector(draw(chart("scatter", points, "{\"plugins\":{\"legend\":{\"display\":false}}}")), "scatter");
+    }
+
+    @Test
+    void unknownTypesAreLeftToTheCaller() throws Exception {
+        assertNull(draw(chart("radar", "{\"labels\":[],\"datasets\":[{\"data\":[]}]}", null)));
+    }
+
+    @Test
+    void repeatExportsReplayTheCompiledContentStream() throws Exception {
+        ReportChart chart = chart("bar", "{\"labels\":[\"Jan\",\"Feb\"],\"datasets\":[{\"label\":\"Value\",\"data\":[65,59]}]}", null);
+
+        byte[] first = draw(chart);
+        byte[] second = draw(chart);
+
+        assertArrayEquals(first, second);
+        assertEquals(1, renderer.stats().misses());
+        assertEquals(1, renderer.stats().hits());
+
+        // Edited data hashes differently, so it is drawn again
+        chart.setDataJson("{\"labels\":[\"Jan\",\"Feb\"],\"datasets\":[{\"label\":\"Value\",\"data\":[65,90]}]}");
+        assertFalse(Arrays.equals(first, draw(chart)));
+        assertEquals(2, renderer.stats().misses());
+    }
+
+    @Test
+    void replayedChartsStayValidInTheirOwnDocument() throws Exception {
+        ReportChart chart = chart("pie", "{\"labels\":[\"A\",\"B\"],\"datasets\":[{\"data\":[30,70]}]}", null);
+        draw(chart);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PdfDocument pdf = new PdfDocument(new PdfWriter(out))) {
+            PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+            PdfFormXObject xObject = renderer.render(chart, pdf, font);
+
+            assertEquals(1, renderer.stats().hits());
+            assertSame(font.getPdfObject(), xObject.getResources().getResource(PdfName.Font).get(new PdfName("F1")));
+        }
+    }
+
+    /** Renders into a throwaway document and returns the XObject's content stream. */
+    private byte[] draw(ReportChart chart) throws Exception {
+        try (PdfDocument pdf = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()))) {
+            PdfFormXObject xObject = renderer.render(chart, pdf, PdfFontFactory.createFont(StandardFonts.HELVETICA));
+            return xObject == null ? null : xObject.getPdfObject().getBytes(false);
+        }
+    }
+
+    private static void assertVector(byte[] content, String type) {
+        assertNotNull(content, type);
+        String operators = new String(content, StandardCharsets.ISO_8859_1);
+        assertTrue(operators.contains(" m\n") && (operators.contains(" l\n") || operators.contains(" c\n")),
+                type + " should contain path geometry");
+        assertTrue(operators.contains("\nf\n") || operators.contains("\nS\n"), type + " should paint paths");
+        assertFalse(operators.contains(" Do\n"), type + " should not embed images");
+    }
+
+    private static ReportChart chart(String type, String dataJson, String optionsJson) {
+        ReportChart chart = new ReportChart();
+        chart.setId(UUID.randomUUID());
+        chart.setChartType(type);
+        chart.setTitle(type);
+        chart.setDataJson(dataJson);
+        chart.setOptionsJson(optionsJson);
+        return chart;
+    }
+}
@@ -0,0 +1,146 @@
+package com.paysecure.ai_report_tool_backend.service.invalidation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paysecure.ai_report_tool_backend.config.JacksonConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class InvalidationBusTest {
+
+    private static final int COALESCE_MS = 100;
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final InvalidationHandler handler = mock(InvalidationHandler.class);
+
+    private final InvalidationBus bus = bus(10);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void aBurstOfPublishesLeavesAsOneDeduplicatedMessage() {
+        UUID user = UUID.randomUUID();
+        bus.publish(InvalidationTopic.USER, user);
+        bus.publish(InvalidationTopic.CREDIT_WALLET, user);
+        bus.publish(InvalidationTopic.USER, user);
+
+        assertThat(bus.nextMessage(1_000)).isEmpty(); // still inside the coalescing window
+        InvalidationBus.Message message = bus.nextMessage(1_000 + COALESCE_MS).orElseThrow();
+
+        assertThat(message.flush()).isFalse();
+        assertThat(message.seq()).isEqualTo(1);
+        assertThat(message.events()).containsExactly(
+                new InvalidationEvent(InvalidationTopic.USER, user.toString()),
+                new InvalidationEvent(InvalidationTopic.CREDIT_WALLET, user.toString()));
+        assertThat(bus.nextMessage(5_000)).isEmpty();
+    }
+
+    @Test
+    void eventsWaitForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        bus.publish(InvalidationTopic.REPORT, UUID.randomUUID());
+
+        assertThat(bus.stats().queued()).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(bus.stats().queued()).isEqualTo(1);
+    }
+
+    @Test
+    void oversizedBurstsWidenToWholeTopics() {
+        InvalidationBus big = bus(1_000);
+        for (int i = 0; i < 500; i++) {
+            big.enqueue(new InvalidationEvent(InvalidationTopic.USER, UUID.randomUUID().toString()));
+        }
+        big.enqueue(new InvalidationEvent(InvalidationTopic.REPORT, UUID.randomUUID().toString()));
+
+        assertThat(big.nextMessage(1_000)).isEmpty();
+        InvalidationBus.Message message = big.nextMessage(1_000 + COALESCE_MS).orElseThrow();
+
+        assertThat(message.events()).containsExactly(
+                InvalidationEvent.all(InvalidationTopic.USER), InvalidationEvent.all(InvalidationTopic.REPORT));
+    }
+
+    @Test
+    void aFullOutboxSendsAFlush() {
+        for (int i = 0; i < 11; i++) {
+            bus.enqueue(new InvalidationEvent(InvalidationTopic.USER, UUID.randomUUID().toString()));
+        }
+
+        InvalidationBus.Message message = bus.nextMessage(1_000).orElseThrow();
+
+        assertThat(message.flush()).isTrue();
+        assertThat(bus.stats().queued()).isZero();
+    }
+
+    @Test
+    void receivedEventsAreCoalescedBeforeDelivery() throws Exception {
+        String node = UUID.randomUUID().toString();
+        InvalidationEvent report = new InvalidationEvent(InvalidationTopic.REPORT, UUID.randomUUID().toString());
+
+        bus.receive(payload(node, 1, report), 0);
+        bus.receive(payload(node, 2, report, InvalidationEvent.all(InvalidationTopic.REPORT_TEMPLATE)), 0);
+        bus.deliver();
+
+        verify(handler).invalidate(Set.of(report, InvalidationEvent.all(InvalidationTopic.REPORT_TEMPLATE)));
+        verify(handler, never()).flush();
+    }
+
+    @Test
+    void aSequenceGapFlushesInsteadOfTrustingPartialEvents() throws Exception {
+        String node = UUID.randomUUID().toString();
+        InvalidationEvent user = new InvalidationEvent(InvalidationTopic.USER, UUID.randomUUID().toString());
+
+        bus.receive(payload(node, 1, user), 0);
+        bus.deliver();
+        bus.receive(payload(node, 3, user), 0); // 2 was lost
+        bus.deliver();
+
+        verify(handler, times(1)).invalidate(any());
+        verify(handler).flush();
+        assertThat(bus.stats().gapsDetected()).isEqualTo(1);
+    }
+
+    @Test
+    void ignoresItsOwnMessages() throws Exception {
+        bus.publish(InvalidationTopic.USER, UUID.randomUUID());
+        assertThat(bus.nextMessage(1_000)).isEmpty();
+        InvalidationBus.Message own = bus.nextMessage(1_000 + COALESCE_MS).orElseThrow();
+
+        bus.receive(objectMapper.writeValueAsString(own), 0);
+        bus.deliver();
+
+        verifyNoInteractions(handler);
+    }
+
+    private InvalidationBus bus(int outboxCapacity) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("handler", handler));
+        return new InvalidationBus(
+                new DataSourceProperties(),
+                beans.getBeanProvider(InvalidationHandler.class),
+                objectMapper,
+                true,
+                COALESCE_MS,
+                15_000,
+                outboxCapacity
+        );
+    }
+
+    private String payload(String node, long seq, InvalidationEvent... events) throws Exception {
+        return objectMapper.writeValueAsString(new InvalidationBus.Message(node, seq, false, List.of(events)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import com.paysecure.ai_report_tool_backend.dto.file.ParsedFileData;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvStreamingParserTest {
+
+    private final CsvStreamingParser parser = new CsvStreamingParser();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handlesQuotingLineEndingsAndStatistics() throws Exception {
+        String csv = "\uFEFFname,amount,comment\r\n"
+                + "\"Smith, J\",10,\"said \"\"hi\"\"\"\r\n"
+                + "Doe,20,\"two\nlines\"\r\n"
+                + "\r\n"
+                + "Roe,30,\n";
+
+        ParsedFileData data = parse(csv, 100);
+        Map<String, Object> structured = data.getStructuredData();
+
+        assertThat((List<String>) structured.get("headers")).containsExactly("name", "amount", "comment");
+        assertThat(structured).containsEntry("rowCount", 4).containsEntry("delimiter", ",");
+
+        List<List<String>> rows = (List<List<String>>) structured.get("rows");
+        assertThat(rows.get(1)).containsExactly("Smith, J", "10", "said \"hi\"");
+        assertThat(rows.get(2)).containsExactly("Doe", "20", "two\nlines");
+        assertThat(rows.get(3)).containsExactly("Roe", "30", "");
+
+        Map<String, Map<String, Double>> stats = (Map<String, Map<String, Double>>) structured.get("statistics");
+        assertThat(stats).containsOnlyKeys("amount");
+        assertThat(stats.get("amount"))
+                .containsEntry("sum", 60.0)
+                .containsEntry("average", 20.0)
+                .containsEntry("min", 10.0)
+                .containsEntry("max", 30.0)
+                .containsEntry("variance", 100.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void detectsSemicolonDelimiterAndCapsRetainedRows() throws Exception {
+        StringBuilder csv = new StringBuilder("id;price\n");
+        for (int i = 1; i <= 500; i++) {
+            csv.append(i).append(";\"").append(i).append(",5\"\n");
+        }
+
+        ParsedFileData data = parse(csv.toString(), 10);
+        Map<String, Object> structured = data.getStructuredData();
+
+        assertThat(structured).containsEntry("delimiter", ";").containsEntry("rowCount", 501).containsEntry("rowsTruncated", true);
+        assertThat((List<?>) structured.get("rows")).hasSize(10);
+        assertThat(data.getText()).startsWith("id;price\n1;1,5\n").hasLineCount(10);
+        assertThat(((Map<String, Map<String, Double>>) structured.get("statistics")).get("id"))
+                .containsEntry("count", 500.0)
+                .containsEntry("max", 500.0);
+    }
+
+    private ParsedFileData parse(String csv, int maxRetainedRows) throws Exception {
+        return parser.parse(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), maxRetainedRows);
+    }
+}
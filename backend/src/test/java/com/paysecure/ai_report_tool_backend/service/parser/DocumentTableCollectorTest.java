@@ -0,0 +1,63 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentTableCollectorTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void producesSpreadsheetShapedTablesWithNumericStatistics() throws Exception {
+        List<List<String>> streamed = new ArrayList<>();
+        TableSink sink = new TableSink() {
+            @Override
+            public void beginTable(String name, List<String> headers) {
+                streamed.add(headers);
+            }
+
+            @Override
+            public void row(List<String> cells) {
+                streamed.add(List.copyOf(cells));
+            }
+
+            @Override
+            public void endTable() {}
+        };
+
+        DocumentTableCollector collector = new DocumentTableCollector(sink, 1);
+        collector.add("Table 1", List.of(
+                List.of("Segment", "Amount", "Amount", ""),
+                List.of("Retail", "1,204.50", "(300)", "x"),
+                List.of("Payments", "$88", "12")));
+
+        Map<String, Object> table = collector.tables().get(0);
+        assertThat(table.get("headers")).isEqualTo(List.of("Segment", "Amount", "Amount (2)", "Column 4"));
+        assertThat(table.get("rowCount")).isEqualTo(3);
+        assertThat(table.get("columnCount")).isEqualTo(4);
+        assertThat(table.get("rowsTruncated")).isEqualTo(true);
+        assertThat((List<?>) table.get("rows")).hasSize(2); // header + the one retained row
+
+        Map<String, Map<String, Double>> stats = (Map<String, Map<String, Double>>) table.get("statistics");
+        assertThat(stats.get("Amount").get("sum")).isEqualTo(1292.5);
+        assertThat(stats.get("Amount (2)").get("min")).isEqualTo(-300.0);
+
+        // Every row reaches the column store, padded to the header width
+        assertThat(streamed).containsExactly(
+                List.of("Segment", "Amount", "Amount (2)", "Column 4"),
+                List.of("Retail", "1204.50", "-300", "x"),
+                List.of("Payments", "88", "12", ""));
+    }
+
+    @Test
+    void leavesTextAndPercentagesAlone() {
+        assertThat(DocumentTableCollector.normalize("26.9%")).isEqualTo("26.9%");
+        assertThat(DocumentTableCollector.normalize("Q1 2024")).isEqualTo("Q1 2024");
+        assertThat(DocumentTableCollector.normalize("-1,000")).isEqualTo("-1000");
+        assertThat(DocumentTableCollector.normalize(" 2024 ")).isEqualTo("2024");
+    }
+}
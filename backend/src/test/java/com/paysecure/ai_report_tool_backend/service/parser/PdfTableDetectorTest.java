@@ -0,0 +1,99 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfTableDetectorTest {
+
+    private static final PDFont FONT = PDType1Font.HELVETICA;
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void findsSpaceAlignedColumnsBetweenProse() throws Exception {
+        Path file = tmp.resolve("statement.pdf");
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                text(content, 50, 780, "Quarterly statement for the period ending 31 March, prepared for the board.");
+                text(content, 50, 766, "Figures are unaudited and shown in thousands.");
+
+                row(content, 700, "Segment", "Revenue", "Costs");
+                row(content, 686, "Retail banking", "1,204.50", "(880.10)");
+                row(content, 672, "Payments", "$310", "95");
+                row(content, 658, "Treasury", "88.25", "");
+
+                text(content, 50, 600, "Payments grew fastest, while treasury income was flat against last quarter.");
+            }
+            document.save(file.toFile());
+        }
+
+        PdfTextExtractor.Extraction extraction = new PdfTextExtractor(ForkJoinPool.commonPool(), 16, 0).extract(file);
+
+        assertThat(extraction.tables()).hasSize(1);
+        PdfTableDetector.Table table = extraction.tables().get(0);
+        assertThat(table.page()).isEqualTo(1);
+        assertThat(table.rows()).containsExactly(
+                List.of("Segment", "Revenue", "Costs"),
+                List.of("Retail banking", "1,204.50", "(880.10)"),
+                List.of("Payments", "$310", "95"),
+                List.of("Treasury", "88.25", ""));
+
+        // Recording positions must not change the text itself
+        try (PDDocument document = PDDocument.load(file.toFile())) {
+            assertThat(extraction.text()).isEqualTo(new PDFTextStripper().getText(document));
+        }
+    }
+
+    @Test
+    void proseAloneHasNoTables() throws Exception {
+        Path file = tmp.resolve("letter.pdf");
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                for (int line = 0; line < 10; line++) {
+                    text(content, 50, 780 - line * 14, "Dear shareholder, this year the company made steady progress on line " + line);
+                }
+            }
+            document.save(file.toFile());
+        }
+
+        assertThat(new PdfTextExtractor(ForkJoinPool.commonPool(), 16, 0).extract(file).tables()).isEmpty();
+    }
+
+    // Label left-aligned at 50, figures right-aligned at 330 and 450
+    private static void row(PDPageContentStream content, float y, String label, String first, String second) throws Exception {
+        text(content, 50, y, label);
+        text(content, 330 - width(first), y, first);
+        text(content, 450 - width(second), y, second);
+    }
+
+    private static float width(String text) throws Exception {
+        return FONT.getStringWidth(text) / 1000 * 10;
+    }
+
+    private static void text(PDPageContentStream content, float x, float y, String text) throws Exception {
+        if (text.isEmpty()) return;
+        content.beginText();
+        content.setFont(FONT, 10);
+        content.newLineAtOffset(x, y);
+        content.showText(text);
+        content.endText();
+    }
+}
@@ -0,0 +1,118 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PdfTextExtractorTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @TempDir
+    Path tmp;
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void parallelRangesMergeToTheSameTextAsOnePass() throws Exception {
+        Path file = filing(tmp.resolve("filing.pdf"), 37);
+
+        PdfTextExtractor.Extraction extraction = new PdfTextExtractor(POOL, 4, 0).extract(file);
+
+        String expected;
+        try (PDDocument document = PDDocument.load(file.toFile())) {
+            expected = new PDFTextStripper().getText(document);
+        }
+        assertThat(extraction.pageCount()).isEqualTo(37);
+        assertThat(extraction.text()).isEqualTo(expected);
+        assertThat(extraction.text()).contains("Page 1 line 1", "Page 37 line 40");
+    }
+
+    @Test
+    void shortDocumentsStayOnTheCallingThread() throws Exception {
+        Path file = filing(tmp.resolve("short.pdf"), 3);
+
+        PdfTextExtractor.Extraction extraction = new PdfTextExtractor(POOL, 16, 1 << 20).extract(file);
+
+        assertThat(extraction.pageCount()).isEqualTo(3);
+        assertThat(extraction.text()).contains("Page 3 line 40");
+    }
+
+    /**
+     * Wall time of a single stripper pass vs page-range extraction with one
+     * worker per core, across page counts. Opt-in:
+     * {@code mvn test -Dtest=PdfTextExtractorTest -Dharness=true}
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "harness", matches = "true")
+    void benchmarkAcrossPageCounts() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(Integer.getInteger("harness.parallelism", cores));
+        PdfTextExtractor sequential = new PdfTextExtractor(new ForkJoinPool(1), 16, 0);
+        PdfTextExtractor parallel = new PdfTextExtractor(pool, 16, 0);
+
+        try {
+            for (int pages : new int[]{25, 100, 400}) {
+                Path file = filing(tmp.resolve("bench-" + pages + ".pdf"), pages);
+                sequential.extract(file); // warm-up
+                parallel.extract(file);
+
+                long before = bestOf(3, sequential, file);
+                long after = bestOf(3, parallel, file);
+                System.out.printf("pages=%d cores=%d workers=%d  single pass: %d ms  page ranges: %d ms  (x%.2f)%n",
+                        pages, cores, pool.getParallelism(), before, after, (double) before / after);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static long bestOf(int runs, PdfTextExtractor extractor, Path file) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            extractor.extract(file);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+
+    /** Pages of dense text lines, roughly what a statement page in a filing carries. */
+    private static Path filing(Path file, int pages) throws Exception {
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 1; p <= pages; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 9);
+                    content.setLeading(18);
+                    content.newLineAtOffset(40, 800);
+                    for (int line = 1; line <= 40; line++) {
+                        content.showText("Page " + p + " line " + line
+                                + "  Revenue 1,204.50  Operating costs 880.10  Net 324.40  Margin 26.9%");
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+}
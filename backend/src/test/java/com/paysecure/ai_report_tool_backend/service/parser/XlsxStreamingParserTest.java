@@ -0,0 +1,179 @@
+package com.paysecure.ai_report_tool_backend.service.parser;
+
+import com.paysecure.ai_report_tool_backend.dto.file.ParsedFileData;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxStreamingParserTest {
+
+    @TempDir
+    Path tmp;
+
+    private final XlsxStreamingParser parser = new XlsxStreamingParser();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void parsesSheetsIntoHeadersRowsAndStatistics() throws Exception {
+        Path file = tmp.resolve("sample.xlsx");
+        Date date = new Date(1700000000000L);
+
+        try (XSSFWorkbook wb = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            CellStyle dateStyle = wb.createCellStyle();
+            dateStyle.setDataFormat(wb.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+
+            Sheet sheet = wb.createSheet("Sales");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Region");
+            header.createCell(1).setCellValue("Amount");
+            header.createCell(2).setCellValue("Date");
+            header.createCell(3).setCellValue("Paid");
+
+            Row r1 = sheet.createRow(1);
+            r1.createCell(0).setCellValue("North");
+            r1.createCell(1).setCellValue(10);
+            r1.createCell(2).setCellValue(date);
+            r1.getCell(2).setCellStyle(dateStyle);
+            r1.createCell(3).setCellValue(true);
+
+            Row r2 = sheet.createRow(2);
+            r2.createCell(0).setCellValue("South");
+            r2.createCell(1).setCellValue(2.5);
+
+            // Gap at column 0 is padded instead of shifting cells left
+            Row r3 = sheet.createRow(3);
+            r3.createCell(1).setCellFormula("B2+B3");
+
+            wb.createSheet("Empty");
+            wb.write(out);
+        }
+
+        ParsedFileData data = parser.parse(file, 100);
+
+        assertThat(data.getStructuredData()).containsEntry("sheetCount", 2);
+        List<Map<String, Object>> sheets = (List<Map<String, Object>>) data.getStructuredData().get("sheets");
+        Map<String, Object> sales = sheets.get(0);
+
+        assertThat(sales).containsEntry("name", "Sales").containsEntry("rowCount", 4).containsEntry("columnCount", 4);
+        assertThat((List<String>) sales.get("headers")).containsExactly("Region", "Amount", "Date", "Paid");
+
+        List<List<String>> rows = (List<List<String>>) sales.get("rows");
+        assertThat(rows.get(1)).containsExactly("North", "10", date.toString(), "true");
+        assertThat(rows.get(2)).containsExactly("South", "2.5");
+        assertThat(rows.get(3)).hasSize(2).first().isEqualTo("");
+
+        Map<String, Map<String, Double>> stats = (Map<String, Map<String, Double>>) sales.get("statistics");
+        assertThat(stats).containsOnlyKeys("Amount");
+        assertThat(stats.get("Amount")).containsEntry("min", 2.5).containsEntry("max", 10.0);
+
+        assertThat(data.getText()).startsWith("Region\tAmount\tDate\tPaid\t\n");
+        assertThat(data.getDataSummary()).isEqualTo("Spreadsheet with 2 sheet(s)");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rowsPastBudgetAreCountedButNotRetained() throws Exception {
+        Path file = writeWorkbook(tmp.resolve("big.xlsx"), 1000);
+
+        ParsedFileData data = parser.parse(file, 11);
+
+        Map<String, Object> sheet = ((List<Map<String, Object>>) data.getStructuredData().get("sheets")).get(0);
+        assertThat(sheet).containsEntry("rowCount", 1001).containsEntry("rowsTruncated", true);
+        assertThat((List<?>) sheet.get("rows")).hasSize(11);
+
+        Map<String, Map<String, Double>> stats = (Map<String, Map<String, Double>>) sheet.get("statistics");
+        assertThat(stats.get("amount")).containsEntry("count", 1000.0).containsEntry("max", 999.0);
+    }
+
+    /**
+     * Benchmark harness: XSSFWorkbook DOM load vs the streaming parser.
+     *
+     * <pre>mvn test -Dtest=XlsxStreamingParserTest -Dharness=true [-Dharness.rows=10000,100000,1000000]</pre>
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "harness", matches = "true")
+    void benchmarkAgainstWorkbookModel() throws Exception {
+        String sizes = System.getProperty("harness.rows", "10000,100000,1000000");
+
+        for (int rows : Arrays.stream(sizes.split(",")).mapToInt(Integer::parseInt).toArray()) {
+            Path file = writeWorkbook(tmp.resolve("bench-" + rows + ".xlsx"), rows);
+            long bytes = Files.size(file);
+
+            String dom;
+            try {
+                dom = measure(() -> {
+                    try (XSSFWorkbook wb = new XSSFWorkbook(file.toFile())) {
+                        wb.getSheetAt(0).getLastRowNum();
+                    }
+                });
+            } catch (OutOfMemoryError e) {
+                dom = "OutOfMemoryError";
+            }
+            String streaming = measure(() -> parser.parse(file, 50_000));
+
+            System.out.printf("rows=%,d file=%,dKB  XSSFWorkbook: %s  streaming: %s%n",
+                    rows, bytes / 1024, dom, streaming);
+        }
+    }
+
+    private interface Work {
+        void run() throws Exception;
+    }
+
+    private static String measure(Work work) throws Exception {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getType() == MemoryType.HEAP)
+                .toList();
+
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long baseline = heapPools.stream().mapToLong(p -> p.getUsage().getUsed()).sum();
+
+        long start = System.nanoTime();
+        work.run();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        long peak = heapPools.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+        return String.format("%,dms peakHeap=%,dMB", elapsedMs, (peak - baseline) / (1024 * 1024));
+    }
+
+    private static Path writeWorkbook(Path file, int rows) throws Exception {
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(200); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = wb.createSheet("data");
+            Row header = sheet.createRow(0);
+            String[] names = {"id", "region", "amount", "price", "note"};
+            for (int c = 0; c < names.length; c++) {
+                header.createCell(c).setCellValue(names[c]);
+            }
+
+            for (int i = 0; i < rows; i++) {
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue("ID-" + i);
+                row.createCell(1).setCellValue("region-" + (i % 12));
+                row.createCell(2).setCellValue(i);
+                row.createCell(3).setCellValue(i * 1.25);
+                row.createCell(4).setCellValue("note " + (i % 500));
+            }
+
+            wb.write(out);
+            wb.dispose();
+        }
+        return file;
+    }
+}
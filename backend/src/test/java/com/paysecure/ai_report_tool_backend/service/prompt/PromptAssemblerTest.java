@@ -0,0 +1,103 @@
+package com.paysecure.ai_report_tool_backend.service.prompt;
+
+import com.google.gson.Gson;
+import com.paysecure.ai_report_tool_backend.dto.file.ParsedFileData;
+import com.paysecure.ai_report_tool_backend.model.Report;
+import com.paysecure.ai_report_tool_backend.model.UploadedFile;
+import com.paysecure.ai_report_tool_backend.repository.UploadedFileRepository;
+import com.paysecure.ai_report_tool_backend.service.columnar.ColumnarTableWriter;
+import com.paysecure.ai_report_tool_backend.service.parser.CsvStreamingParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PromptAssemblerTest {
+
+    @TempDir
+    Path tmp;
+
+    private final PromptAssembler assembler =
+            new PromptAssembler(mock(UploadedFileRepository.class), 128000, 4000, 40, 5);
+
+    @Test
+    void summarizesTablesThatExceedTheirShareAndKeepsSmallFilesRaw() throws Exception {
+        UploadedFile orders = orders();
+
+        UploadedFile notes = new UploadedFile();
+        notes.setOriginalFilename("notes.txt");
+        notes.setExtractedText("Q1 targets were met in every region.");
+
+        PromptAssembler.PromptAssembly assembly = assembler.assemble(
+                new Report(), "Compute totals.", "Return JSON.", Map.of("period", "Q1"), List.of(orders, notes), 500);
+
+        assertThat(assembly.budgetTokens()).isEqualTo(4000);
+        assertThat(assembly.estimatedTokens()).isLessThanOrEqualTo(assembly.budgetTokens());
+        assertThat(assembly.files()).extracting(PromptAssembler.FileDecision::strategy)
+                .containsExactly("summary", "raw");
+
+        String prompt = assembly.prompt();
+        assertThat(prompt).startsWith("Compute totals.").endsWith("Return JSON.\n");
+        assertThat(prompt).contains("Table data (20000 rows)")
+                .contains("amount [DOUBLE]: min=0.25, max=499.25")
+                .contains("day [DATE]: from 2024-03-01 to 2024-03-28")
+                .contains("region [3 distinct]: South (12000), North (6000), West (2000)")
+                .contains("Sample rows (stratified by region)")
+                .contains("Q1 targets were met in every region.");
+        // The smallest stratum is still represented in the sample
+        assertThat(prompt).containsPattern("\\d+ \\| West \\|");
+    }
+
+    @Test
+    void dropsTheSampleBeforeTruncatingTheStatistics() throws Exception {
+        // 3 sample rows step straight to none; the statistics alone fit this budget
+        PromptAssembler tight = new PromptAssembler(mock(UploadedFileRepository.class), 128000, 250, 3, 5);
+
+        String prompt = tight.assemble(new Report(), null, null, Map.of(), List.of(orders()), 0).prompt();
+
+        assertThat(prompt).contains("region [3 distinct]")
+                .doesNotContain("Sample rows")
+                .doesNotContain("[truncated]");
+    }
+
+    @Test
+    void truncatesTextThatHasNoColumnStore() {
+        UploadedFile text = new UploadedFile();
+        text.setOriginalFilename("minutes.txt");
+        text.setExtractedText("word ".repeat(20_000));
+
+        PromptAssembler.PromptAssembly assembly = assembler.assemble(
+                new Report(), null, null, Map.of(), List.of(text), 500);
+
+        assertThat(assembly.files().get(0).strategy()).isEqualTo("truncated");
+        assertThat(assembly.prompt()).contains("...[truncated]");
+        assertThat(assembly.estimatedTokens()).isLessThanOrEqualTo(4000);
+    }
+
+    private UploadedFile orders() throws Exception {
+        StringBuilder csv = new StringBuilder("order_id,region,amount,day\n");
+        for (int i = 0; i < 20_000; i++) {
+            String region = i % 10 == 0 ? "West" : (i % 3 == 0 ? "North" : "South");
+            csv.append(i).append(',').append(region).append(',').append(i % 500 + 0.25)
+                    .append(",2024-03-").append(String.format("%02d", i % 28 + 1)).append('\n');
+        }
+        Path columnar = tmp.resolve("orders.csv.cols");
+        ParsedFileData parsed;
+        try (ColumnarTableWriter writer = new ColumnarTableWriter(columnar)) {
+            parsed = new CsvStreamingParser().parse(
+                    new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), 50_000, "data", writer);
+        }
+        UploadedFile orders = new UploadedFile();
+        orders.setOriginalFilename("orders.csv");
+        orders.setExtractedDataJson(new Gson().toJson(parsed.getStructuredData()));
+        orders.setColumnarPath(columnar.toString());
+        return orders;
+    }
+}
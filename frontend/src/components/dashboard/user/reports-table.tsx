@@ -16,22 +16,21 @@ import { reportsApi } from "@/services";
 export function ReportsTable() {
   const navigate = useNavigate();
   const [reports, setReports] = useState<ReportSummary[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     loadReports();
   }, []);
 
-  const loadReports = async () => {
+  // Pages come newest first; each one continues from the previous page's cursor
+  const loadReports = async (cursor?: string) => {
     try {
-      const data = await reportsApi.getAll();
+      const page = await reportsApi.getPage(cursor);
 
-      const sortedReports = data.sort(
-        (a: ReportSummary, b: ReportSummary) =>
-          new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime(),
-      );
-
-      setReports(sortedReports);
+      setReports((prev) => (cursor ? [...prev, ...page.items] : page.items));
+      setNextCursor(page.nextCursor);
     } catch (err) {
       console.error("Failed to load reports:", err);
     } finally {
@@ -39,6 +38,13 @@ export function ReportsTable() {
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    await loadReports(nextCursor);
+    setLoadingMore(false);
+  };
+
   const getStatusBadge = (status: string) => {
     const statusStyles: Record<string, string> = {
       DRAFT: "bg-gray-100 text-gray-700",
@@ -161,6 +167,15 @@ export function ReportsTable() {
           </TableBody>
         </Table>
       </div>
+
+      {nextCursor && (
+        <div className="flex justify-center mt-4">
+          <Button variant="outline" onClick={loadMore} disabled={loadingMore}>
+            {loadingMore && <Loader2 className="h-4 w-4 mr-2 animate-spin" />}
+            Load more
+          </Button>
+        </div>
+      )}
     </>
   );
 }
@@ -336,17 +336,15 @@ const CreateReport: React.FC = () => {
         purpose: formData.purpose,
         tone: formData.tone,
         depth: formData.depth,
-        wizard_data: {
-          ...formData.wizardData,
-          uploadedFileIds: formData.uploadedFiles.map((f) => f.id),
-        },
+        wizard_data: formData.wizardData,
         inputs: formData.inputs,
+        uploaded_file_ids: formData.uploadedFiles.map((f) => f.id),
       });
 
-      // Generate the report with AI
+      // Queue AI generation; progress shows up in My Reports
       await reportsApi.generate(report.id);
 
-      toast.success("Report generated successfully!");
+      toast.success("Report generation started!");
       navigate(`/dashboard/my-reports`, { replace: true });
     } catch (err: any) {
       console.error("Report generation failed:", err);
@@ -619,7 +617,9 @@ const CreateReport: React.FC = () => {
                                 {file.filename}
                               </p>
                               <p className="text-xs text-muted-foreground">
-                                {file.dataSummary} •{" "}
+                                {file.dataSummary ??
+                                  (file.status === "FAILED" ? "Parsing failed" : "Parsing…")}{" "}
+                                •{" "}
                                 {Math.round(file.fileSize / 1024)}KB
                               </p>
                             </div>
@@ -1,7 +1,8 @@
 import type {
   CreateReportPayload,
+  GenerationJob,
+  ReportPage,
   ReportResponse,
-  ReportSummary,
 } from "@/types/report";
 
 import { apiClient } from "./client";
@@ -15,13 +16,19 @@ export const reportsApi = {
   },
 
   generate(reportId: string) {
-    return apiClient<ReportResponse>(`/reports/${reportId}/generate`, {
+    return apiClient<GenerationJob>(`/reports/${reportId}/generate`, {
       method: "POST",
     });
   },
 
-  getAll() {
-    return apiClient<ReportSummary[]>("/reports");
+  getGenerationStatus(reportId: string) {
+    return apiClient<GenerationJob>(`/reports/${reportId}/generation`);
+  },
+
+  getPage(cursor?: string | null, limit = 20) {
+    const params = new URLSearchParams({ limit: String(limit) });
+    if (cursor) params.set("cursor", cursor);
+    return apiClient<ReportPage>(`/reports?${params}`);
   },
 
   getById(reportId: string) {
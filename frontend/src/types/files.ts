@@ -5,5 +5,7 @@ export type FileUploadResponse = {
   fileSize: number
   textPreview?: string
   structuredData?: Record<string, unknown>
-  dataSummary: string
+  dataSummary?: string
+  status: "PARSING" | "PARSED" | "FAILED"
+  parseError?: string
 }
\ No newline at end of file
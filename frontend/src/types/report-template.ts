@@ -76,6 +76,7 @@ export interface ReportTemplateResponse {
   temperature?: number;
   maxTokens?: number;
   active: boolean;
+  responseCacheEnabled?: boolean | null;
 
   inputFields: InputFieldResponse[];
 }
@@ -94,6 +95,7 @@ export interface ReportTemplateRequest {
   temperature?: number;
   maxTokens?: number;
   active?: boolean;
+  responseCacheEnabled?: boolean;
 
   inputFields?: InputFieldRequest[];
 }
@@ -42,6 +42,7 @@ export type CreateReportPayload = {
   depth: string;
   wizard_data?: Record<string, unknown>;
   inputs?: Record<string, string>;
+  uploaded_file_ids?: string[];
 };
 
 export type ChartData = {
@@ -76,6 +77,18 @@ export type ReportResponse = {
   files?: UploadedFileInfo[];
 };
 
+export type GenerationJob = {
+  jobId: string;
+  reportId: string;
+  status: "QUEUED" | "RUNNING" | "COMPLETED" | "FAILED";
+  reportStatus: string;
+  attempts: number;
+  errorMessage?: string;
+  createdAt: string;
+  startedAt?: string;
+  finishedAt?: string;
+};
+
 export type ReportSummary = {
   id: string;
   title: string;
@@ -83,6 +96,11 @@ export type ReportSummary = {
   createdAt: string;
 };
 
+export type ReportPage = {
+  items: ReportSummary[];
+  nextCursor: string | null;
+};
+
 export type ToolSummary = {
   id: string;
   title: string;